@@ -46,6 +46,7 @@ public class CommandLineOptions {
   private String[] disabledRules = new String[0];
   private String[] enabledRules = new String[0];
   private boolean useEnabledOnly = false;
+  private long timeoutMillis = -1;
 
   public boolean isPrintUsage() {
     return printUsage;
@@ -201,6 +202,19 @@ public class CommandLineOptions {
     this.useEnabledOnly = true;
   }
 
+  /**
+   * @return maximum time in milliseconds for checking a file, or {@code -1} for no limit
+   * @since 2.7
+   */
+  public long getTimeoutMillis() {
+    return timeoutMillis;
+  }
+
+  /** @since 2.7 */
+  public void setTimeoutMillis(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+  }
+
   public boolean isXmlFiltering() {
     return xmlFiltering;
   }
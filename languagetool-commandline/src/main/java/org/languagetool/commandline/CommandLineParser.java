@@ -114,6 +114,9 @@ public class CommandLineParser {
         if (options.isTaggerOnly()) {
           throw new IllegalArgumentException("Tagging makes no sense for profiling");
         }
+      } else if (args[i].equals("--timeout")) {
+        checkArguments("--timeout", i, args);
+        options.setTimeoutMillis(Long.parseLong(args[++i]));
       } else if (args[i].equals("--xmlfilter")) {
         options.setXmlFiltering(true);
       } else if (i == args.length - 1) {
@@ -156,6 +159,7 @@ public class CommandLineParser {
             + "  -v, --verbose            print text analysis (sentences, part-of-speech tags) to STDERR\n"
             + "  --version                print LanguageTool version number and exit\n"
             + "  -a, --apply              automatically apply suggestions if available, printing result to STDOUT\n"
+            + "  --timeout MS             stop checking a file after MS milliseconds\n"
             + "  --xmlfilter              remove XML/HTML elements from input before checking (this is deprecated)");
   }
 
@@ -19,6 +19,8 @@
 package org.languagetool.commandline;
 
 import org.apache.tika.language.LanguageIdentifier;
+import org.languagetool.CancellationToken;
+import org.languagetool.CheckCancelledException;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
 import org.languagetool.MultiThreadedJLanguageTool;
@@ -65,6 +67,7 @@ class Main {
   private JLanguageTool srcLt;
   private List<BitextRule> bRules;
   private Rule currentRule;
+  private long timeoutMillis = -1;
 
   Main(final boolean verbose, final boolean taggerOnly,
       final Language language, final Language motherTongue,
@@ -114,6 +117,10 @@ class Main {
     JLanguageTool.removeTemporaryFiles();
   }
   
+  private void setTimeout(final long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+  }
+
   private void setProfilingMode() {
     profileRules = true;
   }
@@ -170,10 +177,19 @@ class Main {
       // instead of a direct file access)
       oneTime = file.length() < MAX_FILE_SIZE || bitextMode;
     }
-    if (oneTime) {
-      runOnFileInOneGo(filename, encoding, listUnknownWords, xmlFiltering);
-    } else {
-      runOnFileLineByLine(filename, encoding, listUnknownWords);
+    final CancellationToken cancellationToken = timeoutMillis >= 0 ? CancellationToken.withTimeout(timeoutMillis) : null;
+    lt.setCancellationToken(cancellationToken);
+    if (srcLt != null) {
+      srcLt.setCancellationToken(cancellationToken);
+    }
+    try {
+      if (oneTime) {
+        runOnFileInOneGo(filename, encoding, listUnknownWords, xmlFiltering);
+      } else {
+        runOnFileLineByLine(filename, encoding, listUnknownWords);
+      }
+    } catch (CheckCancelledException e) {
+      System.err.println("Stopped checking " + filename + ": " + e.getMessage());
     }
   }
 
@@ -518,6 +534,7 @@ class Main {
       System.out.println(languageHint + spellHint);
     }
     prg.setListUnknownWords(options.isListUnknown());
+    prg.setTimeout(options.getTimeoutMillis());
     if (options.isProfile()) {
       prg.setProfilingMode();
     }
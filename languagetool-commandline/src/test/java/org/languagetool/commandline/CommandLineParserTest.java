@@ -70,6 +70,11 @@ public class CommandLineParserTest extends TestCase {
 
     options = parser.parseOptions(new String[]{"--list"});
     assertTrue(options.isPrintLanguages());
+
+    options = parser.parseOptions(new String[]{"filename.txt"});
+    assertEquals(-1, options.getTimeoutMillis());
+    options = parser.parseOptions(new String[]{"--timeout", "500", "filename.txt"});
+    assertEquals(500, options.getTimeoutMillis());
   }
 
 }
@@ -31,10 +31,10 @@ public class AnalyzedSentence {
 
   private final AnalyzedTokenReadings[] tokens;
 
-  private AnalyzedTokenReadings[] nonBlankTokens;
+  private volatile AnalyzedTokenReadings[] nonBlankTokens;
   private volatile Set<String> tokenSet;
   private volatile Set<String> lemmaSet;
-  private int[] whPositions;
+  private volatile int[] whPositions;
 
   /**
    * Creates an AnalyzedSentence from the given {@link AnalyzedTokenReadings}. Whitespace is also a token.
@@ -106,8 +106,9 @@ public class AnalyzedSentence {
         }
         whCounter++;
       }
-      setNonBlankTokens(l.toArray(new AnalyzedTokenReadings[l.size()]));
+      // set last, as other threads (e.g. when sentences are cached) only check nonBlankTokens:
       setWhPositions(mapping.clone());
+      setNonBlankTokens(l.toArray(new AnalyzedTokenReadings[l.size()]));
     }
     return nonBlankTokens.clone();
   }
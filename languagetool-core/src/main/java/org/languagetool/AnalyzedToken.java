@@ -18,17 +18,19 @@
  */
 package org.languagetool;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
 import org.apache.commons.lang.builder.HashCodeBuilder;
+import org.languagetool.tagging.PosTagIds;
 
 /**
  * A word (or punctuation, or whitespace) and its analysis (part-of-speech tag, lemma)
  * 
  * @author Daniel Naber
  */
-public class AnalyzedToken {
+public class AnalyzedToken implements Serializable {
 
   private final String token;
   private final String posTag;
@@ -43,6 +45,9 @@ public class AnalyzedToken {
   
   private boolean hasNoPOSTag;
 
+  // the id of the POS tag plus 2, so 0 means it has not been looked up yet (ids are not the same in other JVMs):
+  private transient int posTagIdPlusTwo;
+
   public AnalyzedToken(final String token, final String posTag, final String lemma) {
     this.token = Objects.requireNonNull(token, "token cannot be null");
     this.posTag = posTag;
@@ -65,6 +70,18 @@ public class AnalyzedToken {
     return posTag;
   }
 
+  /**
+   * The id of the POS tag, as assigned by {@link PosTagIds}.
+   * @return the id, or {@link PosTagIds#NO_ID} if the token has no POS tag or if the tag has no id
+   * @since 2.7
+   */
+  public final int getPOSTagId() {
+    if (posTagIdPlusTwo == 0) {
+      posTagIdPlusTwo = (posTag == null ? PosTagIds.NO_ID : PosTagIds.getId(posTag)) + 2;
+    }
+    return posTagIdPlusTwo - 2;
+  }
+
   /**
    * @return the token's lemma or {@code null}
    */
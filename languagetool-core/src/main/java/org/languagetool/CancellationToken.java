@@ -0,0 +1,90 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+/**
+ * Stops a running check, either on request or when a deadline has passed. Set the token
+ * with {@link JLanguageTool#setCancellationToken(CancellationToken)} before the check and call
+ * {@link #cancel()} from any thread to stop it. The check then throws a {@link CheckCancelledException}.
+ * The check tests the token before each sentence and each rule, so it stops soon, but a single
+ * rule that takes long on a sentence is not interrupted. A token can be used for several checks
+ * and by several {@link JLanguageTool} instances at the same time, e.g. for all checks of a file.
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 2.7
+ */
+public class CancellationToken {
+
+  private final long deadline;  // System.nanoTime() value, only used if hasDeadline is true
+  private final boolean hasDeadline;
+
+  private volatile boolean cancelled;
+
+  /**
+   * Create a token without deadline, so the check only stops when {@link #cancel()} is called.
+   */
+  public CancellationToken() {
+    this.deadline = 0;
+    this.hasDeadline = false;
+  }
+
+  private CancellationToken(long timeoutMillis) {
+    this.deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+    this.hasDeadline = true;
+  }
+
+  /**
+   * Create a token that stops the check when the given time has passed, counted from now,
+   * or when {@link #cancel()} is called before.
+   */
+  public static CancellationToken withTimeout(long timeoutMillis) {
+    if (timeoutMillis < 0) {
+      throw new IllegalArgumentException("timeoutMillis must be >= 0: " + timeoutMillis);
+    }
+    return new CancellationToken(timeoutMillis);
+  }
+
+  /**
+   * Stop the checks that use this token.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Whether {@link #cancel()} has been called or the deadline has passed.
+   */
+  public boolean isCancelled() {
+    return cancelled || (hasDeadline && System.nanoTime() - deadline > 0);
+  }
+
+  /**
+   * @throws CheckCancelledException if {@link #isCancelled()} is true
+   */
+  public void throwIfCancelled() {
+    if (cancelled) {
+      throw new CheckCancelledException("Check has been cancelled");
+    }
+    if (hasDeadline && System.nanoTime() - deadline > 0) {
+      throw new CheckCancelledException("Check has taken longer than its deadline allowed");
+    }
+  }
+
+}
@@ -0,0 +1,234 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.languagetool.rules.Rule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collects how long the phases of checks take, per language, and optionally how much time each
+ * rule uses and how many matches it finds. Use it with {@link JLanguageTool#setCheckMetrics(CheckMetrics)};
+ * one instance can be used by any number of {@link JLanguageTool} instances. Recording
+ * uses striped counters without locks, so it doesn't slow down checks running in parallel.
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 2.7
+ */
+public class CheckMetrics {
+
+  /**
+   * The phases of a check. The durations of the analysis phases are per sentence, except for
+   * {@link #SENTENCE_TOKENIZATION}, which works on a complete text. The other durations are per check.
+   */
+  public enum Phase {
+    /** Splitting a text into sentences. */
+    SENTENCE_TOKENIZATION,
+    /** Splitting a sentence into words. */
+    WORD_TOKENIZATION,
+    /** Part-of-speech tagging of a sentence. */
+    TAGGING,
+    /** Adding chunk tags to a sentence, for languages that have a chunker. */
+    CHUNKING,
+    /** Disambiguation of the part-of-speech tags of a sentence. */
+    DISAMBIGUATION,
+    /** Matching the rules against the sentences of a check, summed up over all sentences and threads. */
+    RULE_MATCHING,
+    /** Writing the result of a check, not recorded by {@link JLanguageTool} but e.g. by a server. */
+    SERIALIZATION,
+    /** A complete check, not recorded by {@link JLanguageTool} but e.g. by a server. */
+    CHECK
+  }
+
+  private static final int RULE_NANOS = 0;
+  private static final int RULE_INVOCATIONS = 1;
+  private static final int RULE_MATCHES = 2;
+
+  private final ConcurrentMap<String, LanguageMetrics> languageMetrics = new ConcurrentHashMap<>();
+  private final boolean ruleMetrics;
+
+  /**
+   * Collect the durations of the phases only.
+   */
+  public CheckMetrics() {
+    this(false);
+  }
+
+  /**
+   * @param ruleMetrics whether to also collect the time used by each rule and its matches. This
+   *   costs two calls of {@link System#nanoTime()} per rule and sentence, and the statistics
+   *   of thousands of rules are usually too many for permanent monitoring, so it's meant
+   *   for finding slow rules.
+   */
+  public CheckMetrics(boolean ruleMetrics) {
+    this.ruleMetrics = ruleMetrics;
+  }
+
+  /**
+   * Whether the time used by each rule is collected, see {@link #CheckMetrics(boolean)}.
+   */
+  public boolean isRuleMetrics() {
+    return ruleMetrics;
+  }
+
+  /**
+   * Get the metrics of one language, for recording without looking up the language each time.
+   */
+  public LanguageMetrics forLanguage(Language language) {
+    final String languageCode = language.getShortNameWithCountryAndVariant();
+    final LanguageMetrics metrics = languageMetrics.get(languageCode);
+    if (metrics != null) {
+      return metrics;
+    }
+    final LanguageMetrics newMetrics = new LanguageMetrics();
+    final LanguageMetrics existingMetrics = languageMetrics.putIfAbsent(languageCode, newMetrics);
+    return existingMetrics != null ? existingMetrics : newMetrics;
+  }
+
+  /**
+   * Add the duration of a phase.
+   */
+  public void recordPhase(Language language, Phase phase, long nanos) {
+    forLanguage(language).recordPhase(phase, nanos);
+  }
+
+  /**
+   * Get the durations of the phases, with the code of the language (see {@link Language#getShortNameWithCountryAndVariant()})
+   * as key, sorted by language code. Only languages that have been checked are included.
+   */
+  public Map<String, Map<Phase, LatencyHistogram>> getPhaseHistograms() {
+    final Map<String, Map<Phase, LatencyHistogram>> result = new TreeMap<>();
+    for (Map.Entry<String, LanguageMetrics> entry : languageMetrics.entrySet()) {
+      result.put(entry.getKey(), Collections.unmodifiableMap(entry.getValue().phaseHistograms));
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * Get the statistics of each rule that has been used, sorted by language code and rule id.
+   * Empty unless {@link #isRuleMetrics()}.
+   */
+  public List<RuleStatistics> getRuleStatistics() {
+    final List<RuleStatistics> result = new ArrayList<>();
+    for (Map.Entry<String, LanguageMetrics> languageEntry : new TreeMap<>(languageMetrics).entrySet()) {
+      for (Map.Entry<String, StripedCounters> entry : new TreeMap<>(languageEntry.getValue().ruleCounters).entrySet()) {
+        final StripedCounters counters = entry.getValue();
+        result.add(new RuleStatistics(languageEntry.getKey(), entry.getKey(),
+                counters.get(RULE_NANOS), counters.get(RULE_INVOCATIONS), counters.get(RULE_MATCHES)));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The metrics of one language. Thread-safe.
+   */
+  public static class LanguageMetrics {
+
+    private final Map<Phase, LatencyHistogram> phaseHistograms = new EnumMap<>(Phase.class);
+    private final ConcurrentMap<String, StripedCounters> ruleCounters = new ConcurrentHashMap<>();
+
+    private LanguageMetrics() {
+      // all histograms are created up front, so the map doesn't change later:
+      for (Phase phase : Phase.values()) {
+        phaseHistograms.put(phase, new LatencyHistogram());
+      }
+    }
+
+    /**
+     * Add the duration of a phase.
+     */
+    public void recordPhase(Phase phase, long nanos) {
+      phaseHistograms.get(phase).record(nanos);
+    }
+
+    /**
+     * Add the time that a rule has used to check a sentence, and the number of matches it found.
+     */
+    public void recordRule(Rule rule, long nanos, int matchCount) {
+      StripedCounters counters = ruleCounters.get(rule.getId());
+      if (counters == null) {
+        // not padded, as there are many rules and each one is used less often than the histograms:
+        final StripedCounters newCounters = new StripedCounters(3, false);
+        counters = ruleCounters.putIfAbsent(rule.getId(), newCounters);
+        if (counters == null) {
+          counters = newCounters;
+        }
+      }
+      counters.add(RULE_NANOS, nanos);
+      counters.add(RULE_INVOCATIONS, 1);
+      counters.add(RULE_MATCHES, matchCount);
+    }
+  }
+
+  /**
+   * The time a rule has used and the matches it has found, summed up over all checks.
+   */
+  public static class RuleStatistics {
+
+    private final String languageCode;
+    private final String ruleId;
+    private final long nanos;
+    private final long invocations;
+    private final long matches;
+
+    RuleStatistics(String languageCode, String ruleId, long nanos, long invocations, long matches) {
+      this.languageCode = languageCode;
+      this.ruleId = ruleId;
+      this.nanos = nanos;
+      this.invocations = invocations;
+      this.matches = matches;
+    }
+
+    public String getLanguageCode() {
+      return languageCode;
+    }
+
+    public String getRuleId() {
+      return ruleId;
+    }
+
+    public long getNanos() {
+      return nanos;
+    }
+
+    /** The number of sentences the rule has checked. */
+    public long getInvocations() {
+      return invocations;
+    }
+
+    public long getMatches() {
+      return matches;
+    }
+
+    @Override
+    public String toString() {
+      return languageCode + "/" + ruleId + ": " + nanos + "ns, " + invocations + " invocations, " + matches + " matches";
+    }
+  }
+
+}
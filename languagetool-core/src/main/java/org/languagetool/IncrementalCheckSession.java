@@ -0,0 +1,288 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Checks a text that gets edited, e.g. in an editor, doing only the work needed after each edit:
+ * only the sentences around the edit are split and analyzed again, and rules that check
+ * each sentence on its own (see {@link Rule#isSentenceIndependent()}) only check these sentences.
+ * The matches in the other sentences are kept, with their positions moved. Other rules may work
+ * across sentences, so they check the paragraphs with the edited sentences again, starting with the
+ * last two sentences before the paragraph so they know their context. The matches are the same as those
+ * of {@link JLanguageTool#check(String)} with the complete text, only matches at the same position may be
+ * in a different order - unless a rule depends on more than the two previous sentences, e.g. a rule
+ * that finds unpaired brackets across paragraphs, as it only sees these two sentences of the text before.
+ *
+ * <p>Create a new session when the configuration of the {@link JLanguageTool} changes,
+ * e.g. when a rule gets enabled or disabled, and after a check has been stopped with a
+ * {@link CancellationToken}. Like {@link JLanguageTool}, this class is not thread-safe.
+ *
+ * @since 2.7
+ */
+public class IncrementalCheckSession {
+
+  // the number of sentences the rules that work across sentences check before a paragraph, without using their matches:
+  private static final int CONTEXT_SENTENCES = 2;
+
+  private final JLanguageTool languageTool;
+  private final List<Rule> textRules = new ArrayList<>();
+  private final RuleIndex sentenceRuleIndex;
+  private final RuleIndex textRuleIndex;
+  private final boolean singleLineBreaksMarksPara;
+  private final List<String> sentences = new ArrayList<>();
+  private final List<AnalyzedSentence> analyzedSentences = new ArrayList<>();
+  // the matches of the sentence rules, with positions relative to the sentence:
+  private final List<List<RuleMatch>> sentenceMatches = new ArrayList<>();
+  // the matches of the other rules in each sentence, with positions relative to the sentence:
+  private final List<List<RuleMatch>> textRuleMatches = new ArrayList<>();
+  // the character count, line count and column count at the start of each sentence:
+  private final List<int[]> sentencePositions = new ArrayList<>();
+
+  private String text = "";
+  private List<RuleMatch> matches;
+
+  /**
+   * Checks the initial text.
+   */
+  public IncrementalCheckSession(JLanguageTool languageTool, String text) throws IOException {
+    this.languageTool = Objects.requireNonNull(languageTool);
+    final List<Rule> sentenceRules = new ArrayList<>();
+    for (Rule rule : languageTool.getAllRules()) {
+      if (rule.isSentenceIndependent()) {
+        sentenceRules.add(rule);
+      } else {
+        textRules.add(rule);
+      }
+    }
+    sentenceRuleIndex = new RuleIndex(sentenceRules);
+    textRuleIndex = new RuleIndex(textRules);
+    singleLineBreaksMarksPara = languageTool.getLanguage().getSentenceTokenizer().singleLineBreaksMarksPara();
+    update(text);
+  }
+
+  /**
+   * Apply an edit to the text and re-check it.
+   * @param offset the position of the edit
+   * @param removedLength the number of characters removed at {@code offset}
+   * @param insertedText the text inserted at {@code offset}
+   * @return all matches in the edited text, sorted by position
+   */
+  public List<RuleMatch> edit(int offset, int removedLength, String insertedText) throws IOException {
+    if (offset < 0 || removedLength < 0 || offset + removedLength > text.length()) {
+      throw new IllegalArgumentException("Invalid edit for text of length " + text.length()
+              + ": offset " + offset + ", removed length " + removedLength);
+    }
+    if (removedLength == 0 && insertedText.isEmpty() && matches != null) {
+      return matches;
+    }
+    languageTool.resetRuleMatchingTime();
+    text = text.substring(0, offset) + insertedText + text.substring(offset + removedLength);
+    // the sentences next to the edit are split again, as their boundaries might change:
+    int firstSentence = Math.max(0, getSentenceIndex(offset) - 1);
+    int lastSentence = Math.min(sentences.size() - 1, getSentenceIndex(offset + removedLength) + 1);
+    while (true) {
+      final int regionStart = firstSentence < sentences.size() ? sentencePositions.get(firstSentence)[0] : 0;
+      final int regionEnd = lastSentence >= 0 ? sentencePositions.get(lastSentence)[0] + sentences.get(lastSentence).length() : 0;
+      final String region = text.substring(regionStart, regionEnd + insertedText.length() - removedLength);
+      final List<String> newSentences = languageTool.sentenceTokenize(region);
+      // the sentence splitting also depends on the context, e.g. an abbreviation at the start of
+      // the region might look like a sentence end, so extend the region until its borders are stable:
+      boolean extended = false;
+      if (firstSentence > 0 && (newSentences.isEmpty() || !newSentences.get(0).equals(sentences.get(firstSentence)))) {
+        firstSentence--;
+        extended = true;
+      }
+      if (lastSentence < sentences.size() - 1
+              && (newSentences.isEmpty() || !newSentences.get(newSentences.size() - 1).equals(sentences.get(lastSentence)))) {
+        lastSentence++;
+        extended = true;
+      }
+      if (!extended) {
+        replaceSentences(firstSentence, lastSentence + 1, newSentences);
+        // the sentences after the new ones are checked again, too, as their context has changed:
+        checkParagraphs(firstSentence, firstSentence + newSentences.size() + CONTEXT_SENTENCES);
+        break;
+      }
+    }
+    matches = collectMatches();
+    languageTool.recordRuleMatchingTime();
+    return matches;
+  }
+
+  /**
+   * Re-check the text after it has been changed in any way. Only the part between the
+   * unchanged start and the unchanged end of the text is considered as edited.
+   * @return all matches in the new text, sorted by position
+   */
+  public List<RuleMatch> update(String newText) throws IOException {
+    final int maxCommonLength = Math.min(text.length(), newText.length());
+    int prefix = 0;
+    while (prefix < maxCommonLength && text.charAt(prefix) == newText.charAt(prefix)) {
+      prefix++;
+    }
+    int suffix = 0;
+    while (suffix < maxCommonLength - prefix
+            && text.charAt(text.length() - suffix - 1) == newText.charAt(newText.length() - suffix - 1)) {
+      suffix++;
+    }
+    return edit(prefix, text.length() - prefix - suffix, newText.substring(prefix, newText.length() - suffix));
+  }
+
+  /**
+   * The current text, with all edits applied.
+   */
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * The instance used for checking.
+   */
+  public JLanguageTool getLanguageTool() {
+    return languageTool;
+  }
+
+  /**
+   * The matches in the current text, sorted by position.
+   */
+  public List<RuleMatch> getMatches() {
+    return matches;
+  }
+
+  // the sentence that contains the character at the given position, or the last sentence at the end of the text:
+  private int getSentenceIndex(int pos) {
+    int low = 0;
+    int high = sentences.size() - 1;
+    while (low < high) {
+      final int middle = (low + high + 1) / 2;
+      if (sentencePositions.get(middle)[0] <= pos) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return sentences.isEmpty() ? -1 : low;
+  }
+
+  private void replaceSentences(int from, int to, List<String> newSentences) throws IOException {
+    sentences.subList(from, to).clear();
+    sentences.addAll(from, newSentences);
+    analyzedSentences.subList(from, to).clear();
+    sentenceMatches.subList(from, to).clear();
+    textRuleMatches.subList(from, to).clear();
+    for (int i = from; i < from + newSentences.size(); i++) {
+      final String sentence = sentences.get(i);
+      AnalyzedSentence analyzedSentence = languageTool.getAnalyzedSentence(sentence);
+      if (i == sentences.size() - 1) {
+        analyzedSentence = JLanguageTool.withParagraphEnd(analyzedSentence);
+      }
+      analyzedSentences.add(i, analyzedSentence);
+      sentenceMatches.add(i, languageTool.checkAnalyzedSentence(JLanguageTool.ParagraphHandling.NORMAL,
+              sentenceRuleIndex, 0, 0, 1, sentence, analyzedSentence, null, null));
+      textRuleMatches.add(i, Collections.<RuleMatch>emptyList());
+    }
+  }
+
+  // check the paragraphs with the given sentences again with the rules that work across sentences:
+  private void checkParagraphs(int fromSentence, int toSentence) throws IOException {
+    toSentence = Math.min(toSentence, sentences.size());
+    if (fromSentence >= toSentence) {
+      return;
+    }
+    int paragraphStart = fromSentence;
+    while (!startsParagraph(paragraphStart)) {
+      paragraphStart--;
+    }
+    int paragraphEnd = toSentence;
+    while (paragraphEnd < sentences.size() && !startsParagraph(paragraphEnd)) {
+      paragraphEnd++;
+    }
+    for (Rule rule : textRules) {
+      rule.reset();
+    }
+    for (int i = Math.max(0, paragraphStart - CONTEXT_SENTENCES); i < paragraphEnd; i++) {
+      final List<RuleMatch> matches = languageTool.checkAnalyzedSentence(JLanguageTool.ParagraphHandling.NORMAL,
+              textRuleIndex, 0, 0, 1, sentences.get(i), analyzedSentences.get(i), null, null);
+      if (i >= paragraphStart) {
+        textRuleMatches.set(i, matches);
+      }
+    }
+    // removing false positives in paragraph-level rules, like JLanguageTool.checkAnalyzedSentences() does:
+    for (int i = paragraphStart; i < paragraphEnd; i++) {
+      final Iterator<RuleMatch> iterator = textRuleMatches.get(i).iterator();
+      while (iterator.hasNext()) {
+        final RuleMatch match = iterator.next();
+        if (match.getRule().isParagraphBackTrack() && match.getRule().isInRemoved(match)) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  // paragraphs are separated by an empty line, or by each line break if the tokenizer says so, like in
+  // ParagraphChunker - depending on the tokenizer, the line breaks end a sentence or start the next one:
+  private boolean startsParagraph(int sentenceIndex) {
+    if (sentenceIndex == 0) {
+      return true;
+    }
+    final String previousSentence = sentences.get(sentenceIndex - 1);
+    final String sentence = sentences.get(sentenceIndex);
+    int lineBreaks = 0;
+    for (int i = previousSentence.length() - 1; i >= 0 && Character.isWhitespace(previousSentence.charAt(i)); i--) {
+      if (previousSentence.charAt(i) == '\n') {
+        lineBreaks++;
+      }
+    }
+    for (int i = 0; i < sentence.length() && Character.isWhitespace(sentence.charAt(i)); i++) {
+      if (sentence.charAt(i) == '\n') {
+        lineBreaks++;
+      }
+    }
+    return lineBreaks >= 2 || (lineBreaks == 1 && singleLineBreaksMarksPara);
+  }
+
+  private List<RuleMatch> collectMatches() {
+    final List<RuleMatch> result = new ArrayList<>();
+    sentencePositions.clear();
+    int[] position = {0, 0, 1};
+    for (int i = 0; i < sentences.size(); i++) {
+      sentencePositions.add(position);
+      for (RuleMatch match : sentenceMatches.get(i)) {
+        result.add(JLanguageTool.moveRuleMatch(match, position[0], position[1], position[2]));
+      }
+      for (RuleMatch match : textRuleMatches.get(i)) {
+        result.add(JLanguageTool.moveRuleMatch(match, position[0], position[1], position[2]));
+      }
+      position = languageTool.getPositionAfter(sentences.get(i), position);
+    }
+    Collections.sort(result);
+    return Collections.unmodifiableList(result);
+  }
+
+}
@@ -28,6 +28,7 @@ import org.languagetool.rules.*;
 import org.languagetool.rules.patterns.FalseFriendRuleLoader;
 import org.languagetool.rules.patterns.PatternRule;
 import org.languagetool.rules.patterns.PatternRuleLoader;
+import org.languagetool.rules.patterns.PatternRuleRegistry;
 import org.languagetool.rules.spelling.SpellingCheckRule;
 import org.languagetool.rules.spelling.SuggestionExtractor;
 import org.languagetool.tagging.Tagger;
@@ -40,10 +41,16 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.io.Reader;
 import java.net.JarURLConnection;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.jar.Manifest;
 
 /**
@@ -113,11 +120,17 @@ public class JLanguageTool {
   
   private static ResourceDataBroker dataBroker = new DefaultResourceDataBroker();
 
+  // more than one index is needed e.g. when the rules are split into chunks by MultiThreadedJLanguageTool:
+  private static final int MAX_RULE_INDEXES = 32;
+  // longer paragraphs are split when checking a text from a Reader:
+  private static final int MAX_STREAM_CHUNK_SIZE = 64000;
+
   private final List<Rule> builtinRules;
   private final List<Rule> userRules = new ArrayList<>(); // rules added via addRule() method
   private final Set<String> disabledRules = new HashSet<>();
   private final Set<String> enabledRules = new HashSet<>();
   private final Set<String> disabledCategories = new HashSet<>();
+  private final List<RuleIndex> ruleIndexes = new CopyOnWriteArrayList<>();
 
   private Language language;
   private Language motherTongue;
@@ -133,6 +146,18 @@ public class JLanguageTool {
 
   private boolean listUnknownWords;
   private Set<String> unknownWords;  
+  // false only while check(Reader, ...) checks a chunk that ends inside a paragraph:
+  private boolean textEndsParagraph = true;
+
+  private ExecutorService analysisExecutor;
+  private SentenceMatchCache sentenceMatchCache;
+  private volatile CancellationToken cancellationToken;
+  private CheckMetrics checkMetrics;
+  private CheckMetrics.LanguageMetrics languageMetrics;
+  // only set if the time of each rule is recorded:
+  private CheckMetrics.LanguageMetrics ruleMetrics;
+  // the time used for rule matching in the current check, added up by all threads:
+  private final AtomicLong ruleMatchingNanos = new AtomicLong();
 
   /**
    * Constants for correct paragraph-rule handling:
@@ -236,6 +261,97 @@ public class JLanguageTool {
     this.listUnknownWords = listUnknownWords;
   }
 
+  /**
+   * Analyze the sentences of a text in parallel (tokenizing, tagging, chunking and
+   * disambiguation), using the given executor, e.g. a {@link java.util.concurrent.ForkJoinPool}.
+   * The result is the same as without an executor. The executor is not shut down by this class,
+   * so it can be shared by several instances.
+   * @param analysisExecutor the executor, or {@code null} to analyze one sentence after the other
+   *                         in the calling thread (the default)
+   * @since 2.7
+   */
+  public void setAnalysisExecutor(final ExecutorService analysisExecutor) {
+    this.analysisExecutor = analysisExecutor;
+  }
+
+  /**
+   * @see #setAnalysisExecutor(ExecutorService)
+   * @since 2.7
+   */
+  public ExecutorService getAnalysisExecutor() {
+    return analysisExecutor;
+  }
+
+  /**
+   * Re-use the analysis of sentences and the matches of the rules that check each sentence on its own
+   * from the given cache, so that sentences that have been checked before (also by other instances
+   * that use the same cache) don't need to be analyzed and checked again. The result of a check is
+   * the same as without a cache. The cache is only used by the check methods that check a text with
+   * all kinds of rules, i.e. with {@link ParagraphHandling#NORMAL}.
+   * @param sentenceMatchCache the cache, or {@code null} to not use a cache (the default)
+   * @since 2.7
+   */
+  public void setSentenceMatchCache(final SentenceMatchCache sentenceMatchCache) {
+    this.sentenceMatchCache = sentenceMatchCache;
+  }
+
+  /**
+   * @see #setSentenceMatchCache(SentenceMatchCache)
+   * @since 2.7
+   */
+  public SentenceMatchCache getSentenceMatchCache() {
+    return sentenceMatchCache;
+  }
+
+  /**
+   * Record the duration of the phases of each check and the time used by each rule in the given metrics.
+   * This takes a little time for each rule and sentence, so only use it if you need the metrics.
+   * @param checkMetrics the metrics, or {@code null} to not record anything (the default)
+   * @since 2.7
+   */
+  public void setCheckMetrics(final CheckMetrics checkMetrics) {
+    this.checkMetrics = checkMetrics;
+    this.languageMetrics = checkMetrics != null ? checkMetrics.forLanguage(language) : null;
+    this.ruleMetrics = checkMetrics != null && checkMetrics.isRuleMetrics() ? languageMetrics : null;
+  }
+
+  /**
+   * @see #setCheckMetrics(CheckMetrics)
+   * @since 2.7
+   */
+  public CheckMetrics getCheckMetrics() {
+    return checkMetrics;
+  }
+
+  /**
+   * Stop the checks of this instance when the given token gets cancelled or its deadline passes.
+   * The check methods then throw a {@link CheckCancelledException}.
+   * @param cancellationToken the token, or {@code null} to always finish checks (the default)
+   * @since 2.7
+   */
+  public void setCancellationToken(final CancellationToken cancellationToken) {
+    this.cancellationToken = cancellationToken;
+  }
+
+  /**
+   * @see #setCancellationToken(CancellationToken)
+   * @since 2.7
+   */
+  public CancellationToken getCancellationToken() {
+    return cancellationToken;
+  }
+
+  /**
+   * @throws CheckCancelledException if the check has been cancelled with the token
+   *   set by {@link #setCancellationToken(CancellationToken)}
+   */
+  private void throwIfCancelled() {
+    final CancellationToken token = cancellationToken;
+    if (token != null) {
+      token.throwIfCancelled();
+    }
+  }
+
   /**
    * Gets the ResourceBundle (i18n strings) for the default language of the user's system.
    */
@@ -310,37 +426,27 @@ public class JLanguageTool {
 
   /**
    * Loads and activates the pattern rules from
-   * {@code org/languagetool/rules/<languageCode>/grammar.xml}.
+   * {@code org/languagetool/rules/<languageCode>/grammar.xml}. The rules are shared
+   * with other instances for the same language, see {@link PatternRuleRegistry}.
    */
   public void activateDefaultPatternRules() throws IOException {
-    final List<PatternRule> patternRules = new ArrayList<>();
-    final List<String> enabledRules = language.getDefaultEnabledRulesForVariant();
-    final List<String> disabledRules = language.getDefaultDisabledRulesForVariant();
     for (String patternRuleFileName : language.getRuleFileNames()) {
-      patternRules.addAll(loadPatternRules(patternRuleFileName));
+      userRules.addAll(PatternRuleRegistry.getPatternRules(patternRuleFileName, language));
     }
-    if (!enabledRules.isEmpty() || !disabledRules.isEmpty()) {
-      for (PatternRule patternRule : patternRules) {
-        if (enabledRules.contains(patternRule.getId())) {
-          patternRule.setDefaultOn();
-        }
-        if (disabledRules.contains(patternRule.getId())) {
-          patternRule.setDefaultOff();
-        }
-      }
-    }
-    userRules.addAll(patternRules);
   }
 
   /**
    * Loads and activates the false friend rules from
-   * <code>rules/false-friends.xml</code>.
+   * <code>rules/false-friends.xml</code>. The rules are shared
+   * with other instances for the same languages, see {@link PatternRuleRegistry}.
    */
   public void activateDefaultFalseFriendRules()
       throws ParserConfigurationException, SAXException, IOException {
+    if (motherTongue == null) {
+      return;
+    }
     final String falseFriendRulesFilename = JLanguageTool.getDataBroker().getRulesDir() + "/" + FALSE_FRIEND_FILE;
-    final List<PatternRule> patternRules = loadFalseFriendRules(falseFriendRulesFilename);
-    userRules.addAll(patternRules);
+    userRules.addAll(PatternRuleRegistry.getFalseFriendRules(falseFriendRulesFilename, language, motherTongue));
   }
 
   /**
@@ -466,7 +572,13 @@ public class JLanguageTool {
    * Tokenizes the given text into sentences.
    */
   public List<String> sentenceTokenize(final String text) {
-    return sentenceTokenizer.tokenize(text);
+    final CheckMetrics.LanguageMetrics metrics = languageMetrics;
+    final long startTime = metrics != null ? System.nanoTime() : 0;
+    final List<String> sentences = sentenceTokenizer.tokenize(text);
+    if (metrics != null) {
+      metrics.recordPhase(CheckMetrics.Phase.SENTENCE_TOKENIZATION, System.nanoTime() - startTime);
+    }
+    return sentences;
   }
 
   /**
@@ -521,8 +633,198 @@ public class JLanguageTool {
 
     sentenceCount = sentences.size();
     unknownWords = new HashSet<>();
+    resetRuleMatchingTime();
+    final List<RuleMatch> ruleMatches = checkSentences(sentences, allRules, paraMode, annotatedText);
+    recordRuleMatchingTime();
+    return ruleMatches;
+  }
+
+  /**
+   * Checks a text of any size, e.g. a large file, without keeping the complete text in memory:
+   * the text is read and checked paragraph by paragraph, and the matches of each paragraph are
+   * passed to the listener as soon as the paragraph has been checked. Like with {@link #check(String)},
+   * rules that work across sentences keep their state from one paragraph to the next. Paragraphs
+   * longer than 64,000 characters are checked in several parts, at the end of a line or at whitespace,
+   * so a sentence may be split there. Their matches are passed to the listener once the complete
+   * paragraph has been checked, as paragraph-level rules may still remove matches of earlier parts.
+   * The positions of the matches refer to the complete text. {@link #getSentenceCount()}
+   * and {@link #getUnknownWords()} also refer to the complete text afterwards.
+   * @param reader the text - it is not closed by this method
+   * @param listener gets the matches, in the order of their position in the text
+   * @since 2.7
+   */
+  public void check(final Reader reader, final RuleMatchListener listener) throws IOException {
+    check(reader, listener, MAX_STREAM_CHUNK_SIZE);
+  }
+
+  void check(final Reader reader, final RuleMatchListener listener, final int maxChunkSize) throws IOException {
+    final List<Rule> allRules = getAllRules();
+    printIfVerbose(allRules.size() + " rules activated for language " + language);
+    sentenceCount = 0;
+    unknownWords = new HashSet<>();
+    final ParagraphChunker chunker = new ParagraphChunker(reader,
+            language.getSentenceTokenizer().singleLineBreaksMarksPara(), maxChunkSize);
+    // the matches of the current paragraph, which may consist of several chunks - moved matches by original match:
+    final Map<RuleMatch, RuleMatch> paragraphMatches = new LinkedHashMap<>();
+    int charCount = 0;
+    int lineCount = 0;
+    String chunk;
+    resetRuleMatchingTime();
+    try {
+      while ((chunk = chunker.next()) != null) {
+        throwIfCancelled();
+        final List<String> sentences = sentenceTokenize(chunk);
+        sentenceCount += sentences.size();
+        textEndsParagraph = chunker.endsParagraph();
+        for (RuleMatch match : checkSentences(sentences, allRules, ParagraphHandling.NORMAL, null)) {
+          // a chunk always starts at the beginning of a line:
+          paragraphMatches.put(match, moveRuleMatch(match, charCount, lineCount, 1));
+        }
+        if (chunker.endsParagraph()) {
+          reportParagraphMatches(paragraphMatches, allRules, listener);
+        }
+        charCount += chunk.length();
+        lineCount += countLineBreaks(chunk);
+      }
+      recordRuleMatchingTime();
+    } finally {
+      textEndsParagraph = true;
+    }
+  }
+
+  /**
+   * Start adding up the time used for rule matching, for recording it once per check.
+   */
+  void resetRuleMatchingTime() {
+    ruleMatchingNanos.set(0);
+  }
+
+  /**
+   * Record the time used for rule matching since {@link #resetRuleMatchingTime()}.
+   */
+  void recordRuleMatchingTime() {
+    final CheckMetrics.LanguageMetrics metrics = languageMetrics;
+    if (metrics != null) {
+      metrics.recordPhase(CheckMetrics.Phase.RULE_MATCHING, ruleMatchingNanos.getAndSet(0));
+    }
+  }
+
+  private void reportParagraphMatches(final Map<RuleMatch, RuleMatch> paragraphMatches, final List<Rule> allRules,
+                                      final RuleMatchListener listener) {
+    final List<RuleMatch> matches = new ArrayList<>(paragraphMatches.size());
+    for (Map.Entry<RuleMatch, RuleMatch> entry : paragraphMatches.entrySet()) {
+      // paragraph-level rules may have removed a match of an earlier chunk of the paragraph:
+      if (!entry.getKey().getRule().isInRemoved(entry.getKey())) {
+        matches.add(entry.getValue());
+      }
+    }
+    paragraphMatches.clear();
+    // the paragraph is complete, so the rules don't need to remember its matches anymore:
+    for (Rule rule : allRules) {
+      if (rule.isParagraphBackTrack()) {
+        rule.reset();
+      }
+    }
+    Collections.sort(matches);
+    for (RuleMatch match : matches) {
+      listener.matchFound(match);
+    }
+  }
+
+  private List<RuleMatch> checkSentences(final List<String> sentences, final List<Rule> allRules,
+                                         final ParagraphHandling paraMode, final AnnotatedText annotatedText) throws IOException {
+    if (sentenceMatchCache != null && paraMode == ParagraphHandling.NORMAL) {
+      return checkSentencesWithCache(sentences, allRules, annotatedText);
+    }
     final List<AnalyzedSentence> analyzedSentences = analyzeSentences(sentences);
-    
+    return checkAnalyzedSentences(analyzedSentences, sentences, allRules, paraMode, annotatedText);
+  }
+
+  private List<RuleMatch> checkSentencesWithCache(final List<String> sentences, final List<Rule> allRules,
+                                                  final AnnotatedText annotatedText) throws IOException {
+    final List<Rule> sentenceRules = new ArrayList<>();
+    final List<Rule> textRules = new ArrayList<>();
+    for (Rule rule : allRules) {
+      if (isCachedSentenceRule(rule)) {
+        sentenceRules.add(rule);
+      } else {
+        textRules.add(rule);
+      }
+    }
+    final RuleIndex sentenceRuleIndex = getRuleIndex(sentenceRules);
+    final SentenceMatchCache.RuleConfiguration ruleConfiguration = getRuleConfiguration(sentenceRules);
+    final List<AnalyzedSentence> analyzedSentences = new ArrayList<>(sentences.size());
+    final List<RuleMatch> ruleMatches = new ArrayList<>();
+    int[] position = {0, 0, 1};
+    for (int i = 0; i < sentences.size(); i++) {
+      throwIfCancelled();
+      final String sentence = sentences.get(i);
+      final boolean paragraphEnd = textEndsParagraph && i == sentences.size() - 1;
+      final SentenceMatchCache.Entry entry = sentenceMatchCache.get(new SentenceMatchCache.Key(ruleConfiguration, sentence, paragraphEnd),
+          new Callable<SentenceMatchCache.Entry>() {
+            @Override
+            public SentenceMatchCache.Entry call() throws Exception {
+              AnalyzedSentence analyzedSentence = getAnalyzedSentence(sentence);
+              if (paragraphEnd) {
+                analyzedSentence = withParagraphEnd(analyzedSentence);
+              }
+              // positions relative to the sentence, as it may occur anywhere in other texts:
+              final List<RuleMatch> matches = checkAnalyzedSentence(ParagraphHandling.NORMAL, sentenceRuleIndex,
+                      0, 0, 1, sentence, analyzedSentence, null, null);
+              for (RuleMatch match : matches) {
+                match.setSuggestedReplacements(Collections.unmodifiableList(match.getSuggestedReplacements()));
+              }
+              return new SentenceMatchCache.Entry(analyzedSentence, matches);
+            }
+          });
+      rememberUnknownWords(entry.analyzedSentence);
+      printIfVerbose(entry.analyzedSentence.toString());
+      analyzedSentences.add(entry.analyzedSentence);
+      for (RuleMatch match : entry.matches) {
+        ruleMatches.add(adjustRuleMatchPos(match, position[0], position[2], position[1], sentence, annotatedText));
+      }
+      position = getPositionAfter(sentence, position);
+    }
+    ruleMatches.addAll(checkAnalyzedSentences(analyzedSentences, sentences, textRules, ParagraphHandling.NORMAL, annotatedText));
+    Collections.sort(ruleMatches);
+    return ruleMatches;
+  }
+
+  // other rules that check each sentence on its own are created for each instance, so with them being
+  // part of the configuration, the cache could not be shared by several instances:
+  private static boolean isCachedSentenceRule(final Rule rule) {
+    return rule.isSentenceIndependent() && (rule instanceof PatternRule || rule instanceof SpellingCheckRule);
+  }
+
+  // identifies everything the matches of the sentence-level rules depend on, apart from the sentence:
+  // the rules are part of it as objects, not just their ids, as user rules may re-use ids:
+  private SentenceMatchCache.RuleConfiguration getRuleConfiguration(final List<Rule> sentenceRules) {
+    final List<Object> parts = new ArrayList<>(sentenceRules.size() + 2);
+    parts.add(language.getShortNameWithCountryAndVariant());
+    parts.add(motherTongue != null ? motherTongue.getShortNameWithCountryAndVariant() : "");
+    for (Rule rule : sentenceRules) {
+      final Category category = rule.getCategory();
+      if (disabledRules.contains(rule.getId())
+              || (rule.isDefaultOff() && !enabledRules.contains(rule.getId()))
+              || (category != null && disabledCategories.contains(category.getName()))) {
+        continue;
+      }
+      if (rule instanceof SpellingCheckRule) {
+        parts.add(((SpellingCheckRule) rule).getMatchingSettings());
+      } else {
+        parts.add(rule);
+      }
+    }
+    return new SentenceMatchCache.RuleConfiguration(parts);
+  }
+
+  /**
+   * Check sentences that have already been analyzed, with rules that have been reset before.
+   * @return the matches, sorted by position
+   */
+  List<RuleMatch> checkAnalyzedSentences(final List<AnalyzedSentence> analyzedSentences, final List<String> sentences,
+                                         final List<Rule> allRules, final ParagraphHandling paraMode,
+                                         final AnnotatedText annotatedText) throws IOException {
     final List<RuleMatch> ruleMatches = performCheck(analyzedSentences, sentences, allRules, paraMode, annotatedText);
     
     if (!ruleMatches.isEmpty() && !paraMode.equals(ParagraphHandling.ONLYNONPARA)) {
@@ -554,17 +856,68 @@ public class JLanguageTool {
     return analyzeSentences(sentences);
   }
   
-  private List<AnalyzedSentence> analyzeSentences(final List<String> sentences) throws IOException {
+  /**
+   * Analyze the sentences of a text, in parallel if an executor has been set
+   * with {@link #setAnalysisExecutor(ExecutorService)}.
+   * @since 2.7
+   */
+  protected List<AnalyzedSentence> analyzeSentences(final List<String> sentences) throws IOException {
+    if (analysisExecutor != null && sentences.size() > 1) {
+      return analyzeSentences(sentences, analysisExecutor);
+    }
     final List<AnalyzedSentence> analyzedSentences = new ArrayList<>();
-    
-    int j = 0;
     for (final String sentence : sentences) {
-      AnalyzedSentence analyzedSentence = getAnalyzedSentence(sentence);
+      throwIfCancelled();
+      analyzedSentences.add(getAnalyzedSentence(sentence));
+    }
+    return completeAnalyzedSentences(analyzedSentences);
+  }
+
+  /**
+   * Analyze the sentences of a text in parallel with the given executor. The sentences are
+   * analyzed independently of each other, so the tokenizers, the tagger, the chunker and the
+   * disambiguator of the language need to be thread-safe.
+   * @since 2.7
+   */
+  protected List<AnalyzedSentence> analyzeSentences(final List<String> sentences, final ExecutorService executor) throws IOException {
+    final List<Callable<AnalyzedSentence>> callables = new ArrayList<>(sentences.size());
+    for (final String sentence : sentences) {
+      callables.add(new Callable<AnalyzedSentence>() {
+        @Override
+        public AnalyzedSentence call() throws Exception {
+          throwIfCancelled();
+          return getAnalyzedSentence(sentence);
+        }
+      });
+    }
+    final List<AnalyzedSentence> analyzedSentences = new ArrayList<>(sentences.size());
+    try {
+      for (Future<AnalyzedSentence> future : executor.invokeAll(callables)) {
+        analyzedSentences.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while analyzing sentences", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      if (e.getCause() instanceof CheckCancelledException) {
+        throw (CheckCancelledException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+    return completeAnalyzedSentences(analyzedSentences);
+  }
+
+  // the parts of the analysis that depend on the other sentences, done in order:
+  private List<AnalyzedSentence> completeAnalyzedSentences(final List<AnalyzedSentence> sentences) {
+    final List<AnalyzedSentence> analyzedSentences = new ArrayList<>(sentences.size());
+    int j = 0;
+    for (AnalyzedSentence analyzedSentence : sentences) {
       rememberUnknownWords(analyzedSentence);
-      if (++j == sentences.size()) {
-        final AnalyzedTokenReadings[] anTokens = analyzedSentence.getTokens();
-        anTokens[anTokens.length - 1].setParagraphEnd();
-        analyzedSentence = new AnalyzedSentence(anTokens);
+      if (++j == sentences.size() && textEndsParagraph) {
+        analyzedSentence = withParagraphEnd(analyzedSentence);
       }
       analyzedSentences.add(analyzedSentence);
       printIfVerbose(analyzedSentence.toString());
@@ -574,6 +927,15 @@ public class JLanguageTool {
     return analyzedSentences;
   }
   
+  /**
+   * Mark the end of the sentence as the end of a paragraph, as needed for the last sentence of a text.
+   */
+  static AnalyzedSentence withParagraphEnd(final AnalyzedSentence analyzedSentence) {
+    final AnalyzedTokenReadings[] anTokens = analyzedSentence.getTokens();
+    anTokens[anTokens.length - 1].setParagraphEnd();
+    return new AnalyzedSentence(anTokens);
+  }
+
   protected List<RuleMatch> performCheck(final List<AnalyzedSentence> analyzedSentences, final List<String> sentences,
                                          final List<Rule> allRules, ParagraphHandling paraMode, final AnnotatedText annotatedText) throws IOException {
     final Callable<List<RuleMatch>> matcher = new TextCheckCallable(allRules, sentences, analyzedSentences, paraMode, annotatedText, 0, 0, 1);
@@ -599,8 +961,25 @@ public class JLanguageTool {
       final List<Rule> rules, int charCount, int lineCount,
       int columnCount, final String sentence, final AnalyzedSentence analyzedSentence, final AnnotatedText annotatedText)
         throws IOException {
+    return checkAnalyzedSentence(paraMode, getRuleIndex(rules), charCount, lineCount, columnCount, sentence, analyzedSentence, annotatedText, null);
+  }
+
+  /**
+   * @param ruleCosts if not {@code null}, the time used by each rule is added to it,
+   *                  using the rule's position in the index
+   */
+  List<RuleMatch> checkAnalyzedSentence(final ParagraphHandling paraMode,
+      final RuleIndex ruleIndex, int charCount, int lineCount,
+      int columnCount, final String sentence, final AnalyzedSentence analyzedSentence, final AnnotatedText annotatedText,
+      final RuleCosts ruleCosts) throws IOException {
+    final CheckMetrics.LanguageMetrics metrics = languageMetrics;
+    final CheckMetrics.LanguageMetrics ruleMetrics = this.ruleMetrics;
+    final long sentenceStartTime = metrics != null ? System.nanoTime() : 0;
     final List<RuleMatch> sentenceMatches = new ArrayList<>();
-    for (final Rule rule : rules) {
+    // this is a performance optimization, it should have no effect on matching logic:
+    for (final RuleIndex.Candidate candidate : ruleIndex.getCandidates(analyzedSentence)) {
+      throwIfCancelled();
+      final Rule rule = candidate.rule;
       if (disabledRules.contains(rule.getId())
           || (rule.isDefaultOff() && !enabledRules.contains(rule.getId()))) {
         continue;
@@ -611,11 +990,6 @@ public class JLanguageTool {
         continue;
       }
       
-      if (rule instanceof PatternRule && ((PatternRule)rule).canBeIgnoredFor(analyzedSentence)) {
-        // this is a performance optimization, it should have no effect on matching logic
-        continue;
-      }
-
       switch (paraMode) {
         case ONLYNONPARA: {
           if (rule.isParagraphBackTrack()) {
@@ -633,7 +1007,22 @@ public class JLanguageTool {
         default:
       }
 
-      final RuleMatch[] thisMatches = rule.match(analyzedSentence);
+      final long startTime = ruleCosts != null || ruleMetrics != null ? System.nanoTime() : 0;
+      final RuleMatch[] thisMatches;
+      if (candidate.startPositions != null) {
+        thisMatches = ((PatternRule) rule).match(analyzedSentence, candidate.startPositions);
+      } else {
+        thisMatches = rule.match(analyzedSentence);
+      }
+      if (ruleCosts != null || ruleMetrics != null) {
+        final long nanos = System.nanoTime() - startTime;
+        if (ruleCosts != null) {
+          ruleCosts.add(candidate.index, nanos);
+        }
+        if (ruleMetrics != null) {
+          ruleMetrics.recordRule(rule, nanos, thisMatches.length);
+        }
+      }
       for (final RuleMatch element1 : thisMatches) {
         final RuleMatch thisMatch = adjustRuleMatchPos(element1,
             charCount, columnCount, lineCount, sentence, annotatedText);
@@ -644,7 +1033,79 @@ public class JLanguageTool {
       }
     }
     final RuleMatchFilter filter = new SameRuleGroupFilter();
-    return filter.filter(sentenceMatches);
+    final List<RuleMatch> filteredMatches = filter.filter(sentenceMatches);
+    if (metrics != null) {
+      ruleMatchingNanos.addAndGet(System.nanoTime() - sentenceStartTime);
+    }
+    return filteredMatches;
+  }
+
+  /**
+   * Get the index for quickly finding the rules relevant for a sentence, re-using
+   * a previously created index if it is for exactly the same rules.
+   */
+  RuleIndex getRuleIndex(final List<Rule> rules) {
+    for (RuleIndex ruleIndex : ruleIndexes) {
+      if (ruleIndex.isFor(rules)) {
+        return ruleIndex;
+      }
+    }
+    final RuleIndex ruleIndex = new RuleIndex(rules);
+    if (ruleIndexes.size() >= MAX_RULE_INDEXES) {
+      ruleIndexes.clear();
+    }
+    ruleIndexes.add(ruleIndex);
+    return ruleIndex;
+  }
+
+  /**
+   * Get the position after a sentence, as needed for checking the next sentence.
+   * @param position the character count, line count and column count at the start of the sentence
+   * @return the character count, line count and column count at the end of the sentence
+   */
+  int[] getPositionAfter(final String sentence, final int[] position) {
+    final int charCount = position[0] + sentence.length();
+    final int lineCount = position[1] + countLineBreaks(sentence);
+    final int columnCount;
+    // calculate matching column:
+    final int lineBreakPos = sentence.lastIndexOf('\n');
+    if (lineBreakPos == -1) {
+      columnCount = position[2] + sentence.length();
+    } else {
+      if (lineBreakPos == 0) {
+        if (!language.getSentenceTokenizer().singleLineBreaksMarksPara()) {
+          columnCount = sentence.length() - 1;
+        } else {
+          columnCount = sentence.length();
+        }
+      } else {
+        columnCount = sentence.length() - lineBreakPos;
+      }
+    }
+    return new int[] {charCount, lineCount, columnCount};
+  }
+
+  /**
+   * Get a copy of a match that has been found in a part of a text, e.g. a sentence or a paragraph,
+   * with its positions moved to where that part starts in the complete text. The match itself
+   * is not modified, so it may be shared, e.g. by a cache.
+   * @param match a match with positions relative to the part, i.e. the part starts at line 0, column 1
+   * @param charCount Count of characters before the part
+   * @param lineCount Line number where the part starts
+   * @param columnCount Column number where the part starts
+   * @since 2.7
+   */
+  public static RuleMatch moveRuleMatch(final RuleMatch match, int charCount, int lineCount, int columnCount) {
+    final RuleMatch movedMatch = new RuleMatch(match.getRule(), match.getFromPos() + charCount,
+            match.getToPos() + charCount, match.getMessage(), match.getShortMessage());
+    movedMatch.setSuggestedReplacements(match.getSuggestedReplacements());
+    movedMatch.setOffset(match.getOffset() + charCount);
+    movedMatch.setLine(match.getLine() + lineCount);
+    movedMatch.setEndLine(match.getEndLine() + lineCount);
+    // only the columns in the first line of the part are moved:
+    movedMatch.setColumn(match.getLine() == 0 ? match.getColumn() + columnCount - 1 : match.getColumn());
+    movedMatch.setEndColumn(match.getEndLine() == 0 ? match.getEndColumn() + columnCount - 1 : match.getEndColumn());
+    return movedMatch;
   }
 
   /**
@@ -741,7 +1202,15 @@ public class JLanguageTool {
    * @param sentence sentence to be analyzed
    */
   public AnalyzedSentence getAnalyzedSentence(final String sentence) throws IOException {
-    return disambiguator.disambiguate(getRawAnalyzedSentence(sentence));
+    final CheckMetrics.LanguageMetrics metrics = languageMetrics;
+    final AnalyzedSentence rawAnalyzedSentence = getRawAnalyzedSentence(sentence);
+    if (metrics == null) {
+      return disambiguator.disambiguate(rawAnalyzedSentence);
+    }
+    final long startTime = System.nanoTime();
+    final AnalyzedSentence analyzedSentence = disambiguator.disambiguate(rawAnalyzedSentence);
+    metrics.recordPhase(CheckMetrics.Phase.DISAMBIGUATION, System.nanoTime() - startTime);
+    return analyzedSentence;
   }
 
   /**
@@ -753,12 +1222,27 @@ public class JLanguageTool {
    * @since 0.9.8
    */
   public AnalyzedSentence getRawAnalyzedSentence(final String sentence) throws IOException {
+    final CheckMetrics.LanguageMetrics metrics = languageMetrics;
+    long startTime = metrics != null ? System.nanoTime() : 0;
     final List<String> tokens = wordTokenizer.tokenize(sentence);
     final Map<Integer, String> softHyphenTokens = replaceSoftHyphens(tokens);
+    if (metrics != null) {
+      final long time = System.nanoTime();
+      metrics.recordPhase(CheckMetrics.Phase.WORD_TOKENIZATION, time - startTime);
+      startTime = time;
+    }
 
     final List<AnalyzedTokenReadings> aTokens = tagger.tag(tokens);
+    if (metrics != null) {
+      final long time = System.nanoTime();
+      metrics.recordPhase(CheckMetrics.Phase.TAGGING, time - startTime);
+      startTime = time;
+    }
     if (chunker != null) {
       chunker.addChunkTags(aTokens);
+      if (metrics != null) {
+        metrics.recordPhase(CheckMetrics.Phase.CHUNKING, System.nanoTime() - startTime);
+      }
     }
     final int numTokens = aTokens.size();
     int posFix = 0; 
@@ -940,32 +1424,23 @@ public class JLanguageTool {
     @Override
     public List<RuleMatch> call() throws Exception {
       final List<RuleMatch> ruleMatches = new ArrayList<>();
+      final RuleIndex ruleIndex = getRuleIndex(rules);
       int i = 0;
       for (final AnalyzedSentence analyzedSentence : analyzedSentences) {
         final String sentence = sentences.get(i++);
+        throwIfCancelled();
         try {
           final List<RuleMatch> sentenceMatches =
-                  checkAnalyzedSentence(paraMode, rules, charCount, lineCount,
-                          columnCount, sentence, analyzedSentence, annotatedText);
+                  checkAnalyzedSentence(paraMode, ruleIndex, charCount, lineCount,
+                          columnCount, sentence, analyzedSentence, annotatedText, null);
 
           ruleMatches.addAll(sentenceMatches);
-          charCount += sentence.length();
-          lineCount += countLineBreaks(sentence);
-
-          // calculate matching column:
-          final int lineBreakPos = sentence.lastIndexOf('\n');
-          if (lineBreakPos == -1) {
-            columnCount += sentence.length();
-          } else {
-            if (lineBreakPos == 0) {
-              columnCount = sentence.length();
-              if (!language.getSentenceTokenizer().singleLineBreaksMarksPara()) {
-                columnCount--;
-              }
-            } else {
-              columnCount = sentence.length() - lineBreakPos;
-            }
-          }
+          final int[] position = getPositionAfter(sentence, new int[] {charCount, lineCount, columnCount});
+          charCount = position[0];
+          lineCount = position[1];
+          columnCount = position[2];
+        } catch (CheckCancelledException e) {
+          throw e;
         } catch (Exception e) {
           throw new RuntimeException("Could not check sentence: '"
                   + StringUtils.abbreviate(analyzedSentence.toTextString(), 200) + "'", e);
@@ -36,6 +36,9 @@ import org.languagetool.tools.StringTools;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.net.URL;
 import java.util.*;
@@ -48,7 +51,7 @@ import java.util.*;
  * class name(s), e.g. {@code org.languagetool.language.English}. Use commas to specify 
  * more than one class.
  */
-public abstract class Language {
+public abstract class Language implements Serializable {
 
   private static final String PROPERTIES_PATH = "META-INF/org/languagetool/language-module.properties";
   private static final String PROPERTIES_KEY = "languageClasses";
@@ -670,4 +673,31 @@ public abstract class Language {
     return getCountries().length == 1;
   }
 
+  /**
+   * Languages are not serialized themselves, only a reference to one of the {@link #LANGUAGES}
+   * objects is written, e.g. with the rules from {@link org.languagetool.rules.patterns.PrecompiledRules}.
+   * @since 2.7
+   */
+  protected Object writeReplace() throws ObjectStreamException {
+    return new LanguageReference(getClass().getName());
+  }
+
+  private static class LanguageReference implements Serializable {
+
+    private final String className;
+
+    LanguageReference(String className) {
+      this.className = className;
+    }
+
+    private Object readResolve() throws ObjectStreamException {
+      for (Language language : LANGUAGES) {
+        if (language.getClass().getName().equals(className) && !language.isExternal()) {
+          return language;
+        }
+      }
+      throw new InvalidObjectException("No language found for class " + className);
+    }
+  }
+
 }
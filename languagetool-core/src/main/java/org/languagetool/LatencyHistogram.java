@@ -0,0 +1,95 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts durations in buckets of fixed size limits, from 0.1 milliseconds to 10 seconds,
+ * and keeps their sum. Recording is lock-free, so it can be used from many threads
+ * without becoming a bottleneck. Thread-safe.
+ * @since 2.7
+ */
+public final class LatencyHistogram {
+
+  private static final long[] BUCKET_LIMITS_NANOS = {
+          100_000L, 250_000L, 500_000L,
+          1_000_000L, 2_500_000L, 5_000_000L,
+          10_000_000L, 25_000_000L, 50_000_000L,
+          100_000_000L, 250_000_000L, 500_000_000L,
+          1_000_000_000L, 2_500_000_000L, 5_000_000_000L,
+          10_000_000_000L
+  };
+  // one counter per bucket, one for durations above the largest limit, and the sum:
+  private static final int SUM_INDEX = BUCKET_LIMITS_NANOS.length + 1;
+
+  private final StripedCounters counters = new StripedCounters(BUCKET_LIMITS_NANOS.length + 2, true);
+
+  LatencyHistogram() {
+  }
+
+  /**
+   * The upper limits of the buckets in nanoseconds, the smallest first. There's one more
+   * bucket for durations that are longer than the largest limit.
+   */
+  public static long[] getBucketLimitsNanos() {
+    return BUCKET_LIMITS_NANOS.clone();
+  }
+
+  void record(long nanos) {
+    int bucket = Arrays.binarySearch(BUCKET_LIMITS_NANOS, nanos);
+    if (bucket < 0) {
+      bucket = -bucket - 1;
+    }
+    counters.add(bucket, 1);
+    counters.add(SUM_INDEX, nanos);
+  }
+
+  /**
+   * The number of durations in each bucket, not cumulative, in the order of {@link #getBucketLimitsNanos()}
+   * and with one more element for the durations longer than the largest limit.
+   */
+  public long[] getBucketCounts() {
+    final long[] counts = new long[BUCKET_LIMITS_NANOS.length + 1];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = counters.get(i);
+    }
+    return counts;
+  }
+
+  public long getCount() {
+    long count = 0;
+    for (long bucketCount : getBucketCounts()) {
+      count += bucketCount;
+    }
+    return count;
+  }
+
+  public long getSumNanos() {
+    return counters.get(SUM_INDEX);
+  }
+
+  @Override
+  public String toString() {
+    final long count = getCount();
+    return count + " durations, average " + (count > 0 ? TimeUnit.NANOSECONDS.toMillis(getSumNanos() / count) : 0) + "ms";
+  }
+
+}
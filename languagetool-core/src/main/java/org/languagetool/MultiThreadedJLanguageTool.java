@@ -25,22 +25,45 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
 
+import org.apache.commons.lang.StringUtils;
 import org.languagetool.markup.AnnotatedText;
 import org.languagetool.rules.Rule;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.patterns.PatternRule;
 
 /**
- * A variant of {@link JLanguageTool} that uses several threads for rule matching.
- * Use this if you want text checking to be fast and do not care about the 
- * high load that this might cause.
+ * A variant of {@link JLanguageTool} that uses several threads for rule matching
+ * and, if a pool is set, for analyzing the sentences of a text. Use this if you want text checking to be fast
+ * and do not care about the high load that this might cause.
+ *
+ * <p>By default, a new thread pool is created for each check and the rules are split
+ * into chunks of the same size. When a {@link ForkJoinPool} is set with
+ * {@link #setForkJoinPool(ForkJoinPool)}, that pool is used for all checks instead, and the
+ * work is split by sentence and into chunks of rules that take about the same time to check,
+ * based on the time the rules have needed so far. This is much faster when many short texts
+ * are checked, e.g. one sentence at a time.
  * 
  * <p><b>Thread-safety:</b> See the remarks at {@link JLanguageTool}.
  */
 public class MultiThreadedJLanguageTool extends JLanguageTool {
-  
+
+  // more chunks hardly help, as the sentences can also be checked in parallel:
+  private static final int MAX_RULE_CHUNKS = 16;
+  // the rules are re-balanced after this many sentences, and then each time after ten times as many:
+  private static final long FIRST_REBALANCE = 100;
+  private static final long LAST_REBALANCE = 1_000_000;
+
+  private static ForkJoinPool sharedForkJoinPool;
+
   private int threadPoolSize = -1;
+  private ForkJoinPool forkJoinPool;
+  private RulePartition rulePartition;
+  private long checkedSentences;
+  private long nextRebalance = FIRST_REBALANCE;
 
   public MultiThreadedJLanguageTool(Language language) throws IOException {
     super(language);
@@ -65,12 +88,46 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
   }
   
   /**
-   * Set the amount of threads to use for checking.
+   * Set the amount of threads to use for checking. Not used if a {@link ForkJoinPool} has been set.
    */
   public void setThreadPoolSize(int threadPoolSize) {
     this.threadPoolSize = threadPoolSize;
   }
 
+  /**
+   * Use the given pool for all following checks, instead of creating a new thread pool for each check.
+   * The pool is not shut down by this class, so it can be shared by several instances.
+   * @param forkJoinPool the pool, or {@code null} to create a new thread pool for each check again
+   * @see #getSharedForkJoinPool()
+   * @since 2.7
+   */
+  public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = forkJoinPool;
+  }
+
+  /**
+   * A pool with one thread per processor that is shared by all users of this method,
+   * for use with {@link #setForkJoinPool(ForkJoinPool)}. Its threads are daemon threads
+   * that don't keep the JVM from exiting.
+   * @since 2.7
+   */
+  public static synchronized ForkJoinPool getSharedForkJoinPool() {
+    if (sharedForkJoinPool == null) {
+      sharedForkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+    return sharedForkJoinPool;
+  }
+
+  /**
+   * Whether the rule checks each sentence independently of the other sentences, so that
+   * the sentences of a text can be checked by this rule in parallel when a {@link ForkJoinPool}
+   * is used. Rules for which this returns {@code false} check all sentences of a text in order.
+   * @since 2.7
+   */
+  protected boolean isSentenceIndependent(Rule rule) {
+    return rule instanceof PatternRule && !rule.isParagraphBackTrack();
+  }
+
   /**
    * @return a fixed size executor with the given number of threads
    */
@@ -78,10 +135,26 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
     return Executors.newFixedThreadPool(threads);
   }
   
+  /**
+   * Analyzes the sentences in parallel with the executor set with {@link #setAnalysisExecutor(ExecutorService)},
+   * if any, otherwise with the {@link ForkJoinPool}, if any. Without either, the sentences are analyzed
+   * one after the other, so no threads are created just for that.
+   */
+  @Override
+  protected List<AnalyzedSentence> analyzeSentences(final List<String> sentences) throws IOException {
+    if (forkJoinPool == null || getAnalysisExecutor() != null || sentences.size() <= 1) {
+      return super.analyzeSentences(sentences);
+    }
+    return analyzeSentences(sentences, forkJoinPool);
+  }
+
   @Override
   protected List<RuleMatch> performCheck(final List<AnalyzedSentence> analyzedSentences, final List<String> sentences,
        final List<Rule> allRules, final ParagraphHandling paraMode, 
        final AnnotatedText annotatedText) throws IOException {
+    if (forkJoinPool != null) {
+      return performForkJoinCheck(analyzedSentences, sentences, allRules, paraMode, annotatedText);
+    }
     int charCount = 0;
     int lineCount = 0;
     int columnCount = 1;
@@ -97,7 +170,12 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
       for (Future<List<RuleMatch>> future : futures) {
         ruleMatches.addAll(future.get());
       }
-    } catch (InterruptedException | ExecutionException e) {
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof CheckCancelledException) {
+        throw (CheckCancelledException) e.getCause();
+      }
+      throw new RuntimeException(e);
+    } catch (InterruptedException e) {
       throw new RuntimeException(e);
     } finally {
       executorService.shutdownNow();
@@ -129,4 +207,109 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
     }
     return callables;
   }
+
+  private List<RuleMatch> performForkJoinCheck(final List<AnalyzedSentence> analyzedSentences, final List<String> sentences,
+       final List<Rule> allRules, final ParagraphHandling paraMode, final AnnotatedText annotatedText) {
+    final int chunkCount = Math.min(forkJoinPool.getParallelism(), MAX_RULE_CHUNKS);
+    final RulePartition partition = getRulePartition(allRules, chunkCount);
+    final List<int[]> positions = new ArrayList<>(sentences.size());
+    int[] position = {0, 0, 1};
+    for (String sentence : sentences) {
+      positions.add(position);
+      position = getPositionAfter(sentence, position);
+    }
+    final List<RecursiveTask<List<RuleMatch>>> tasks = new ArrayList<>();
+    for (RulePartition.RuleChunk chunk : partition.getTextChunks()) {
+      tasks.add(new CheckTask(chunk, 0, sentences.size(), sentences, analyzedSentences, positions, paraMode, annotatedText));
+    }
+    // with only a few sentences, split the rules too so all threads get something to do:
+    final boolean splitRules = sentences.size() < chunkCount;
+    for (RulePartition.RuleChunk chunk : partition.getSentenceChunks(splitRules)) {
+      for (int i = 0; i < sentences.size(); i++) {
+        tasks.add(new CheckTask(chunk, i, i + 1, sentences, analyzedSentences, positions, paraMode, annotatedText));
+      }
+    }
+    final List<RuleMatch> ruleMatches = forkJoinPool.invoke(new RecursiveTask<List<RuleMatch>>() {
+      @Override
+      protected List<RuleMatch> compute() {
+        invokeAll(tasks);
+        final List<RuleMatch> result = new ArrayList<>();
+        for (RecursiveTask<List<RuleMatch>> task : tasks) {
+          result.addAll(task.join());
+        }
+        return result;
+      }
+    });
+    checkedSentences += sentences.size();
+    if (checkedSentences >= nextRebalance && nextRebalance <= LAST_REBALANCE) {
+      final boolean[] sentenceRules = getSentenceIndependentRules(allRules);
+      rulePartition = new RulePartition(allRules, partition.getCosts(), sentenceRules, chunkCount);
+      nextRebalance *= 10;
+    }
+    return ruleMatches;
+  }
+
+  private RulePartition getRulePartition(List<Rule> allRules, int chunkCount) {
+    if (rulePartition == null || !rulePartition.isFor(allRules)) {
+      rulePartition = new RulePartition(allRules, new long[allRules.size()], getSentenceIndependentRules(allRules), chunkCount);
+      checkedSentences = 0;
+      nextRebalance = FIRST_REBALANCE;
+    }
+    return rulePartition;
+  }
+
+  private boolean[] getSentenceIndependentRules(List<Rule> rules) {
+    final boolean[] result = new boolean[rules.size()];
+    for (int i = 0; i < rules.size(); i++) {
+      result[i] = isSentenceIndependent(rules.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Checks some sentences with a chunk of rules.
+   */
+  private class CheckTask extends RecursiveTask<List<RuleMatch>> {
+
+    private final RulePartition.RuleChunk chunk;
+    private final int fromSentence;
+    private final int toSentence;
+    private final List<String> sentences;
+    private final List<AnalyzedSentence> analyzedSentences;
+    private final List<int[]> positions;
+    private final ParagraphHandling paraMode;
+    private final AnnotatedText annotatedText;
+
+    CheckTask(RulePartition.RuleChunk chunk, int fromSentence, int toSentence, List<String> sentences,
+              List<AnalyzedSentence> analyzedSentences, List<int[]> positions, ParagraphHandling paraMode, AnnotatedText annotatedText) {
+      this.chunk = chunk;
+      this.fromSentence = fromSentence;
+      this.toSentence = toSentence;
+      this.sentences = sentences;
+      this.analyzedSentences = analyzedSentences;
+      this.positions = positions;
+      this.paraMode = paraMode;
+      this.annotatedText = annotatedText;
+    }
+
+    @Override
+    protected List<RuleMatch> compute() {
+      final List<RuleMatch> ruleMatches = new ArrayList<>();
+      for (int i = fromSentence; i < toSentence; i++) {
+        final AnalyzedSentence analyzedSentence = analyzedSentences.get(i);
+        final int[] position = positions.get(i);
+        try {
+          ruleMatches.addAll(checkAnalyzedSentence(paraMode, chunk.ruleIndex, position[0], position[1], position[2],
+                  sentences.get(i), analyzedSentence, annotatedText, chunk.costs));
+        } catch (CheckCancelledException e) {
+          throw e;
+        } catch (Exception e) {
+          throw new RuntimeException("Could not check sentence: '"
+                  + StringUtils.abbreviate(analyzedSentence.toTextString(), 200) + "'", e);
+        }
+      }
+      return ruleMatches;
+    }
+  }
+
 }
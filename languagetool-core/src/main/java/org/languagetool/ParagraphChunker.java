@@ -0,0 +1,143 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits a text read from a {@link Reader} into chunks of complete paragraphs, so
+ * a large text can be checked without keeping it in memory completely. Empty lines
+ * after a paragraph belong to that paragraph. Paragraphs that are too long are split into
+ * several chunks, see {@link #endsParagraph()}. The chunks contain the text unmodified,
+ * so their concatenation is the original text.
+ * @since 2.7
+ */
+class ParagraphChunker {
+
+  private final Reader reader;
+  private final boolean singleLineBreaksMarksPara;
+  private final int maxChunkSize;
+  private final StringBuilder chunk = new StringBuilder();
+  private final StringBuilder line = new StringBuilder();
+
+  private boolean paragraphEnded;
+  private boolean chunkFull;
+  private boolean endsParagraph;
+
+  /**
+   * @param singleLineBreaksMarksPara whether each line is a paragraph, otherwise paragraphs are separated by empty lines
+   * @param maxChunkSize paragraphs are split at the end of a line (or at whitespace, for very long lines)
+   *                     when they get longer than this - lines without whitespace are split anywhere
+   *                     when they get twice as long
+   */
+  ParagraphChunker(Reader reader, boolean singleLineBreaksMarksPara, int maxChunkSize) {
+    this.reader = reader;
+    this.singleLineBreaksMarksPara = singleLineBreaksMarksPara;
+    this.maxChunkSize = maxChunkSize;
+  }
+
+  /**
+   * @return the next chunk, or {@code null} at the end of the text
+   */
+  String next() throws IOException {
+    int c;
+    while ((c = reader.read()) != -1) {
+      line.append((char) c);
+      if (c == '\n') {
+        final boolean emptyLine = isEmpty(line);
+        if ((paragraphEnded || chunkFull) && !emptyLine) {
+          // the line starts a new paragraph (or continues a paragraph that's too long), so the chunk is complete:
+          endsParagraph = paragraphEnded;
+          final String result = takeChunk();
+          paragraphEnded = singleLineBreaksMarksPara;
+          chunkFull = chunk.length() >= maxChunkSize;
+          return result;
+        }
+        chunk.append(line);
+        line.setLength(0);
+        paragraphEnded = paragraphEnded || singleLineBreaksMarksPara || emptyLine;
+        chunkFull = chunk.length() >= maxChunkSize;
+      } else if (line.length() >= maxChunkSize && isSplitPosition(c)) {
+        if (paragraphEnded && chunk.length() > 0) {
+          // the very long line starts a new paragraph, so return the previous paragraph first:
+          endsParagraph = true;
+          paragraphEnded = false;
+          chunkFull = false;
+          final String result = chunk.toString();
+          chunk.setLength(0);
+          return result;
+        }
+        // a very long line, split it so we don't need to keep it in memory completely:
+        endsParagraph = false;
+        paragraphEnded = false;
+        chunkFull = false;
+        return takeChunkWithLine();
+      }
+    }
+    if ((paragraphEnded || chunkFull) && !isEmpty(line)) {
+      // the rest is returned on the next call:
+      endsParagraph = paragraphEnded;
+      return takeChunk();
+    }
+    endsParagraph = true;
+    final String result = takeChunkWithLine();
+    return result.isEmpty() ? null : result;
+  }
+
+  /**
+   * Whether the chunk last returned by {@link #next()} ends a paragraph (or the text). If not,
+   * the paragraph has been split because it's too long and continues in the next chunk.
+   */
+  boolean endsParagraph() {
+    return endsParagraph;
+  }
+
+  // split at whitespace, or anywhere but inside a surrogate pair if the line has no whitespace:
+  private boolean isSplitPosition(int c) {
+    return Character.isWhitespace(c) || (line.length() >= 2 * maxChunkSize && !Character.isHighSurrogate((char) c));
+  }
+
+  // returns the chunk and starts the next chunk with the current line
+  private String takeChunk() {
+    final String result = chunk.toString();
+    chunk.setLength(0);
+    chunk.append(line);
+    line.setLength(0);
+    return result;
+  }
+
+  private String takeChunkWithLine() {
+    chunk.append(line);
+    line.setLength(0);
+    final String result = chunk.toString();
+    chunk.setLength(0);
+    return result;
+  }
+
+  private boolean isEmpty(CharSequence s) {
+    for (int i = 0; i < s.length(); i++) {
+      if (!Character.isWhitespace(s.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -19,6 +19,7 @@
 package org.languagetool;
 
 import java.util.Enumeration;
+import java.util.Locale;
 import java.util.ResourceBundle;
 
 /**
@@ -49,4 +50,13 @@ public class ResourceBundleWithFallback extends ResourceBundle {
     return bundle.getKeys();
   }
 
+  /**
+   * The locale of the original bundle.
+   * @since 2.7
+   */
+  @Override
+  public Locale getLocale() {
+    return bundle.getLocale();
+  }
+
 }
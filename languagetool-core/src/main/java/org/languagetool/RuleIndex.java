@@ -0,0 +1,186 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.patterns.MultiPatternMatcher;
+import org.languagetool.rules.patterns.PatternRule;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An inverted index from the tokens and lemmas that pattern rules require to the rules,
+ * so that only the rules that can possibly match need to be considered for a sentence.
+ * Each {@link PatternRule} is indexed under one of its required tokens (or, if it has none,
+ * one of its required lemmas). Rules without such an anchor are always considered.
+ * For the remaining pattern rules, a {@link MultiPatternMatcher} finds the positions
+ * where a match can start, so rules that cannot match at all are skipped too.
+ * Immutable and thus thread-safe.
+ * @since 2.7
+ */
+class RuleIndex {
+
+  private final List<Rule> rules;
+  private final BitSet alwaysRun = new BitSet();
+  private final Map<String, List<Integer>> tokenToRules = new HashMap<>();
+  private final Map<String, List<Integer>> lemmaToRules = new HashMap<>();
+  private final MultiPatternMatcher multiPatternMatcher;
+
+  RuleIndex(List<Rule> rules) {
+    this.rules = new ArrayList<>(rules);
+    multiPatternMatcher = new MultiPatternMatcher(this.rules);
+    for (int i = 0; i < this.rules.size(); i++) {
+      final Rule rule = this.rules.get(i);
+      if (rule instanceof PatternRule) {
+        final PatternRule patternRule = (PatternRule) rule;
+        if (!patternRule.getRequiredTokens().isEmpty()) {
+          addToIndex(tokenToRules, patternRule.getRequiredTokens(), i);
+          continue;
+        } else if (!patternRule.getRequiredLemmas().isEmpty()) {
+          addToIndex(lemmaToRules, patternRule.getRequiredLemmas(), i);
+          continue;
+        }
+      }
+      alwaysRun.set(i);
+    }
+  }
+
+  // use the anchor with the fewest rules so far to keep the candidate lists short:
+  private void addToIndex(Map<String, List<Integer>> index, Set<String> anchors, int ruleIndex) {
+    List<Integer> bestRules = null;
+    String bestAnchor = null;
+    for (String anchor : anchors) {
+      final List<Integer> anchorRules = index.get(anchor);
+      if (anchorRules == null) {
+        bestAnchor = anchor;
+        bestRules = null;
+        break;
+      }
+      if (bestRules == null || anchorRules.size() < bestRules.size()) {
+        bestAnchor = anchor;
+        bestRules = anchorRules;
+      }
+    }
+    if (bestRules == null) {
+      bestRules = new ArrayList<>();
+      index.put(bestAnchor, bestRules);
+    }
+    bestRules.add(ruleIndex);
+  }
+
+  /**
+   * Whether this index has been built for exactly the given rules.
+   */
+  boolean isFor(List<Rule> otherRules) {
+    if (otherRules.size() != rules.size()) {
+      return false;
+    }
+    int i = 0;
+    for (Rule rule : otherRules) {
+      if (rule != rules.get(i++)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The rules that might match the given sentence, in their original order. Pattern rules
+   * that cannot match because the sentence lacks one of their required tokens or lemmas
+   * are not included.
+   */
+  List<Rule> getCandidateRules(AnalyzedSentence sentence) {
+    final BitSet candidates = getCandidateIndexes(sentence);
+    final List<Rule> result = new ArrayList<>(candidates.cardinality());
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      result.add(rules.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Like {@link #getCandidateRules(AnalyzedSentence)}, but pattern rules are also left out if
+   * their first elements don't match anywhere in the sentence. For pattern rules that have been
+   * checked that way, the positions where a match can start are returned with the rule.
+   */
+  List<Candidate> getCandidates(AnalyzedSentence sentence) {
+    final BitSet candidates = getCandidateIndexes(sentence);
+    final BitSet[] startPositions = multiPatternMatcher.getStartPositions(sentence, candidates);
+    final List<Candidate> result = new ArrayList<>(candidates.cardinality());
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      if (startPositions[i] == null || !startPositions[i].isEmpty()) {
+        result.add(new Candidate(rules.get(i), i, startPositions[i]));
+      }
+    }
+    return result;
+  }
+
+  private BitSet getCandidateIndexes(AnalyzedSentence sentence) {
+    final BitSet candidates = (BitSet) alwaysRun.clone();
+    addCandidates(tokenToRules, sentence.getTokenSet(), candidates);
+    if (!lemmaToRules.isEmpty()) {
+      addCandidates(lemmaToRules, sentence.getLemmaSet(), candidates);
+    }
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      // the anchor is only one of the requirements, so check the others:
+      if (!alwaysRun.get(i) && ((PatternRule) rules.get(i)).canBeIgnoredFor(sentence)) {
+        candidates.clear(i);
+      }
+    }
+    return candidates;
+  }
+
+  private void addCandidates(Map<String, List<Integer>> index, Set<String> sentenceItems, BitSet candidates) {
+    if (index.isEmpty()) {
+      return;
+    }
+    for (String item : sentenceItems) {
+      final List<Integer> ruleIndexes = index.get(item);
+      if (ruleIndexes != null) {
+        for (Integer ruleIndex : ruleIndexes) {
+          candidates.set(ruleIndex);
+        }
+      }
+    }
+  }
+
+  /**
+   * A rule that might match a sentence.
+   */
+  static class Candidate {
+
+    final Rule rule;
+    /** the position of the rule in the list the index has been built from */
+    final int index;
+    /** positions where a match can start, or {@code null} if unknown (then it may start anywhere) */
+    final BitSet startPositions;
+
+    Candidate(Rule rule, int index, BitSet startPositions) {
+      this.rule = rule;
+      this.index = index;
+      this.startPositions = startPositions;
+    }
+  }
+
+}
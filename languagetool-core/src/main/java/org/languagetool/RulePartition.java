@@ -0,0 +1,197 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.languagetool.rules.Rule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits rules into chunks that take about the same time to check, so the chunks can be
+ * checked in parallel by {@link MultiThreadedJLanguageTool}. Rules with the same id stay
+ * in the same chunk, as overlapping matches of a rule group are only filtered within a chunk.
+ * Immutable, except for the measured costs, which are thread-safe.
+ * @since 2.7
+ */
+class RulePartition {
+
+  private final List<Rule> rules;
+  private final long[] previousCosts;
+  private final RuleChunk allSentenceRules;
+  private final List<RuleChunk> sentenceChunks;
+  private final List<RuleChunk> textChunks;
+
+  /**
+   * @param rules all rules
+   * @param costs the time used by each rule so far, used to balance the chunks - all rules
+   *              are considered to take the same time if these are all zero
+   * @param sentenceRules for each rule, whether it can check a sentence independently of the other sentences
+   * @param chunkCount the maximum number of chunks to split the rules into
+   */
+  RulePartition(List<Rule> rules, long[] costs, boolean[] sentenceRules, int chunkCount) {
+    this.rules = new ArrayList<>(rules);
+    this.previousCosts = costs.clone();
+    final List<Integer> sentenceRuleIndexes = new ArrayList<>();
+    final List<Integer> textRuleIndexes = new ArrayList<>();
+    for (int i = 0; i < rules.size(); i++) {
+      if (sentenceRules[i]) {
+        sentenceRuleIndexes.add(i);
+      } else {
+        textRuleIndexes.add(i);
+      }
+    }
+    allSentenceRules = new RuleChunk(this.rules, sentenceRuleIndexes);
+    sentenceChunks = split(sentenceRuleIndexes, chunkCount);
+    textChunks = split(textRuleIndexes, chunkCount);
+  }
+
+  // greedy: assign the most expensive rule groups first, always to the chunk with the lowest cost so far
+  private List<RuleChunk> split(List<Integer> ruleIndexes, int chunkCount) {
+    final Map<String, List<Integer>> groups = new LinkedHashMap<>();
+    for (Integer ruleIndex : ruleIndexes) {
+      final String id = rules.get(ruleIndex).getId();
+      List<Integer> group = groups.get(id);
+      if (group == null) {
+        group = new ArrayList<>();
+        groups.put(id, group);
+      }
+      group.add(ruleIndex);
+    }
+    final List<List<Integer>> sortedGroups = new ArrayList<>(groups.values());
+    Collections.sort(sortedGroups, new Comparator<List<Integer>>() {
+      @Override
+      public int compare(List<Integer> group1, List<Integer> group2) {
+        return Long.compare(getCost(group2), getCost(group1));
+      }
+    });
+    final int chunks = Math.max(1, Math.min(chunkCount, sortedGroups.size()));
+    final List<List<Integer>> chunkRuleIndexes = new ArrayList<>();
+    final long[] chunkCosts = new long[chunks];
+    for (int i = 0; i < chunks; i++) {
+      chunkRuleIndexes.add(new ArrayList<Integer>());
+    }
+    for (List<Integer> group : sortedGroups) {
+      int cheapestChunk = 0;
+      for (int i = 1; i < chunks; i++) {
+        if (chunkCosts[i] < chunkCosts[cheapestChunk]) {
+          cheapestChunk = i;
+        }
+      }
+      chunkRuleIndexes.get(cheapestChunk).addAll(group);
+      chunkCosts[cheapestChunk] += getCost(group);
+    }
+    final List<RuleChunk> result = new ArrayList<>();
+    for (List<Integer> indexes : chunkRuleIndexes) {
+      if (!indexes.isEmpty()) {
+        // keep the original order of the rules:
+        Collections.sort(indexes);
+        result.add(new RuleChunk(rules, indexes));
+      }
+    }
+    return result;
+  }
+
+  private long getCost(List<Integer> group) {
+    long cost = 0;
+    for (Integer ruleIndex : group) {
+      // +1 so the rules get distributed evenly as long as nothing has been measured:
+      cost += previousCosts[ruleIndex] + 1;
+    }
+    return cost;
+  }
+
+  /**
+   * Whether this partition has been created for exactly the given rules.
+   */
+  boolean isFor(List<Rule> otherRules) {
+    if (otherRules.size() != rules.size()) {
+      return false;
+    }
+    int i = 0;
+    for (Rule rule : otherRules) {
+      if (rule != rules.get(i++)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The chunks of rules that can check each sentence independently of the other sentences.
+   * @param split whether to split the rules into several chunks or to use only one chunk
+   */
+  List<RuleChunk> getSentenceChunks(boolean split) {
+    if (split) {
+      return sentenceChunks;
+    }
+    return allSentenceRules.rules.isEmpty() ? Collections.<RuleChunk>emptyList() : Collections.singletonList(allSentenceRules);
+  }
+
+  /**
+   * The chunks of rules that need to check all sentences of a text in order.
+   */
+  List<RuleChunk> getTextChunks() {
+    return textChunks;
+  }
+
+  /**
+   * The time used by each rule, including the time measured before this partition was created.
+   */
+  long[] getCosts() {
+    final long[] costs = previousCosts.clone();
+    final List<RuleChunk> chunks = new ArrayList<>(sentenceChunks);
+    chunks.addAll(textChunks);
+    chunks.add(allSentenceRules);
+    for (RuleChunk chunk : chunks) {
+      for (int i = 0; i < chunk.ruleIndexes.length; i++) {
+        costs[chunk.ruleIndexes[i]] += chunk.costs.get(i);
+      }
+    }
+    return costs;
+  }
+
+  /**
+   * Some rules of a partition, with the time they use.
+   */
+  static class RuleChunk {
+
+    final List<Rule> rules;
+    final RuleIndex ruleIndex;
+    final RuleCosts costs;
+    // the positions of the rules in the complete rule list:
+    private final int[] ruleIndexes;
+
+    RuleChunk(List<Rule> allRules, List<Integer> ruleIndexes) {
+      this.rules = new ArrayList<>(ruleIndexes.size());
+      this.ruleIndexes = new int[ruleIndexes.size()];
+      for (int i = 0; i < ruleIndexes.size(); i++) {
+        this.rules.add(allRules.get(ruleIndexes.get(i)));
+        this.ruleIndexes[i] = ruleIndexes.get(i);
+      }
+      this.ruleIndex = new RuleIndex(rules);
+      this.costs = new RuleCosts(rules.size());
+    }
+  }
+
+}
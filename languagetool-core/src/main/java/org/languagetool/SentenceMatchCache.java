@@ -0,0 +1,238 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.tools.LruCache;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Keeps the analysis of sentences and the matches that the sentence-level rules found in them,
+ * so that sentences which occur again, e.g. signatures or quoted text in mails, don't need to
+ * be analyzed and checked again. Use it with {@link JLanguageTool#setSentenceMatchCache(SentenceMatchCache)}.
+ * One cache can be used by any number of {@link JLanguageTool} instances, also with different
+ * languages and rule configurations, as these are part of the key.
+ *
+ * <p>Only rules that check each sentence on its own are cached. Other rules may depend on the
+ * sentences before, so they are applied to the (cached) analysis of the sentences for each check.
+ * The key contains the active rules themselves, not just their ids, and the settings of the
+ * spelling rules (see {@link org.languagetool.rules.spelling.SpellingCheckRule#getMatchingSettings()}),
+ * so changing these is safe while the cache is used.</p>
+ *
+ * <p>The cache size is limited by the total length of the cached sentences. When it's full, the
+ * sentences that were used least recently are removed. If several threads need the same sentence at
+ * the same time, it's analyzed and checked only once and the other threads wait for the result.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 2.7
+ */
+public class SentenceMatchCache {
+
+  private final LruCache<Key, FutureTask<Entry>> cache;
+
+  /**
+   * @param maxWeight maximum total length of the cached sentences in characters
+   */
+  public SentenceMatchCache(long maxWeight) {
+    cache = new LruCache<>(maxWeight);
+  }
+
+  /**
+   * Get the entry for the key, calling the loader if it's not in the cache yet.
+   */
+  Entry get(Key key, Callable<Entry> loader) throws IOException {
+    while (true) {
+      FutureTask<Entry> task = cache.get(key);
+      boolean isLoader = false;
+      if (task == null) {
+        final FutureTask<Entry> newTask = new FutureTask<>(loader);
+        task = cache.putIfAbsent(key, newTask, key.getWeight());
+        if (task == null) {
+          // we're the first to ask for this sentence - other threads wait for the result:
+          task = newTask;
+          isLoader = true;
+          task.run();
+        }
+      }
+      try {
+        return task.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while waiting for the check of a sentence", e);
+      } catch (ExecutionException e) {
+        // don't keep the failure, so the next call can try again:
+        cache.remove(key, task);
+        if (!isLoader && e.getCause() instanceof CheckCancelledException) {
+          continue;  // the check of another thread has been cancelled, not ours
+        }
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new RuntimeException(e.getCause());
+      }
+    }
+  }
+
+  /**
+   * Remove all entries. The statistics are not reset.
+   */
+  public void clear() {
+    cache.clear();
+  }
+
+  /**
+   * Number of cached sentences.
+   */
+  public int getSize() {
+    return cache.getSize();
+  }
+
+  /**
+   * Total length of the cached sentences in characters.
+   */
+  public long getWeight() {
+    return cache.getWeight();
+  }
+
+  /**
+   * Number of sentences that were found in the cache, including those that were being checked
+   * by another thread at the time.
+   */
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  /**
+   * Number of sentences that were not found in the cache and had to be analyzed and checked.
+   */
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  /**
+   * Number of sentences that were removed because the cache was full.
+   */
+  public long getEvictionCount() {
+    return cache.getEvictionCount();
+  }
+
+  @Override
+  public String toString() {
+    return "SentenceMatchCache{" + cache + "}";
+  }
+
+  /**
+   * A sentence together with everything the result of checking it depends on.
+   */
+  static class Key {
+
+    private final Object ruleConfiguration;
+    private final String sentence;
+    private final boolean paragraphEnd;
+    private final int hashCode;
+
+    /**
+     * @param ruleConfiguration identifies the language, the mother tongue and the active sentence-level
+     *    rules, see {@link RuleConfiguration}
+     * @param paragraphEnd whether the sentence is the last one of the text
+     */
+    Key(Object ruleConfiguration, String sentence, boolean paragraphEnd) {
+      this.ruleConfiguration = Objects.requireNonNull(ruleConfiguration);
+      this.sentence = Objects.requireNonNull(sentence);
+      this.paragraphEnd = paragraphEnd;
+      this.hashCode = Objects.hash(ruleConfiguration, sentence, paragraphEnd);
+    }
+
+    int getWeight() {
+      return Math.max(1, sentence.length());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      final Key other = (Key) o;
+      return hashCode == other.hashCode
+          && paragraphEnd == other.paragraphEnd
+          && sentence.equals(other.sentence)
+          && ruleConfiguration.equals(other.ruleConfiguration);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /**
+   * Everything the matches of the sentence-level rules depend on, apart from the sentence. The parts
+   * are compared with {@code equals()}, so rules that don't override it are compared by identity.
+   * The hash code is computed only once, as there may be thousands of active rules.
+   */
+  static class RuleConfiguration {
+
+    private final List<Object> parts;
+    private final int hashCode;
+
+    RuleConfiguration(List<Object> parts) {
+      this.parts = Objects.requireNonNull(parts);
+      this.hashCode = parts.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      final RuleConfiguration other = (RuleConfiguration) o;
+      return hashCode == other.hashCode && parts.equals(other.parts);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /**
+   * The analysis of a sentence and the matches of the sentence-level rules, with positions relative
+   * to the start of the sentence. Neither must be modified, as they are shared by all users of the cache.
+   */
+  static class Entry {
+
+    final AnalyzedSentence analyzedSentence;
+    final List<RuleMatch> matches;
+
+    Entry(AnalyzedSentence analyzedSentence, List<RuleMatch> matches) {
+      this.analyzedSentence = analyzedSentence;
+      this.matches = Collections.unmodifiableList(matches);
+    }
+  }
+
+}
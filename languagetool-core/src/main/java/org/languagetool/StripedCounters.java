@@ -0,0 +1,71 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed number of counters that many threads can add to without contending for the same
+ * memory: each thread adds to its own stripe, chosen by the thread id, and reading a counter
+ * sums up its stripes. Reading is not atomic across counters, which is fine for metrics.
+ * Thread-safe and lock-free.
+ * @since 2.7
+ */
+class StripedCounters {
+
+  // longs per cache line, so stripes don't share a cache line if padding is used:
+  private static final int CACHE_LINE_LONGS = 8;
+  private static final int STRIPES = getStripeCount();
+
+  private final AtomicLongArray cells;
+  private final int counterCount;
+  private final int stripeLength;
+
+  /**
+   * @param padded whether each stripe gets its own cache lines - reduces contention further,
+   *               but needs more memory, so use it for counters that get updated very often
+   */
+  StripedCounters(int counterCount, boolean padded) {
+    this.counterCount = counterCount;
+    this.stripeLength = padded ? ((counterCount + CACHE_LINE_LONGS - 1) / CACHE_LINE_LONGS + 1) * CACHE_LINE_LONGS : counterCount;
+    this.cells = new AtomicLongArray(STRIPES * stripeLength);
+  }
+
+  private static int getStripeCount() {
+    final int processors = Math.min(Runtime.getRuntime().availableProcessors(), 64);
+    return Integer.highestOneBit(Math.max(processors * 2 - 1, 1));
+  }
+
+  void add(int counter, long value) {
+    final int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+    cells.addAndGet(stripe * stripeLength + counter, value);
+  }
+
+  long get(int counter) {
+    if (counter < 0 || counter >= counterCount) {
+      throw new IndexOutOfBoundsException("counter: " + counter);
+    }
+    long sum = 0;
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      sum += cells.get(stripe * stripeLength + counter);
+    }
+    return sum;
+  }
+
+}
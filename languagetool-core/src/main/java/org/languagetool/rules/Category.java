@@ -18,13 +18,15 @@
  */
 package org.languagetool.rules;
 
+import java.io.Serializable;
+
 /**
  * A rule's category. Categories are used to group rules for
  * a better overview.
  * 
  * @author Daniel Naber
  */
-public class Category {
+public class Category implements Serializable {
 
   private static final int DEFAULT_PRIORITY = 50;
   
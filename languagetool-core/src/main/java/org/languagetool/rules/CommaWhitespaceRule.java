@@ -169,4 +169,9 @@ public class CommaWhitespaceRule extends Rule {
     // nothing
   }
 
+  @Override
+  public boolean isSentenceIndependent() {
+    return true;
+  }
+
 }
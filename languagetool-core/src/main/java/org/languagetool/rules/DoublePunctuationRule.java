@@ -107,4 +107,9 @@ public class DoublePunctuationRule extends Rule {
     // nothing
   }
 
+  @Override
+  public boolean isSentenceIndependent() {
+    return true;
+  }
+
 }
@@ -18,6 +18,7 @@
  */
 package org.languagetool.rules;
 
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -28,7 +29,7 @@ import java.util.List;
  * @since 0.9.2
  * @author Daniel Naber
  */
-public class IncorrectExample {
+public class IncorrectExample implements Serializable {
 
   private final String example;
   private final List<String> corrections;
@@ -100,4 +100,9 @@ public class LongSentenceRule extends Rule {
     // nothing here
   }
 
+  @Override
+  public boolean isSentenceIndependent() {
+    return true;
+  }
+
 }
\ No newline at end of file
@@ -95,4 +95,9 @@ public class MultipleWhitespaceRule extends Rule {
     // nothing
   }
 
+  @Override
+  public boolean isSentenceIndependent() {
+    return true;
+  }
+
 }
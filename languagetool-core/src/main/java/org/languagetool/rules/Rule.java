@@ -19,15 +19,20 @@
 package org.languagetool.rules;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.ResourceBundle;
 
 import org.languagetool.AnalyzedSentence;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
+import org.languagetool.ResourceBundleWithFallback;
 
 /**
  * Abstract rule class. A Rule describes a language error and can test whether a
@@ -36,9 +41,10 @@ import org.languagetool.Language;
  * 
  * @author Daniel Naber
  */
-public abstract class Rule {
+public abstract class Rule implements Serializable {
 
-  protected final ResourceBundle messages;
+  // not final, as it needs to be restored after deserialization, see readObject():
+  protected transient ResourceBundle messages;
 
   private List<String> correctExamples = new ArrayList<>();
   private List<IncorrectExample> incorrectExamples = new ArrayList<>();
@@ -47,11 +53,13 @@ public abstract class Rule {
   private URL url;
   /** If true, then the rule is turned off by default. */
   private boolean defaultOff;
+  /** If true, then the rule is used by several JLanguageTool instances, see {@link #setShared()}. */
+  private transient volatile boolean shared;
   /** Used by paragraph rules to signal that they can remove previous rule matches */
   private boolean paragraphBackTrack;
-  /** The final list of RuleMatches, without removed matches. */
-  private List<RuleMatch> previousMatches;
-  private List<RuleMatch> removedMatches;
+  /** The final list of RuleMatches, without removed matches. Created lazily, also after deserialization. */
+  private transient List<RuleMatch> previousMatches;
+  private transient List<RuleMatch> removedMatches;
 
   /**
    * Called by language-dependent rules.
@@ -138,6 +146,18 @@ public abstract class Rule {
     return false;
   }
 
+  /**
+   * Whether the matches of this rule depend only on the sentence that is checked, i.e. the rule
+   * keeps no state from one sentence to the next. The matches of such rules can be cached per
+   * sentence, e.g. by {@link org.languagetool.IncrementalCheckSession}, so they are not checked
+   * again when other parts of the text change. Rules that override this to return {@code true}
+   * must not get any state from previous calls of {@link #match(AnalyzedSentence)}.
+   * @since 2.7
+   */
+  public boolean isSentenceIndependent() {
+    return false;
+  }
+
   /**
    * Set the examples that are correct and thus do not trigger the rule.
    */
@@ -250,17 +270,48 @@ public abstract class Rule {
 
   /**
    * Turns the rule off by default.
+   * @throws UnsupportedOperationException if the rule is {@link #isShared() shared}
    */
   public final void setDefaultOff() {
+    checkNotShared();
     defaultOff = true;
   }
 
   /**
    * Turns the rule on by default.
+   * @throws UnsupportedOperationException if the rule is {@link #isShared() shared}
    */
   public final void setDefaultOn() {
+    checkNotShared();
     defaultOff = false;
   }
+
+  /**
+   * Marks the rule as shared by several {@link org.languagetool.JLanguageTool} instances, like the rules
+   * of the {@link org.languagetool.rules.patterns.PatternRuleRegistry}. Its default on/off status cannot
+   * be changed after that, as this would affect all those instances - use
+   * {@link org.languagetool.JLanguageTool#enableDefaultOffRule(String)} or
+   * {@link org.languagetool.JLanguageTool#disableRule(String)} to configure a single instance instead.
+   * @since 2.7
+   */
+  public final void setShared() {
+    shared = true;
+  }
+
+  /**
+   * Whether the rule is used by several {@link org.languagetool.JLanguageTool} instances, see {@link #setShared()}.
+   * @since 2.7
+   */
+  public final boolean isShared() {
+    return shared;
+  }
+
+  private void checkNotShared() {
+    if (shared) {
+      throw new UnsupportedOperationException("Rule " + getId() + " is shared by several JLanguageTool instances,"
+              + " use JLanguageTool.enableDefaultOffRule() or disableRule() instead of changing its default status");
+    }
+  }
   
   /**
    * An optional URL describing the rule match in more detail. Typically points to a dictionary or grammar website
@@ -313,4 +364,20 @@ public abstract class Rule {
     correctExamples.add(correctSentence);
   }
 
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    // the message bundle isn't serializable, it is loaded again for its locale:
+    out.writeObject(messages != null ? messages.getLocale() : null);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    final Locale locale = (Locale) in.readObject();
+    if (locale != null) {
+      final ResourceBundle.Control control = ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_DEFAULT);
+      messages = new ResourceBundleWithFallback(ResourceBundle.getBundle(JLanguageTool.MESSAGE_BUNDLE, locale, control),
+              ResourceBundle.getBundle(JLanguageTool.MESSAGE_BUNDLE, Locale.ENGLISH));
+    }
+  }
+
 }
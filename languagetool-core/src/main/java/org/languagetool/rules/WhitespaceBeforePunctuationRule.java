@@ -108,4 +108,9 @@ public class WhitespaceBeforePunctuationRule extends Rule {
     // nothing
   }
 
+  @Override
+  public boolean isSentenceIndependent() {
+    return true;
+  }
+
 }
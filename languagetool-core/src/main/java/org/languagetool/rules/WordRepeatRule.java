@@ -106,4 +106,9 @@ public class WordRepeatRule extends Rule {
     // nothing
   }
 
+  @Override
+  public boolean isSentenceIndependent() {
+    return true;
+  }
+
 }
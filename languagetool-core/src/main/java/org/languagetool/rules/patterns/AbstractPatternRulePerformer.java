@@ -27,15 +27,24 @@ import org.languagetool.AnalyzedToken;
 import org.languagetool.AnalyzedTokenReadings;
 
 /**
+ * Applies a pattern rule to a sentence. All state that changes while matching is kept
+ * in an instance of this class (and in its {@link ElementMatcher}s), never in the rule,
+ * so create a new instance for each sentence - the rules can then be used by several
+ * threads at the same time.
  * @since 2.3
  */
 public abstract class AbstractPatternRulePerformer {
 
   protected boolean prevMatched;
-  protected AbstractPatternRule rule;
-  protected Unifier unifier;
+  protected final AbstractPatternRule rule;
+  /** {@code null} if the rule doesn't use unification */
+  protected final Unifier unifier;
   protected AnalyzedTokenReadings[] unifiedTokens;
 
+  /**
+   * @param unifier a new unifier that's only used by this instance, may be {@code null}
+   *                if the rule doesn't use unification
+   */
   protected AbstractPatternRulePerformer(AbstractPatternRule rule, Unifier unifier) {
     this.rule = rule;
     this.unifier = unifier;
@@ -108,7 +117,7 @@ public abstract class AbstractPatternRulePerformer {
           return false;
         }
       }
-      if (elem.getElement().isUnificationNeutral()) {
+      if (unifier != null && elem.getElement().isUnificationNeutral()) {
         unifier.addNeutralElement(tokens[tokenNo]);
       }
     }
@@ -18,6 +18,7 @@
  */
 package org.languagetool.rules.patterns;
 
+import java.io.Serializable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,6 +31,7 @@ import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.JLanguageTool;
 import org.languagetool.chunking.ChunkTag;
 import org.languagetool.synthesis.Synthesizer;
+import org.languagetool.tagging.PosTagPattern;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -37,7 +39,7 @@ import org.languagetool.tools.StringTools;
  * 
  * @author Daniel Naber
  */
-public class Element implements Cloneable {
+public class Element implements Cloneable, Serializable {
 
   /** Matches only tokens without any POS tag. **/
   public static final String UNKNOWN_TAG = "UNKNOWN";
@@ -83,7 +85,7 @@ public class Element implements Cloneable {
   private int maxOccurrence = 1;
 
   private Pattern p;
-  private Pattern pPos;
+  private PosTagPattern pPos;
 
   /** The reference to another element in the pattern. **/
   private Match tokenReference;
@@ -328,9 +330,8 @@ public class Element implements Cloneable {
     this.posNegation = negation;
     posRegExp = regExp;
     if (posRegExp) {
-      pPos = Pattern.compile(posToken);
-      final Matcher mPos = pPos.matcher(UNKNOWN_TAG);
-      posUnknown = mPos.matches();
+      pPos = PosTagPattern.compile(posToken);
+      posUnknown = pPos.getPattern().matcher(UNKNOWN_TAG).matches();
     } else {
       posUnknown = UNKNOWN_TAG.equals(posToken);
     }
@@ -475,8 +476,7 @@ public class Element implements Cloneable {
     }
     boolean match;
     if (posRegExp) {
-      final Matcher mPos = pPos.matcher(token.getPOSTag());
-      match = mPos.matches();
+      match = pPos.matches(token);
     } else {
       match = posToken.equals(token.getPOSTag());
     }
@@ -823,6 +823,17 @@ public class Element implements Cloneable {
     return whitespaceBefore == token.isWhitespaceBefore();
   }
 
+  /**
+   * A key that is the same for two elements if {@link #isMatched(AnalyzedToken)} gives
+   * the same result for them for every token.
+   * @since 2.7
+   */
+  final String getTokenPredicateKey() {
+    return (testString ? stringToken : "") + '\u0000' + caseSensitive + stringRegExp + inflected + negation
+        + '\u0000' + posToken + posRegExp + posNegation
+        + '\u0000' + testWhitespace + (testWhitespace && whitespaceBefore);
+  }
+
   /**
    * @return A List of Exceptions. Used for testing.
    * @since 1.0.0
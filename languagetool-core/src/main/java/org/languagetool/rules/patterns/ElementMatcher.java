@@ -29,6 +29,9 @@ import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.Language;
 
 /**
+ * Matches an {@link Element} against tokens. Keeps the state of matching one sentence
+ * (the resolved reference and the and-group status), so it must not be shared between
+ * threads or re-used for another sentence.
  * @since 2.3
  */
 public class ElementMatcher {
@@ -18,10 +18,12 @@
  */
 package org.languagetool.rules.patterns;
 
+import java.io.Serializable;
 import java.util.regex.Pattern;
 
 import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.synthesis.Synthesizer;
+import org.languagetool.tagging.PosTagPattern;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -31,7 +33,7 @@ import org.languagetool.tools.StringTools;
  *
  * @author Marcin Miłkowski
  */
-public class Match {
+public class Match implements Serializable {
 
   /** Possible string case conversions. **/
   public enum CaseConversion {
@@ -66,13 +68,13 @@ public class Match {
   private int tokenRef;
 
   /** Word form generator for POS tags. **/
-  private Synthesizer synthesizer;
+  private transient Synthesizer synthesizer;
 
   /** Pattern used to define parts of the matched token. **/
   private Pattern pRegexMatch;
 
   /** Pattern used to define parts of the matched POS token. **/
-  private Pattern pPosRegexMatch;
+  private PosTagPattern pPosRegexMatch;
 
   /**
    * True when the match is not in the suggestion.
@@ -93,7 +95,7 @@ public class Match {
       pRegexMatch = Pattern.compile(regexMatch);
     }
     if (postagRegexp && posTag != null) {
-      pPosRegexMatch = Pattern.compile(posTag);
+      pPosRegexMatch = PosTagPattern.compile(posTag);
     }
 
     this.regexReplace = regexReplace;
@@ -153,7 +155,7 @@ public class Match {
       staticLemma = true;
       postagRegexp = true;
       if (posTag != null) {
-        pPosRegexMatch = Pattern.compile(posTag);
+        pPosRegexMatch = PosTagPattern.compile(posTag);
       }
     }
   }
@@ -272,6 +274,10 @@ public class Match {
    * @since 2.3
    */
   public Pattern getPosRegexMatch() {
+    return pPosRegexMatch != null ? pPosRegexMatch.getPattern() : null;
+  }
+
+  PosTagPattern getPosTagPattern() {
     return pPosRegexMatch;
   }
 
@@ -34,6 +34,7 @@ import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
 import org.languagetool.rules.patterns.Match.IncludeRange;
 import org.languagetool.synthesis.Synthesizer;
+import org.languagetool.tagging.PosTagPattern;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -124,11 +125,11 @@ public class MatchState {
         final int numRead = formattedToken.getReadingsLength();
         if (match.isPostagRegexp()) {
           Pattern pPosRegexMatch = match.getPosRegexMatch();
+          PosTagPattern posTagPattern = match.getPosTagPattern();
           String posTagReplace = match.getPosTagReplace();
           String targetPosTag;
           for (int i = 0; i < numRead; i++) {
-            final String tst = formattedToken.getAnalyzedToken(i).getPOSTag();
-            if (tst != null && pPosRegexMatch.matcher(tst).matches()) {
+            if (posTagPattern.matches(formattedToken.getAnalyzedToken(i))) {
               targetPosTag = formattedToken.getAnalyzedToken(i).getPOSTag();
               if (posTagReplace != null) {
                 targetPosTag = pPosRegexMatch.matcher(targetPosTag).replaceAll(posTagReplace);
@@ -361,12 +362,12 @@ public class MatchState {
     String targetPosTag = match.getPosTag();
     final List<String> posTags = new ArrayList<>();
     Pattern pPosRegexMatch = match.getPosRegexMatch();
+    PosTagPattern posTagPattern = match.getPosTagPattern();
     String posTagReplace = match.getPosTagReplace();
 
     if (match.isStaticLemma()) {
       for (AnalyzedToken analyzedToken : matchedToken) {
-        final String tst = analyzedToken.getPOSTag();
-        if (tst != null && pPosRegexMatch.matcher(tst).matches()) {
+        if (analyzedToken.getPOSTag() != null && posTagPattern.matches(analyzedToken)) {
           targetPosTag = analyzedToken.getPOSTag();
           posTags.add(targetPosTag);
         }
@@ -378,8 +379,7 @@ public class MatchState {
       }
     } else {
       for (AnalyzedToken analyzedToken : formattedToken) {
-        final String tst = analyzedToken.getPOSTag();
-        if (tst != null && pPosRegexMatch.matcher(tst).matches()) {
+        if (analyzedToken.getPOSTag() != null && posTagPattern.matches(analyzedToken)) {
           targetPosTag = analyzedToken.getPOSTag();
           posTags.add(targetPosTag);
         }
@@ -0,0 +1,295 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+import org.languagetool.rules.Rule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Matches the beginnings of many pattern rules in one pass over a sentence. The leading
+ * elements of the rules are merged into a tree in which rules that start with the same
+ * elements share a path, so each element is tested only once per token position. Elements
+ * that require a word (or one of a list of words like {@code a|an}) are looked up by the
+ * token instead of being tested one by one.
+ * The result is the positions at which a match of each rule may start - the complete
+ * match is then done by {@link PatternRule#match(AnalyzedSentence, java.util.BitSet)}.
+ *
+ * <p>Only the element properties checked by {@link Element#isMatched(AnalyzedToken)} are
+ * used here. Everything else (exceptions, skipping, chunks, immunization etc.) can only
+ * prevent a match, so the start positions found by this class are a superset of the real
+ * ones and the final matches are the same as without this class. Rules with unification
+ * or and-groups, and rules whose first element is optional or doesn't require a word,
+ * are not included.</p>
+ *
+ * <p>Immutable and thus thread-safe.</p>
+ *
+ * @since 2.7
+ */
+public final class MultiPatternMatcher {
+
+  // words separated by '|', without any characters that have a special meaning in a regular expression:
+  private static final Pattern WORD_LIST = Pattern.compile("[\\p{L}\\p{N}'’-]+(\\|[\\p{L}\\p{N}'’-]+)*");
+
+  private final Node root = new Node(null);
+  private final BitSet compiledRules = new BitSet();
+  private final int ruleCount;
+
+  /**
+   * @param rules the rules - they are referred to by their position in this list
+   */
+  public MultiPatternMatcher(List<? extends Rule> rules) {
+    ruleCount = rules.size();
+    for (int i = 0; i < rules.size(); i++) {
+      final Rule rule = rules.get(i);
+      if (rule instanceof PatternRule && isCompilable((PatternRule) rule)) {
+        Node node = root;
+        node.subtreeRules.set(i);
+        for (Element element : getPrefix((PatternRule) rule)) {
+          node = node.getOrAddChild(element);
+          node.subtreeRules.set(i);
+        }
+        node.rules.add(i);
+        compiledRules.set(i);
+      }
+    }
+  }
+
+  private boolean isCompilable(PatternRule rule) {
+    if (rule.testUnification || rule.isGroupsOrUnification() || rule.patternElements.isEmpty()) {
+      return false;
+    }
+    final Element first = rule.patternElements.get(0);
+    // only rules that start with a word can be looked up quickly:
+    return first.getMinOccurrence() > 0 && !first.isReferenceElement() && getLiterals(first) != null;
+  }
+
+  /**
+   * The leading elements that must match consecutive tokens, starting at the start
+   * position of the match. All of them need to either have exceptions or not have
+   * exceptions, see {@link PatternRuleMatcher#match(AnalyzedSentence, BitSet)}.
+   */
+  private List<Element> getPrefix(PatternRule rule) {
+    final List<Element> elements = rule.patternElements;
+    final List<Element> prefix = new ArrayList<>();
+    final boolean firstHasExceptions = elements.get(0).getExceptionList() != null;
+    prefix.add(elements.get(0));
+    for (int k = 1; k < elements.size(); k++) {
+      final Element prev = elements.get(k - 1);
+      final Element element = elements.get(k);
+      if (prev.getSkipNext() != 0 || prev.getMinOccurrence() != 1 || prev.getMaxOccurrence() != 1) {
+        break;
+      }
+      if (element.getMinOccurrence() < 1 || element.isReferenceElement() || element.hasAndGroup()
+              || (element.getExceptionList() != null) != firstHasExceptions) {
+        break;
+      }
+      prefix.add(element);
+    }
+    return prefix;
+  }
+
+  /**
+   * Whether the rule at the given position has been compiled, i.e. whether
+   * {@link #getStartPositions(AnalyzedSentence, BitSet)} can be used for it.
+   */
+  public boolean isCompiled(int ruleIndex) {
+    return compiledRules.get(ruleIndex);
+  }
+
+  /**
+   * Find the positions in {@link AnalyzedSentence#getTokensWithoutWhitespace()} at which
+   * matches of the given rules may start.
+   * @param relevantRules the positions of the rules to consider
+   * @return an array with an entry for each rule position, which is {@code null} for rules that are
+   *   not compiled or not relevant, and otherwise contains the possible start positions (maybe none)
+   */
+  public BitSet[] getStartPositions(AnalyzedSentence sentence, BitSet relevantRules) {
+    final BitSet[] result = new BitSet[ruleCount];
+    if (!root.subtreeRules.intersects(relevantRules)) {
+      return result;
+    }
+    final AnalyzedTokenReadings[] tokens = sentence.getTokensWithoutWhitespace();
+    for (int i = compiledRules.nextSetBit(0); i >= 0; i = compiledRules.nextSetBit(i + 1)) {
+      if (relevantRules.get(i)) {
+        result[i] = new BitSet(tokens.length);
+      }
+    }
+    final List<List<String>> literalKeys = new ArrayList<>(tokens.length);
+    for (AnalyzedTokenReadings token : tokens) {
+      final List<String> keys = new ArrayList<>(1);
+      for (AnalyzedToken reading : token) {
+        final String key = getLiteralKey(reading.getToken());
+        if (!keys.contains(key)) {
+          keys.add(key);
+        }
+      }
+      literalKeys.add(keys);
+    }
+    for (int i = 0; i < tokens.length; i++) {
+      visitLiteralChildren(root, tokens, literalKeys, i, i, relevantRules, result);
+    }
+    return result;
+  }
+
+  private void visitChildren(Node node, AnalyzedTokenReadings[] tokens, List<List<String>> literalKeys,
+                             int start, int pos, BitSet relevantRules, BitSet[] result) {
+    if (pos >= tokens.length) {
+      return;
+    }
+    visitLiteralChildren(node, tokens, literalKeys, start, pos, relevantRules, result);
+    for (Node child : node.otherChildren) {
+      visit(child, tokens, literalKeys, start, pos, relevantRules, result);
+    }
+  }
+
+  private void visitLiteralChildren(Node node, AnalyzedTokenReadings[] tokens, List<List<String>> literalKeys,
+                                    int start, int pos, BitSet relevantRules, BitSet[] result) {
+    for (String key : literalKeys.get(pos)) {
+      final List<Node> children = node.literalChildren.get(key);
+      if (children != null) {
+        for (Node child : children) {
+          visit(child, tokens, literalKeys, start, pos, relevantRules, result);
+        }
+      }
+    }
+  }
+
+  private void visit(Node node, AnalyzedTokenReadings[] tokens, List<List<String>> literalKeys,
+                     int start, int pos, BitSet relevantRules, BitSet[] result) {
+    if (node.subtreeRules.intersects(relevantRules)) {
+      visitMatching(node, tokens, literalKeys, start, pos, relevantRules, result);
+    }
+  }
+
+  private void visitMatching(Node node, AnalyzedTokenReadings[] tokens, List<List<String>> literalKeys,
+                             int start, int pos, BitSet relevantRules, BitSet[] result) {
+    if (!isMatched(node.element, tokens[pos])) {
+      return;
+    }
+    for (Integer rule : node.rules) {
+      if (result[rule] != null) {
+        result[rule].set(start);
+      }
+    }
+    visitChildren(node, tokens, literalKeys, start, pos + 1, relevantRules, result);
+  }
+
+  private static boolean isMatched(Element element, AnalyzedTokenReadings token) {
+    // without POS tag and lemma, only the token matters, which is usually the same for all readings:
+    final boolean tokenOnly = element.getPOStag() == null && !element.isInflected();
+    AnalyzedToken prevReading = null;
+    for (AnalyzedToken reading : token) {
+      if (tokenOnly && prevReading != null && reading.getToken().equals(prevReading.getToken())
+              && reading.isWhitespaceBefore() == prevReading.isWhitespaceBefore()) {
+        continue;
+      }
+      if (element.isMatched(reading)) {
+        return true;
+      }
+      prevReading = reading;
+    }
+    return false;
+  }
+
+  /**
+   * The strings one of which a token needs to be equal to (ignoring case) to match the element,
+   * or {@code null} if there's no such list. Besides plain strings, this works for regular
+   * expressions that are just a list of words like {@code a|an|the}.
+   */
+  private static List<String> getLiterals(Element element) {
+    final String string = element.getString();
+    if (string == null || string.isEmpty() || element.getNegation() || element.isInflected()) {
+      return null;
+    }
+    if (!element.isRegularExpression()) {
+      return Collections.singletonList(string);
+    }
+    String regex = string;
+    if (regex.startsWith("(?:") && regex.endsWith(")")) {
+      regex = regex.substring(3, regex.length() - 1);
+    } else if (regex.startsWith("(") && regex.endsWith(")")) {
+      regex = regex.substring(1, regex.length() - 1);
+    }
+    if (!WORD_LIST.matcher(regex).matches()) {
+      return null;
+    }
+    return Arrays.asList(regex.split("\\|"));
+  }
+
+  // the same key for all strings that are equal according to String.equalsIgnoreCase():
+  private static String getLiteralKey(String token) {
+    final char[] chars = token.toCharArray();
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+    }
+    return new String(chars);
+  }
+
+  private static class Node {
+
+    private final Element element;
+    private final Map<String, Node> children = new HashMap<>();
+    private final Map<String, List<Node>> literalChildren = new HashMap<>();
+    private final List<Node> otherChildren = new ArrayList<>();
+    private final List<Integer> rules = new ArrayList<>();
+    private final BitSet subtreeRules = new BitSet();
+
+    Node(Element element) {
+      this.element = element;
+    }
+
+    Node getOrAddChild(Element childElement) {
+      final String key = childElement.getTokenPredicateKey();
+      Node child = children.get(key);
+      if (child == null) {
+        child = new Node(childElement);
+        children.put(key, child);
+        final List<String> literals = getLiterals(childElement);
+        if (literals != null) {
+          for (String literal : literals) {
+            final String literalKey = getLiteralKey(literal);
+            List<Node> nodes = literalChildren.get(literalKey);
+            if (nodes == null) {
+              nodes = new ArrayList<>();
+              literalChildren.put(literalKey, nodes);
+            }
+            if (!nodes.contains(child)) {
+              nodes.add(child);
+            }
+          }
+        } else {
+          otherChildren.add(child);
+        }
+      }
+      return child;
+    }
+  }
+
+}
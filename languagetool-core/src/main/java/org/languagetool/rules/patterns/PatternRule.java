@@ -19,6 +19,8 @@
 package org.languagetool.rules.patterns;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.*;
 
 import org.languagetool.AnalyzedSentence;
@@ -30,6 +32,9 @@ import org.languagetool.tools.StringTools;
 /**
  * A Rule that describes a language error as a simple pattern of words or of
  * part-of-speech tags.
+ *
+ * <p>Once loaded, a pattern rule isn't modified by matching, so {@link #match(AnalyzedSentence)}
+ * can be called by several threads at the same time.</p>
  * 
  * @author Daniel Naber
  */
@@ -48,7 +53,7 @@ public class PatternRule extends AbstractPatternRule {
   // a list of antipatterns used in the rule.
   private final List<DisambiguationPatternRule> antiPatterns;
 
-  private RuleFilter filter;
+  private transient RuleFilter filter;
   private String filterArgs;
   private String message;
   private String suggestionsOutMsg; // extra suggestions outside message
@@ -192,9 +197,20 @@ public class PatternRule extends AbstractPatternRule {
 
   @Override
   public final RuleMatch[] match(final AnalyzedSentence sentence) throws IOException {
+    return match(sentence, null);
+  }
+
+  /**
+   * Like {@link #match(AnalyzedSentence)}, but only tries the matches that start at the given
+   * positions of {@link AnalyzedSentence#getTokensWithoutWhitespace()}. Used internally with the
+   * positions found by {@link MultiPatternMatcher}, as no match can start elsewhere.
+   * @param startPositions the token positions to try, or {@code null} to try all positions
+   * @since 2.7
+   */
+  public final RuleMatch[] match(final AnalyzedSentence sentence, final BitSet startPositions) throws IOException {
     try {
       final PatternRuleMatcher matcher = new PatternRuleMatcher(this, useList);
-      return matcher.match(getSentenceWithImmunization(sentence));
+      return matcher.match(getSentenceWithImmunization(sentence), startPositions);
     } catch (IOException e) {
       throw new IOException("Error analyzing sentence: '" + sentence + "'", e);
     } catch (Exception e) {
@@ -202,6 +218,15 @@ public class PatternRule extends AbstractPatternRule {
     }
   }
 
+  /**
+   * Pattern rules match each sentence on its own, unless they can remove matches of previous sentences.
+   * @since 2.7
+   */
+  @Override
+  public boolean isSentenceIndependent() {
+    return !isParagraphBackTrack();
+  }
+
   /** Add formatted suggestion elements. */
   public final void addSuggestionMatch(final Match m) {
     if (suggestionMatches == null) {
@@ -242,6 +267,24 @@ public class PatternRule extends AbstractPatternRule {
             || (!inflectedRuleTokens.isEmpty() && !sentence.getLemmaSet().containsAll(inflectedRuleTokens));
   }
 
+  /**
+   * The lowercase tokens that a sentence must contain so this rule can match.
+   * Used internally for performance optimization.
+   * @since 2.7
+   */
+  public Set<String> getRequiredTokens() {
+    return Collections.unmodifiableSet(simpleRuleTokens);
+  }
+
+  /**
+   * The lowercase lemmas that a sentence must contain so this rule can match.
+   * Used internally for performance optimization.
+   * @since 2.7
+   */
+  public Set<String> getRequiredLemmas() {
+    return Collections.unmodifiableSet(inflectedRuleTokens);
+  }
+
   // tokens that just refer to a word - no regex, no inflection etc.
   private synchronized Set<String> getSimpleTokens() {
     if (tokenSet == null) {
@@ -335,4 +378,18 @@ public class PatternRule extends AbstractPatternRule {
     return sentence;
   }
 
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    // filters don't need to be serializable, they are created again from their class name:
+    out.writeObject(filter != null ? filter.getClass().getName() : null);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    final String filterClassName = (String) in.readObject();
+    if (filterClassName != null) {
+      filter = new RuleFilterCreator().getFilter(filterClassName);
+    }
+  }
+
 }
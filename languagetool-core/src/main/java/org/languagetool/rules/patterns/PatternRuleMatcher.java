@@ -29,10 +29,12 @@ import org.languagetool.tools.StringTools;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 /**
- * Matches a pattern rule against text.
+ * Matches a pattern rule against text. Keeps the state of matching one sentence,
+ * so a new instance is needed for each call of {@link #match(AnalyzedSentence)}.
  */
 class PatternRuleMatcher extends AbstractPatternRulePerformer {
 
@@ -44,12 +46,20 @@ class PatternRuleMatcher extends AbstractPatternRulePerformer {
   private final List<ElementMatcher> elementMatchers;
 
   PatternRuleMatcher(PatternRule rule, boolean useList) {
-    super(rule, rule.getLanguage().getUnifier());
+    // creating a unifier is not free, so only do it for rules that need one:
+    super(rule, rule.isTestUnification() ? rule.getLanguage().getUnifier() : null);
     this.useList = useList;
     this.elementMatchers = createElementMatchers();
   }
 
   final RuleMatch[] match(final AnalyzedSentence sentence) throws IOException {
+    return match(sentence, null);
+  }
+
+  /**
+   * @param startPositions the only token positions where a match may start, or {@code null}
+   */
+  final RuleMatch[] match(final AnalyzedSentence sentence, final BitSet startPositions) throws IOException {
     final List<RuleMatch> ruleMatches = new ArrayList<>();
     final AnalyzedTokenReadings[] tokens = sentence.getTokensWithoutWhitespace();
     final List<Integer> tokenPositions = new ArrayList<>(tokens.length + 1);
@@ -59,6 +69,13 @@ class PatternRuleMatcher extends AbstractPatternRulePerformer {
     int i = 0;
     int minOccurCorrection = getMinOccurrenceCorrection();
     while (i < limit + minOccurCorrection && !(rule.sentStart && i > 0)) {
+      if (startPositions != null && !startPositions.get(i)) {
+        // no match possible here - the next iteration only depends on whether the previous element
+        // had exceptions, which MultiPatternMatcher guarantees to be the same as for the first element:
+        elem = elementMatchers.get(0);
+        i++;
+        continue;
+      }
       int skipShiftTotal = 0;
       boolean allElementsMatch = false;
       int firstMatchToken = -1;
@@ -260,7 +277,9 @@ class PatternRuleMatcher extends AbstractPatternRulePerformer {
    */
   private String formatMatches(final AnalyzedTokenReadings[] tokenReadings,
       final List<Integer> positions, final int firstMatchTok, final String errorMsg,
-      final List<Match> suggestionMatches) throws IOException {
+      final List<Match> ruleSuggestionMatches) throws IOException {
+    // work on a copy, the rule may be used by several threads at the same time:
+    final List<Match> suggestionMatches = ruleSuggestionMatches != null ? new ArrayList<>(ruleSuggestionMatches) : null;
     String errorMessage = errorMsg;
     int matchCounter = 0;
     final int[] numbersToMatches = new int[errorMsg.length()];
@@ -0,0 +1,205 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * JVM-wide registry of the pattern rules and false friend rules loaded from the XML files
+ * in the classpath, so that each file is parsed only once, no matter how many {@link JLanguageTool}
+ * instances use it. The rules returned by this class are shared by all those instances and
+ * must not be modified - configure the {@link JLanguageTool} instance instead, e.g. with
+ * {@link JLanguageTool#disableRule(String)} or {@link JLanguageTool#enableDefaultOffRule(String)}.
+ * The cached rules are marked as {@link org.languagetool.rules.Rule#setShared() shared}, so changing
+ * their default on/off status fails.
+ *
+ * <p>If a precompiled version of a rule file exists (see {@link PrecompiledRules}), it is used
+ * instead of parsing the XML.</p>
+ *
+ * <p>Rule files that are not in the classpath (e.g. external rule files given by the user)
+ * are not cached, as they might get modified while LanguageTool is running.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 2.7
+ */
+public final class PatternRuleRegistry {
+
+  private static final ConcurrentMap<String, FutureTask<List<PatternRule>>> rules = new ConcurrentHashMap<>();
+
+  private PatternRuleRegistry() {
+  }
+
+  /**
+   * Get the pattern rules from the given file, with the default on/off status of the given language variant applied.
+   * @param filename path to an XML file in the classpath or in the filesystem - the classpath is checked first
+   * @return an unmodifiable list of rules
+   */
+  public static List<PatternRule> getPatternRules(final String filename, final Language language) throws IOException {
+    final List<String> enabledRules = language.getDefaultEnabledRulesForVariant();
+    final List<String> disabledRules = language.getDefaultDisabledRulesForVariant();
+    final Callable<List<PatternRule>> loader = new Callable<List<PatternRule>>() {
+      @Override
+      public List<PatternRule> call() throws Exception {
+        final List<PatternRule> patternRules = loadPatternRules(filename);
+        for (PatternRule patternRule : patternRules) {
+          if (enabledRules.contains(patternRule.getId())) {
+            patternRule.setDefaultOn();
+          }
+          if (disabledRules.contains(patternRule.getId())) {
+            patternRule.setDefaultOff();
+          }
+        }
+        return patternRules;
+      }
+    };
+    if (!isInClasspath(filename)) {
+      return call(loader);
+    }
+    // variants with their own default on/off settings need their own copy of the rules:
+    final String variant = enabledRules.isEmpty() && disabledRules.isEmpty() ? "" : language.getShortNameWithCountryAndVariant();
+    return get("grammar:" + filename + ":" + variant, loader);
+  }
+
+  /**
+   * Get the false friend rules from the given file that are relevant for the given text language and mother tongue.
+   * @param filename path to an XML file in the classpath or in the filesystem - the classpath is checked first
+   * @return an unmodifiable list of rules
+   */
+  public static List<PatternRule> getFalseFriendRules(final String filename, final Language language, final Language motherTongue) throws IOException {
+    final Callable<List<PatternRule>> loader = new Callable<List<PatternRule>>() {
+      @Override
+      public List<PatternRule> call() throws Exception {
+        final FalseFriendRuleLoader ruleLoader = new FalseFriendRuleLoader();
+        try (InputStream is = PatternRuleRegistry.class.getResourceAsStream(filename)) {
+          if (is == null) {
+            return ruleLoader.getRules(new java.io.File(filename), language, motherTongue);
+          } else {
+            return ruleLoader.getRules(is, language, motherTongue);
+          }
+        }
+      }
+    };
+    if (!isInClasspath(filename)) {
+      return call(loader);
+    }
+    return get("falsefriends:" + filename + ":" + language.getShortNameWithCountryAndVariant()
+            + ":" + motherTongue.getShortNameWithCountryAndVariant(), loader);
+  }
+
+  /**
+   * Remove all rules from the registry, so they will be loaded from the XML files again
+   * when they are needed the next time.
+   */
+  public static void clear() {
+    rules.clear();
+  }
+
+  private static List<PatternRule> loadPatternRules(String filename) throws IOException {
+    final PatternRuleLoader ruleLoader = new PatternRuleLoader();
+    try (InputStream is = PatternRuleRegistry.class.getResourceAsStream(filename)) {
+      if (is == null) {
+        return ruleLoader.getRules(new java.io.File(filename));
+      }
+      final byte[] xml = PrecompiledRules.readFully(is);
+      final List<PatternRule> precompiledRules = PrecompiledRules.loadFromClasspath(filename, xml, PatternRule.class);
+      if (precompiledRules != null) {
+        return precompiledRules;
+      }
+      return ruleLoader.getRules(new ByteArrayInputStream(xml), filename);
+    }
+  }
+
+  private static boolean isInClasspath(String filename) {
+    return PatternRuleRegistry.class.getResource(filename) != null;
+  }
+
+  private static List<PatternRule> get(String key, Callable<List<PatternRule>> loader) throws IOException {
+    FutureTask<List<PatternRule>> task = rules.get(key);
+    if (task == null) {
+      final FutureTask<List<PatternRule>> newTask = new FutureTask<>(new UnmodifiableResult(loader, true));
+      task = rules.putIfAbsent(key, newTask);
+      if (task == null) {
+        // we're the first to ask for these rules, so we load them - other threads wait for the result:
+        task = newTask;
+        task.run();
+      }
+    }
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while loading rules for " + key, e);
+    } catch (ExecutionException e) {
+      // don't keep the failure, so the next call can try again:
+      rules.remove(key, task);
+      throw toIOException(key, e.getCause());
+    }
+  }
+
+  private static List<PatternRule> call(Callable<List<PatternRule>> loader) throws IOException {
+    try {
+      return new UnmodifiableResult(loader, false).call();
+    } catch (Exception e) {
+      throw toIOException("", e);
+    }
+  }
+
+  private static IOException toIOException(String key, Throwable cause) {
+    if (cause instanceof IOException) {
+      return (IOException) cause;
+    }
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    return new IOException("Could not load rules " + key, cause);
+  }
+
+  private static class UnmodifiableResult implements Callable<List<PatternRule>> {
+    private final Callable<List<PatternRule>> loader;
+    private final boolean shared;
+    UnmodifiableResult(Callable<List<PatternRule>> loader, boolean shared) {
+      this.loader = loader;
+      this.shared = shared;
+    }
+    @Override
+    public List<PatternRule> call() throws Exception {
+      final List<PatternRule> patternRules = loader.call();
+      if (shared) {
+        for (PatternRule patternRule : patternRules) {
+          patternRule.setShared();
+        }
+      }
+      return Collections.unmodifiableList(patternRules);
+    }
+  }
+
+}
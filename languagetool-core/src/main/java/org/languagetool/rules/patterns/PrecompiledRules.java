@@ -0,0 +1,158 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.JLanguageTool;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes rules that have already been parsed from an XML file (e.g. {@code grammar.xml}
+ * or {@code disambiguation.xml}) in a binary format, so the slow XML parsing can be skipped
+ * at startup. The binary file is only used if it has been created from exactly the same
+ * XML content and with the same LanguageTool version, otherwise the XML needs to be parsed.
+ * The binary files are created with {@code org.languagetool.dev.RulePrecompiler} and
+ * are expected next to the XML file in the classpath, with {@link #FILE_SUFFIX} appended
+ * to the XML file name.
+ *
+ * <p>Using precompiled rules is opt-in: the Maven build doesn't create the binary files, so
+ * unless they are created and added to the classpath (e.g. when packaging a server), the
+ * rules are loaded from the XML files as before.</p>
+ *
+ * @since 2.7
+ */
+public final class PrecompiledRules {
+
+  public static final String FILE_SUFFIX = ".bin";
+
+  private static final int MAGIC = 0x4C545243;  // "LTRC"
+  private static final int FORMAT_VERSION = 2;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private PrecompiledRules() {
+  }
+
+  /**
+   * Write the rules parsed from {@code xml} in the binary format.
+   * @param xml the content of the XML file the rules have been loaded from
+   */
+  public static void write(List<? extends AbstractPatternRule> rules, byte[] xml, OutputStream out) throws IOException {
+    final DataOutputStream dataOut = new DataOutputStream(out);
+    dataOut.writeInt(MAGIC);
+    dataOut.writeInt(FORMAT_VERSION);
+    dataOut.writeUTF(JLanguageTool.VERSION);
+    final byte[] hash = hash(xml);
+    dataOut.writeInt(hash.length);
+    dataOut.write(hash);
+    final GZIPOutputStream gzipOut = new GZIPOutputStream(dataOut, BUFFER_SIZE);
+    final ObjectOutputStream objectOut = new ObjectOutputStream(new BufferedOutputStream(gzipOut, BUFFER_SIZE));
+    objectOut.writeObject(new ArrayList<>(rules));
+    objectOut.flush();
+    gzipOut.finish();
+    dataOut.flush();
+  }
+
+  /**
+   * Read rules in the binary format.
+   * @param xml the content of the XML file the rules are supposed to be loaded from
+   * @return the rules, or {@code null} if the binary data has not been created from {@code xml}
+   *   with this version of LanguageTool
+   */
+  public static <T extends AbstractPatternRule> List<T> read(InputStream in, byte[] xml, Class<T> ruleClass) throws IOException {
+    final DataInputStream dataIn = new DataInputStream(in);
+    if (dataIn.readInt() != MAGIC || dataIn.readInt() != FORMAT_VERSION || !dataIn.readUTF().equals(JLanguageTool.VERSION)) {
+      return null;
+    }
+    final byte[] hash = new byte[dataIn.readInt()];
+    dataIn.readFully(hash);
+    if (!Arrays.equals(hash, hash(xml))) {
+      return null;
+    }
+    final ObjectInputStream objectIn = new ObjectInputStream(new BufferedInputStream(new GZIPInputStream(dataIn, BUFFER_SIZE), BUFFER_SIZE));
+    final Object object;
+    try {
+      object = objectIn.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Could not read precompiled rules", e);
+    }
+    final List<T> rules = new ArrayList<>();
+    for (Object rule : (List<?>) object) {
+      rules.add(ruleClass.cast(rule));
+    }
+    return rules;
+  }
+
+  /**
+   * Load the precompiled version of the given XML file from the classpath.
+   * @param xmlFilename the path of the XML file in the classpath
+   * @param xml the content of the XML file
+   * @return the rules, or {@code null} if there's no precompiled file or if it is outdated or broken -
+   *   the rules then need to be loaded from the XML
+   */
+  public static <T extends AbstractPatternRule> List<T> loadFromClasspath(String xmlFilename, byte[] xml, Class<T> ruleClass) {
+    try (InputStream in = PrecompiledRules.class.getResourceAsStream(xmlFilename + FILE_SUFFIX)) {
+      if (in == null) {
+        return null;
+      }
+      return read(in, xml, ruleClass);
+    } catch (Exception e) {
+      // e.g. because rule classes have changed, we can still use the XML:
+      System.err.println("Ignoring precompiled rules for " + xmlFilename + ": " + e);
+      return null;
+    }
+  }
+
+  /**
+   * Read the complete stream, e.g. an XML file that is needed for {@link #read(InputStream, byte[], Class)}.
+   */
+  public static byte[] readFully(InputStream in) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    int len;
+    while ((len = in.read(buffer)) != -1) {
+      out.write(buffer, 0, len);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] hash(byte[] data) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(data);
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+}
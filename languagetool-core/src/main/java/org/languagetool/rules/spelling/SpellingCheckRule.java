@@ -60,6 +60,8 @@ public abstract class SpellingCheckRule extends Rule {
 
   private boolean convertsCase = false;
 
+  private transient volatile MatchingSettings matchingSettings;
+
   public SpellingCheckRule(final ResourceBundle messages, final Language language) {
     super(messages);
     this.language = language;
@@ -80,6 +82,11 @@ public abstract class SpellingCheckRule extends Rule {
     return true;
   }
 
+  @Override
+  public boolean isSentenceIndependent() {
+    return true;
+  }
+
   @Override
   public void reset() {
   }
@@ -89,6 +96,7 @@ public abstract class SpellingCheckRule extends Rule {
    */
   public void addIgnoreTokens(List<String> tokens) {
     wordsToBeIgnored.addAll(tokens);
+    settingsChanged();
   }
 
   /**
@@ -96,6 +104,7 @@ public abstract class SpellingCheckRule extends Rule {
    */
   public void setConsiderIgnoreWords(boolean considerIgnoreWords) {
     this.considerIgnoreWords = considerIgnoreWords;
+    settingsChanged();
   }
 
   /**
@@ -103,6 +112,7 @@ public abstract class SpellingCheckRule extends Rule {
    */
   public void resetIgnoreTokens() {
     wordsToBeIgnored.clear();
+    settingsChanged();
     try {
       init();
     } catch (IOException e) {
@@ -173,6 +183,47 @@ public abstract class SpellingCheckRule extends Rule {
    */
   public void setConvertsCase(boolean convertsCase) {
     this.convertsCase = convertsCase;
+    settingsChanged();
+  }
+
+  /**
+   * Returns an immutable object that is equal for two spelling rules if they find the same
+   * matches in any sentence, as it contains their settings, e.g. the words to be ignored.
+   * It's part of the key of the {@link org.languagetool.SentenceMatchCache}.
+   * @since 2.7
+   */
+  public Object getMatchingSettings() {
+    MatchingSettings settings = matchingSettings;
+    if (settings == null) {
+      settings = new MatchingSettings(getSettings());
+      matchingSettings = settings;
+    }
+    return settings;
+  }
+
+  /**
+   * The settings the matches depend on, for {@link #getMatchingSettings()}. Subclasses with
+   * more settings need to add them and call {@link #settingsChanged()} when they change.
+   * @since 2.7
+   */
+  protected List<Object> getSettings() {
+    final List<Object> settings = new ArrayList<>();
+    settings.add(getClass());
+    settings.add(getId());
+    settings.add(language.getShortNameWithCountryAndVariant());
+    settings.add(considerIgnoreWords);
+    settings.add(convertsCase);
+    settings.add(wordsWithDotsPresent);
+    settings.add(new HashSet<>(wordsToBeIgnored));
+    return settings;
+  }
+
+  /**
+   * To be called when a setting that {@link #getSettings()} returns has changed.
+   * @since 2.7
+   */
+  protected final void settingsChanged() {
+    matchingSettings = null;
   }
 
 
@@ -219,6 +270,31 @@ public abstract class SpellingCheckRule extends Rule {
         }
       }
     }
+    settingsChanged();
+  }
+
+  private static class MatchingSettings {
+
+    private final List<Object> settings;
+    private final int hashCode;
+
+    private MatchingSettings(List<Object> settings) {
+      this.settings = settings;
+      this.hashCode = settings.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      final MatchingSettings other = (MatchingSettings) o;
+      return hashCode == other.hashCode && settings.equals(other.settings);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
   }
 
 }
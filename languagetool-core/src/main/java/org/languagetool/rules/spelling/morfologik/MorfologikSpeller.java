@@ -21,12 +21,11 @@ package org.languagetool.rules.spelling.morfologik;
 import morfologik.speller.Speller;
 import morfologik.stemming.Dictionary;
 
-import org.languagetool.JLanguageTool;
 import org.languagetool.rules.spelling.SpellingCheckRule;
+import org.languagetool.tagging.DictionaryRegistry;
 import org.languagetool.tools.StringTools;
 
 import java.io.IOException;
-import java.net.URL;
 import java.nio.charset.CharacterCodingException;
 import java.util.ArrayList;
 import java.util.List;
@@ -48,8 +47,7 @@ public class MorfologikSpeller {
     if (maxEditDistance <= 0) {
       throw new RuntimeException("maxEditDistance must be > 0: " + maxEditDistance);
     }
-    final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(filename);
-    dictionary = Dictionary.read(url);
+    dictionary = DictionaryRegistry.getDictionary(filename);
     speller = new Speller(dictionary, maxEditDistance);
   }
 
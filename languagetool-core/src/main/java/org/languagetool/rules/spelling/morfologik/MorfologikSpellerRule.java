@@ -65,6 +65,7 @@ public abstract class MorfologikSpellerRule extends SpellingCheckRule {
 
   public void setLocale(Locale locale) {
     conversionLocale = locale;
+    settingsChanged();
   }
 
   /**
@@ -73,6 +74,7 @@ public abstract class MorfologikSpellerRule extends SpellingCheckRule {
    */
   public void setIgnoreTaggedWords() {
     ignoreTaggedWords = true;
+    settingsChanged();
   }
 
   @Override
@@ -199,6 +201,7 @@ public abstract class MorfologikSpellerRule extends SpellingCheckRule {
    */
   protected void setCheckCompound(boolean checkCompound) {
     this.checkCompound = checkCompound;
+    settingsChanged();
   }
 
   /**
@@ -207,6 +210,18 @@ public abstract class MorfologikSpellerRule extends SpellingCheckRule {
    */
   protected void setCompoundRegex(String compoundRegex) {
     this.compoundRegex = Pattern.compile(compoundRegex);
+    settingsChanged();
+  }
+
+  @Override
+  protected List<Object> getSettings() {
+    final List<Object> settings = super.getSettings();
+    settings.add(getFileName());
+    settings.add(conversionLocale);
+    settings.add(ignoreTaggedWords);
+    settings.add(checkCompound);
+    settings.add(compoundRegex.pattern());
+    return settings;
   }
 
 }
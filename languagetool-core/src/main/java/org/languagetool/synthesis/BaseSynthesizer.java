@@ -19,10 +19,11 @@
 package org.languagetool.synthesis;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 import morfologik.stemming.Dictionary;
@@ -32,14 +33,21 @@ import morfologik.stemming.WordData;
 
 import org.languagetool.AnalyzedToken;
 import org.languagetool.JLanguageTool;
+import org.languagetool.tagging.DictionaryRegistry;
 
 public class BaseSynthesizer implements Synthesizer {
 
+  // the POS tag regular expressions come from the rules, so their number is limited,
+  // but we don't want to grow forever in case a rule creates them dynamically:
+  private static final int MAX_CACHED_TAG_REGEXPS = 10_000;
+
   protected volatile List<String> possibleTags;
 
   private final String tagFileName;
   private final String resourceFileName;
-  private final IStemmer stemmer;
+  // a plain ThreadLocal, not a subclass that references this synthesizer - see getStemmer():
+  private final ThreadLocal<IStemmer> stemmers = new ThreadLocal<>();
+  private final ConcurrentMap<String, List<String>> tagsForRegExp = new ConcurrentHashMap<>();
 
   private volatile Dictionary dictionary;
 
@@ -50,7 +58,6 @@ public class BaseSynthesizer implements Synthesizer {
   public BaseSynthesizer(final String resourceFileName, final String tagFileName) {
     this.resourceFileName = resourceFileName;
     this.tagFileName = tagFileName;
-    this.stemmer = createStemmer();
   }
 
   /**
@@ -65,8 +72,7 @@ public class BaseSynthesizer implements Synthesizer {
       synchronized (this) {
         dict = this.dictionary;
         if (dict == null) {
-          final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(resourceFileName);
-          this.dictionary = dict = Dictionary.read(url);
+          this.dictionary = dict = DictionaryRegistry.getDictionary(resourceFileName);
         }
       }
     }
@@ -95,11 +101,9 @@ public class BaseSynthesizer implements Synthesizer {
    * @param results the list to collect the inflected forms.
    */
   protected void lookup(String lemma, String posTag, List<String> results) {
-    synchronized (this) { // the stemmer is not thread-safe
-      final List<WordData> wordForms = stemmer.lookup(lemma + "|" + posTag);
-      for (WordData wd : wordForms) {
-        results.add(wd.getStem().toString());
-      }
+    final List<WordData> wordForms = getStemmer().lookup(lemma + "|" + posTag);
+    for (WordData wd : wordForms) {
+      results.add(wd.getStem().toString());
     }
   }
 
@@ -122,15 +126,9 @@ public class BaseSynthesizer implements Synthesizer {
   public String[] synthesize(final AnalyzedToken token, final String posTag,
       final boolean posTagRegExp) throws IOException {
     if (posTagRegExp) {
-      initPossibleTags();
-      final Pattern p = Pattern.compile(posTag);
       final List<String> results = new ArrayList<>();
-
-      for (final String tag : possibleTags) {
-        final Matcher m = p.matcher(tag);
-        if (m.matches()) {
-          lookup(token.getLemma(), tag, results);
-        }
+      for (final String tag : getMatchingTags(posTag)) {
+        lookup(token.getLemma(), tag, results);
       }
       return results.toArray(new String[results.size()]);
     }
@@ -145,12 +143,45 @@ public class BaseSynthesizer implements Synthesizer {
   /**
    * @since 2.5
    * 
-   * @return the stemmer interface to be used.
+   * @return the stemmer interface to be used. Each thread gets its own stemmer, so the
+   *   result must not be passed to other threads.
    */
   public IStemmer getStemmer() {
+    IStemmer stemmer = stemmers.get();
+    if (stemmer == null) {
+      stemmer = createStemmer();
+      stemmers.set(stemmer);
+    }
     return stemmer;
   }
 
+  /**
+   * Get all the tags from the tag file (see {@link #BaseSynthesizer(String, String) constructor})
+   * that match the given regular expression. The result is cached, so the tags don't need to be
+   * matched again when the same expression is used the next time.
+   * @param posTagRegExp a regular expression for part-of-speech tags
+   * @return an unmodifiable list of tags
+   * @since 2.7
+   */
+  protected List<String> getMatchingTags(String posTagRegExp) throws IOException {
+    List<String> tags = tagsForRegExp.get(posTagRegExp);
+    if (tags == null) {
+      initPossibleTags();
+      final Pattern p = Pattern.compile(posTagRegExp);
+      final List<String> matchingTags = new ArrayList<>();
+      for (String tag : possibleTags) {
+        if (p.matcher(tag).matches()) {
+          matchingTags.add(tag);
+        }
+      }
+      tags = Collections.unmodifiableList(matchingTags);
+      if (tagsForRegExp.size() < MAX_CACHED_TAG_REGEXPS) {
+        tagsForRegExp.put(posTagRegExp, tags);
+      }
+    }
+    return tags;
+  }
+
   protected void initPossibleTags() throws IOException {
     List<String> tags = possibleTags;
     if (tags == null) {
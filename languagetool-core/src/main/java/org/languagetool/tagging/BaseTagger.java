@@ -19,7 +19,6 @@
 package org.languagetool.tagging;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -31,20 +30,21 @@ import morfologik.stemming.WordData;
 
 import org.languagetool.AnalyzedToken;
 import org.languagetool.AnalyzedTokenReadings;
-import org.languagetool.JLanguageTool;
 import org.languagetool.tools.StringTools;
 
 /**
- * Base tagger using Morfologik binary dictionaries.
+ * Base tagger using Morfologik binary dictionaries. The readings of the words are kept
+ * in a {@link WordTagCache}, which is shared by all threads using the tagger.
  *
  * @author Marcin Milkowski
  */
-public abstract class BaseTagger implements Tagger {
+public abstract class BaseTagger implements CachingTagger {
 
   protected Locale conversionLocale = Locale.getDefault();
 
   private boolean tagLowercaseWithUppercase = true;
   private volatile Dictionary dictionary;
+  private volatile WordTagCache wordTagCache = new WordTagCache(WordTagCache.DEFAULT_MAX_WEIGHT);
 
   /**
    * Get the filename, e.g., {@code /en/english.dict}.
@@ -53,6 +53,19 @@ public abstract class BaseTagger implements Tagger {
 
   public void setLocale(Locale locale) {
     conversionLocale = locale;
+    clearWordTagCache();
+  }
+
+  /** @since 2.7 */
+  @Override
+  public WordTagCache getWordTagCache() {
+    return wordTagCache;
+  }
+
+  /** @since 2.7 */
+  @Override
+  public void setWordTagCache(WordTagCache wordTagCache) {
+    this.wordTagCache = wordTagCache;
   }
 
   protected Dictionary getDictionary() throws IOException {
@@ -61,8 +74,7 @@ public abstract class BaseTagger implements Tagger {
       synchronized (this) {
         dict = dictionary;
         if (dict == null) {
-          final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(getFileName());
-          dictionary = dict = Dictionary.read(url);
+          dictionary = dict = DictionaryRegistry.getDictionary(getFileName());
         }
       }
     }
@@ -72,57 +84,68 @@ public abstract class BaseTagger implements Tagger {
   @Override
   public List<AnalyzedTokenReadings> tag(final List<String> sentenceTokens)
       throws IOException {
-    List<AnalyzedToken> taggerTokens;
-    List<AnalyzedToken> lowerTaggerTokens;
-    List<AnalyzedToken> upperTaggerTokens;
     final List<AnalyzedTokenReadings> tokenReadings = new ArrayList<>();
     int pos = 0;
-    final IStemmer dictLookup = new DictionaryLookup(getDictionary());
+    final WordTagCache cache = wordTagCache;
+    IStemmer dictLookup = null;
 
     for (String word : sentenceTokens) {
-      final List<AnalyzedToken> l = new ArrayList<>();
-      final String lowerWord = word.toLowerCase(conversionLocale);
-      taggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(word));
-      lowerTaggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(lowerWord));
-      final boolean isLowercase = word.equals(lowerWord);
-      final boolean isMixedCase = StringTools.isMixedCase(word);
-
-      //normal case
-      addTokens(taggerTokens, l);
-
-      //tag non-lowercase (alluppercase or startuppercase), but not mixedcase word with lowercase word tags
-      if (!isLowercase && !isMixedCase) {
-        addTokens(lowerTaggerTokens, l);
-      }
-
-      //tag lowercase word with startuppercase word tags
-      if (tagLowercaseWithUppercase) {
-        if (lowerTaggerTokens.isEmpty() && taggerTokens.isEmpty()) {
-          if (isLowercase) {
-            upperTaggerTokens = asAnalyzedTokenList(word,
-                dictLookup.lookup(StringTools.uppercaseFirstChar(word)));
-            if (!upperTaggerTokens.isEmpty()) {
-              addTokens(upperTaggerTokens, l);
-            }
-          }
+      List<AnalyzedToken> l = cache != null ? cache.get(word) : null;
+      if (l == null) {
+        if (dictLookup == null) {
+          dictLookup = new DictionaryLookup(getDictionary());
+        }
+        l = tagWord(word, dictLookup);
+        if (cache != null) {
+          cache.put(word, l);
         }
       }
+      tokenReadings.add(new AnalyzedTokenReadings(l, pos));
+      pos += word.length();
+    }
 
-      // Additional language-dependent-tagging
-      if (l.isEmpty()) {
-        List<AnalyzedToken> additionalTaggedTokens = additionalTags(word);
-        addTokens(additionalTaggedTokens, l);
-      }
+    return tokenReadings;
+  }
+
+  private List<AnalyzedToken> tagWord(final String word, final IStemmer dictLookup) {
+    final List<AnalyzedToken> l = new ArrayList<>();
+    final String lowerWord = word.toLowerCase(conversionLocale);
+    final List<AnalyzedToken> taggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(word));
+    final List<AnalyzedToken> lowerTaggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(lowerWord));
+    final boolean isLowercase = word.equals(lowerWord);
+    final boolean isMixedCase = StringTools.isMixedCase(word);
+
+    //normal case
+    addTokens(taggerTokens, l);
+
+    //tag non-lowercase (alluppercase or startuppercase), but not mixedcase word with lowercase word tags
+    if (!isLowercase && !isMixedCase) {
+      addTokens(lowerTaggerTokens, l);
+    }
 
-      if (l.isEmpty()) {
-        l.add(new AnalyzedToken(word, null, null));
+    //tag lowercase word with startuppercase word tags
+    if (tagLowercaseWithUppercase) {
+      if (lowerTaggerTokens.isEmpty() && taggerTokens.isEmpty()) {
+        if (isLowercase) {
+          final List<AnalyzedToken> upperTaggerTokens = asAnalyzedTokenList(word,
+              dictLookup.lookup(StringTools.uppercaseFirstChar(word)));
+          if (!upperTaggerTokens.isEmpty()) {
+            addTokens(upperTaggerTokens, l);
+          }
+        }
       }
+    }
 
-      tokenReadings.add(new AnalyzedTokenReadings(l, pos));
-      pos += word.length();
+    // Additional language-dependent-tagging
+    if (l.isEmpty()) {
+      List<AnalyzedToken> additionalTaggedTokens = additionalTags(word);
+      addTokens(additionalTaggedTokens, l);
     }
 
-    return tokenReadings;
+    if (l.isEmpty()) {
+      l.add(new AnalyzedToken(word, null, null));
+    }
+    return l;
   }
 
   protected List<AnalyzedToken> asAnalyzedTokenList(final String word, final List<WordData> wdList) {
@@ -167,6 +190,15 @@ public abstract class BaseTagger implements Tagger {
 
   public void dontTagLowercaseWithUppercase() {
     tagLowercaseWithUppercase = false;
+    clearWordTagCache();
+  }
+
+  // words that have been tagged with other settings need to be tagged again:
+  private void clearWordTagCache() {
+    final WordTagCache cache = wordTagCache;
+    if (cache != null) {
+      cache.clear();
+    }
   }
 
   /*
@@ -0,0 +1,37 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+/**
+ * A tagger that keeps the readings of the words it has tagged in a {@link WordTagCache}.
+ * @since 2.7
+ */
+public interface CachingTagger extends Tagger {
+
+  /**
+   * @return the cache or {@code null} if the tagger doesn't cache words
+   */
+  WordTagCache getWordTagCache();
+
+  /**
+   * Use another cache, e.g. one with a different size, or {@code null} to not cache words.
+   */
+  void setWordTagCache(WordTagCache wordTagCache);
+
+}
@@ -0,0 +1,143 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import morfologik.stemming.Dictionary;
+import org.languagetool.JLanguageTool;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JVM-wide registry of the Morfologik dictionaries used by taggers, synthesizers and spellers,
+ * so that each dictionary file is only loaded once, no matter how many objects use it (e.g. the
+ * speller rules of several {@link JLanguageTool} instances, or the taggers of several variants
+ * of a language). The dictionaries returned by this class are shared and must not be modified.
+ *
+ * <p>A dictionary is kept as long as one of its users is still reachable: the registry only
+ * holds weak references, so the memory of a dictionary that is no longer used gets freed
+ * by the garbage collector, and the dictionary is loaded again when it's needed the next time.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 2.7
+ */
+public final class DictionaryRegistry {
+
+  private static final ConcurrentMap<String, Entry> dictionaries = new ConcurrentHashMap<>();
+  private static final ReferenceQueue<Dictionary> unusedDictionaries = new ReferenceQueue<>();
+
+  private DictionaryRegistry() {
+  }
+
+  /**
+   * Get the dictionary from the resource directory.
+   * @param filename path in the resource directory, e.g. {@code /en/english.dict}
+   */
+  public static Dictionary getDictionary(String filename) throws IOException {
+    return getDictionary(JLanguageTool.getDataBroker().getFromResourceDirAsUrl(filename));
+  }
+
+  /**
+   * Get the dictionary from the given URL, the metadata ({@code .info} file) is expected next to it.
+   */
+  public static Dictionary getDictionary(URL url) throws IOException {
+    removeUnusedEntries();
+    final String key = url.toExternalForm();
+    Entry entry = dictionaries.get(key);
+    if (entry == null) {
+      final Entry newEntry = new Entry();
+      entry = dictionaries.putIfAbsent(key, newEntry);
+      if (entry == null) {
+        entry = newEntry;
+      }
+    }
+    return entry.getDictionary(key, url);
+  }
+
+  /**
+   * The number of dictionaries that are loaded and still in use.
+   */
+  public static int size() {
+    removeUnusedEntries();
+    int size = 0;
+    for (Entry entry : dictionaries.values()) {
+      if (entry.isLoaded()) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Remove all dictionaries from the registry, so they will be loaded again when they are
+   * needed the next time. Objects that already use a dictionary keep using it.
+   */
+  public static void clear() {
+    dictionaries.clear();
+  }
+
+  private static void removeUnusedEntries() {
+    KeyedReference reference;
+    while ((reference = (KeyedReference) unusedDictionaries.poll()) != null) {
+      final Entry entry = dictionaries.get(reference.key);
+      if (entry != null && entry.isReference(reference)) {
+        dictionaries.remove(reference.key, entry);
+      }
+    }
+  }
+
+  private static class Entry {
+
+    private KeyedReference reference;
+
+    // loading happens while holding the lock, so other threads asking for the same dictionary wait for it:
+    synchronized Dictionary getDictionary(String key, URL url) throws IOException {
+      Dictionary dictionary = reference != null ? reference.get() : null;
+      if (dictionary == null) {
+        dictionary = Dictionary.read(url);
+        reference = new KeyedReference(dictionary, key);
+      }
+      return dictionary;
+    }
+
+    synchronized boolean isLoaded() {
+      return reference != null && reference.get() != null;
+    }
+
+    synchronized boolean isReference(KeyedReference otherReference) {
+      return reference == otherReference;
+    }
+  }
+
+  private static class KeyedReference extends WeakReference<Dictionary> {
+
+    private final String key;
+
+    KeyedReference(Dictionary dictionary, String key) {
+      super(dictionary, unusedDictionaries);
+      this.key = key;
+    }
+  }
+
+}
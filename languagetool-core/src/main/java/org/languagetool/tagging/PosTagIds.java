@@ -0,0 +1,82 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JVM-wide mapping of part-of-speech tags to small integer ids, so that the result of
+ * matching a tag against a regular expression can be stored in a bit set
+ * (see {@link PosTagPattern}). A tag gets its id the first time it's used.
+ *
+ * <p>The tag set of each language is finite, but as taggers, disambiguators and rules can
+ * create tags dynamically, the number of ids is limited. Tags that come after the limit
+ * has been reached don't get an id, the regular expressions are then used for them.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 2.7
+ */
+public final class PosTagIds {
+
+  /** The id of tags that don't have an id because the limit has been reached. */
+  public static final int NO_ID = -1;
+
+  static final int MAX_TAGS = 1 << 15;
+
+  private static final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+  private PosTagIds() {
+  }
+
+  /**
+   * Get the id of the given tag, assigning a new one if the tag hasn't been used before.
+   * @return a number between {@code 0} and the number of tags, or {@link #NO_ID}
+   */
+  public static int getId(String posTag) {
+    final Integer id = ids.get(posTag);
+    if (id != null) {
+      return id;
+    }
+    if (ids.size() >= MAX_TAGS) {
+      return NO_ID;
+    }
+    synchronized (ids) {
+      final Integer existingId = ids.get(posTag);
+      if (existingId != null) {
+        return existingId;
+      }
+      final int newId = ids.size();
+      if (newId >= MAX_TAGS) {
+        return NO_ID;
+      }
+      ids.put(posTag, newId);
+      return newId;
+    }
+  }
+
+  /**
+   * The number of tags that have an id.
+   */
+  public static int size() {
+    return ids.size();
+  }
+
+}
@@ -0,0 +1,172 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+
+/**
+ * A regular expression for part-of-speech tags that remembers for each tag whether it
+ * matches. As each language only uses a limited set of tags, the expression only needs to
+ * be evaluated once per tag, after that matching is a lookup in a bit set indexed by the
+ * {@link PosTagIds id} of the tag. The regular expression is only used again for tags
+ * that have no id.
+ *
+ * <p>Pattern rules use this class for their {@code postag} regular expressions. Rules written
+ * in Java can declare their POS tag expressions as constants of this class instead of
+ * {@link Pattern}, e.g. {@code PosTagPattern.compile("V.[SI].*")}.</p>
+ *
+ * <p>Like {@link Pattern#matches(String, CharSequence)}, the complete tag needs to match.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 2.7
+ */
+public final class PosTagPattern implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  // rules can create expressions dynamically, so we don't share an unlimited number of them:
+  private static final int MAX_SHARED_PATTERNS = 50_000;
+  private static final ConcurrentMap<String, PosTagPattern> patterns = new ConcurrentHashMap<>();
+
+  // two bits per tag: 0 = not evaluated yet, NO_MATCH or MATCH
+  private static final int TAGS_PER_LONG = 32;
+  private static final long NO_MATCH = 1;
+  private static final long MATCH = 2;
+
+  private final Pattern pattern;
+
+  private transient volatile AtomicLongArray states;
+
+  private PosTagPattern(Pattern pattern) {
+    this.pattern = pattern;
+  }
+
+  /**
+   * Get the pattern for the given regular expression. Patterns are shared, so the tags
+   * only need to be evaluated once for each expression.
+   * @throws java.util.regex.PatternSyntaxException if the expression is not valid
+   */
+  public static PosTagPattern compile(String regex) {
+    PosTagPattern posTagPattern = patterns.get(regex);
+    if (posTagPattern == null) {
+      posTagPattern = new PosTagPattern(Pattern.compile(regex));
+      if (patterns.size() < MAX_SHARED_PATTERNS) {
+        final PosTagPattern existingPattern = patterns.putIfAbsent(regex, posTagPattern);
+        if (existingPattern != null) {
+          posTagPattern = existingPattern;
+        }
+      }
+    }
+    return posTagPattern;
+  }
+
+  /**
+   * Whether the complete tag matches the regular expression.
+   */
+  public boolean matches(String posTag) {
+    return matches(posTag, PosTagIds.getId(posTag));
+  }
+
+  /**
+   * Whether the POS tag of the token matches the regular expression.
+   * @return {@code false} if the token has no POS tag
+   */
+  public boolean matches(AnalyzedToken token) {
+    final String posTag = token.getPOSTag();
+    return posTag != null && matches(posTag, token.getPOSTagId());
+  }
+
+  /**
+   * Whether the POS tag of at least one reading of the token matches the regular expression.
+   * Readings without a POS tag never match.
+   */
+  public boolean matchesAny(AnalyzedTokenReadings readings) {
+    for (AnalyzedToken reading : readings) {
+      if (matches(reading)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public Pattern getPattern() {
+    return pattern;
+  }
+
+  @Override
+  public String toString() {
+    return pattern.pattern();
+  }
+
+  private boolean matches(String posTag, int id) {
+    if (id == PosTagIds.NO_ID) {
+      return pattern.matcher(posTag).matches();
+    }
+    final int index = id / TAGS_PER_LONG;
+    final int shift = (id % TAGS_PER_LONG) * 2;
+    final AtomicLongArray currentStates = states;
+    if (currentStates != null && index < currentStates.length()) {
+      final long state = (currentStates.get(index) >>> shift) & 3;
+      if (state != 0) {
+        return state == MATCH;
+      }
+    }
+    final boolean match = pattern.matcher(posTag).matches();
+    final AtomicLongArray newStates = getStates(index);
+    final long bits = (match ? MATCH : NO_MATCH) << shift;
+    long oldValue;
+    do {
+      oldValue = newStates.get(index);
+    } while (!newStates.compareAndSet(index, oldValue, oldValue | bits));
+    return match;
+  }
+
+  // A state that's added to the old array while we copy it gets lost - that's okay,
+  // it will just be evaluated again:
+  private AtomicLongArray getStates(int index) {
+    AtomicLongArray currentStates = states;
+    if (currentStates == null || index >= currentStates.length()) {
+      synchronized (this) {
+        currentStates = states;
+        if (currentStates == null || index >= currentStates.length()) {
+          final int length = Math.max(index + 1, PosTagIds.size() / TAGS_PER_LONG + 1);
+          final AtomicLongArray newStates = new AtomicLongArray(length);
+          for (int i = 0; currentStates != null && i < currentStates.length(); i++) {
+            newStates.set(i, currentStates.get(i));
+          }
+          states = currentStates = newStates;
+        }
+      }
+    }
+    return currentStates;
+  }
+
+  private Object readResolve() {
+    return compile(pattern.pattern());
+  }
+
+}
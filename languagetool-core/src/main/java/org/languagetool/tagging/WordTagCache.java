@@ -0,0 +1,208 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import org.languagetool.AnalyzedToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the readings a tagger has found for a word, so that frequent words don't need
+ * to be looked up in the dictionary again and again. Only use this for readings that
+ * depend on nothing but the word itself, not on the words around it.
+ *
+ * <p>The cache keeps only the strings of the readings, {@link #get(String)} returns new
+ * {@link AnalyzedToken} objects each time, so that changes made to them later, e.g. by the
+ * disambiguation, don't affect the cache.</p>
+ *
+ * <p>The cache size is limited by the total length of the cached words and readings in characters.
+ * When it's full, words are removed in the order they were added, but words that have been used
+ * since they were added or last checked get a second chance and are kept (like in the CLOCK
+ * algorithm), so frequent words stay in the cache.</p>
+ *
+ * <p>This class is thread-safe. Looking up a word takes no lock, so many threads can tag at the same time.</p>
+ *
+ * @since 2.7
+ */
+public class WordTagCache {
+
+  /** A default for {@link #WordTagCache(long)}, enough for the most frequent words of a language. */
+  public static final long DEFAULT_MAX_WEIGHT = 300_000;
+
+  // the weight of an entry besides the lengths of its strings:
+  private static final int ENTRY_WEIGHT = 8;
+
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+  // the entries in the order they were added or given a second chance, for removing the oldest entries:
+  private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+  private final AtomicLong weight = new AtomicLong();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final long maxWeight;
+
+  /**
+   * @param maxWeight maximum total length of the cached words and readings in characters
+   */
+  public WordTagCache(long maxWeight) {
+    if (maxWeight < 1) {
+      throw new IllegalArgumentException("maxWeight must be > 0: " + maxWeight);
+    }
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * @return a new list with new tokens for the readings of the word, or {@code null} if the word is not in the cache
+   */
+  public List<AnalyzedToken> get(String word) {
+    final Entry entry = entries.get(word);
+    if (entry == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    if (!entry.used) {
+      entry.used = true;  // only write if needed, to not invalidate the cache lines of other threads
+    }
+    final List<AnalyzedToken> tokens = new ArrayList<>(entry.readings.length / 3);
+    for (int i = 0; i < entry.readings.length; i += 3) {
+      tokens.add(new AnalyzedToken(entry.readings[i], entry.readings[i + 1], entry.readings[i + 2]));
+    }
+    return tokens;
+  }
+
+  /**
+   * Add the readings of a word. Only the token, POS tag and lemma of the readings are kept.
+   */
+  public void put(String word, List<AnalyzedToken> tokens) {
+    final String[] readings = new String[tokens.size() * 3];
+    int entryWeight = ENTRY_WEIGHT + word.length();
+    for (int i = 0; i < tokens.size(); i++) {
+      final AnalyzedToken token = tokens.get(i);
+      readings[i * 3] = token.getToken();
+      readings[i * 3 + 1] = token.getPOSTag();
+      readings[i * 3 + 2] = token.getLemma();
+      entryWeight += ENTRY_WEIGHT + length(token.getToken()) + length(token.getPOSTag()) + length(token.getLemma());
+    }
+    final Entry entry = new Entry(word, readings, entryWeight);
+    if (entries.putIfAbsent(word, entry) == null) {
+      weight.addAndGet(entryWeight);
+      insertionOrder.add(entry);
+      evictIfNeeded();
+    }
+  }
+
+  private static int length(String s) {
+    return s != null ? s.length() : 0;
+  }
+
+  private void evictIfNeeded() {
+    while (weight.get() > maxWeight) {
+      final Entry oldest = insertionOrder.poll();
+      if (oldest == null) {
+        break;
+      }
+      if (oldest.used && entries.get(oldest.word) == oldest) {
+        // used since it was added or last checked, so give it a second chance:
+        oldest.used = false;
+        insertionOrder.add(oldest);
+      } else if (remove(oldest)) {
+        evictionCount.incrementAndGet();
+      }
+    }
+  }
+
+  private boolean remove(Entry entry) {
+    if (entries.remove(entry.word, entry)) {
+      weight.addAndGet(-entry.weight);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Remove all entries. The statistics are not reset.
+   */
+  public void clear() {
+    for (Entry entry; (entry = insertionOrder.poll()) != null; ) {
+      remove(entry);
+    }
+  }
+
+  /**
+   * Number of cached words.
+   */
+  public int getSize() {
+    return entries.size();
+  }
+
+  /**
+   * Total length of the cached words and readings in characters.
+   */
+  public long getWeight() {
+    return weight.get();
+  }
+
+  /**
+   * Number of words that were found in the cache.
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * Number of words that were not found in the cache.
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * Number of words that were removed because the cache was full.
+   */
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  @Override
+  public String toString() {
+    return "WordTagCache{size=" + getSize() + ", weight=" + weight + ", hits=" + hitCount
+            + ", misses=" + missCount + ", evictions=" + evictionCount + "}";
+  }
+
+  private static class Entry {
+
+    private final String word;
+    private final String[] readings;  // token, POS tag and lemma of each reading
+    private final int weight;
+    private volatile boolean used;
+
+    private Entry(String word, String[] readings, int weight) {
+      this.word = word;
+      this.readings = readings;
+      this.weight = weight;
+    }
+  }
+
+}
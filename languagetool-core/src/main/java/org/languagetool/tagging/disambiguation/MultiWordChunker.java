@@ -39,7 +39,8 @@ public class MultiWordChunker implements Disambiguator {
 
   private final String filename;
 
-  private Map<String, Integer> mStartSpace;
+  // mStartSpace is set last, so the other maps are visible once it is set:
+  private volatile Map<String, Integer> mStartSpace;
   private Map<String, Integer> mStartNoSpace;
   private Map<String, String> mFull;
 
@@ -56,6 +57,14 @@ public class MultiWordChunker implements Disambiguator {
     if (mStartSpace != null) {
       return;
     }
+    synchronized (this) {
+      if (mStartSpace == null) {
+        load();
+      }
+    }
+  }
+
+  private void load() {
 
     Map<String, Integer> mStartSpace = new HashMap<>();
     Map<String, Integer> mStartNoSpace = new HashMap<>();
@@ -95,9 +104,9 @@ public class MultiWordChunker implements Disambiguator {
       mFull.put(tokenAndTag[0], tokenAndTag[1]);
     }
     
-    this.mStartSpace = mStartSpace;
     this.mStartNoSpace = mStartNoSpace;
     this.mFull = mFull;
+    this.mStartSpace = mStartSpace;
   }
 
   /**
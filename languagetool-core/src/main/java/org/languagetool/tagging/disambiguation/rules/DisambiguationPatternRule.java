@@ -31,6 +31,9 @@ import org.languagetool.rules.patterns.Match;
 /**
  * A Rule that describes a pattern of words or part-of-speech tags used for
  * disambiguation.
+ *
+ * <p>Once loaded, the rule isn't modified by {@link #replace(AnalyzedSentence)},
+ * so it can be used by several threads at the same time.</p>
  * 
  * @author Marcin Miłkowski
  */
@@ -40,7 +40,7 @@ class DisambiguationPatternRuleReplacer extends AbstractPatternRulePerformer {
   List<Boolean> elementsMatched;
 
   public DisambiguationPatternRuleReplacer(DisambiguationPatternRule rule) {
-    super(rule, rule.getLanguage().getDisambiguationUnifier());
+    super(rule, rule.isTestUnification() ? rule.getLanguage().getDisambiguationUnifier() : null);
     elementsMatched = new ArrayList<>(rule.getPatternElements().size());
   }
 
@@ -19,7 +19,9 @@
 
 package org.languagetool.tagging.disambiguation.rules;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Objects;
 
@@ -28,6 +30,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import org.languagetool.AnalyzedSentence;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
+import org.languagetool.rules.patterns.PrecompiledRules;
 import org.languagetool.tagging.disambiguation.Disambiguator;
 import org.languagetool.tools.Tools;
 import org.xml.sax.SAXException;
@@ -42,7 +45,7 @@ public class XmlRuleDisambiguator implements Disambiguator {
 
   private static final String DISAMBIGUATION_FILE = "disambiguation.xml";
   
-  private List<DisambiguationPatternRule> disambiguationRules;
+  private volatile List<DisambiguationPatternRule> disambiguationRules;
   private final Language language;
 
   public XmlRuleDisambiguator(final Language language) {
@@ -52,30 +55,52 @@ public class XmlRuleDisambiguator implements Disambiguator {
   @Override
   public AnalyzedSentence disambiguate(final AnalyzedSentence input) throws IOException {
     AnalyzedSentence sentence = input;
-    if (disambiguationRules == null) {
-      final String disambiguationFile =
-        JLanguageTool.getDataBroker().getResourceDir() + "/" + language.getShortName() + "/" + DISAMBIGUATION_FILE;
-      try {
-        disambiguationRules = loadPatternRules(disambiguationFile);
-      } catch (final Exception e) {
-        throw new RuntimeException("Problems with loading disambiguation file: " + disambiguationFile, e);
-      }
-    }
-    for (final DisambiguationPatternRule patternRule : disambiguationRules) {
+    for (final DisambiguationPatternRule patternRule : getDisambiguationRules()) {
       sentence = patternRule.replace(sentence);
     }
     return sentence;
   }
 
+  // sentences may be disambiguated by several threads, so the rules must be loaded only once:
+  private List<DisambiguationPatternRule> getDisambiguationRules() {
+    List<DisambiguationPatternRule> rules = disambiguationRules;
+    if (rules == null) {
+      synchronized (this) {
+        rules = disambiguationRules;
+        if (rules == null) {
+          final String disambiguationFile =
+            JLanguageTool.getDataBroker().getResourceDir() + "/" + language.getShortName() + "/" + DISAMBIGUATION_FILE;
+          try {
+            disambiguationRules = rules = loadPatternRules(disambiguationFile);
+          } catch (final Exception e) {
+            throw new RuntimeException("Problems with loading disambiguation file: " + disambiguationFile, e);
+          }
+        }
+      }
+    }
+    return rules;
+  }
+
   /**
    * Load disambiguation rules from an XML file. Use {@link org.languagetool.JLanguageTool#addRule} to add
    * these rules to the checking process.
    * 
+   * Uses the precompiled version of the file instead, if available (see {@link PrecompiledRules}).
+   *
    * @return a List of {@link DisambiguationPatternRule} objects
    */
   protected List<DisambiguationPatternRule> loadPatternRules(final String filename) throws ParserConfigurationException, SAXException, IOException {
+    final byte[] xml;
+    try (InputStream is = Tools.getStream(filename)) {
+      xml = PrecompiledRules.readFully(is);
+    }
+    final List<DisambiguationPatternRule> precompiledRules =
+            PrecompiledRules.loadFromClasspath(filename, xml, DisambiguationPatternRule.class);
+    if (precompiledRules != null) {
+      return precompiledRules;
+    }
     final DisambiguationRuleLoader ruleLoader = new DisambiguationRuleLoader();
-    return ruleLoader.getRules(Tools.getStream(filename));
+    return ruleLoader.getRules(new ByteArrayInputStream(xml));
   }
 
 }
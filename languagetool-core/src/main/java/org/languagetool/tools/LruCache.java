@@ -0,0 +1,180 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tools;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache whose size is limited by the total weight of its entries, e.g. the length of the
+ * cached texts. The weight of an entry is given when it's added. When the cache is full,
+ * the entries that were used least recently are removed.
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 2.7
+ */
+public class LruCache<K, V> {
+
+  // in access order, so the least recently used entries come first - guarded by itself:
+  private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final long maxWeight;
+
+  private long weight;
+
+  /**
+   * @param maxWeight maximum total weight of the cached entries
+   */
+  public LruCache(long maxWeight) {
+    if (maxWeight < 1) {
+      throw new IllegalArgumentException("maxWeight must be > 0: " + maxWeight);
+    }
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * @return the value for the key, or {@code null} if it's not in the cache
+   */
+  public V get(K key) {
+    final Entry<V> entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+    }
+    if (entry == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return entry.value;
+  }
+
+  /**
+   * Add the value unless there's already a value for the key. This counts neither as a hit
+   * nor as a miss, as {@link #get(Object)} is expected to have been called before.
+   * @param weight the weight of the entry, e.g. the length of the text it is about
+   * @return the value that was in the cache already, or {@code null} if the given value has been added
+   */
+  public V putIfAbsent(K key, V value, long weight) {
+    Objects.requireNonNull(value);
+    synchronized (entries) {
+      final Entry<V> existing = entries.get(key);
+      if (existing != null) {
+        return existing.value;
+      }
+      entries.put(key, new Entry<>(value, weight));
+      this.weight += weight;
+      final Iterator<Entry<V>> leastRecentlyUsed = entries.values().iterator();
+      while (this.weight > maxWeight && leastRecentlyUsed.hasNext()) {
+        this.weight -= leastRecentlyUsed.next().weight;
+        leastRecentlyUsed.remove();
+        evictionCount.incrementAndGet();
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Remove the entry for the key, but only if its value is the given one.
+   * @return whether the entry has been removed
+   */
+  public boolean remove(K key, V value) {
+    synchronized (entries) {
+      final Entry<V> entry = entries.get(key);
+      if (entry == null || !entry.value.equals(value)) {
+        return false;
+      }
+      entries.remove(key);
+      weight -= entry.weight;
+      return true;
+    }
+  }
+
+  /**
+   * Remove all entries. The statistics are not reset.
+   */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+      weight = 0;
+    }
+  }
+
+  /**
+   * Number of cached entries.
+   */
+  public int getSize() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Total weight of the cached entries.
+   */
+  public long getWeight() {
+    synchronized (entries) {
+      return weight;
+    }
+  }
+
+  /**
+   * Number of calls of {@link #get(Object)} that found the key in the cache.
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * Number of calls of {@link #get(Object)} that didn't find the key in the cache.
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * Number of entries that were removed because the cache was full.
+   */
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  @Override
+  public String toString() {
+    return "size=" + getSize() + ", weight=" + getWeight() + ", hits=" + hitCount
+            + ", misses=" + missCount + ", evictions=" + evictionCount;
+  }
+
+  private static class Entry<V> {
+
+    private final V value;
+    private final long weight;
+
+    private Entry(V value, long weight) {
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+}
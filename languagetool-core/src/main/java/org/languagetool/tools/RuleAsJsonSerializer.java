@@ -0,0 +1,206 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tools;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.rules.Category;
+import org.languagetool.rules.ITSIssueType;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.patterns.PatternRule;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Generate JSON to represent matching rules. The matches are written one by one,
+ * so the complete JSON doesn't need to be kept in memory.
+ * 
+ * @since 2.7
+ */
+public class RuleAsJsonSerializer {
+
+  private static final int CAPACITY = 300;
+  private static final String START_MARKER = "__languagetool_start_marker";
+  private static final char LINE_SEPARATOR = (char) 0x2028;
+  private static final char PARAGRAPH_SEPARATOR = (char) 0x2029;
+
+  /**
+   * Get a JSON representation of the given rule matches.
+   * @param text the original text that was checked, used to get the context of the matches
+   * @param contextSize the desired context size in characters
+   * @param motherTongue the user's mother tongue or {@code null}
+   */
+  public String ruleMatchesToJson(List<RuleMatch> ruleMatches, String text, int contextSize,
+                                  Language lang, Language motherTongue) {
+    final StringWriter writer = new StringWriter();
+    try {
+      ruleMatchesToJson(ruleMatches, text, contextSize, lang, motherTongue, writer);
+    } catch (IOException e) {
+      throw new RuntimeException(e);  // cannot happen with a StringWriter
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Write a JSON representation of the given rule matches.
+   * @param text the original text that was checked, used to get the context of the matches
+   * @param contextSize the desired context size in characters
+   * @param motherTongue the user's mother tongue or {@code null}
+   */
+  public void ruleMatchesToJson(List<RuleMatch> ruleMatches, String text, int contextSize,
+                                Language lang, Language motherTongue, Writer writer) throws IOException {
+    final StringBuilder json = new StringBuilder(CAPACITY);
+    json.append("{\"software\":{\"name\":\"LanguageTool\",\"version\":");
+    appendString(json, JLanguageTool.VERSION);
+    json.append(",\"buildDate\":");
+    appendString(json, JLanguageTool.BUILD_DATE);
+    json.append('}');
+    if (lang != null) {
+      json.append(",\"language\":");
+      appendLanguage(json, lang);
+    }
+    if (motherTongue != null) {
+      json.append(",\"motherTongue\":");
+      appendLanguage(json, motherTongue);
+    }
+    json.append(",\"matches\":[");
+    writer.append(json);
+    final ContextTools contextTools = new ContextTools();
+    contextTools.setEscapeHtml(false);
+    contextTools.setContextSize(contextSize);
+    contextTools.setErrorMarkerStart(START_MARKER);
+    contextTools.setErrorMarkerEnd("");
+    boolean first = true;
+    for (RuleMatch match : ruleMatches) {
+      json.setLength(0);
+      if (!first) {
+        json.append(',');
+      }
+      appendRuleMatch(json, match, text, contextTools);
+      writer.append(json);
+      first = false;
+    }
+    writer.write("]}\n");
+  }
+
+  private void appendLanguage(StringBuilder json, Language language) {
+    json.append("{\"name\":");
+    appendString(json, language.getName());
+    json.append(",\"code\":");
+    appendString(json, language.getShortNameWithCountryAndVariant());
+    json.append('}');
+  }
+
+  private void appendRuleMatch(StringBuilder json, RuleMatch match, String text, ContextTools contextTools) {
+    json.append("\n{\"message\":");
+    appendString(json, match.getMessage().replaceAll("</?suggestion>", "'"));
+    if (match.getShortMessage() != null) {
+      json.append(",\"shortMessage\":");
+      appendString(json, match.getShortMessage());
+    }
+    json.append(",\"offset\":").append(match.getFromPos())
+        .append(",\"length\":").append(match.getToPos() - match.getFromPos())
+        .append(",\"fromY\":").append(match.getLine())
+        .append(",\"fromX\":").append(match.getColumn() - 1)
+        .append(",\"toY\":").append(match.getEndLine())
+        .append(",\"toX\":").append(match.getEndColumn() - 1);
+    json.append(",\"replacements\":[");
+    boolean first = true;
+    for (String replacement : match.getSuggestedReplacements()) {
+      if (!first) {
+        json.append(',');
+      }
+      appendString(json, replacement);
+      first = false;
+    }
+    json.append(']');
+    String context = contextTools.getContext(match.getFromPos(), match.getToPos(), text);
+    // get position of error in context and remove artificial marker again:
+    final int contextOffset = context.indexOf(START_MARKER);
+    context = context.replaceFirst(START_MARKER, "").replaceAll("[\n\r]", " ");
+    json.append(",\"context\":{\"text\":");
+    appendString(json, context);
+    json.append(",\"offset\":").append(contextOffset)
+        .append(",\"length\":").append(match.getToPos() - match.getFromPos())
+        .append('}');
+    appendRule(json, match.getRule());
+    json.append('}');
+  }
+
+  private void appendRule(StringBuilder json, Rule rule) {
+    json.append(",\"rule\":{\"id\":");
+    appendString(json, rule.getId());
+    if (rule instanceof PatternRule && ((PatternRule) rule).getSubId() != null) {
+      json.append(",\"subId\":");
+      appendString(json, ((PatternRule) rule).getSubId());
+    }
+    json.append(",\"description\":");
+    appendString(json, rule.getDescription());
+    if (rule.getUrl() != null) {
+      json.append(",\"url\":");
+      appendString(json, rule.getUrl().toString());
+    }
+    final Category category = rule.getCategory();
+    if (category != null) {
+      json.append(",\"category\":");
+      appendString(json, category.getName());
+    }
+    final ITSIssueType type = rule.getLocQualityIssueType();
+    if (type != null) {
+      json.append(",\"issueType\":");
+      appendString(json, type.toString());
+    }
+    json.append('}');
+  }
+
+  /**
+   * Append the string as a JSON string literal, including the quotes, or {@code null} if it's {@code null}.
+   * @since 2.7
+   */
+  public static void appendString(StringBuilder json, String s) {
+    if (s == null) {
+      json.append("null");
+      return;
+    }
+    json.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      final char c = s.charAt(i);
+      switch (c) {
+        case '"':  json.append("\\\""); break;
+        case '\\': json.append("\\\\"); break;
+        case '\n': json.append("\\n"); break;
+        case '\r': json.append("\\r"); break;
+        case '\t': json.append("\\t"); break;
+        default:
+          // also escape the line separators that are valid in JSON but not in JavaScript:
+          if (c < 0x20 || c == LINE_SEPARATOR || c == PARAGRAPH_SEPARATOR) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+      }
+    }
+    json.append('"');
+  }
+
+}
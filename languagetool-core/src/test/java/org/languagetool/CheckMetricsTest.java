@@ -0,0 +1,115 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.junit.Test;
+import org.languagetool.language.Demo;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class CheckMetricsTest {
+
+  @Test
+  public void testCheckIsRecorded() throws IOException {
+    final CheckMetrics metrics = new CheckMetrics(true);
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    langTool.activateDefaultPatternRules();
+    langTool.setCheckMetrics(metrics);
+    assertFalse(langTool.check("A small toast. foo bar.").isEmpty());
+    final Map<String, Map<CheckMetrics.Phase, LatencyHistogram>> histograms = metrics.getPhaseHistograms();
+    assertThat(histograms.size(), is(1));
+    final Map<CheckMetrics.Phase, LatencyHistogram> phases = histograms.values().iterator().next();
+    assertThat(phases.get(CheckMetrics.Phase.SENTENCE_TOKENIZATION).getCount(), is(1L));
+    assertThat(phases.get(CheckMetrics.Phase.WORD_TOKENIZATION).getCount(), is(2L));
+    assertThat(phases.get(CheckMetrics.Phase.TAGGING).getCount(), is(2L));
+    assertThat(phases.get(CheckMetrics.Phase.DISAMBIGUATION).getCount(), is(2L));
+    // once per check, not per sentence:
+    assertThat(phases.get(CheckMetrics.Phase.RULE_MATCHING).getCount(), is(1L));
+    assertThat(phases.get(CheckMetrics.Phase.SERIALIZATION).getCount(), is(0L));
+    boolean foundRule = false;
+    for (CheckMetrics.RuleStatistics statistics : metrics.getRuleStatistics()) {
+      if (statistics.getRuleId().equals("DEMO_RULE")) {
+        assertThat(statistics.getMatches(), is(1L));
+        assertTrue(statistics.getInvocations() >= 1);
+        foundRule = true;
+      }
+    }
+    assertTrue(foundRule);
+    // no more recording without metrics:
+    langTool.setCheckMetrics(null);
+    langTool.check("A small toast.");
+    assertThat(phases.get(CheckMetrics.Phase.SENTENCE_TOKENIZATION).getCount(), is(1L));
+  }
+
+  @Test
+  public void testNoRuleMetricsByDefault() throws IOException {
+    final CheckMetrics metrics = new CheckMetrics();
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    langTool.activateDefaultPatternRules();
+    langTool.setCheckMetrics(metrics);
+    assertFalse(langTool.check("A small toast. foo bar.").isEmpty());
+    assertTrue(metrics.getRuleStatistics().isEmpty());
+    final Map<CheckMetrics.Phase, LatencyHistogram> phases = metrics.getPhaseHistograms().values().iterator().next();
+    assertThat(phases.get(CheckMetrics.Phase.RULE_MATCHING).getCount(), is(1L));
+  }
+
+  @Test
+  public void testHistogram() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(0);
+    histogram.record(100_000);  // exactly the limit of the first bucket
+    histogram.record(100_001);
+    histogram.record(TimeUnit.SECONDS.toNanos(60));
+    final long[] counts = histogram.getBucketCounts();
+    assertThat(counts.length, is(LatencyHistogram.getBucketLimitsNanos().length + 1));
+    assertThat(counts[0], is(2L));
+    assertThat(counts[1], is(1L));
+    assertThat(counts[counts.length - 1], is(1L));
+    assertThat(histogram.getCount(), is(4L));
+    assertThat(histogram.getSumNanos(), is(200_001L + TimeUnit.SECONDS.toNanos(60)));
+  }
+
+  @Test
+  public void testRecordingFromManyThreads() throws Exception {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 8; i++) {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 10000; j++) {
+            histogram.record(j);
+          }
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+    assertThat(histogram.getCount(), is(80000L));
+    assertThat(histogram.getSumNanos(), is(8L * 9999 * 10000 / 2));
+  }
+
+}
@@ -0,0 +1,170 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.junit.Test;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ResourceBundle;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IncrementalCheckSessionTest {
+
+  @Test
+  public void testEdits() throws IOException {
+    final JLanguageTool langTool = getLanguageTool();
+    final IncrementalCheckSession session = new IncrementalCheckSession(langTool, "A small toast. No error here.");
+    assertSameMatches(session);
+    session.edit(session.getText().length(), 0, " foo go bar.\nFirst goes last there, please!");
+    assertSameMatches(session);
+    session.edit(0, 1, "a");
+    assertSameMatches(session);
+    session.edit(15, 15, "");
+    assertSameMatches(session);
+    session.edit(2, 0, "very  ");
+    assertSameMatches(session);
+    session.update("Foo go bar.\n\nA small toast.  there is a toast.");
+    assertSameMatches(session);
+    session.update("");
+    assertSameMatches(session);
+    session.update("a small toast");
+    assertSameMatches(session);
+  }
+
+  @Test
+  public void testEditsInParagraphs() throws IOException {
+    final JLanguageTool langTool = getLanguageTool();
+    final IncrementalCheckSession session = new IncrementalCheckSession(langTool,
+            "A small toast. no error.\n\nfoo go bar. There is a toast.\n\nthe last one.  Really.");
+    assertSameMatches(session);
+    session.edit(16, 1, "N");
+    assertSameMatches(session);
+    session.edit(24, 0, " another one.");
+    assertSameMatches(session);
+    session.edit(37, 2, "");
+    assertSameMatches(session);
+    session.update("A small toast.\n\nfoo go bar.\n\nthe last one.");
+    assertSameMatches(session);
+  }
+
+  @Test
+  public void testOnlyEditedParagraphsAreChecked() throws IOException {
+    final CountingRule textRule = new CountingRule("TEXT_RULE", false);
+    final CountingRule sentenceRule = new CountingRule("SENTENCE_RULE", true);
+    final JLanguageTool langTool = new JLanguageTool(new Demo() {
+      @Override
+      public List<Rule> getRelevantRules(ResourceBundle messages) {
+        return Arrays.<Rule>asList(textRule, sentenceRule);
+      }
+    });
+    final IncrementalCheckSession session = new IncrementalCheckSession(langTool,
+            "One. Two. Three.\n\nFour. Five. Six.\n\nSeven. Eight. Nine.");
+    assertThat(textRule.count, is(9));
+    assertThat(sentenceRule.count, is(9));
+    textRule.count = 0;
+    sentenceRule.count = 0;
+    session.edit(session.getText().indexOf("Eight"), 5, "Ten");
+    // the sentences around the edit are analyzed again, the text rule also checks the two sentences before the paragraph:
+    assertThat(sentenceRule.count, is(3));
+    assertThat(textRule.count, is(5));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidEdit() throws IOException {
+    new IncrementalCheckSession(getLanguageTool(), "A test.").edit(5, 3, "x");
+  }
+
+  // a new instance, as some rules keep state from the texts checked before:
+  private void assertSameMatches(IncrementalCheckSession session) throws IOException {
+    assertThat(toStrings(session.getMatches()), is(toStrings(getLanguageTool().check(session.getText()))));
+  }
+
+  private JLanguageTool getLanguageTool() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo() {
+      @Override
+      public List<Rule> getRelevantRules(ResourceBundle messages) {
+        return Arrays.asList(
+                new UppercaseSentenceStartRule(messages, this),
+                new MultipleWhitespaceRule(messages, this)
+        );
+      }
+    });
+    langTool.activateDefaultPatternRules();
+    return langTool;
+  }
+
+  // counts the sentences it checks:
+  static class CountingRule extends Rule {
+
+    private final String id;
+    private final boolean sentenceIndependent;
+
+    private int count;
+
+    CountingRule(String id, boolean sentenceIndependent) {
+      this.id = id;
+      this.sentenceIndependent = sentenceIndependent;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public String getDescription() {
+      return "Counts the checked sentences";
+    }
+
+    @Override
+    public RuleMatch[] match(AnalyzedSentence sentence) {
+      count++;
+      return new RuleMatch[0];
+    }
+
+    @Override
+    public boolean isSentenceIndependent() {
+      return sentenceIndependent;
+    }
+
+    @Override
+    public void reset() {
+    }
+  }
+
+  // sorted, as the order of matches at the same position depends on the order the rules were applied in:
+  private List<String> toStrings(List<RuleMatch> matches) {
+    final List<String> result = new ArrayList<>();
+    for (RuleMatch match : matches) {
+      result.add(match.getFromPos() + "-" + match.getToPos() + ":" + match.getLine() + "/" + match.getColumn()
+              + "-" + match.getEndLine() + "/" + match.getEndColumn() + ":" + match.getRule().getId());
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+}
@@ -25,8 +25,12 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -50,6 +54,32 @@ public class MultiThreadedJLanguageToolTest {
     Assert.assertEquals(4, tool.getSentenceCount());
   }
   
+  @Test
+  public void testCheckWithForkJoinPool() throws IOException {
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
+    tool.setForkJoinPool(new ForkJoinPool(4));
+    assertThat(getRuleMatchIds(tool), is(getRuleMatchIds(new JLanguageTool(new Demo()))));
+    Assert.assertEquals(4, tool.getSentenceCount());
+  }
+
+  @Test
+  public void testForkJoinPoolWithRebalancing() throws IOException {
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
+    tool.setForkJoinPool(new ForkJoinPool(3));
+    tool.activateDefaultPatternRules();
+    final JLanguageTool singleThreadedTool = new JLanguageTool(new Demo());
+    singleThreadedTool.activateDefaultPatternRules();
+    final StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 60; i++) {
+      text.append("A small toast. No error here.\nFoo go bar. ");
+    }
+    // the rules get re-balanced after 100 sentences, results must not change:
+    for (int i = 0; i < 3; i++) {
+      assertThat(toStrings(tool.check(text.toString())), is(toStrings(singleThreadedTool.check(text.toString()))));
+      assertThat(toStrings(tool.check("First goes last there, please!")), is(toStrings(singleThreadedTool.check("First goes last there, please!"))));
+    }
+  }
+
   @Test
   public void testTextAnalysis() throws IOException {
     JLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
@@ -61,6 +91,77 @@ public class MultiThreadedJLanguageToolTest {
     assertThat(analyzedSentences.get(1).getTokensWithoutWhitespace().length, is(5));
   }
   
+  @Test
+  public void testParallelTextAnalysis() throws IOException {
+    final StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 20; i++) {
+      text.append("This is a sentence. And another one with a tset error.\n\n");
+    }
+    final List<AnalyzedSentence> expected = new JLanguageTool(new Demo()).analyzeText(text.toString());
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
+    assertThat(toStringsOfSentences(tool.analyzeText(text.toString())), is(toStringsOfSentences(expected)));
+    tool.setForkJoinPool(new ForkJoinPool(3));
+    assertThat(toStringsOfSentences(tool.analyzeText(text.toString())), is(toStringsOfSentences(expected)));
+    final JLanguageTool singleThreadedTool = new JLanguageTool(new Demo());
+    singleThreadedTool.setAnalysisExecutor(new ForkJoinPool(2));
+    assertThat(toStringsOfSentences(singleThreadedTool.analyzeText(text.toString())), is(toStringsOfSentences(expected)));
+  }
+
+  @Test
+  public void testNoThreadPoolForAnalysisWithoutPool() throws IOException {
+    final AtomicInteger createdExecutors = new AtomicInteger();
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo()) {
+      @Override
+      protected ExecutorService getExecutorService(int threads) {
+        createdExecutors.incrementAndGet();
+        return super.getExecutorService(threads);
+      }
+    };
+    tool.analyzeText("This is a sentence. And another one with a tset error.");
+    assertThat(createdExecutors.get(), is(0));
+  }
+
+  private List<String> toStringsOfSentences(List<AnalyzedSentence> sentences) {
+    final List<String> result = new ArrayList<>();
+    for (AnalyzedSentence sentence : sentences) {
+      result.add(sentence.toString());
+    }
+    return result;
+  }
+
+  @Test
+  public void testCancelledCheck() throws IOException {
+    final JLanguageTool singleThreadedTool = new JLanguageTool(new Demo());
+    singleThreadedTool.activateDefaultPatternRules();
+    assertCancelled(singleThreadedTool);
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
+    tool.activateDefaultPatternRules();
+    assertCancelled(tool);
+    tool.setForkJoinPool(new ForkJoinPool(3));
+    assertCancelled(tool);
+    tool.setSentenceMatchCache(new SentenceMatchCache(10000));
+    assertCancelled(tool);
+  }
+
+  private void assertCancelled(JLanguageTool tool) throws IOException {
+    final String text = "A small toast. No error here. Foo go bar. First goes last there, please!";
+    final CancellationToken token = new CancellationToken();
+    tool.setCancellationToken(token);
+    assertThat(tool.check(text).size(), is(10));
+    token.cancel();
+    try {
+      tool.check(text);
+      Assert.fail("Check should have been cancelled");
+    } catch (CheckCancelledException expected) {}
+    tool.setCancellationToken(CancellationToken.withTimeout(0));
+    try {
+      tool.check(text);
+      Assert.fail("Check should have been cancelled");
+    } catch (CheckCancelledException expected) {}
+    tool.setCancellationToken(null);
+    assertThat(tool.check(text).size(), is(10));
+  }
+
   @Test
   public void testConfigurableThreadPoolSize() throws IOException {
     MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
@@ -92,7 +193,18 @@ public class MultiThreadedJLanguageToolTest {
 
   @Test
   public void testTwoRulesOnly() throws IOException {
-    MultiThreadedJLanguageTool langTool = new MultiThreadedJLanguageTool(new FakeLanguage() {
+    assertThat(getTwoRulesTool().check("my test  text").size(), is(2));
+  }
+
+  @Test
+  public void testTwoRulesOnlyWithForkJoinPool() throws IOException {
+    final MultiThreadedJLanguageTool langTool = getTwoRulesTool();
+    langTool.setForkJoinPool(MultiThreadedJLanguageTool.getSharedForkJoinPool());
+    assertThat(langTool.check("my test  text").size(), is(2));
+  }
+
+  private MultiThreadedJLanguageTool getTwoRulesTool() throws IOException {
+    return new MultiThreadedJLanguageTool(new FakeLanguage() {
       @Override
       public List<Rule> getRelevantRules(ResourceBundle messages) {
         // less rules than processors (depending on the machine), should at least not crash
@@ -102,6 +214,16 @@ public class MultiThreadedJLanguageToolTest {
         );
       }
     });
-    assertThat(langTool.check("my test  text").size(), is(2));
+  }
+
+  // sorted, as the order of matches at the same position depends on how the rules were split:
+  private List<String> toStrings(List<RuleMatch> matches) {
+    final List<String> result = new ArrayList<>();
+    for (RuleMatch match : matches) {
+      result.add(match.getFromPos() + "-" + match.getToPos() + ":" + match.getLine() + "/" + match.getColumn()
+              + "-" + match.getEndLine() + "/" + match.getEndColumn() + ":" + match.getRule().getId());
+    }
+    Collections.sort(result);
+    return result;
   }
 }
@@ -0,0 +1,90 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ParagraphChunkerTest {
+
+  @Test
+  public void testParagraphs() throws IOException {
+    assertThat(chunks("", false, 100), is(Arrays.<String>asList()));
+    assertThat(chunks("One line", false, 100), is(Arrays.asList("One line")));
+    assertThat(chunks("A\nB\n\nC\r\n\r\n\n  \nD\n", false, 100), is(Arrays.asList("A\nB\n\n", "C\r\n\r\n\n  \n", "D\n")));
+    assertThat(chunks("\n\nA\n\nB", false, 100), is(Arrays.asList("\n\n", "A\n\n", "B")));
+  }
+
+  @Test
+  public void testSingleLineBreaksMarksParagraph() throws IOException {
+    assertThat(chunks("A\nB\n\nC", true, 100), is(Arrays.asList("A\n", "B\n\n", "C")));
+  }
+
+  @Test
+  public void testMaxChunkSize() throws IOException {
+    assertThat(chunks("Line 1\nLine 2\nLine 3\n\nX", false, 10), is(Arrays.asList("Line 1\nLine 2\n", "Line 3\n\n", "X")));
+    assertThat(chunks("aaaa bbbb cccc", false, 5), is(Arrays.asList("aaaa ", "bbbb ", "cccc")));
+    // no whitespace, so split at twice the size:
+    assertThat(chunks("aaaaaaaaaaaabbbb cc", false, 5), is(Arrays.asList("aaaaaaaaaa", "aabbbb ", "cc")));
+    assertThat(chunks("aaaaaaaaa\uD83D\uDE00bbb", false, 5), is(Arrays.asList("aaaaaaaaa\uD83D\uDE00", "bbb")));
+  }
+
+  @Test
+  public void testEndsParagraph() throws IOException {
+    final ParagraphChunker chunker = new ParagraphChunker(new StringReader("Line 1\nLine 2\nLine 3\n\nXXXXXXXXXX YYY ZZ\n"), false, 10);
+    assertThat(chunker.next(), is("Line 1\nLine 2\n"));
+    assertFalse(chunker.endsParagraph());
+    assertThat(chunker.next(), is("Line 3\n\n"));
+    assertTrue(chunker.endsParagraph());
+    assertThat(chunker.next(), is("XXXXXXXXXX YYY "));
+    assertFalse(chunker.endsParagraph());
+    assertThat(chunker.next(), is("ZZ\n"));
+    assertTrue(chunker.endsParagraph());
+  }
+
+  private List<String> chunks(String text, boolean singleLineBreaksMarksPara, int maxChunkSize) throws IOException {
+    final ParagraphChunker chunker = new ParagraphChunker(new StringReader(text), singleLineBreaksMarksPara, maxChunkSize);
+    final List<String> result = new ArrayList<>();
+    String chunk;
+    while ((chunk = chunker.next()) != null) {
+      result.add(chunk);
+    }
+    assertThat(joined(result), is(text));
+    return result;
+  }
+
+  private String joined(List<String> chunks) {
+    final StringBuilder sb = new StringBuilder();
+    for (String chunk : chunks) {
+      sb.append(chunk);
+    }
+    return sb.toString();
+  }
+
+}
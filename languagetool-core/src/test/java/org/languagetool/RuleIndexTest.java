@@ -0,0 +1,71 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2013 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.junit.Test;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.patterns.PatternRule;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class RuleIndexTest {
+
+  @Test
+  public void testCandidateRules() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    langTool.activateDefaultPatternRules();
+    final List<Rule> rules = langTool.getAllRules();
+    final RuleIndex index = new RuleIndex(rules);
+    for (String sentence : new String[] {"This is foo bar.", "A sentence with one match.", "Nothing here.", "And blah blah blah."}) {
+      final AnalyzedSentence analyzedSentence = langTool.getAnalyzedSentence(sentence);
+      assertThat(sentence, index.getCandidateRules(analyzedSentence), is(getRelevantRules(rules, analyzedSentence)));
+    }
+  }
+
+  @Test
+  public void testIsFor() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    langTool.activateDefaultPatternRules();
+    final List<Rule> rules = langTool.getAllRules();
+    final RuleIndex index = new RuleIndex(rules);
+    assertTrue(index.isFor(new ArrayList<>(rules)));
+    assertFalse(index.isFor(rules.subList(1, rules.size())));
+    final List<Rule> reversedRules = new ArrayList<>(rules);
+    Collections.reverse(reversedRules);
+    assertFalse(index.isFor(reversedRules));
+  }
+
+  private List<Rule> getRelevantRules(List<Rule> rules, AnalyzedSentence sentence) {
+    final List<Rule> result = new ArrayList<>();
+    for (Rule rule : rules) {
+      if (!(rule instanceof PatternRule) || !((PatternRule) rule).canBeIgnoredFor(sentence)) {
+        result.add(rule);
+      }
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,251 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.junit.Test;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.*;
+import org.languagetool.rules.patterns.Element;
+import org.languagetool.rules.patterns.PatternRule;
+import org.languagetool.rules.spelling.SpellingCheckRule;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SentenceMatchCacheTest {
+
+  private static final String TEXT = "A small toast. No error here.\nfoo go bar. First goes last there, please!";
+
+  @Test
+  public void testSameMatchesWithCache() throws IOException {
+    final SentenceMatchCache cache = new SentenceMatchCache(10000);
+    final List<String> expected = toStrings(getLanguageTool(null).check(TEXT));
+    assertThat(toStrings(getLanguageTool(cache).check(TEXT)), is(expected));
+    assertThat(cache.getMissCount(), is(4L));
+    assertThat(cache.getHitCount(), is(0L));
+    // another instance with the same configuration uses the cached sentences:
+    assertThat(toStrings(getLanguageTool(cache).check(TEXT)), is(expected));
+    assertThat(cache.getMissCount(), is(4L));
+    assertThat(cache.getHitCount(), is(4L));
+    // same sentences at other positions:
+    final String text = "Foo go bar.\n\n" + TEXT;
+    assertThat(toStrings(getLanguageTool(cache).check(text)), is(toStrings(getLanguageTool(null).check(text))));
+  }
+
+  @Test
+  public void testRuleConfigurationIsPartOfTheKey() throws IOException {
+    final SentenceMatchCache cache = new SentenceMatchCache(10000);
+    getLanguageTool(cache).check(TEXT);
+    final JLanguageTool langTool = getLanguageTool(cache);
+    langTool.disableRule("TEST_GO");
+    final JLanguageTool expectedLangTool = getLanguageTool(null);
+    expectedLangTool.disableRule("TEST_GO");
+    assertThat(toStrings(langTool.check(TEXT)), is(toStrings(expectedLangTool.check(TEXT))));
+    assertThat(cache.getHitCount(), is(0L));
+  }
+
+  @Test
+  public void testUserRulesWithSameIdAreDifferentKeys() throws IOException {
+    final SentenceMatchCache cache = new SentenceMatchCache(10000);
+    final JLanguageTool langTool1 = getLanguageTool(cache);
+    langTool1.addRule(getUserRule("toast"));
+    final JLanguageTool langTool2 = getLanguageTool(cache);
+    langTool2.addRule(getUserRule("bar"));
+    final JLanguageTool expectedLangTool = getLanguageTool(null);
+    expectedLangTool.addRule(getUserRule("bar"));
+    langTool1.check(TEXT);
+    assertThat(toStrings(langTool2.check(TEXT)), is(toStrings(expectedLangTool.check(TEXT))));
+    assertThat(cache.getHitCount(), is(0L));
+  }
+
+  @Test
+  public void testSpellingSettingsArePartOfTheKey() throws IOException {
+    final SentenceMatchCache cache = new SentenceMatchCache(10000);
+    final List<String> expected = toStrings(getLanguageTool(null, new ToastSpellingRule()).check(TEXT));
+    assertThat(toStrings(getLanguageTool(cache, new ToastSpellingRule()).check(TEXT)), is(expected));
+    final ToastSpellingRule spellingRule = new ToastSpellingRule();
+    final JLanguageTool langTool = getLanguageTool(cache, spellingRule);
+    assertThat(toStrings(langTool.check(TEXT)), is(expected));
+    assertThat(cache.getHitCount(), is(4L));
+    spellingRule.addIgnoreTokens(Arrays.asList("toast"));
+    final ToastSpellingRule expectedSpellingRule = new ToastSpellingRule();
+    expectedSpellingRule.addIgnoreTokens(Arrays.asList("toast"));
+    assertThat(toStrings(langTool.check(TEXT)), is(toStrings(getLanguageTool(null, expectedSpellingRule).check(TEXT))));
+    assertThat(cache.getHitCount(), is(4L));
+    assertThat(cache.getMissCount(), is(8L));
+  }
+
+  @Test
+  public void testEviction() throws IOException {
+    final SentenceMatchCache cache = new SentenceMatchCache(30);
+    final JLanguageTool langTool = getLanguageTool(cache);
+    langTool.check(TEXT);
+    assertThat(cache.getSize(), is(1));
+    assertThat(cache.getEvictionCount(), is(3L));
+    assertThat(cache.getWeight() <= 30, is(true));
+    cache.clear();
+    assertThat(cache.getSize(), is(0));
+    assertThat(cache.getWeight(), is(0L));
+  }
+
+  @Test
+  public void testConcurrentRequestsForSameSentence() throws Exception {
+    final SentenceMatchCache cache = new SentenceMatchCache(10000);
+    final SentenceMatchCache.Key key = new SentenceMatchCache.Key("xx", "A sentence.", true);
+    final AtomicInteger loaderCalls = new AtomicInteger();
+    final CountDownLatch loaderStarted = new CountDownLatch(1);
+    final CountDownLatch loaderMayFinish = new CountDownLatch(1);
+    final Callable<SentenceMatchCache.Entry> loader = new Callable<SentenceMatchCache.Entry>() {
+      @Override
+      public SentenceMatchCache.Entry call() throws Exception {
+        loaderCalls.incrementAndGet();
+        loaderStarted.countDown();
+        loaderMayFinish.await();
+        return new SentenceMatchCache.Entry(null, new ArrayList<RuleMatch>());
+      }
+    };
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<SentenceMatchCache.Entry>> futures = new ArrayList<>();
+      futures.add(executor.submit(getCallable(cache, key, loader)));
+      loaderStarted.await();
+      for (int i = 0; i < 3; i++) {
+        futures.add(executor.submit(getCallable(cache, key, loader)));
+      }
+      Thread.sleep(50);
+      loaderMayFinish.countDown();
+      for (Future<SentenceMatchCache.Entry> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(loaderCalls.get(), is(1));
+    assertThat(cache.getMissCount(), is(1L));
+    assertThat(cache.getHitCount(), is(3L));
+  }
+
+  @Test
+  public void testFailuresAreNotCached() throws Exception {
+    final SentenceMatchCache cache = new SentenceMatchCache(10000);
+    final SentenceMatchCache.Key key = new SentenceMatchCache.Key("xx", "A sentence.", false);
+    try {
+      cache.get(key, new Callable<SentenceMatchCache.Entry>() {
+        @Override
+        public SentenceMatchCache.Entry call() throws Exception {
+          throw new IOException("test");
+        }
+      });
+    } catch (IOException expected) {
+      // expected
+    }
+    assertThat(cache.getSize(), is(0));
+    assertThat(cache.getWeight(), is(0L));
+  }
+
+  private Callable<SentenceMatchCache.Entry> getCallable(final SentenceMatchCache cache, final SentenceMatchCache.Key key,
+                                                         final Callable<SentenceMatchCache.Entry> loader) {
+    return new Callable<SentenceMatchCache.Entry>() {
+      @Override
+      public SentenceMatchCache.Entry call() throws Exception {
+        return cache.get(key, loader);
+      }
+    };
+  }
+
+  private JLanguageTool getLanguageTool(SentenceMatchCache cache) throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo() {
+      @Override
+      public List<Rule> getRelevantRules(ResourceBundle messages) {
+        return Arrays.asList(
+                new UppercaseSentenceStartRule(messages, this),
+                new MultipleWhitespaceRule(messages, this)
+        );
+      }
+    });
+    langTool.activateDefaultPatternRules();
+    langTool.setSentenceMatchCache(cache);
+    return langTool;
+  }
+
+  private JLanguageTool getLanguageTool(SentenceMatchCache cache, SpellingCheckRule spellingRule) throws IOException {
+    final JLanguageTool langTool = getLanguageTool(cache);
+    langTool.addRule(spellingRule);
+    return langTool;
+  }
+
+  private PatternRule getUserRule(String word) {
+    return new PatternRule("USER_RULE", new Demo(), Collections.singletonList(new Element(word, false, false, false)),
+            "description", "message", "short message");
+  }
+
+  // sorted, as the order of matches at the same position depends on the order the rules were applied in:
+  private List<String> toStrings(List<RuleMatch> matches) {
+    final List<String> result = new ArrayList<>();
+    for (RuleMatch match : matches) {
+      result.add(match.getFromPos() + "-" + match.getToPos() + ":" + match.getLine() + "/" + match.getColumn()
+              + "-" + match.getEndLine() + "/" + match.getEndColumn() + ":" + match.getRule().getId()
+              + match.getSuggestedReplacements());
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+  static class ToastSpellingRule extends SpellingCheckRule {
+
+    ToastSpellingRule() {
+      super(TestTools.getEnglishMessages(), new Demo());
+    }
+
+    @Override
+    public String getId() {
+      return "TOAST_SPELLING_RULE";
+    }
+
+    @Override
+    public String getDescription() {
+      return "Finds 'toast'";
+    }
+
+    @Override
+    public RuleMatch[] match(AnalyzedSentence sentence) throws IOException {
+      final List<RuleMatch> matches = new ArrayList<>();
+      for (AnalyzedTokenReadings token : sentence.getTokensWithoutWhitespace()) {
+        if (token.getToken().equals("toast") && !ignoreWord(token.getToken())) {
+          matches.add(new RuleMatch(this, token.getStartPos(), token.getStartPos() + token.getToken().length(), "Spelling"));
+        }
+      }
+      return matches.toArray(new RuleMatch[matches.size()]);
+    }
+  }
+
+}
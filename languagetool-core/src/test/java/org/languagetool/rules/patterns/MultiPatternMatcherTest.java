@@ -0,0 +1,109 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2012 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import junit.framework.TestCase;
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.JLanguageTool;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.IncorrectExample;
+import org.languagetool.rules.RuleMatch;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+public class MultiPatternMatcherTest extends TestCase {
+
+  public void testSameMatchesAsWithoutStartPositions() throws Exception {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    final List<PatternRule> rules = new PatternRuleLoader().getRules(
+            JLanguageTool.getDataBroker().getFromRulesDirAsStream("/xx/grammar.xml"), "/xx/grammar.xml");
+    final MultiPatternMatcher matcher = new MultiPatternMatcher(rules);
+    final List<String> sentences = new ArrayList<>();
+    for (PatternRule rule : rules) {
+      for (IncorrectExample example : rule.getIncorrectExamples()) {
+        sentences.add(example.getExample().replace("<marker>", "").replace("</marker>", ""));
+      }
+      for (String example : rule.getCorrectExamples()) {
+        sentences.add(example.replace("<marker>", "").replace("</marker>", ""));
+      }
+    }
+    final BitSet allRules = new BitSet();
+    allRules.set(0, rules.size());
+    int compiledCount = 0;
+    int matchCount = 0;
+    for (String sentence : sentences) {
+      final AnalyzedSentence analyzedSentence = langTool.getAnalyzedSentence(sentence);
+      final BitSet[] startPositions = matcher.getStartPositions(analyzedSentence, allRules);
+      for (int i = 0; i < rules.size(); i++) {
+        final PatternRule rule = rules.get(i);
+        final RuleMatch[] expected = rule.match(analyzedSentence);
+        if (!matcher.isCompiled(i)) {
+          assertNull(startPositions[i]);
+          continue;
+        }
+        compiledCount++;
+        matchCount += expected.length;
+        final RuleMatch[] matches = rule.match(analyzedSentence, startPositions[i]);
+        final String message = rule.getId() + "[" + rule.getSubId() + "]: " + sentence;
+        assertEquals(message, expected.length, matches.length);
+        for (int j = 0; j < expected.length; j++) {
+          assertEquals(message, expected[j].getFromPos(), matches[j].getFromPos());
+          assertEquals(message, expected[j].getToPos(), matches[j].getToPos());
+          assertEquals(message, expected[j].getMessage(), matches[j].getMessage());
+          assertEquals(message, expected[j].getSuggestedReplacements(), matches[j].getSuggestedReplacements());
+        }
+      }
+    }
+    assertTrue(compiledCount > 0);
+    assertTrue(matchCount > 0);
+  }
+
+  public void testStartPositions() throws Exception {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    final List<PatternRule> rules = new ArrayList<>();
+    rules.add(makeRule("foo", "bar"));
+    rules.add(makeRule("foo", "baz"));
+    rules.add(makeRule("bar"));
+    final MultiPatternMatcher matcher = new MultiPatternMatcher(rules);
+    final BitSet allRules = new BitSet();
+    allRules.set(0, rules.size());
+    // token 0 is SENT_START:
+    final BitSet[] startPositions = matcher.getStartPositions(langTool.getAnalyzedSentence("Foo bar foo bar x"), allRules);
+    assertEquals("{1, 3}", startPositions[0].toString());
+    assertEquals("{}", startPositions[1].toString());
+    assertEquals("{2, 4}", startPositions[2].toString());
+    final BitSet firstRuleOnly = new BitSet();
+    firstRuleOnly.set(0);
+    final BitSet[] startPositions2 = matcher.getStartPositions(langTool.getAnalyzedSentence("Foo bar foo bar x"), firstRuleOnly);
+    assertEquals("{1, 3}", startPositions2[0].toString());
+    assertNull(startPositions2[1]);
+    assertNull(startPositions2[2]);
+  }
+
+  private PatternRule makeRule(String... tokens) {
+    final List<Element> elements = new ArrayList<>();
+    for (String token : tokens) {
+      elements.add(new Element(token, false, false, false));
+    }
+    return new PatternRule("ID1", new Demo(), elements, "desc", "msg", "short");
+  }
+
+}
@@ -0,0 +1,104 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2012 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.junit.Test;
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.JLanguageTool;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.IncorrectExample;
+import org.languagetool.rules.RuleMatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Uses the same pattern rules from many threads at the same time and makes sure
+ * the results are the same as when checking with only one thread.
+ */
+public class PatternRuleConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int CHECKS_PER_THREAD = 500;
+
+  @Test
+  public void testSameResultsFromManyThreads() throws Exception {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    final List<PatternRule> rules = new PatternRuleLoader().getRules(
+            JLanguageTool.getDataBroker().getFromRulesDirAsStream("/xx/grammar.xml"), "/xx/grammar.xml");
+    final List<AnalyzedSentence> sentences = new ArrayList<>();
+    for (PatternRule rule : rules) {
+      for (IncorrectExample example : rule.getIncorrectExamples()) {
+        sentences.add(langTool.getAnalyzedSentence(example.getExample().replace("<marker>", "").replace("</marker>", "")));
+      }
+      for (String example : rule.getCorrectExamples()) {
+        sentences.add(langTool.getAnalyzedSentence(example.replace("<marker>", "").replace("</marker>", "")));
+      }
+    }
+    final List<String> expected = new ArrayList<>();
+    for (AnalyzedSentence sentence : sentences) {
+      expected.add(getMatches(rules, sentence));
+    }
+    final ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+    try {
+      final List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        final Random random = new Random(i);
+        futures.add(executorService.submit(new Callable<Integer>() {
+          @Override
+          public Integer call() throws Exception {
+            int checks = 0;
+            for (int j = 0; j < CHECKS_PER_THREAD; j++) {
+              final int idx = random.nextInt(sentences.size());
+              assertThat(getMatches(rules, sentences.get(idx)), is(expected.get(idx)));
+              checks++;
+            }
+            return checks;
+          }
+        }));
+      }
+      for (Future<Integer> future : futures) {
+        assertThat(future.get(), is(CHECKS_PER_THREAD));
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private String getMatches(List<PatternRule> rules, AnalyzedSentence sentence) throws Exception {
+    final StringBuilder sb = new StringBuilder();
+    for (PatternRule rule : rules) {
+      for (RuleMatch match : rule.match(sentence)) {
+        sb.append(rule.getId()).append('[').append(rule.getSubId()).append("]:")
+          .append(match.getFromPos()).append('-').append(match.getToPos()).append(':')
+          .append(match.getMessage()).append(':').append(match.getSuggestedReplacements()).append('\n');
+      }
+    }
+    return sb.toString();
+  }
+
+}
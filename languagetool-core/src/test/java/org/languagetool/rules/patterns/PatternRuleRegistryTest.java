@@ -0,0 +1,75 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2012 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import junit.framework.TestCase;
+import org.languagetool.JLanguageTool;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.Rule;
+
+import java.util.List;
+
+public class PatternRuleRegistryTest extends TestCase {
+
+  public void testRulesAreShared() throws Exception {
+    final JLanguageTool langTool1 = new JLanguageTool(new Demo());
+    langTool1.activateDefaultPatternRules();
+    final JLanguageTool langTool2 = new JLanguageTool(new Demo());
+    langTool2.activateDefaultPatternRules();
+    final Rule rule1 = getRuleById("DEMO_RULE", langTool1.getAllRules());
+    final Rule rule2 = getRuleById("DEMO_RULE", langTool2.getAllRules());
+    assertSame(rule1, rule2);
+    langTool1.disableRule("DEMO_RULE");
+    assertEquals(langTool2.check("This is foo bar.").size() - 1, langTool1.check("This is foo bar.").size());
+    assertFalse(langTool2.getDisabledRules().contains("DEMO_RULE"));
+  }
+
+  public void testUnmodifiable() throws Exception {
+    final String filename = JLanguageTool.getDataBroker().getRulesDir() + "/xx/grammar.xml";
+    final List<PatternRule> rules = PatternRuleRegistry.getPatternRules(filename, new Demo());
+    assertSame(rules.get(0), PatternRuleRegistry.getPatternRules(filename, new Demo()).get(0));
+    try {
+      rules.clear();
+      fail();
+    } catch (UnsupportedOperationException expected) {}    assertTrue(rules.get(0).isShared());
+    try {
+      rules.get(0).setDefaultOff();
+      fail();
+    } catch (UnsupportedOperationException expected) {}
+  }
+
+  public void testClear() throws Exception {
+    final String filename = JLanguageTool.getDataBroker().getRulesDir() + "/xx/grammar.xml";
+    final List<PatternRule> rules = PatternRuleRegistry.getPatternRules(filename, new Demo());
+    PatternRuleRegistry.clear();
+    final List<PatternRule> reloadedRules = PatternRuleRegistry.getPatternRules(filename, new Demo());
+    assertEquals(rules.size(), reloadedRules.size());
+    assertNotSame(rules.get(0), reloadedRules.get(0));
+  }
+
+  private Rule getRuleById(String id, List<Rule> rules) {
+    for (Rule rule : rules) {
+      if (rule.getId().equals(id)) {
+        return rule;
+      }
+    }
+    throw new RuntimeException("No rule found for id '" + id + "'");
+  }
+
+}
@@ -0,0 +1,109 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2012 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import junit.framework.TestCase;
+import org.languagetool.JLanguageTool;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.CommaWhitespaceRule;
+import org.languagetool.rules.IncorrectExample;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+
+public class PrecompiledRulesTest extends TestCase {
+
+  private static final String GRAMMAR_FILE = "/org/languagetool/rules/xx/grammar.xml";
+
+  public void testWriteAndRead() throws Exception {
+    final byte[] xml = readXml();
+    final List<PatternRule> rules = new PatternRuleLoader().getRules(new ByteArrayInputStream(xml), GRAMMAR_FILE);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrecompiledRules.write(rules, xml, out);
+    final List<PatternRule> readRules = PrecompiledRules.read(new ByteArrayInputStream(out.toByteArray()), xml, PatternRule.class);
+    assertNotNull(readRules);
+    assertEquals(rules.size(), readRules.size());
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    for (int i = 0; i < rules.size(); i++) {
+      final PatternRule rule = rules.get(i);
+      final PatternRule readRule = readRules.get(i);
+      assertEquals(rule.getId(), readRule.getId());
+      assertEquals(rule.getSubId(), readRule.getSubId());
+      assertEquals(rule.getMessage(), readRule.getMessage());
+      assertEquals(rule.isDefaultOff(), readRule.isDefaultOff());
+      assertSame(rule.getLanguage(), readRule.getLanguage());
+      assertEquals(rule.getIncorrectExamples().size(), readRule.getIncorrectExamples().size());
+      for (IncorrectExample example : rule.getIncorrectExamples()) {
+        final String sentence = example.getExample().replace("<marker>", "").replace("</marker>", "");
+        final RuleMatch[] matches = rule.match(langTool.getAnalyzedSentence(sentence));
+        final RuleMatch[] readMatches = readRule.match(langTool.getAnalyzedSentence(sentence));
+        assertEquals(matches.length, readMatches.length);
+        for (int j = 0; j < matches.length; j++) {
+          assertEquals(matches[j].getFromPos(), readMatches[j].getFromPos());
+          assertEquals(matches[j].getSuggestedReplacements(), readMatches[j].getSuggestedReplacements());
+        }
+      }
+    }
+  }
+
+  public void testOutdated() throws Exception {
+    final byte[] xml = readXml();
+    final List<PatternRule> rules = new PatternRuleLoader().getRules(new ByteArrayInputStream(xml), GRAMMAR_FILE);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrecompiledRules.write(rules, xml, out);
+    final byte[] modifiedXml = (new String(xml, "utf-8") + " ").getBytes("utf-8");
+    assertNull(PrecompiledRules.read(new ByteArrayInputStream(out.toByteArray()), modifiedXml, PatternRule.class));
+  }
+
+  public void testTransientStateOfJavaRule() throws Exception {
+    final Rule rule = new CommaWhitespaceRule(JLanguageTool.getMessageBundle(new Demo()));
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+      objectOut.writeObject(rule);
+    }
+    final Rule readRule;
+    try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      readRule = (Rule) objectIn.readObject();
+    }
+    assertEquals(rule.getDescription(), readRule.getDescription());
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    final RuleMatch[] matches = readRule.match(langTool.getAnalyzedSentence("This , is a test."));
+    assertEquals(1, matches.length);
+    assertEquals(rule.match(langTool.getAnalyzedSentence("This , is a test."))[0].getMessage(), matches[0].getMessage());
+    readRule.addRuleMatch(matches[0]);
+    assertEquals(1, readRule.getMatches().size());
+  }
+
+  public void testNoPrecompiledFile() throws Exception {
+    assertNull(PrecompiledRules.loadFromClasspath(GRAMMAR_FILE, readXml(), PatternRule.class));
+  }
+
+  private byte[] readXml() throws Exception {
+    try (InputStream is = PrecompiledRulesTest.class.getResourceAsStream(GRAMMAR_FILE)) {
+      return PrecompiledRules.readFully(is);
+    }
+  }
+
+}
@@ -0,0 +1,91 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import org.junit.Test;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class PosTagPatternTest {
+
+  @Test
+  public void testMatches() {
+    final PosTagPattern pattern = PosTagPattern.compile("NN|VB.*");
+    for (int i = 0; i < 2; i++) {  // the second time, the remembered results are used
+      assertTrue(pattern.matches("NN"));
+      assertTrue(pattern.matches("VBZ"));
+      assertFalse(pattern.matches("NNS"));
+      assertFalse(pattern.matches("XVB"));
+      assertTrue(pattern.matches(new AnalyzedToken("houses", "VBZ", "house")));
+      assertFalse(pattern.matches(new AnalyzedToken("houses", "NNS", "house")));
+      assertFalse(pattern.matches(new AnalyzedToken("houses", null, null)));
+    }
+  }
+
+  @Test
+  public void testMatchesAny() {
+    final PosTagPattern pattern = PosTagPattern.compile("VB.*");
+    final AnalyzedTokenReadings readings = new AnalyzedTokenReadings(Arrays.asList(
+            new AnalyzedToken("houses", "NNS", "house"), new AnalyzedToken("houses", "VBZ", "house")), 0);
+    assertTrue(pattern.matchesAny(readings));
+    assertFalse(PosTagPattern.compile("JJ").matchesAny(readings));
+    assertFalse(pattern.matchesAny(new AnalyzedTokenReadings(new AnalyzedToken("foo", null, null), 0)));
+  }
+
+  @Test
+  public void testManyTags() {
+    final PosTagPattern pattern = PosTagPattern.compile("tag[0-9]*5");
+    for (int i = 0; i < 2; i++) {
+      for (int j = 0; j < 1000; j++) {
+        assertThat(pattern.matches("tag" + j), is(j % 10 == 5));
+      }
+    }
+  }
+
+  @Test
+  public void testPatternsAreShared() throws Exception {
+    final PosTagPattern pattern = PosTagPattern.compile("N.*");
+    assertSame(pattern, PosTagPattern.compile("N.*"));
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+      objectOut.writeObject(pattern);
+    }
+    try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      assertSame(pattern, objectIn.readObject());
+    }
+  }
+
+  @Test
+  public void testTagIds() {
+    final int id = PosTagIds.getId("PosTagPatternTest-tag");
+    assertThat(PosTagIds.getId("PosTagPatternTest-tag"), is(id));
+    assertThat(new AnalyzedToken("foo", "PosTagPatternTest-tag", null).getPOSTagId(), is(id));
+    assertThat(new AnalyzedToken("foo", null, null).getPOSTagId(), is(PosTagIds.NO_ID));
+  }
+
+}
@@ -0,0 +1,90 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import org.junit.Test;
+import org.languagetool.AnalyzedToken;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class WordTagCacheTest {
+
+  @Test
+  public void testGetAndPut() {
+    final WordTagCache cache = new WordTagCache(1000);
+    assertNull(cache.get("houses"));
+    cache.put("houses", Arrays.asList(new AnalyzedToken("houses", "NNS", "house"), new AnalyzedToken("houses", "VBZ", "house")));
+    final List<AnalyzedToken> tokens = cache.get("houses");
+    assertThat(tokens, is(Arrays.asList(new AnalyzedToken("houses", "NNS", "house"), new AnalyzedToken("houses", "VBZ", "house"))));
+    assertThat(cache.getSize(), is(1));
+    assertThat(cache.getHitCount(), is(1L));
+    assertThat(cache.getMissCount(), is(1L));
+  }
+
+  @Test
+  public void testReadingsCannotBeChanged() {
+    final WordTagCache cache = new WordTagCache(1000);
+    final AnalyzedToken token = new AnalyzedToken("foo", "NN", "foo");
+    cache.put("foo", Arrays.asList(token));
+    token.setNoPOSTag(true);
+    final List<AnalyzedToken> tokens = cache.get("foo");
+    assertFalse(tokens.get(0).hasNoTag());
+    tokens.get(0).setWhitespaceBefore(true);
+    tokens.clear();
+    assertThat(cache.get("foo").size(), is(1));
+    assertFalse(cache.get("foo").get(0).isWhitespaceBefore());
+    assertNotSame(cache.get("foo").get(0), cache.get("foo").get(0));
+  }
+
+  @Test
+  public void testEviction() {
+    final WordTagCache cache = new WordTagCache(60);
+    cache.put("a", Arrays.asList(new AnalyzedToken("a", "DT", "a")));
+    assertThat(cache.getWeight(), is(8L + 1 + 8 + 1 + 2 + 1));
+    cache.put("bb", Arrays.asList(new AnalyzedToken("bb", "NN", "bb")));
+    assertThat(cache.getSize(), is(2));
+    cache.put("ccc", Arrays.asList(new AnalyzedToken("ccc", "NN", "ccc")));
+    assertNull(cache.get("a"));
+    assertNotNull(cache.get("ccc"));
+    assertTrue(cache.getWeight() <= 60);
+    assertThat(cache.getEvictionCount(), is(1L));
+    cache.clear();
+    assertThat(cache.getSize(), is(0));
+    assertThat(cache.getWeight(), is(0L));
+  }
+
+  @Test
+  public void testUsedWordsGetASecondChance() {
+    final WordTagCache cache = new WordTagCache(60);
+    cache.put("a", Arrays.asList(new AnalyzedToken("a", "DT", "a")));
+    cache.put("bb", Arrays.asList(new AnalyzedToken("bb", "NN", "bb")));
+    assertNotNull(cache.get("a"));
+    cache.put("ccc", Arrays.asList(new AnalyzedToken("ccc", "NN", "ccc")));
+    assertThat(cache.getSize(), is(2));
+    assertThat(cache.getEvictionCount(), is(1L));
+    assertNotNull(cache.get("a"));
+    assertNull(cache.get("bb"));
+    assertNotNull(cache.get("ccc"));
+  }
+
+}
@@ -0,0 +1,70 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tools;
+
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class LruCacheTest {
+
+  @Test
+  public void testGetAndPut() {
+    final LruCache<String, String> cache = new LruCache<>(100);
+    assertNull(cache.get("a"));
+    assertNull(cache.putIfAbsent("a", "x", 1));
+    assertThat(cache.putIfAbsent("a", "y", 1), is("x"));
+    assertThat(cache.get("a"), is("x"));
+    assertThat(cache.getSize(), is(1));
+    assertThat(cache.getWeight(), is(1L));
+    assertThat(cache.getHitCount(), is(1L));
+    assertThat(cache.getMissCount(), is(1L));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() {
+    final LruCache<String, String> cache = new LruCache<>(10);
+    cache.putIfAbsent("a", "x", 4);
+    cache.putIfAbsent("b", "x", 4);
+    assertNotNull(cache.get("a"));
+    cache.putIfAbsent("c", "x", 4);
+    assertThat(cache.getSize(), is(2));
+    assertThat(cache.getWeight(), is(8L));
+    assertThat(cache.getEvictionCount(), is(1L));
+    assertNotNull(cache.get("a"));
+    assertNull(cache.get("b"));
+    assertNotNull(cache.get("c"));
+  }
+
+  @Test
+  public void testRemove() {
+    final LruCache<String, String> cache = new LruCache<>(10);
+    cache.putIfAbsent("a", "x", 4);
+    assertFalse(cache.remove("a", "y"));
+    assertTrue(cache.remove("a", "x"));
+    assertThat(cache.getSize(), is(0));
+    assertThat(cache.getWeight(), is(0L));
+    cache.putIfAbsent("b", "x", 4);
+    cache.clear();
+    assertThat(cache.getSize(), is(0));
+    assertThat(cache.getWeight(), is(0L));
+  }
+
+}
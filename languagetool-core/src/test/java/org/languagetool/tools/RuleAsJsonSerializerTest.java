@@ -0,0 +1,88 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tools;
+
+import org.junit.Test;
+import org.languagetool.FakeLanguage;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.TestTools;
+import org.languagetool.rules.ITSIssueType;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.patterns.Element;
+import org.languagetool.rules.patterns.PatternRule;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class RuleAsJsonSerializerTest {
+
+  private static final RuleAsJsonSerializer SERIALIZER = new RuleAsJsonSerializer();
+  private static final Language language = TestTools.getDemoLanguage();
+
+  @Test
+  public void testNoMatches() {
+    final String json = SERIALIZER.ruleMatchesToJson(Collections.<RuleMatch>emptyList(), "Fake", 5, language, new FakeLanguage());
+    assertThat(json, is("{\"software\":{\"name\":\"LanguageTool\",\"version\":\"" + JLanguageTool.VERSION + "\"," +
+            "\"buildDate\":" + (JLanguageTool.BUILD_DATE != null ? "\"" + JLanguageTool.BUILD_DATE + "\"" : "null") + "}," +
+            "\"language\":{\"name\":\"Testlanguage\",\"code\":\"xx-XX\"}," +
+            "\"motherTongue\":{\"name\":\"FakeLanguage\",\"code\":\"yy-YY\"},\"matches\":[]}\n"));
+  }
+
+  @Test
+  public void testRuleMatchesToJson() throws IOException {
+    final String text = "This is an \"test\" sentence.\nHere's another sentence with more text.";
+    final RuleMatch match = new RuleMatch(new FakeRule(), 11, 17, "Use <suggestion>a</suggestion>\\<suggestion>b</suggestion>");
+    match.setColumn(12);
+    match.setEndColumn(18);
+    match.setLine(0);
+    match.setEndLine(0);
+    match.setSuggestedReplacements(Arrays.asList("a \"test\"", "b"));
+    final List<RuleMatch> matches = Arrays.asList(match, match);
+    final StringWriter writer = new StringWriter();
+    SERIALIZER.ruleMatchesToJson(matches, text, 5, language, null, writer);
+    final String json = writer.toString();
+    assertThat(json, is(SERIALIZER.ruleMatchesToJson(matches, text, 5, language, null)));
+    final String matchJson = "{\"message\":\"Use 'a'\\\\'b'\"," +
+            "\"offset\":11,\"length\":6,\"fromY\":0,\"fromX\":11,\"toY\":0,\"toX\":17," +
+            "\"replacements\":[\"a \\\"test\\\"\",\"b\"]," +
+            "\"context\":{\"text\":\"...s an \\\"test\\\" sent...\",\"offset\":8,\"length\":6}," +
+            "\"rule\":{\"id\":\"FAKE_ID\",\"description\":\"My fake description\",\"issueType\":\"misspelling\"}}";
+    assertTrue(json, json.endsWith("\"matches\":[\n" + matchJson + ",\n" + matchJson + "]}\n"));
+  }
+
+  private static class FakeRule extends PatternRule {
+    FakeRule() {
+      super("FAKE_ID", TestTools.getDemoLanguage(), Collections.singletonList(new Element("foo", true, false, false)),
+              "My fake description", "Fake message", null);
+    }
+    @Override
+    public ITSIssueType getLocQualityIssueType() {
+      return ITSIssueType.Misspelling;
+    }
+  }
+
+}
@@ -31,14 +31,17 @@ import org.languagetool.rules.patterns.Element;
 import org.languagetool.rules.patterns.PatternRule;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 
 public class RuleAsXmlSerializerTest {
@@ -148,6 +151,16 @@ public class RuleAsXmlSerializerTest {
             "</matches>\n"));
   }
 
+  @Test
+  public void testStreamingIsSameAsString() throws IOException {
+    final String text = "This is an test sentence. Here's another sentence with more text.";
+    final RuleMatch match = new RuleMatch(new FakeRule(), 8, 10, "myMessage");
+    final List<RuleMatch> matches = Arrays.asList(match, match);
+    final StringWriter writer = new StringWriter();
+    SERIALIZER.ruleMatchesToXml(matches, text, 5, language, new FakeLanguage(), writer);
+    assertEquals(SERIALIZER.ruleMatchesToXml(matches, text, 5, language, new FakeLanguage()), writer.toString());
+  }
+
   private class FakeRule extends PatternRule {
     public FakeRule() {
       super("FAKE_ID", TestTools.getDemoLanguage(), Collections.singletonList(new Element("foo", true, false, false)),
@@ -0,0 +1,88 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.dev;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.rules.patterns.AbstractPatternRule;
+import org.languagetool.rules.patterns.PatternRuleLoader;
+import org.languagetool.rules.patterns.PrecompiledRules;
+import org.languagetool.tagging.disambiguation.rules.DisambiguationRuleLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Creates the precompiled versions of a language's {@code grammar.xml} and
+ * {@code disambiguation.xml} files (see {@link PrecompiledRules}). Write them to the
+ * directory with the module's resources (e.g. {@code target/classes} or {@code src/main/resources})
+ * to make them available in the classpath. As they are only used when they have been
+ * created from the current XML files, they need to be re-created whenever the XML changes.
+ * @since 2.7
+ */
+class RulePrecompiler {
+
+  private void run(Language language, File outputDir) throws Exception {
+    for (String ruleFile : language.getRuleFileNames()) {
+      final byte[] xml = readFromClasspath(ruleFile);
+      if (xml == null) {
+        System.out.println("Skipping " + ruleFile + ", not in classpath");
+        continue;
+      }
+      write(new PatternRuleLoader().getRules(new ByteArrayInputStream(xml), ruleFile), xml, outputDir, ruleFile);
+    }
+    // used by XmlRuleDisambiguator, which may also be used internally by other disambiguators:
+    final String disambiguationFile = JLanguageTool.getDataBroker().getResourceDir() + "/" + language.getShortName() + "/disambiguation.xml";
+    final byte[] xml = readFromClasspath(disambiguationFile);
+    if (xml != null) {
+      write(new DisambiguationRuleLoader().getRules(new ByteArrayInputStream(xml)), xml, outputDir, disambiguationFile);
+    }
+  }
+
+  private byte[] readFromClasspath(String filename) throws Exception {
+    try (InputStream is = RulePrecompiler.class.getResourceAsStream(filename)) {
+      return is != null ? PrecompiledRules.readFully(is) : null;
+    }
+  }
+
+  private void write(List<? extends AbstractPatternRule> rules, byte[] xml, File outputDir, String xmlFilename) throws Exception {
+    final File outputFile = new File(outputDir, xmlFilename + PrecompiledRules.FILE_SUFFIX);
+    if (!outputFile.getParentFile().isDirectory() && !outputFile.getParentFile().mkdirs()) {
+      throw new RuntimeException("Could not create directory " + outputFile.getParentFile());
+    }
+    try (OutputStream out = new FileOutputStream(outputFile)) {
+      PrecompiledRules.write(rules, xml, out);
+    }
+    System.out.println("Wrote " + rules.size() + " rules to " + outputFile + " (" + outputFile.length()/1024 + "KB, XML: " + xml.length/1024 + "KB)");
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length != 2) {
+      System.err.println("Usage: " + RulePrecompiler.class.getSimpleName() + " <langCode> <outputDir>");
+      System.err.println("  <outputDir> is the root of the classpath resources, e.g. languagetool-language-modules/de/target/classes");
+      System.exit(1);
+    }
+    final RulePrecompiler precompiler = new RulePrecompiler();
+    precompiler.run(Language.getLanguageForShortName(args[0]), new File(args[1]));
+  }
+}
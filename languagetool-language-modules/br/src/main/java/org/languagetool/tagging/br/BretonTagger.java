@@ -31,6 +31,7 @@ import morfologik.stemming.IStemmer;
 import org.languagetool.AnalyzedToken;
 import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.tagging.BaseTagger;
+import org.languagetool.tagging.WordTagCache;
 import org.languagetool.tools.StringTools;
 
 /** Breton Tagger.
@@ -71,64 +72,75 @@ public class BretonTagger extends BaseTagger {
   @Override
   public List<AnalyzedTokenReadings> tag(final List<String> sentenceTokens)
   throws IOException {
-    List<AnalyzedToken> taggerTokens;
-    List<AnalyzedToken> lowerTaggerTokens;
-    List<AnalyzedToken> upperTaggerTokens;
     final List<AnalyzedTokenReadings> tokenReadings = new ArrayList<>();
     int pos = 0;
-    final IStemmer dictLookup = new DictionaryLookup(getDictionary());
+    final WordTagCache cache = getWordTagCache();
+    IStemmer dictLookup = null;
 
-    Matcher matcher;
     for (String word : sentenceTokens) {
-      String probeWord = word;
-
-      // This loop happens when we need to retry probing the dictionary
-      // which happens rarely when trying to remove suffixes -mañ, -se, etc.
-      for (;;) {
-        final List<AnalyzedToken> l = new ArrayList<>();
-        final String lowerWord = probeWord.toLowerCase(conversionLocale);
-        taggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(probeWord));
-        lowerTaggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(lowerWord));
-        final boolean isLowercase = probeWord.equals(lowerWord);
-
-        // Normal case.
-        addTokens(taggerTokens, l);
-
-        if (!isLowercase) {
-          // Lowercase.
-          addTokens(lowerTaggerTokens, l);
+      List<AnalyzedToken> l = cache != null ? cache.get(word) : null;
+      if (l == null) {
+        if (dictLookup == null) {
+          dictLookup = new DictionaryLookup(getDictionary());
         }
-
-        // Uppercase.
-        if (lowerTaggerTokens.isEmpty() && taggerTokens.isEmpty()) {
-          if (isLowercase) {
-            upperTaggerTokens = asAnalyzedTokenList(word,
-                dictLookup.lookup(StringTools.uppercaseFirstChar(probeWord)));
-            if (!upperTaggerTokens.isEmpty()) {
-              addTokens(upperTaggerTokens, l);
-            }
-          }
-          if (l.isEmpty()) {
-            if ((matcher = patternSuffix.matcher(probeWord)).find()) {
-              // Remove the suffix and probe dictionary again.
-              // So given a word such as "xxx-mañ", we're going to
-              // try to probe the dictionary again with "xxx" this time.
-              probeWord = matcher.group(1);
-              continue;
-            }
-            l.add(new AnalyzedToken(word, null, null));
-          }
+        l = tagWord(word, dictLookup);
+        if (cache != null) {
+          cache.put(word, l);
         }
-        tokenReadings.add(new AnalyzedTokenReadings(l, pos));
-        pos += word.length();
-        break;
       }
+      tokenReadings.add(new AnalyzedTokenReadings(l, pos));
+      pos += word.length();
     }
 
     return tokenReadings;
 
   }
 
+  private List<AnalyzedToken> tagWord(final String word, final IStemmer dictLookup) {
+    String probeWord = word;
+
+    // This loop happens when we need to retry probing the dictionary
+    // which happens rarely when trying to remove suffixes -mañ, -se, etc.
+    for (;;) {
+      final List<AnalyzedToken> l = new ArrayList<>();
+      final String lowerWord = probeWord.toLowerCase(conversionLocale);
+      final List<AnalyzedToken> taggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(probeWord));
+      final List<AnalyzedToken> lowerTaggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(lowerWord));
+      final boolean isLowercase = probeWord.equals(lowerWord);
+
+      // Normal case.
+      addTokens(taggerTokens, l);
+
+      if (!isLowercase) {
+        // Lowercase.
+        addTokens(lowerTaggerTokens, l);
+      }
+
+      // Uppercase.
+      if (lowerTaggerTokens.isEmpty() && taggerTokens.isEmpty()) {
+        if (isLowercase) {
+          final List<AnalyzedToken> upperTaggerTokens = asAnalyzedTokenList(word,
+              dictLookup.lookup(StringTools.uppercaseFirstChar(probeWord)));
+          if (!upperTaggerTokens.isEmpty()) {
+            addTokens(upperTaggerTokens, l);
+          }
+        }
+        if (l.isEmpty()) {
+          final Matcher matcher = patternSuffix.matcher(probeWord);
+          if (matcher.find()) {
+            // Remove the suffix and probe dictionary again.
+            // So given a word such as "xxx-mañ", we're going to
+            // try to probe the dictionary again with "xxx" this time.
+            probeWord = matcher.group(1);
+            continue;
+          }
+          l.add(new AnalyzedToken(word, null, null));
+        }
+      }
+      return l;
+    }
+  }
+
   private void addTokens(final List<AnalyzedToken> taggedTokens, final List<AnalyzedToken> l) {
     if (taggedTokens != null) {
       for (AnalyzedToken at : taggedTokens) {
@@ -36,6 +36,7 @@ import org.languagetool.JLanguageTool;
 import org.languagetool.rules.Category;
 import org.languagetool.rules.ITSIssueType;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.tagging.PosTagPattern;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -59,33 +60,33 @@ public class AccentuationCheckRule extends CatalanRule {
   private static final Pattern ARTICLE_EL_FS = Pattern.compile("la|l'|La|L'");
   private static final Pattern ARTICLE_EL_MP = Pattern.compile("els|Els");
   private static final Pattern ARTICLE_EL_FP = Pattern.compile("les|Les");
-  private static final Pattern DETERMINANT = Pattern.compile("D[^R].*");
-  private static final Pattern DETERMINANT_MS = Pattern.compile("D[^R].[MC][SN].*");
-  private static final Pattern DETERMINANT_FS = Pattern.compile("D[^R].[FC][SN].*");
-  private static final Pattern DETERMINANT_MP = Pattern.compile("D[^R].[MC][PN].*");
-  private static final Pattern DETERMINANT_FP = Pattern.compile("D[^R].[FC][PN].*");
-  private static final Pattern NOM_MS = Pattern.compile("NC[MC][SN].*");
-  private static final Pattern NOM_FS = Pattern.compile("NC[FC][SN].*");
-  private static final Pattern NOM_MP = Pattern.compile("NC[MC][PN].*");
-  private static final Pattern NOM_FP = Pattern.compile("NC[FC][PN].*");
-  private static final Pattern ADJECTIU_MS = Pattern.compile("AQ.[MC][SN].*|V.P..SM.?|PX.MS.*");
-  private static final Pattern ADJECTIU_FS = Pattern.compile("AQ.[FC][SN].*|V.P..SF.?|PX.FS.*");
-  private static final Pattern ADJECTIU_MP = Pattern.compile("AQ.[MC][PN].*|V.P..PM.?|PX.MP.*");
-  private static final Pattern ADJECTIU_FP = Pattern.compile("AQ.[FC][PN].*|V.P..PF.?|PX.FP.*");
-  private static final Pattern INFINITIU = Pattern.compile("V.N.*");
-  private static final Pattern VERB_CONJUGAT = Pattern.compile("V.[^NGP].*|_GV_");
-  private static final Pattern PARTICIPI_MS = Pattern.compile("V.P.*SM.?");
-  private static final Pattern GRUP_VERBAL = Pattern.compile("_GV_");
-  private static final Pattern VERB_3S = Pattern.compile("V...3S..?");
-  private static final Pattern NOT_IN_PREV_TOKEN = Pattern.compile("VA.*|PP.*|P0.*|VSP.*");
-  private static final Pattern BEFORE_ADJECTIVE_MS = Pattern.compile("SPS00|D[^R].[MC][SN].*|V.[^NGP].*|PX.*");
-  private static final Pattern BEFORE_ADJECTIVE_FS = Pattern.compile("SPS00|D[^R].[FC][SN].*|V.[^NGP].*|PX.*");
-  private static final Pattern BEFORE_ADJECTIVE_MP = Pattern.compile("SPS00|D[^R].[MC][PN].*|V.[^NGP].*|PX.*");
-  private static final Pattern BEFORE_ADJECTIVE_FP = Pattern.compile("SPS00|D[^R].[FC][PN].*|V.[^NGP].*|PX.*");
-  private static final Pattern GN = Pattern.compile(".*_GN_.*|<?/?N[CP].*");
+  private static final PosTagPattern DETERMINANT = PosTagPattern.compile("D[^R].*");
+  private static final PosTagPattern DETERMINANT_MS = PosTagPattern.compile("D[^R].[MC][SN].*");
+  private static final PosTagPattern DETERMINANT_FS = PosTagPattern.compile("D[^R].[FC][SN].*");
+  private static final PosTagPattern DETERMINANT_MP = PosTagPattern.compile("D[^R].[MC][PN].*");
+  private static final PosTagPattern DETERMINANT_FP = PosTagPattern.compile("D[^R].[FC][PN].*");
+  private static final PosTagPattern NOM_MS = PosTagPattern.compile("NC[MC][SN].*");
+  private static final PosTagPattern NOM_FS = PosTagPattern.compile("NC[FC][SN].*");
+  private static final PosTagPattern NOM_MP = PosTagPattern.compile("NC[MC][PN].*");
+  private static final PosTagPattern NOM_FP = PosTagPattern.compile("NC[FC][PN].*");
+  private static final PosTagPattern ADJECTIU_MS = PosTagPattern.compile("AQ.[MC][SN].*|V.P..SM.?|PX.MS.*");
+  private static final PosTagPattern ADJECTIU_FS = PosTagPattern.compile("AQ.[FC][SN].*|V.P..SF.?|PX.FS.*");
+  private static final PosTagPattern ADJECTIU_MP = PosTagPattern.compile("AQ.[MC][PN].*|V.P..PM.?|PX.MP.*");
+  private static final PosTagPattern ADJECTIU_FP = PosTagPattern.compile("AQ.[FC][PN].*|V.P..PF.?|PX.FP.*");
+  private static final PosTagPattern INFINITIU = PosTagPattern.compile("V.N.*");
+  private static final PosTagPattern VERB_CONJUGAT = PosTagPattern.compile("V.[^NGP].*|_GV_");
+  private static final PosTagPattern PARTICIPI_MS = PosTagPattern.compile("V.P.*SM.?");
+  private static final PosTagPattern GRUP_VERBAL = PosTagPattern.compile("_GV_");
+  private static final PosTagPattern VERB_3S = PosTagPattern.compile("V...3S..?");
+  private static final PosTagPattern NOT_IN_PREV_TOKEN = PosTagPattern.compile("VA.*|PP.*|P0.*|VSP.*");
+  private static final PosTagPattern BEFORE_ADJECTIVE_MS = PosTagPattern.compile("SPS00|D[^R].[MC][SN].*|V.[^NGP].*|PX.*");
+  private static final PosTagPattern BEFORE_ADJECTIVE_FS = PosTagPattern.compile("SPS00|D[^R].[FC][SN].*|V.[^NGP].*|PX.*");
+  private static final PosTagPattern BEFORE_ADJECTIVE_MP = PosTagPattern.compile("SPS00|D[^R].[MC][PN].*|V.[^NGP].*|PX.*");
+  private static final PosTagPattern BEFORE_ADJECTIVE_FP = PosTagPattern.compile("SPS00|D[^R].[FC][PN].*|V.[^NGP].*|PX.*");
+  private static final PosTagPattern GN = PosTagPattern.compile(".*_GN_.*|<?/?N[CP].*");
   private static final Pattern EXCEPCIONS_DARRERE_DE = Pattern.compile("forma|manera|por|costat", Pattern.CASE_INSENSITIVE|Pattern.UNICODE_CASE);
-  private static final Pattern LOCUCIONS = Pattern.compile(".*LOC.*");
-  private static final Pattern PRONOM_FEBLE = Pattern.compile("P0.{6}|PP3CN000|PP3NN000|PP3CP000|PP3CSD00"); // Exclosos: PP3..A00 (coincideixe amb articles determinats)
+  private static final PosTagPattern LOCUCIONS = PosTagPattern.compile(".*LOC.*");
+  private static final PosTagPattern PRONOM_FEBLE = PosTagPattern.compile("P0.{6}|PP3CN000|PP3NN000|PP3CP000|PP3CSD00"); // Exclosos: PP3..A00 (coincideixe amb articles determinats)
 
   private final Map<String, AnalyzedTokenReadings> relevantWords;
   private final Map<String, AnalyzedTokenReadings> relevantWords2;
@@ -360,19 +361,8 @@ public class AccentuationCheckRule extends CatalanRule {
    * Match POS tag with regular expression
    */
   private boolean matchPostagRegexp(AnalyzedTokenReadings aToken,
-      Pattern pattern) {
-    boolean matches = false;
-    for (AnalyzedToken analyzedToken : aToken) {
-      final String posTag = analyzedToken.getPOSTag();
-      if (posTag != null) {
-        final Matcher m = pattern.matcher(posTag);
-        if (m.matches()) {
-          matches = true;
-          break;
-        }
-      }
-    }
-    return matches;
+      PosTagPattern pattern) {
+    return pattern.matchesAny(aToken);
   }
 
   /**
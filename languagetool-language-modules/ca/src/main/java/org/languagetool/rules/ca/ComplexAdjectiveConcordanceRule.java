@@ -26,11 +26,11 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.languagetool.AnalyzedSentence;
-import org.languagetool.AnalyzedToken;
 import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.rules.Category;
 import org.languagetool.rules.ITSIssueType;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.tagging.PosTagPattern;
 
 /**
  * This rule checks if an adjective doesn't agree with the previous noun and at
@@ -45,65 +45,65 @@ public class ComplexAdjectiveConcordanceRule extends CatalanRule {
    * Patterns
    */
 
-  private static final Pattern NOM = Pattern.compile("N.*");
-  private static final Pattern NOM_DET = Pattern.compile("N.*|D[NDA0I].*");
-  private static final Pattern _GN_ = Pattern.compile("_GN_.*");
-  private static final Pattern _GN_MS = Pattern.compile("_GN_MS");
-  private static final Pattern _GN_FS = Pattern.compile("_GN_FS");
-  private static final Pattern _GN_MP = Pattern.compile("_GN_MP");
-  private static final Pattern _GN_FP = Pattern.compile("_GN_FP");
-  private static final Pattern _GN_CS = Pattern.compile("_GN_[MF]S");
-  private static final Pattern _GN_CP = Pattern.compile("_GN_[MF]P");
+  private static final PosTagPattern NOM = PosTagPattern.compile("N.*");
+  private static final PosTagPattern NOM_DET = PosTagPattern.compile("N.*|D[NDA0I].*");
+  private static final PosTagPattern _GN_ = PosTagPattern.compile("_GN_.*");
+  private static final PosTagPattern _GN_MS = PosTagPattern.compile("_GN_MS");
+  private static final PosTagPattern _GN_FS = PosTagPattern.compile("_GN_FS");
+  private static final PosTagPattern _GN_MP = PosTagPattern.compile("_GN_MP");
+  private static final PosTagPattern _GN_FP = PosTagPattern.compile("_GN_FP");
+  private static final PosTagPattern _GN_CS = PosTagPattern.compile("_GN_[MF]S");
+  private static final PosTagPattern _GN_CP = PosTagPattern.compile("_GN_[MF]P");
 
-  private static final Pattern NOM_MS = Pattern.compile("N.MS.*");
-  private static final Pattern NOM_FS = Pattern.compile("N.FS.*");
-  private static final Pattern NOM_MP = Pattern.compile("N.MP.*");
-  private static final Pattern NOM_FP = Pattern.compile("N.FP.*");
-  private static final Pattern NOM_CS = Pattern.compile("N.CS.*");
-  private static final Pattern NOM_CP = Pattern.compile("N.CP.*");
-  private static final Pattern DET_CS = Pattern.compile("D[NDA0IP]0CS0");
-  private static final Pattern DET_MS = Pattern.compile("D[NDA0IP]0MS0");
-  private static final Pattern DET_FS = Pattern.compile("D[NDA0IP]0FS0");
-  private static final Pattern DET_MP = Pattern.compile("D[NDA0IP]0MP0");
-  private static final Pattern DET_FP = Pattern.compile("D[NDA0IP]0FP0");
-  private static final Pattern GN_MS = Pattern.compile("N.[MC][SN].*|D[NDA0I]0MS0");
-  private static final Pattern GN_FS = Pattern.compile("N.[FC][SN].*|D[NDA0I]0FS0");
-  private static final Pattern GN_MP = Pattern.compile("N.[MC][PN].*|D[NDA0I]0MP0");
-  private static final Pattern GN_FP = Pattern.compile("N.[FC][PN].*|D[NDA0I]0FP0");
-  private static final Pattern GN_CP = Pattern.compile("N.[FMC][PN].*|D[NDA0I]0[FM]P0");
-  private static final Pattern GN_CS = Pattern.compile("N.[FMC][SN].*|D[NDA0I]0[FM]S0");
+  private static final PosTagPattern NOM_MS = PosTagPattern.compile("N.MS.*");
+  private static final PosTagPattern NOM_FS = PosTagPattern.compile("N.FS.*");
+  private static final PosTagPattern NOM_MP = PosTagPattern.compile("N.MP.*");
+  private static final PosTagPattern NOM_FP = PosTagPattern.compile("N.FP.*");
+  private static final PosTagPattern NOM_CS = PosTagPattern.compile("N.CS.*");
+  private static final PosTagPattern NOM_CP = PosTagPattern.compile("N.CP.*");
+  private static final PosTagPattern DET_CS = PosTagPattern.compile("D[NDA0IP]0CS0");
+  private static final PosTagPattern DET_MS = PosTagPattern.compile("D[NDA0IP]0MS0");
+  private static final PosTagPattern DET_FS = PosTagPattern.compile("D[NDA0IP]0FS0");
+  private static final PosTagPattern DET_MP = PosTagPattern.compile("D[NDA0IP]0MP0");
+  private static final PosTagPattern DET_FP = PosTagPattern.compile("D[NDA0IP]0FP0");
+  private static final PosTagPattern GN_MS = PosTagPattern.compile("N.[MC][SN].*|D[NDA0I]0MS0");
+  private static final PosTagPattern GN_FS = PosTagPattern.compile("N.[FC][SN].*|D[NDA0I]0FS0");
+  private static final PosTagPattern GN_MP = PosTagPattern.compile("N.[MC][PN].*|D[NDA0I]0MP0");
+  private static final PosTagPattern GN_FP = PosTagPattern.compile("N.[FC][PN].*|D[NDA0I]0FP0");
+  private static final PosTagPattern GN_CP = PosTagPattern.compile("N.[FMC][PN].*|D[NDA0I]0[FM]P0");
+  private static final PosTagPattern GN_CS = PosTagPattern.compile("N.[FMC][SN].*|D[NDA0I]0[FM]S0");
 
-  private static final Pattern ADJECTIU = Pattern.compile("AQ.*|V.P.*|PX.*|.*LOC_ADJ.*");
-  private static final Pattern ADJECTIU_MS = Pattern.compile("A..[MC][SN].*|V.P..SM.?|PX.MS.*");
-  private static final Pattern ADJECTIU_FS = Pattern.compile("A..[FC][SN].*|V.P..SF.?|PX.FS.*");
-  private static final Pattern ADJECTIU_MP = Pattern.compile("A..[MC][PN].*|V.P..PM.?|PX.MP.*");
-  private static final Pattern ADJECTIU_FP = Pattern.compile("A..[FC][PN].*|V.P..PF.?|PX.FP.*");
-  private static final Pattern ADJECTIU_CP = Pattern.compile("A..C[PN].*");
-  private static final Pattern ADJECTIU_CS = Pattern.compile("A..C[SN].*");
+  private static final PosTagPattern ADJECTIU = PosTagPattern.compile("AQ.*|V.P.*|PX.*|.*LOC_ADJ.*");
+  private static final PosTagPattern ADJECTIU_MS = PosTagPattern.compile("A..[MC][SN].*|V.P..SM.?|PX.MS.*");
+  private static final PosTagPattern ADJECTIU_FS = PosTagPattern.compile("A..[FC][SN].*|V.P..SF.?|PX.FS.*");
+  private static final PosTagPattern ADJECTIU_MP = PosTagPattern.compile("A..[MC][PN].*|V.P..PM.?|PX.MP.*");
+  private static final PosTagPattern ADJECTIU_FP = PosTagPattern.compile("A..[FC][PN].*|V.P..PF.?|PX.FP.*");
+  private static final PosTagPattern ADJECTIU_CP = PosTagPattern.compile("A..C[PN].*");
+  private static final PosTagPattern ADJECTIU_CS = PosTagPattern.compile("A..C[SN].*");
   // private static final Pattern ADJECTIU_M =
   // Pattern.compile("A..[MC].*|V.P...M.?|PX.M.*");
   // private static final Pattern ADJECTIU_F =
   // Pattern.compile("A..[FC].*|V.P...F.?|PX.F.*");
-  private static final Pattern ADJECTIU_S = Pattern.compile("A...[SN].*|V.P..S..?|PX..S.*");
-  private static final Pattern ADJECTIU_P = Pattern.compile("A...[PN].*|V.P..P..?|PX..P.*");
-  private static final Pattern ADVERBI = Pattern.compile("R.|.*LOC_ADV.*");
-  private static final Pattern CONJUNCIO = Pattern.compile("C.|.*LOC_CONJ.*");
-  private static final Pattern PUNTUACIO = Pattern.compile("_PUNCT.*");
-  private static final Pattern LOC_ADV = Pattern.compile(".*LOC_ADV.*");
-  private static final Pattern ADVERBIS_ACCEPTATS = Pattern.compile("RG_anteposat");
-  private static final Pattern CONCORDA = Pattern.compile("_GN_.*|ignore_concordance");
+  private static final PosTagPattern ADJECTIU_S = PosTagPattern.compile("A...[SN].*|V.P..S..?|PX..S.*");
+  private static final PosTagPattern ADJECTIU_P = PosTagPattern.compile("A...[PN].*|V.P..P..?|PX..P.*");
+  private static final PosTagPattern ADVERBI = PosTagPattern.compile("R.|.*LOC_ADV.*");
+  private static final PosTagPattern CONJUNCIO = PosTagPattern.compile("C.|.*LOC_CONJ.*");
+  private static final PosTagPattern PUNTUACIO = PosTagPattern.compile("_PUNCT.*");
+  private static final PosTagPattern LOC_ADV = PosTagPattern.compile(".*LOC_ADV.*");
+  private static final PosTagPattern ADVERBIS_ACCEPTATS = PosTagPattern.compile("RG_anteposat");
+  private static final PosTagPattern CONCORDA = PosTagPattern.compile("_GN_.*|ignore_concordance");
   private static final Pattern UPPERCASE = Pattern.compile("\\p{Lu}[\\p{Ll}\u00B7]*");
   private static final Pattern COORDINACIO = Pattern.compile(",|i|o");
   private static final Pattern COORDINACIO_IONI = Pattern.compile("i|o|ni");
-  private static final Pattern KEEP_COUNT = Pattern.compile("A.*|N.*|D[NAIDP].*|SPS.*|.*LOC_ADV.*|V.P.*|_PUNCT.*|.*LOC_ADJ.*|PX.*");
+  private static final PosTagPattern KEEP_COUNT = PosTagPattern.compile("A.*|N.*|D[NAIDP].*|SPS.*|.*LOC_ADV.*|V.P.*|_PUNCT.*|.*LOC_ADJ.*|PX.*");
   private static final Pattern KEEP_COUNT2 = Pattern.compile(",|i|o|ni"); //|\\d+%?|%
   private static final Pattern STOP_COUNT = Pattern.compile(";");
-  private static final Pattern PREPOSICIONS = Pattern.compile("SPS.*");
+  private static final PosTagPattern PREPOSICIONS = PosTagPattern.compile("SPS.*");
   private static final Pattern PREPOSICIO_CANVI_NIVELL = Pattern.compile("de|d'|en|sobre|a|entre|per|pe|amb");
-  private static final Pattern VERB = Pattern.compile("V.[^P].*|_GV_");
+  private static final PosTagPattern VERB = PosTagPattern.compile("V.[^P].*|_GV_");
   private static final Pattern EXCEPCIONS_PARTICIPI = Pattern.compile("atès|atés|atesa|atesos|ateses|donat|donats|donada|donades");
   private static final Pattern EXCEPCIONS_PREVIA = Pattern.compile("termes?|paraul(a|es)|mots?|vocables?|expressi(ó|ons)|noms?|tipus|denominaci(ó|ons)");
-  private static final Pattern EXCEPCIONS_PREVIA_POSTAG = Pattern.compile("_loc_meitat");
+  private static final PosTagPattern EXCEPCIONS_PREVIA_POSTAG = PosTagPattern.compile("_loc_meitat");
 
   public ComplexAdjectiveConcordanceRule(ResourceBundle messages)
       throws IOException {
@@ -147,9 +147,9 @@ public class ComplexAdjectiveConcordanceRule extends CatalanRule {
         boolean isException = false;
         boolean isPlural = true;
         boolean isPrevNoun = false;
-        Pattern substPattern = null;
-        Pattern gnPattern = null;
-        Pattern adjPattern = null;
+        PosTagPattern substPattern = null;
+        PosTagPattern gnPattern = null;
+        PosTagPattern adjPattern = null;
         Matcher isUpperCase = UPPERCASE.matcher(token);
 
         // Some exceptions
@@ -517,19 +517,8 @@ public class ComplexAdjectiveConcordanceRule extends CatalanRule {
    * Match POS tag with regular expression
    */
   private boolean matchPostagRegexp(AnalyzedTokenReadings aToken,
-      Pattern pattern) {
-    boolean matches = false;
-    for (AnalyzedToken analyzedToken : aToken) {
-      final String posTag = analyzedToken.getPOSTag();
-      if (posTag != null) {
-        final Matcher m = pattern.matcher(posTag);
-        if (m.matches()) {
-          matches = true;
-          break;
-        }
-      }
-    }
-    return matches;
+      PosTagPattern pattern) {
+    return pattern.matchesAny(aToken);
   }
 
   /**
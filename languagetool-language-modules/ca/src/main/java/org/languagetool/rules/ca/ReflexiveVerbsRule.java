@@ -32,6 +32,7 @@ import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.rules.Category;
 import org.languagetool.rules.ITSIssueType;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.tagging.PosTagPattern;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -70,64 +71,64 @@ public class ReflexiveVerbsRule extends CatalanRule {
   
   private static final List<String> verbHaver= Arrays.asList("haver");
   
-  private static final Pattern NO_VERB = Pattern.compile("N.*|A.*|_GN_.*");
+  private static final PosTagPattern NO_VERB = PosTagPattern.compile("N.*|A.*|_GN_.*");
   
   // V[MAS][ISMNGP][PIFSC0][123][SP][MF] 
-  private static final Pattern VERB= Pattern.compile("V.*");
-  private static final Pattern VERB_INDSUBJ = Pattern.compile("V.[SI].*");
-  private static final Pattern VERB_INDSUBJIMP = Pattern.compile("V.[MSI].*");
-  private static final Pattern VERB_IMP = Pattern.compile("V.M.*");
-  private static final Pattern VERB_INF = Pattern.compile("V.N.*");
-  private static final Pattern VERB_INFGER = Pattern.compile("V.[NG].*");
-  private static final Pattern VERB_GERUNDI = Pattern.compile("V.G.*");
-  private static final Pattern VERB_PARTICIPI = Pattern.compile("V.P.*");
-  private static final Pattern VERB_AUXILIAR = Pattern.compile("VA.*");
-  private static final Pattern PREP_VERB_PRONOM = Pattern.compile("RN|SPS00|V.*|P0.{6}|PP3CN000|PP3NN000|PP3..A00|PP3CP000|PP3CSD00");
-  private static final Pattern PREP_VERB_PRONOM_ADV = Pattern.compile("RG.*|.*LOC_ADV.*|SPS00|V.*|P0.{6}|PP3CN000|PP3NN000|PP3..A00|PP3CP000|PP3CSD00");
+  private static final PosTagPattern VERB= PosTagPattern.compile("V.*");
+  private static final PosTagPattern VERB_INDSUBJ = PosTagPattern.compile("V.[SI].*");
+  private static final PosTagPattern VERB_INDSUBJIMP = PosTagPattern.compile("V.[MSI].*");
+  private static final PosTagPattern VERB_IMP = PosTagPattern.compile("V.M.*");
+  private static final PosTagPattern VERB_INF = PosTagPattern.compile("V.N.*");
+  private static final PosTagPattern VERB_INFGER = PosTagPattern.compile("V.[NG].*");
+  private static final PosTagPattern VERB_GERUNDI = PosTagPattern.compile("V.G.*");
+  private static final PosTagPattern VERB_PARTICIPI = PosTagPattern.compile("V.P.*");
+  private static final PosTagPattern VERB_AUXILIAR = PosTagPattern.compile("VA.*");
+  private static final PosTagPattern PREP_VERB_PRONOM = PosTagPattern.compile("RN|SPS00|V.*|P0.{6}|PP3CN000|PP3NN000|PP3..A00|PP3CP000|PP3CSD00");
+  private static final PosTagPattern PREP_VERB_PRONOM_ADV = PosTagPattern.compile("RG.*|.*LOC_ADV.*|SPS00|V.*|P0.{6}|PP3CN000|PP3NN000|PP3..A00|PP3CP000|PP3CSD00");
   //potser convé diferenciar la coma(,) de les cometes(") en _PUNCT_CONT -> no incloure la coma
   private static final List<String> cometes = Arrays.asList("\"", "'", "‘", "’", "“", "”", "«", "»");
-  private static final Pattern VERB_PRONOM = Pattern.compile("V.*|P0.{6}|PP3CN000|PP3NN000|PP3..A00|PP3CP000|PP3CSD00");
+  private static final PosTagPattern VERB_PRONOM = PosTagPattern.compile("V.*|P0.{6}|PP3CN000|PP3NN000|PP3..A00|PP3CP000|PP3CSD00");
   //cal restringir les preposicions  
   
-  private static final Pattern VERB_1S = Pattern.compile("V...1S..?");
-  private static final Pattern VERB_2S = Pattern.compile("V...2S..?");
-  private static final Pattern VERB_3S = Pattern.compile("V...3S..?");
-  private static final Pattern VERB_1P = Pattern.compile("V...1P..?");
-  private static final Pattern VERB_2P = Pattern.compile("V...2P..?");
-  private static final Pattern VERB_3P = Pattern.compile("V...3P..?");
-  
-  private static final Pattern PRONOM_FEBLE_1S = Pattern.compile("P010S000");
-  private static final Pattern PRONOM_FEBLE_2S = Pattern.compile("P020S000");
-  private static final Pattern PRONOM_FEBLE_3S = Pattern.compile("P0300000");
-  private static final Pattern PRONOM_FEBLE_1P = Pattern.compile("P010P000");
-  private static final Pattern PRONOM_FEBLE_2P = Pattern.compile("P020P000");
-  private static final Pattern PRONOM_FEBLE_3P = Pattern.compile("P0300000");
-  private static final Pattern PRONOM_FEBLE_13S = Pattern.compile("P010S000|P0300000");
-  private static final Pattern PRONOM_FEBLE_23S = Pattern.compile("P020S000|P0300000");
-  
-  private static final Pattern PRONOM_FEBLE_3S_TOTS = Pattern.compile("P.3.[^PN].*");
-  
-  private static final Pattern PRONOM_FEBLE = Pattern.compile("P0.{6}|PP3CN000|PP3NN000|PP3..A00|PP3CP000|PP3CSD00"); // tots els pronoms febles
-  private static final Pattern PRONOM_REFLEXIU = Pattern.compile("P0.0.*"); //me te se ens us (i variants)
+  private static final PosTagPattern VERB_1S = PosTagPattern.compile("V...1S..?");
+  private static final PosTagPattern VERB_2S = PosTagPattern.compile("V...2S..?");
+  private static final PosTagPattern VERB_3S = PosTagPattern.compile("V...3S..?");
+  private static final PosTagPattern VERB_1P = PosTagPattern.compile("V...1P..?");
+  private static final PosTagPattern VERB_2P = PosTagPattern.compile("V...2P..?");
+  private static final PosTagPattern VERB_3P = PosTagPattern.compile("V...3P..?");
+  
+  private static final PosTagPattern PRONOM_FEBLE_1S = PosTagPattern.compile("P010S000");
+  private static final PosTagPattern PRONOM_FEBLE_2S = PosTagPattern.compile("P020S000");
+  private static final PosTagPattern PRONOM_FEBLE_3S = PosTagPattern.compile("P0300000");
+  private static final PosTagPattern PRONOM_FEBLE_1P = PosTagPattern.compile("P010P000");
+  private static final PosTagPattern PRONOM_FEBLE_2P = PosTagPattern.compile("P020P000");
+  private static final PosTagPattern PRONOM_FEBLE_3P = PosTagPattern.compile("P0300000");
+  private static final PosTagPattern PRONOM_FEBLE_13S = PosTagPattern.compile("P010S000|P0300000");
+  private static final PosTagPattern PRONOM_FEBLE_23S = PosTagPattern.compile("P020S000|P0300000");
+  
+  private static final PosTagPattern PRONOM_FEBLE_3S_TOTS = PosTagPattern.compile("P.3.[^PN].*");
+  
+  private static final PosTagPattern PRONOM_FEBLE = PosTagPattern.compile("P0.{6}|PP3CN000|PP3NN000|PP3..A00|PP3CP000|PP3CSD00"); // tots els pronoms febles
+  private static final PosTagPattern PRONOM_REFLEXIU = PosTagPattern.compile("P0.0.*"); //me te se ens us (i variants)
   //private static final Pattern PRONOM_FEBLE_GUIONET = Pattern.compile("-.+");
   
   private static final Pattern LEMMA_EN = Pattern.compile("en");
-  private static final Pattern POSTAG_EN = Pattern.compile("PP3CN000");
+  private static final PosTagPattern POSTAG_EN = PosTagPattern.compile("PP3CN000");
   private static final Pattern LEMMA_HI = Pattern.compile("hi");
-  private static final Pattern POSTAG_HI = Pattern.compile("PP3CN000");
+  private static final PosTagPattern POSTAG_HI = PosTagPattern.compile("PP3CN000");
   private static final Pattern LEMMA_ES = Pattern.compile("es");
-  private static final Pattern POSTAG_ES = Pattern.compile("P0300000");
+  private static final PosTagPattern POSTAG_ES = PosTagPattern.compile("P0300000");
   private static final Pattern LEMMA_PRONOM_CI = Pattern.compile("jo|tu|ell");
-  private static final Pattern POSTAG_PRONOM_CI = Pattern.compile("P0.*|PP3CP000|PP3CSD00");
+  private static final PosTagPattern POSTAG_PRONOM_CI = PosTagPattern.compile("P0.*|PP3CP000|PP3CSD00");
   private static final Pattern LEMMA_PRONOM_CD = Pattern.compile("jo|tu|ell");
-  private static final Pattern POSTAG_PRONOM_CD = Pattern.compile("P0.*|PP3CP000|PP3..A00");
-  private static final Pattern POSTAG_CD = Pattern.compile("_GN_.*|N.*|DI.*|P[DI].*");
+  private static final PosTagPattern POSTAG_PRONOM_CD = PosTagPattern.compile("P0.*|PP3CP000|PP3..A00");
+  private static final PosTagPattern POSTAG_CD = PosTagPattern.compile("_GN_.*|N.*|DI.*|P[DI].*");
   private static final Pattern LEMMA_DE = Pattern.compile("de");
-  private static final Pattern POSTAG_DE = Pattern.compile("SPS00");
-  private static final Pattern POSTAG_PREPOSICIO = Pattern.compile("SPS00");
+  private static final PosTagPattern POSTAG_DE = PosTagPattern.compile("SPS00");
+  private static final PosTagPattern POSTAG_PREPOSICIO = PosTagPattern.compile("SPS00");
   private static final Pattern LEMMA_PREP_A_PER = Pattern.compile("a|per");
   
-  private static final Pattern POSTAG_ADVERBI = Pattern.compile("RG.*|.*LOC_ADV.*");
+  private static final PosTagPattern POSTAG_ADVERBI = PosTagPattern.compile("RG.*|.*LOC_ADV.*");
   private static final Pattern ANYMESDIA = Pattern.compile("any|mes|dia");
   
   private static final Pattern REFLEXIU_POSPOSAT = Pattern.compile("-[mts]|-[mts]e|'[mts]|-nos|'ns|-vos|-us",Pattern.CASE_INSENSITIVE|Pattern.UNICODE_CASE);
@@ -136,25 +137,25 @@ public class ReflexiveVerbsRule extends CatalanRule {
   
   private static final Pattern PRONOMFEBLE_POSPOSAT = Pattern.compile("['-].+");
   
-  private static final Pattern SUBJECTE_PERSONAL_POSTAG = Pattern.compile("NC.*|NP.*|_GN_.*|PI.*");
-  private static final Pattern SUBJECTE_PERSONAL_NO_POSTAG = Pattern.compile("complement.*|D.*|A.*|PX.*");
+  private static final PosTagPattern SUBJECTE_PERSONAL_POSTAG = PosTagPattern.compile("NC.*|NP.*|_GN_.*|PI.*");
+  private static final PosTagPattern SUBJECTE_PERSONAL_NO_POSTAG = PosTagPattern.compile("complement.*|D.*|A.*|PX.*");
   private static final Pattern SUBJECTE_PERSONAL_TOKEN = Pattern.compile("algú|algun|jo|mi|tu|ella?|nosaltres|vosaltres|elle?s|vost[èé]s?|vós",Pattern.CASE_INSENSITIVE|Pattern.UNICODE_CASE);
   private static final Pattern SUBJECTE_PERSONAL_NO_LEMMA = Pattern.compile("dia|any|mes|segle|dilluns|dimarts|dimecres|dijous|divendres|dissabte|diumenge|gener|febrer|març|abril|maig|juny|juliol|agost|setembre|octubre|novembre|desembre");
   // en general expressió temporal
   
-  private static final Pattern SUBJECTE_PERSONAL_SING_POSTAG = Pattern.compile("N..[SN].*|_GN_.S|PI..[SN].*|_possible_nompropi|UNKNOWN");
+  private static final PosTagPattern SUBJECTE_PERSONAL_SING_POSTAG = PosTagPattern.compile("N..[SN].*|_GN_.S|PI..[SN].*|_possible_nompropi|UNKNOWN");
   private static final Pattern SUBJECTE_PERSONAL_SING_TOKEN = Pattern.compile("algú|algun|jo|mi|tu|ella?|vost[èé]|vós",Pattern.CASE_INSENSITIVE|Pattern.UNICODE_CASE);
-  private static final Pattern SUBJECTE_PERSONAL_PL_POSTAG = Pattern.compile("N..[PN].*|_GN_.P|PI..[PN].*|_possible_nompropi|UNKNOWN");
+  private static final PosTagPattern SUBJECTE_PERSONAL_PL_POSTAG = PosTagPattern.compile("N..[PN].*|_GN_.P|PI..[PN].*|_possible_nompropi|UNKNOWN");
   private static final Pattern SUBJECTE_PERSONAL_PL_TOKEN = Pattern.compile("alguns|nosaltres|vosaltres|elle?s|vost[èé]s",Pattern.CASE_INSENSITIVE|Pattern.UNICODE_CASE);
 
-  private static final Pattern SUBJECTE_3S_POSTAG = Pattern.compile("N..[SN].*|_GN_.S|PI..[SN].*");
+  private static final PosTagPattern SUBJECTE_3S_POSTAG = PosTagPattern.compile("N..[SN].*|_GN_.S|PI..[SN].*");
   private static final Pattern SUBJECTE_3S_TOKEN = Pattern.compile("algú|algun|ella?|vost[èé]|vós",Pattern.CASE_INSENSITIVE|Pattern.UNICODE_CASE);
-  private static final Pattern SUBJECTE_3S_NO_POSTAG = Pattern.compile("complement.*");
+  private static final PosTagPattern SUBJECTE_3S_NO_POSTAG = PosTagPattern.compile("complement.*");
   private static final Pattern SUBJECTE_3S_NO_TOKEN = Pattern.compile("jo|tu|mi|nosaltres|vosaltres|elle?s",Pattern.CASE_INSENSITIVE|Pattern.UNICODE_CASE);
   
   
-  private static final Pattern TRENCA_COMPTE = Pattern.compile("PR.*|CS|CC|_PUNCT.*|.*LOC_CONJ.*");
-  private static final Pattern TRENCA_COMPTE2 = Pattern.compile("SENT_START|CC|_PUNCT.*|.*LOC_CONJ.*");
+  private static final PosTagPattern TRENCA_COMPTE = PosTagPattern.compile("PR.*|CS|CC|_PUNCT.*|.*LOC_CONJ.*");
+  private static final PosTagPattern TRENCA_COMPTE2 = PosTagPattern.compile("SENT_START|CC|_PUNCT.*|.*LOC_CONJ.*");
   
   private static final List<String> partsCos = Arrays.asList("pit", "galta", "cap", "cor", "cara", "ull", "front", "mà", "peu", "braç", "colze", "genoll", "cabell");
   
@@ -402,7 +403,7 @@ public class ReflexiveVerbsRule extends CatalanRule {
   /**
    * Find appropiate pronoun pattern. (Troba el pronom feble apropiat)
    */ 
-  private Pattern pronomPattern(AnalyzedTokenReadings aToken) {
+  private PosTagPattern pronomPattern(AnalyzedTokenReadings aToken) {
   if (matchPostagRegexp(aToken,VERB_1S) && matchPostagRegexp(aToken,VERB_3S))
     return PRONOM_FEBLE_13S;
   if (matchPostagRegexp(aToken,VERB_2S) && matchPostagRegexp(aToken,VERB_3S))
@@ -434,15 +435,10 @@ public class ReflexiveVerbsRule extends CatalanRule {
   /**
    * Match POS tag with regular expression
    */
-  private boolean matchPostagRegexp(AnalyzedTokenReadings aToken, Pattern pattern) {
+  private boolean matchPostagRegexp(AnalyzedTokenReadings aToken, PosTagPattern pattern) {
     boolean matches = false;
     for (AnalyzedToken analyzedToken : aToken) {
-      String posTag = analyzedToken.getPOSTag();
-      if (posTag == null) {
-        posTag = "UNKNOWN";
-      }
-      final Matcher m = pattern.matcher(posTag);
-      if (m.matches()) {
+      if (analyzedToken.getPOSTag() == null ? pattern.matches("UNKNOWN") : pattern.matches(analyzedToken)) {
         matches = true;
         break;
       }
@@ -497,7 +493,7 @@ public class ReflexiveVerbsRule extends CatalanRule {
    */
   private boolean isThereReflexivePronoun(
       final AnalyzedTokenReadings[] tokens, int i) {
-    Pattern pPronomBuscat = null;
+    PosTagPattern pPronomBuscat = null;
     // 1) es queixa, se li queixa, se li'n queixa
     if (matchPostagRegexp(tokens[i], VERB_INDSUBJ)) {
       pPronomBuscat = pronomPattern(tokens[i]);
@@ -656,7 +652,7 @@ public class ReflexiveVerbsRule extends CatalanRule {
    * Checks if there is a desired pronoun near the verb
    */
   private boolean isTherePronoun(final AnalyzedTokenReadings[] tokens, int i,
-      Pattern lemma, Pattern postag) {
+      Pattern lemma, PosTagPattern postag) {
     int j = 1;
     boolean keepCounting = true;
     while (i - j > 0 && keepCounting) {
@@ -679,7 +675,7 @@ public class ReflexiveVerbsRule extends CatalanRule {
   }
 
   private boolean isThereBefore(final AnalyzedTokenReadings[] tokens,
-      int i, Pattern lemma, Pattern postag) {
+      int i, Pattern lemma, PosTagPattern postag) {
     int j = 1;
     boolean keepCounting = true;
     while (i - j > 0 && keepCounting) {
@@ -693,7 +689,7 @@ public class ReflexiveVerbsRule extends CatalanRule {
   }
   
   private boolean isThereBeforePostag(final AnalyzedTokenReadings[] tokens,
-      int i, Pattern postag) {
+      int i, PosTagPattern postag) {
     int j = 1;
     boolean keepCounting = true;
     while (i - j > 0 && keepCounting) {
@@ -705,7 +701,7 @@ public class ReflexiveVerbsRule extends CatalanRule {
     return false;
   }
 
-  private boolean isThereAfter(final AnalyzedTokenReadings[] tokens, int i, Pattern postag) {
+  private boolean isThereAfter(final AnalyzedTokenReadings[] tokens, int i, PosTagPattern postag) {
     int j = 1;
     boolean keepCounting = true;
     while (i+j<tokens.length && keepCounting) {
@@ -718,7 +714,7 @@ public class ReflexiveVerbsRule extends CatalanRule {
     return false;
   }
   
-  private boolean isThereAfterWithoutPreposition(final AnalyzedTokenReadings[] tokens, int i, Pattern postag) {
+  private boolean isThereAfterWithoutPreposition(final AnalyzedTokenReadings[] tokens, int i, PosTagPattern postag) {
     int j = 1;
     boolean keepCounting = true;
     while (i+j<tokens.length && keepCounting) {
@@ -852,7 +848,7 @@ public class ReflexiveVerbsRule extends CatalanRule {
 
   
   private boolean isTherePersonalSubjectBefore(final AnalyzedTokenReadings[] tokens, int i,
-      Pattern pTrenca) {
+      PosTagPattern pTrenca) {
     int j = 1;
     boolean keepCounting = true;
     while (i - j > 0 && keepCounting) {
@@ -868,7 +864,7 @@ public class ReflexiveVerbsRule extends CatalanRule {
   }
   
   private boolean isThereSingularPersonalSubjectBefore(final AnalyzedTokenReadings[] tokens, int i,
-      Pattern pTrenca) {
+      PosTagPattern pTrenca) {
     int j = 1;
     boolean keepCounting = true;
     while (i - j > 0 && keepCounting) {
@@ -884,7 +880,7 @@ public class ReflexiveVerbsRule extends CatalanRule {
   }
   
   private boolean isTherePluralPersonalSubjectBefore(final AnalyzedTokenReadings[] tokens, int i,
-      Pattern pTrenca) {
+      PosTagPattern pTrenca) {
     int j = 1;
     boolean keepCounting = true;
     while (i - j > 0 && keepCounting) {
@@ -900,7 +896,7 @@ public class ReflexiveVerbsRule extends CatalanRule {
   }
   
   private boolean isThereSubject3SBefore(final AnalyzedTokenReadings[] tokens, int i,
-      Pattern pTrenca) {
+      PosTagPattern pTrenca) {
     int j = 1;
     boolean keepCounting = true;
     while (i - j > 0 && keepCounting) {
@@ -916,7 +912,7 @@ public class ReflexiveVerbsRule extends CatalanRule {
     return false;
   }
   
-  private boolean isVerbNumberPerson(final AnalyzedTokenReadings[] tokens, int i, Pattern pVerb){
+  private boolean isVerbNumberPerson(final AnalyzedTokenReadings[] tokens, int i, PosTagPattern pVerb){
     int j = 0; // El verb principal pot ser conjugat
     boolean keepCounting = true;
     while (i-j>0 && keepCounting) {
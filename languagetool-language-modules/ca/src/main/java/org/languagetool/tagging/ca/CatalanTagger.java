@@ -33,6 +33,7 @@ import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.JLanguageTool;
 import org.languagetool.tagging.BaseTagger;
 import org.languagetool.tagging.ManualTagger;
+import org.languagetool.tagging.WordTagCache;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -86,41 +87,20 @@ public class CatalanTagger extends BaseTagger {
 
     final List<AnalyzedTokenReadings> tokenReadings = new ArrayList<>();
     int pos = 0;
-    final IStemmer dictLookup = new DictionaryLookup(getDictionary());
+    final WordTagCache cache = getWordTagCache();
+    IStemmer dictLookup = null;
 
     for (String word : sentenceTokens) {
-      final List<AnalyzedToken> l = new ArrayList<>();
-      final String lowerWord = word.toLowerCase(conversionLocale);
-      final boolean isLowercase = word.equals(lowerWord);
-      final boolean isMixedCase = StringTools.isMixedCase(word);
-      List<AnalyzedToken> manualTaggerTokens=manualTagsAsAnalyzedTokenList(word, manualTagger.lookup(word));
-      List<AnalyzedToken> manualLowerTaggerTokens=manualTagsAsAnalyzedTokenList(word, manualTagger.lookup(lowerWord));
-
-      // normal case, manual tagger
-      addTokens(manualTaggerTokens, l);
-      // normal case, tagger dictionary
-      if (manualTaggerTokens.isEmpty()) {
-        addTokens(asAnalyzedTokenList(word, dictLookup.lookup(word)), l);
-      }
-      // tag non-lowercase words (alluppercase or startuppercase but not mixedcase)
-      // with lowercase word tags
-      if (!isLowercase && !isMixedCase) {
-        // manual tagger
-        addTokens(manualLowerTaggerTokens, l);
-        // tagger dictionary
-        if (manualLowerTaggerTokens.isEmpty()) {
-          addTokens(asAnalyzedTokenList(word, dictLookup.lookup(lowerWord)), l);
+      List<AnalyzedToken> l = cache != null ? cache.get(word) : null;
+      if (l == null) {
+        if (dictLookup == null) {
+          dictLookup = new DictionaryLookup(getDictionary());
+        }
+        l = tagWord(word, dictLookup);
+        if (cache != null) {
+          cache.put(word, l);
         }
       }
-      // additional tagging with prefixes
-      if (l.isEmpty() && !isMixedCase) {
-        addTokens(additionalTags(word), l);
-      }
-
-      if (l.isEmpty()) {
-        l.add(new AnalyzedToken(word, null, null));
-      }
-
       tokenReadings.add(new AnalyzedTokenReadings(l, pos));
       pos += word.length();
     }
@@ -128,6 +108,41 @@ public class CatalanTagger extends BaseTagger {
     return tokenReadings;
   }
 
+  private List<AnalyzedToken> tagWord(final String word, final IStemmer dictLookup) {
+    final List<AnalyzedToken> l = new ArrayList<>();
+    final String lowerWord = word.toLowerCase(conversionLocale);
+    final boolean isLowercase = word.equals(lowerWord);
+    final boolean isMixedCase = StringTools.isMixedCase(word);
+    List<AnalyzedToken> manualTaggerTokens=manualTagsAsAnalyzedTokenList(word, manualTagger.lookup(word));
+    List<AnalyzedToken> manualLowerTaggerTokens=manualTagsAsAnalyzedTokenList(word, manualTagger.lookup(lowerWord));
+
+    // normal case, manual tagger
+    addTokens(manualTaggerTokens, l);
+    // normal case, tagger dictionary
+    if (manualTaggerTokens.isEmpty()) {
+      addTokens(asAnalyzedTokenList(word, dictLookup.lookup(word)), l);
+    }
+    // tag non-lowercase words (alluppercase or startuppercase but not mixedcase)
+    // with lowercase word tags
+    if (!isLowercase && !isMixedCase) {
+      // manual tagger
+      addTokens(manualLowerTaggerTokens, l);
+      // tagger dictionary
+      if (manualLowerTaggerTokens.isEmpty()) {
+        addTokens(asAnalyzedTokenList(word, dictLookup.lookup(lowerWord)), l);
+      }
+    }
+    // additional tagging with prefixes
+    if (l.isEmpty() && !isMixedCase) {
+      addTokens(additionalTags(word), l);
+    }
+
+    if (l.isEmpty()) {
+      l.add(new AnalyzedToken(word, null, null));
+    }
+    return l;
+  }
+
   @Override
   public List<AnalyzedToken> additionalTags(String word) {
     final IStemmer dictLookup;
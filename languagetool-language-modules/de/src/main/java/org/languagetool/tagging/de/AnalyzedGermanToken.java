@@ -19,6 +19,9 @@
 package org.languagetool.tagging.de;
 
 import org.languagetool.AnalyzedToken;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.languagetool.tagging.de.GermanToken.Genus;
 import org.languagetool.tagging.de.GermanToken.Kasus;
 import org.languagetool.tagging.de.GermanToken.Numerus;
@@ -33,66 +36,39 @@ import org.languagetool.tagging.de.GermanToken.POSType;
  */
 public class AnalyzedGermanToken extends AnalyzedToken {
 
-  private POSType type;
-  private Kasus casus;
-  private Numerus numerus;
-  private Genus genus;
+  private static final int MAX_CACHED_POS_TAGS = 50_000;
+  private static final TagFeatures NO_FEATURES = new TagFeatures();
+
+  // the features only depend on the POS tag, and the tag set is small, so parse each tag only once:
+  private static final Map<String, TagFeatures> featuresForTag = new ConcurrentHashMap<>();
+
+  private final POSType type;
+  private final Kasus casus;
+  private final Numerus numerus;
+  private final Genus genus;
 
   public AnalyzedGermanToken(AnalyzedToken token) {
     super(token.getToken(), token.getPOSTag(), token.getLemma());
-    init();
+    final TagFeatures features = getFeatures(getPOSTag());
+    type = features.type;
+    casus = features.casus;
+    numerus = features.numerus;
+    genus = features.genus;
   }
 
-  private void init() {
-    if (getPOSTag() == null) {
-      return;
-    }
-    final String[] parts = getPOSTag().split(":");
-    if (parts.length < 3) {
-      return;
+  private static TagFeatures getFeatures(String posTag) {
+    if (posTag == null) {
+      return NO_FEATURES;
     }
-    
-    //System.err.println(fullform + " " + posTagString);
-    for (String part : parts) {
-      if (part.equals("EIG")) {
-        type = POSType.PROPER_NOUN;
-      } else if (part.equals("SUB") && type == null) {
-        type = POSType.NOMEN;
-      } else if (part.equals("PA1") || part.equals("PA2")) {
-        type = POSType.PARTIZIP;
-      } else if (part.equals("VER") && type == null) {
-        type = POSType.VERB;
-      } else if (part.equals("ADJ") && type == null) {
-        type = POSType.ADJEKTIV;
-      } else if (part.equals("PRO") && type == null) {
-        type = POSType.PRONOMEN;
-      } else if (part.equals("ART") && type == null) {
-        type = POSType.DETERMINER;
-      } else if (part.equals("AKK")) {
-        casus = Kasus.AKKUSATIV;
-      } else if (part.equals("GEN")) {
-        casus = Kasus.GENITIV;
-      } else if (part.equals("NOM")) {
-        casus = Kasus.NOMINATIV;
-      } else if (part.equals("DAT")) {
-        casus = Kasus.DATIV;
-      } else if (part.equals("PLU")) {
-        numerus = Numerus.PLURAL;
-      } else if (part.equals("SIN")) {
-        numerus = Numerus.SINGULAR;
-      } else if (part.equals("MAS")) {
-        genus = Genus.MASKULINUM;
-      } else if (part.equals("FEM")) {
-        genus = Genus.FEMININUM;
-      } else if (part.equals("NEU")) {
-        genus = Genus.NEUTRUM;
-      } else if (part.equals("NOG")) {
-        genus = Genus.FEMININUM;    // NOG = no genus because only used as plural
-      } else if (part.equals("ALG")) {
-        genus = Genus.ALLGEMEIN;
+    TagFeatures features = featuresForTag.get(posTag);
+    if (features == null) {
+      features = new TagFeatures();
+      features.init(posTag);
+      if (featuresForTag.size() < MAX_CACHED_POS_TAGS) {
+        featuresForTag.put(posTag, features);
       }
     }
-    
+    return features;
   }
 
   public POSType getType() {
@@ -110,5 +86,63 @@ public class AnalyzedGermanToken extends AnalyzedToken {
   public Genus getGenus() {
     return genus; 
   }
-  
+
+  private static class TagFeatures {
+
+    private POSType type;
+    private Kasus casus;
+    private Numerus numerus;
+    private Genus genus;
+
+    private void init(String posTag) {
+      final String[] parts = posTag.split(":");
+      if (parts.length < 3) {
+        return;
+      }
+
+      //System.err.println(fullform + " " + posTagString);
+      for (String part : parts) {
+        if (part.equals("EIG")) {
+          type = POSType.PROPER_NOUN;
+        } else if (part.equals("SUB") && type == null) {
+          type = POSType.NOMEN;
+        } else if (part.equals("PA1") || part.equals("PA2")) {
+          type = POSType.PARTIZIP;
+        } else if (part.equals("VER") && type == null) {
+          type = POSType.VERB;
+        } else if (part.equals("ADJ") && type == null) {
+          type = POSType.ADJEKTIV;
+        } else if (part.equals("PRO") && type == null) {
+          type = POSType.PRONOMEN;
+        } else if (part.equals("ART") && type == null) {
+          type = POSType.DETERMINER;
+        } else if (part.equals("AKK")) {
+          casus = Kasus.AKKUSATIV;
+        } else if (part.equals("GEN")) {
+          casus = Kasus.GENITIV;
+        } else if (part.equals("NOM")) {
+          casus = Kasus.NOMINATIV;
+        } else if (part.equals("DAT")) {
+          casus = Kasus.DATIV;
+        } else if (part.equals("PLU")) {
+          numerus = Numerus.PLURAL;
+        } else if (part.equals("SIN")) {
+          numerus = Numerus.SINGULAR;
+        } else if (part.equals("MAS")) {
+          genus = Genus.MASKULINUM;
+        } else if (part.equals("FEM")) {
+          genus = Genus.FEMININUM;
+        } else if (part.equals("NEU")) {
+          genus = Genus.NEUTRUM;
+        } else if (part.equals("NOG")) {
+          genus = Genus.FEMININUM;    // NOG = no genus because only used as plural
+        } else if (part.equals("ALG")) {
+          genus = Genus.ALLGEMEIN;
+        }
+      }
+
+    }
+
+  }
+
 }
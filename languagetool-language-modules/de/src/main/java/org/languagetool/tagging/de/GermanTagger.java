@@ -19,7 +19,6 @@
 package org.languagetool.tagging.de;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,8 +30,10 @@ import morfologik.stemming.WordData;
 import org.languagetool.AnalyzedToken;
 import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.JLanguageTool;
+import org.languagetool.tagging.CachingTagger;
+import org.languagetool.tagging.DictionaryRegistry;
 import org.languagetool.tagging.ManualTagger;
-import org.languagetool.tagging.Tagger;
+import org.languagetool.tagging.WordTagCache;
 import org.languagetool.tokenizers.de.GermanCompoundTokenizer;
 import org.languagetool.tools.StringTools;
 
@@ -43,7 +44,7 @@ import org.languagetool.tools.StringTools;
  *
  * @author Marcin Milkowski, Daniel Naber
  */
-public class GermanTagger implements Tagger {
+public class GermanTagger implements CachingTagger {
 
   private static final String DICT_FILENAME = "/de/german.dict";
   private static final String USER_DICT_FILENAME = "/de/added.txt";
@@ -51,13 +52,29 @@ public class GermanTagger implements Tagger {
   private volatile Dictionary dictionary;
   private volatile ManualTagger manualTagger;
   private volatile GermanCompoundTokenizer compoundTokenizer;
+  private volatile WordTagCache wordTagCache = new WordTagCache(WordTagCache.DEFAULT_MAX_WEIGHT);
 
   public GermanTagger() {
   }
 
+  /**
+   * The cache only keeps the readings of words that are not in the dictionary and thus
+   * need to be split into their compound parts, as that's the slow part of tagging.
+   * @since 2.7
+   */
+  @Override
+  public WordTagCache getWordTagCache() {
+    return wordTagCache;
+  }
+
+  /** @since 2.7 */
+  @Override
+  public void setWordTagCache(WordTagCache wordTagCache) {
+    this.wordTagCache = wordTagCache;
+  }
+
   protected void initialize() throws IOException {
-    final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(DICT_FILENAME);
-    dictionary = Dictionary.read(url);
+    dictionary = DictionaryRegistry.getDictionary(DICT_FILENAME);
     manualTagger = new ManualTagger(JLanguageTool.getDataBroker().getFromResourceDirAsStream(USER_DICT_FILENAME));
     compoundTokenizer = new GermanCompoundTokenizer();
   }
@@ -103,6 +120,7 @@ public class GermanTagger implements Tagger {
     int pos = 0;
 
     final IStemmer morfologik = new DictionaryLookup(dictionary);
+    final WordTagCache cache = wordTagCache;
 
     for (String word : sentenceTokens) {
       final List<AnalyzedToken> l = new ArrayList<>();
@@ -116,20 +134,13 @@ public class GermanTagger implements Tagger {
       } else {
         // word not known, try to decompose it and use the last part for POS tagging:
         if (!StringTools.isEmpty(word.trim())) {
-          final List<String> compoundParts = compoundTokenizer.tokenize(word);
-          if (compoundParts.size() <= 1) {
-            l.add(new AnalyzedToken(word, null, null));
+          final List<AnalyzedToken> cachedTokens = cache != null ? cache.get(word) : null;
+          if (cachedTokens != null) {
+            l.addAll(cachedTokens);
           } else {
-            // last part governs a word's POS:
-            String lastPart = compoundParts.get(compoundParts.size()-1);
-            if (StringTools.startsWithUppercase(word)) {
-              lastPart = StringTools.uppercaseFirstChar(lastPart);
-            }
-            taggerTokens = lexiconLookup(lastPart, morfologik);
-            if (taggerTokens != null) {
-              tagWord(taggerTokens, word, l, compoundParts);
-            } else {
-              l.add(new AnalyzedToken(word, null, null));
+            tagCompound(word, morfologik, l);
+            if (cache != null) {
+              cache.put(word, l);
             }
           }
         } else {
@@ -143,6 +154,25 @@ public class GermanTagger implements Tagger {
     return tokenReadings;
   }
 
+  private void tagCompound(String word, IStemmer morfologik, List<AnalyzedToken> l) {
+    final List<String> compoundParts = compoundTokenizer.tokenize(word);
+    if (compoundParts.size() <= 1) {
+      l.add(new AnalyzedToken(word, null, null));
+    } else {
+      // last part governs a word's POS:
+      String lastPart = compoundParts.get(compoundParts.size()-1);
+      if (StringTools.startsWithUppercase(word)) {
+        lastPart = StringTools.uppercaseFirstChar(lastPart);
+      }
+      final String[] taggerTokens = lexiconLookup(lastPart, morfologik);
+      if (taggerTokens != null) {
+        tagWord(taggerTokens, word, l, compoundParts);
+      } else {
+        l.add(new AnalyzedToken(word, null, null));
+      }
+    }
+  }
+
   private void tagWord(String[] taggerTokens, String word, List<AnalyzedToken> l) {
     tagWord(taggerTokens, word, l, null);
   }
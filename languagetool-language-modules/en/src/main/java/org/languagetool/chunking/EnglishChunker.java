@@ -56,14 +56,16 @@ public class EnglishChunker implements Chunker {
 
   public EnglishChunker() {
     try {
-      if (tokenModel == null) {
-        tokenModel = new TokenizerModel(Tools.getStream(TOKENIZER_MODEL));
-      }
-      if (posModel == null) {
-        posModel = new POSModel(Tools.getStream(POS_TAGGER_MODEL));
-      }
-      if (chunkerModel == null) {
-        chunkerModel = new ChunkerModel(Tools.getStream(CHUNKER_MODEL));
+      synchronized (EnglishChunker.class) {
+        if (tokenModel == null) {
+          tokenModel = new TokenizerModel(Tools.getStream(TOKENIZER_MODEL));
+        }
+        if (posModel == null) {
+          posModel = new POSModel(Tools.getStream(POS_TAGGER_MODEL));
+        }
+        if (chunkerModel == null) {
+          chunkerModel = new ChunkerModel(Tools.getStream(CHUNKER_MODEL));
+        }
       }
       chunkFilter = new EnglishChunkFilter();
     } catch (IOException e) {
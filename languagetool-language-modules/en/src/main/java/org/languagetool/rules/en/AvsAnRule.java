@@ -239,4 +239,9 @@ public class AvsAnRule extends EnglishRule {
     // nothing
   }
 
+  @Override
+  public boolean isSentenceIndependent() {
+    return true;
+  }
+
 }
@@ -21,10 +21,7 @@ package org.languagetool.synthesis.en;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
-import morfologik.stemming.IStemmer;
 import morfologik.stemming.WordData;
 
 import org.languagetool.AnalyzedToken;
@@ -56,6 +53,8 @@ public class EnglishSynthesizer extends BaseSynthesizer {
   // A special tag to add only indefinite articles.
   private static final String ADD_IND_DETERMINER = "+INDT";
 
+  private volatile AvsAnRule aVsAnRule;
+
   public EnglishSynthesizer() {
     super(RESOURCE_FILENAME, TAGS_FILE_NAME);
   }
@@ -72,16 +71,15 @@ public class EnglishSynthesizer extends BaseSynthesizer {
   public String[] synthesize(final AnalyzedToken token, final String posTag)
       throws IOException {
     if (ADD_DETERMINER.equals(posTag)) {
-      final AvsAnRule rule = new AvsAnRule(null);
+      final AvsAnRule rule = getAvsAnRule();
       return new String[] { rule.suggestAorAn(token.getToken()),
           "the " + token.getToken() };
     } else if (ADD_IND_DETERMINER.equals(posTag)) {
-      final AvsAnRule rule = new AvsAnRule(null);
+      final AvsAnRule rule = getAvsAnRule();
       return new String[] { rule.suggestAorAn(token.getToken()) };
     }
 
-    final IStemmer synthesizer = createStemmer();
-    final List<WordData> wordData = synthesizer.lookup(token.getLemma() + "|" + posTag);
+    final List<WordData> wordData = getStemmer().lookup(token.getLemma() + "|" + posTag);
     final List<String> wordForms = new ArrayList<>();
     for (WordData wd : wordData) {
       wordForms.add(wd.getStem().toString());
@@ -104,7 +102,7 @@ public class EnglishSynthesizer extends BaseSynthesizer {
       String det = "";
       if (posTag.endsWith(ADD_IND_DETERMINER)) {
         myPosTag = myPosTag.substring(0, myPosTag.indexOf(ADD_IND_DETERMINER) - "\\".length());
-        final AvsAnRule rule = new AvsAnRule(null);
+        final AvsAnRule rule = getAvsAnRule();
         det = rule.suggestAorAn(token.getLemma());
         det = det.substring(0, det.indexOf(' ') + " ".length());
       } else if (posTag.endsWith(ADD_DETERMINER)) {
@@ -112,15 +110,9 @@ public class EnglishSynthesizer extends BaseSynthesizer {
         det = "the ";
       }
 
-      initPossibleTags();
-      final Pattern p = Pattern.compile(myPosTag);
       final List<String> results = new ArrayList<>();
-
-      for (final String tag : possibleTags) {
-        final Matcher m = p.matcher(tag);
-        if (m.matches()) {
-          lookup(token.getLemma(), tag, results, det);
-        }
+      for (final String tag : getMatchingTags(myPosTag)) {
+        lookup(token.getLemma(), tag, results, det);
       }
       return results.toArray(new String[results.size()]);
     }
@@ -128,13 +120,25 @@ public class EnglishSynthesizer extends BaseSynthesizer {
     return synthesize(token, posTag);
   }
 
-  private void lookup(String lemma, String posTag, List<String> results, String determiner) {
-    synchronized (this) { // the stemmer is not thread-safe
-      final List<WordData> wordForms = getStemmer().lookup(lemma + "|" + posTag);
-      for (WordData wd : wordForms) {
-        results.add(determiner + wd.getStem().toString());
+  // the rule loads its word lists when it's created, so we only create it once:
+  private AvsAnRule getAvsAnRule() {
+    AvsAnRule rule = aVsAnRule;
+    if (rule == null) {
+      synchronized (this) {
+        rule = aVsAnRule;
+        if (rule == null) {
+          aVsAnRule = rule = new AvsAnRule(null);
+        }
       }
     }
+    return rule;
+  }
+
+  private void lookup(String lemma, String posTag, List<String> results, String determiner) {
+    final List<WordData> wordForms = getStemmer().lookup(lemma + "|" + posTag);
+    for (WordData wd : wordForms) {
+      results.add(determiner + wd.getStem().toString());
+    }
   }
 
 }
@@ -19,6 +19,7 @@
 package org.languagetool;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -32,6 +33,7 @@ import org.languagetool.language.English;
 import org.languagetool.rules.Category;
 import org.languagetool.rules.Rule;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.RuleMatchListener;
 import org.languagetool.rules.patterns.Element;
 import org.languagetool.rules.patterns.PatternRule;
 
@@ -70,6 +72,64 @@ public class JLanguageToolTest extends TestCase {
     }
   }
 
+  public void testCheckReader() throws IOException {
+    final String text = "This is a test. This is a a test.\r\nThis is (a test.\n\n\n" +
+            "Here is an test.\n\nHere's \"another\" one. Here we go.  \n  \nAn last sentence without line break";
+    final JLanguageTool tool = new JLanguageTool(new English());
+    tool.activateDefaultPatternRules();
+    final List<String> expected = new ArrayList<>();
+    for (RuleMatch match : tool.check(text)) {
+      expected.add(toString(match));
+    }
+    final List<RuleMatch> matches = new ArrayList<>();
+    tool.check(new StringReader(text), new RuleMatchListener() {
+      @Override
+      public void matchFound(RuleMatch ruleMatch) {
+        matches.add(ruleMatch);
+      }
+    });
+    final List<String> actual = new ArrayList<>();
+    for (RuleMatch match : matches) {
+      actual.add(toString(match));
+    }
+    assertTrue(expected.size() >= 5);
+    assertEquals(expected, actual);
+    // columns are not compared above, as check(String) is off by one for sentences that start with a line break:
+    final RuleMatch repeatMatch = matches.get(8);
+    assertEquals("ENGLISH_WORD_REPEAT_BEGINNING_RULE", repeatMatch.getRule().getId());
+    assertEquals(6, repeatMatch.getLine());
+    assertEquals(23, repeatMatch.getColumn());
+    assertEquals(27, repeatMatch.getEndColumn());
+  }
+
+  public void testCheckReaderWithSplitParagraph() throws IOException {
+    final String text = "This is (a test\nthat goes on) and on\nand on (and on.\n\nHere (is another.\n";
+    final JLanguageTool tool = new JLanguageTool(new English());
+    final List<String> expected = new ArrayList<>();
+    for (RuleMatch match : tool.check(text)) {
+      if (match.getRule().getId().equals("EN_UNPAIRED_BRACKETS")) {
+        expected.add(toString(match));
+      }
+    }
+    final List<String> actual = new ArrayList<>();
+    // the first paragraph is split into several chunks, the brackets still match:
+    tool.check(new StringReader(text), new RuleMatchListener() {
+      @Override
+      public void matchFound(RuleMatch ruleMatch) {
+        if (ruleMatch.getRule().getId().equals("EN_UNPAIRED_BRACKETS")) {
+          actual.add(JLanguageToolTest.this.toString(ruleMatch));
+        }
+      }
+    }, 10);
+    assertEquals(2, expected.size());
+    assertEquals(expected, actual);
+  }
+
+  private String toString(RuleMatch match) {
+    return match.getRule().getId() + ":" + match.getFromPos() + "-" + match.getToPos() + ":" + match.getOffset()
+            + ":" + match.getLine() + "-" + match.getEndLine() + ":" + match.getSuggestedReplacements();
+  }
+
   public void testEnglish() throws IOException {
     final JLanguageTool tool = new JLanguageTool(new English());
     assertEquals(0, tool.check("A test that should not give errors.").size());
@@ -20,7 +20,13 @@
 package org.languagetool.synthesis.en;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import junit.framework.TestCase;
 
@@ -58,4 +64,37 @@ public class EnglishSynthesizerTest extends TestCase {
     assertEquals("[the hour]", Arrays.toString(synth.synthesize(dummyToken("hours", "hour"), "NN\\+DT", true)));
   }
 
+  public final void testSynthesizeInParallel() throws Exception {
+    final EnglishSynthesizer synth = new EnglishSynthesizer();
+    final String[] lemmas = {"be", "test", "president", "hour", "go"};
+    final List<String> expected = new ArrayList<>();
+    for (String lemma : lemmas) {
+      expected.add(Arrays.toString(synth.synthesize(dummyToken(lemma), "VB.*|NNS", true)));
+    }
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<List<String>>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(new Callable<List<String>>() {
+          @Override
+          public List<String> call() throws IOException {
+            final List<String> result = new ArrayList<>();
+            for (int j = 0; j < 200; j++) {
+              result.clear();
+              for (String lemma : lemmas) {
+                result.add(Arrays.toString(synth.synthesize(dummyToken(lemma), "VB.*|NNS", true)));
+              }
+            }
+            return result;
+          }
+        }));
+      }
+      for (Future<List<String>> future : futures) {
+        assertEquals(expected, future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
 }
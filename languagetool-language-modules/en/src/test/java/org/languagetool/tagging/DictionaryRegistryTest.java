@@ -0,0 +1,48 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import morfologik.stemming.Dictionary;
+import org.junit.Test;
+import org.languagetool.rules.spelling.morfologik.MorfologikSpeller;
+import org.languagetool.tagging.en.EnglishTagger;
+
+import static org.junit.Assert.*;
+
+public class DictionaryRegistryTest {
+
+  @Test
+  public void testSharedDictionaries() throws Exception {
+    final Dictionary dictionary = DictionaryRegistry.getDictionary("/en/english.dict");
+    assertSame(dictionary, DictionaryRegistry.getDictionary("/en/english.dict"));
+    assertSame(dictionary, new EnglishTagger().getDictionary());
+    final Dictionary synthDictionary = DictionaryRegistry.getDictionary("/en/english_synth.dict");
+    assertNotSame(dictionary, synthDictionary);
+    assertTrue(DictionaryRegistry.size() >= 2);
+    assertTrue(new MorfologikSpeller("/en/hunspell/en_US.dict").isMisspelled("foobarr"));
+  }
+
+  @Test
+  public void testClear() throws Exception {
+    final Dictionary dictionary = DictionaryRegistry.getDictionary("/en/english.dict");
+    DictionaryRegistry.clear();
+    assertNotSame(dictionary, DictionaryRegistry.getDictionary("/en/english.dict"));
+  }
+
+}
@@ -20,6 +20,7 @@ package org.languagetool.tagging.en;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import junit.framework.TestCase;
@@ -62,6 +63,22 @@ public class EnglishTaggerTest extends TestCase {
         "It/[it]PRP -- has/[have]VBZ -- become/[become]VB|become/[become]VBN|become/[become]VBP -- difficult/[difficult]JJ", tokenizer, tagger); 
   }
   
+  public void testWordTagCache() throws IOException {
+    final List<String> words = Arrays.asList("The", "house", "the", "house");
+    final List<AnalyzedTokenReadings> readings = tagger.tag(words);
+    assertEquals(1, tagger.getWordTagCache().getHitCount());
+    assertEquals(3, tagger.getWordTagCache().getMissCount());
+    final String expected = readings.toString();
+    readings.get(1).getAnalyzedToken(0).setWhitespaceBefore(true);
+    final List<AnalyzedTokenReadings> cachedReadings = tagger.tag(words);
+    assertEquals(5, tagger.getWordTagCache().getHitCount());
+    assertEquals(expected, cachedReadings.toString());
+    assertFalse(cachedReadings.get(1).getAnalyzedToken(0).isWhitespaceBefore());
+    final EnglishTagger uncachedTagger = new EnglishTagger();
+    uncachedTagger.setWordTagCache(null);
+    assertEquals(expected, uncachedTagger.tag(words).toString());
+  }
+
   public void testLemma() throws IOException {
     EnglishTagger tagger = new EnglishTagger();
     List<String> words = new ArrayList<>();
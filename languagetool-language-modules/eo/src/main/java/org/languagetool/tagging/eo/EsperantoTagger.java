@@ -96,7 +96,8 @@ public class EsperantoTagger implements Tagger {
     return words;
   }
 
-  private void lazyInit() throws IOException {
+  // synchronized, as sentences may be tagged by several threads:
+  private synchronized void lazyInit() throws IOException {
     if (manualTagger != null) {
       return;
     }
@@ -36,8 +36,9 @@ public class JapaneseWordTokenizer implements Tokenizer {
     }
   }
 
+  // synchronized, as the tagger is not known to be thread-safe:
   @Override  
-  public List<String> tokenize(String text){
+  public synchronized List<String> tokenize(String text){
     init();
     final List<String> ret = new ArrayList<>();
     List<Token> tokens = new ArrayList<>();
@@ -29,6 +29,7 @@ import morfologik.stemming.IStemmer;
 import org.languagetool.AnalyzedToken;
 import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.tagging.BaseTagger;
+import org.languagetool.tagging.WordTagCache;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -51,40 +52,20 @@ public class PolishTagger extends BaseTagger {
   @Override
   public final List<AnalyzedTokenReadings> tag(final List<String> sentenceTokens)
   throws IOException {
-    List<AnalyzedToken> taggerTokens;
-    List<AnalyzedToken> lowerTaggerTokens;
-    List<AnalyzedToken> upperTaggerTokens;    
     final List<AnalyzedTokenReadings> tokenReadings = new ArrayList<>();
     int pos = 0;
-    final IStemmer morfologik = new DictionaryLookup(getDictionary());
+    final WordTagCache cache = getWordTagCache();
+    IStemmer morfologik = null;
 
     for (String word : sentenceTokens) {
-      final List<AnalyzedToken> l = new ArrayList<>();
-      final String lowerWord = word.toLowerCase(plLocale);
-      taggerTokens = asAnalyzedTokenList(word, morfologik.lookup(word));
-      lowerTaggerTokens = asAnalyzedTokenList(word, morfologik.lookup(lowerWord));       
-      final boolean isLowercase = word.equals(lowerWord);
-
-      //normal case
-      addTokens(taggerTokens, l);
-
-      if (!isLowercase) {
-        //lowercase
-        addTokens(lowerTaggerTokens, l);
-      }
-
-      //uppercase
-      if (lowerTaggerTokens.isEmpty() && taggerTokens.isEmpty()) {
-        if (isLowercase) {
-          upperTaggerTokens = asAnalyzedTokenList(word, morfologik.lookup(StringTools
-              .uppercaseFirstChar(word)));
-          if (!upperTaggerTokens.isEmpty()) {
-            addTokens(upperTaggerTokens, l);
-          } else {
-            l.add(new AnalyzedToken(word, null, null));
-          }
-        } else {
-          l.add(new AnalyzedToken(word, null, null));
+      List<AnalyzedToken> l = cache != null ? cache.get(word) : null;
+      if (l == null) {
+        if (morfologik == null) {
+          morfologik = new DictionaryLookup(getDictionary());
+        }
+        l = tagWord(word, morfologik);
+        if (cache != null) {
+          cache.put(word, l);
         }
       }
       tokenReadings.add(new AnalyzedTokenReadings(l, pos));
@@ -94,6 +75,38 @@ public class PolishTagger extends BaseTagger {
     return tokenReadings;
   }
 
+  private List<AnalyzedToken> tagWord(final String word, final IStemmer morfologik) {
+    final List<AnalyzedToken> l = new ArrayList<>();
+    final String lowerWord = word.toLowerCase(plLocale);
+    final List<AnalyzedToken> taggerTokens = asAnalyzedTokenList(word, morfologik.lookup(word));
+    final List<AnalyzedToken> lowerTaggerTokens = asAnalyzedTokenList(word, morfologik.lookup(lowerWord));
+    final boolean isLowercase = word.equals(lowerWord);
+
+    //normal case
+    addTokens(taggerTokens, l);
+
+    if (!isLowercase) {
+      //lowercase
+      addTokens(lowerTaggerTokens, l);
+    }
+
+    //uppercase
+    if (lowerTaggerTokens.isEmpty() && taggerTokens.isEmpty()) {
+      if (isLowercase) {
+        final List<AnalyzedToken> upperTaggerTokens = asAnalyzedTokenList(word, morfologik.lookup(StringTools
+            .uppercaseFirstChar(word)));
+        if (!upperTaggerTokens.isEmpty()) {
+          addTokens(upperTaggerTokens, l);
+        } else {
+          l.add(new AnalyzedToken(word, null, null));
+        }
+      } else {
+        l.add(new AnalyzedToken(word, null, null));
+      }
+    }
+    return l;
+  }
+
   private void addTokens(final List<AnalyzedToken> taggedTokens,
       final List<AnalyzedToken> l) {
     if (taggedTokens != null) {
@@ -32,6 +32,7 @@ import org.languagetool.AnalyzedTokenReadings;
 import org.languagetool.JLanguageTool;
 import org.languagetool.tagging.BaseTagger;
 import org.languagetool.tagging.ManualTagger;
+import org.languagetool.tagging.WordTagCache;
 
 /**
  * Romanian Part-of-speech tagger 
@@ -47,7 +48,7 @@ public class RomanianTagger extends BaseTagger {
   private final String binaryDictPath;
   private final String plaintextDictPath;
 
-  private ManualTagger manualTagger;
+  private volatile ManualTagger manualTagger;
 
   public RomanianTagger() {
     this(DEFAULT_BINARY_DICT, DEFAULT_PLAINTEXT_DICT);
@@ -69,36 +70,25 @@ public class RomanianTagger extends BaseTagger {
       final List<String> sentenceTokens) throws IOException {
     final List<AnalyzedTokenReadings> tokenReadings = new ArrayList<>();
     int pos = 0;
-    final IStemmer morfologik = new DictionaryLookup(getDictionary());
+    final WordTagCache cache = getWordTagCache();
+    IStemmer morfologik = null;
+    ManualTagger manualTagger = this.manualTagger;
     if (manualTagger == null && plaintextDictPath != null) {
-      manualTagger = new ManualTagger(JLanguageTool.getDataBroker().getFromResourceDirAsStream(plaintextDictPath));
+      // no locking needed, if several threads load the file at the same time, only one result will be kept:
+      this.manualTagger = manualTagger = new ManualTagger(JLanguageTool.getDataBroker().getFromResourceDirAsStream(plaintextDictPath));
     }
 
     for (final String word : sentenceTokens) {
-      final List<AnalyzedToken> l = new ArrayList<>();
-      final String lowerCaseWord = word.toLowerCase(RO_LOCALE);
-      final List<WordData> taggerTokens = morfologik.lookup(lowerCaseWord);
-      if (taggerTokens != null) {
-        for (WordData wd : taggerTokens) {
-          final String[] tagsArr = wd.getStem().toString().split("\\+");
-          for (final String currTag : tagsArr) {
-            l.add(new AnalyzedToken(word, 
-                wd.getTag().toString(), currTag));
-          }
+      List<AnalyzedToken> l = cache != null ? cache.get(word) : null;
+      if (l == null) {
+        if (morfologik == null) {
+          morfologik = new DictionaryLookup(getDictionary());
         }
-      }
-      if (manualTagger != null) { // add user tags, if any
-        final String[] manualTags = manualTagger.lookup(lowerCaseWord);
-        if (manualTags != null) {
-          for (int i = 0; i < manualTags.length / 2; i = i + 2) {
-            l.add(new AnalyzedToken(word, manualTags[i+1], manualTags[i]));
-          }
+        l = tagWord(word, morfologik, manualTagger);
+        if (cache != null) {
+          cache.put(word, l);
         }
       }
-
-      if (l.isEmpty()) {
-        l.add(new AnalyzedToken(word, null, null));
-      }
       tokenReadings.add(new AnalyzedTokenReadings(l, pos));
       pos += word.length();
     }
@@ -106,4 +96,32 @@ public class RomanianTagger extends BaseTagger {
     return tokenReadings;
   }
 
+  private List<AnalyzedToken> tagWord(final String word, final IStemmer morfologik, final ManualTagger manualTagger) {
+    final List<AnalyzedToken> l = new ArrayList<>();
+    final String lowerCaseWord = word.toLowerCase(RO_LOCALE);
+    final List<WordData> taggerTokens = morfologik.lookup(lowerCaseWord);
+    if (taggerTokens != null) {
+      for (WordData wd : taggerTokens) {
+        final String[] tagsArr = wd.getStem().toString().split("\\+");
+        for (final String currTag : tagsArr) {
+          l.add(new AnalyzedToken(word, 
+              wd.getTag().toString(), currTag));
+        }
+      }
+    }
+    if (manualTagger != null) { // add user tags, if any
+      final String[] manualTags = manualTagger.lookup(lowerCaseWord);
+      if (manualTags != null) {
+        for (int i = 0; i < manualTags.length / 2; i = i + 2) {
+          l.add(new AnalyzedToken(word, manualTags[i+1], manualTags[i]));
+        }
+      }
+    }
+
+    if (l.isEmpty()) {
+      l.add(new AnalyzedToken(word, null, null));
+    }
+    return l;
+  }
+
 }
@@ -57,8 +57,9 @@ public class ChineseWordTokenizer implements Tokenizer {
     }
   }
 
+  // synchronized, as the segmenter is not known to be thread-safe:
   @Override
-  public List<String> tokenize(String text) {
+  public synchronized List<String> tokenize(String text) {
     init();
     String result;
     try {
@@ -356,8 +356,11 @@ public class Main extends WeakBase implements XJobExecutor,
   private void initLanguageTool() {
     try {
       prepareConfig(docLanguage);
-      langTool = new MultiThreadedJLanguageTool(docLanguage,
+      final MultiThreadedJLanguageTool multiThreadedTool = new MultiThreadedJLanguageTool(docLanguage,
           config.getMotherTongue());
+      // paragraphs are checked one by one, so don't create new threads for each check:
+      multiThreadedTool.setForkJoinPool(MultiThreadedJLanguageTool.getSharedForkJoinPool());
+      langTool = multiThreadedTool;
       langTool.activateDefaultPatternRules();
       langTool.activateDefaultFalseFriendRules();
       for (Rule rule : langTool.getAllActiveRules()) {
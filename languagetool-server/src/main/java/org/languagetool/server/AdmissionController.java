@@ -0,0 +1,404 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.Language;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Decides which requests may run a check and which have to wait, so that the server
+ * doesn't get slower and slower under load. At most {@code maxRunningChecks} checks run at
+ * the same time, at most {@code maxRunningChecksPerLanguage} of them for the same language.
+ * Other requests wait in a queue of limited size. The queue is not first come, first served:
+ * the cost of a check is estimated from the text length and the time earlier checks of the
+ * same language took, and requests are ordered by the time their check would be done if it
+ * started right away. So short texts (typically typed by users who wait for the result) get
+ * ahead of long texts, but a long text doesn't wait forever. Requests are rejected with a
+ * {@link ServerBusyException} if the queue is full or if they would probably have to wait longer
+ * than {@code maxWaitMillis}.
+ *
+ * <p>Languages can be grouped into {@link LanguagePool}s that have threads reserved for them:
+ * checks of other languages only get these threads while the pool doesn't use them, so a flood
+ * of slow checks for one language cannot starve the others. A pool may borrow threads that are
+ * idle beyond its reserved ones, up to its {@code maxThreads}. Borrowed threads are not taken
+ * away from a running check, but when a check is done, waiting requests of pools that are below
+ * their reserved threads get the thread first. Each language not in a pool is a pool of its own with
+ * {@code maxRunningChecksPerLanguage} threads, which it cannot exceed.</p>
+ *
+ * <p>Call {@link #acquire(Language, int)} before the check and {@link #release(Ticket)} when
+ * it is done. This class is thread-safe.</p>
+ * @since 2.7
+ */
+class AdmissionController {
+
+  // costs estimated before we've seen a check of the language:
+  private static final double DEFAULT_MILLIS_PER_CHAR = 0.05;
+  // the part of a check's time that doesn't depend on the text length:
+  private static final long BASE_COST_MILLIS = 5;
+  // weight of the latest check when updating the cost per character:
+  private static final double COST_ADAPTION_RATE = 0.2;
+  // for shorter texts, the time doesn't tell much about the cost per character:
+  private static final int MIN_TEXT_LENGTH_FOR_ADAPTION = 100;
+
+  private final int maxRunningChecks;
+  private final int maxRunningChecksPerLanguage;
+  private final int maxQueueSize;
+  private final long maxWaitMillis;
+
+  private final TreeSet<Ticket> queue = new TreeSet<>();
+  private final Set<Ticket> running = new HashSet<>();
+  private final Map<String, PoolState> configuredPools = new LinkedHashMap<>();
+  private final Map<String, PoolState> languagePools = new TreeMap<>();
+  private final Map<String, Double> millisPerChar = new HashMap<>();
+
+  private long ticketCount;
+  private long rejectedCount;
+
+  /**
+   * @param maxRunningChecks maximum number of checks running at the same time
+   * @param maxRunningChecksPerLanguage maximum number of checks for the same language running
+   *                                    at the same time, {@code -1} for no limit besides {@code maxRunningChecks}
+   * @param maxQueueSize maximum number of requests waiting to be checked
+   * @param maxWaitMillis maximum time a request waits to be checked, {@code -1} for no limit
+   */
+  AdmissionController(int maxRunningChecks, int maxRunningChecksPerLanguage, int maxQueueSize, long maxWaitMillis) {
+    this(maxRunningChecks, maxRunningChecksPerLanguage, maxQueueSize, maxWaitMillis, Collections.<LanguagePool>emptyList());
+  }
+
+  /**
+   * @param pools groups of languages with reserved threads - their threads together must not exceed {@code maxRunningChecks}
+   * @see #AdmissionController(int, int, int, long)
+   */
+  AdmissionController(int maxRunningChecks, int maxRunningChecksPerLanguage, int maxQueueSize, long maxWaitMillis, List<LanguagePool> pools) {
+    if (maxRunningChecks < 1) {
+      throw new IllegalArgumentException("maxRunningChecks must be > 0: " + maxRunningChecks);
+    }
+    if (maxRunningChecksPerLanguage < 1 && maxRunningChecksPerLanguage != -1) {
+      throw new IllegalArgumentException("maxRunningChecksPerLanguage must be > 0 or -1: " + maxRunningChecksPerLanguage);
+    }
+    if (maxQueueSize < 0) {
+      throw new IllegalArgumentException("maxQueueSize must be >= 0: " + maxQueueSize);
+    }
+    this.maxRunningChecks = maxRunningChecks;
+    this.maxRunningChecksPerLanguage = maxRunningChecksPerLanguage < 0 ? maxRunningChecks : maxRunningChecksPerLanguage;
+    this.maxQueueSize = maxQueueSize;
+    this.maxWaitMillis = maxWaitMillis;
+    int reservedThreads = 0;
+    for (LanguagePool pool : pools) {
+      if (configuredPools.put(pool.getName(), new PoolState(pool.getName(), pool.getLanguageCodes(), pool.getThreads(),
+              Math.min(pool.getMaxThreads(), maxRunningChecks), pool.getMaxQueueSize())) != null) {
+        throw new IllegalArgumentException("Duplicate pool name: " + pool.getName());
+      }
+      reservedThreads += pool.getThreads();
+    }
+    if (reservedThreads > maxRunningChecks) {
+      throw new IllegalArgumentException("The pools reserve " + reservedThreads + " threads, but only " + maxRunningChecks + " checks may run at the same time");
+    }
+  }
+
+  /**
+   * Wait until the check of a text may run.
+   * @return a ticket that needs to be given to {@link #release(Ticket)} when the check is done
+   * @throws ServerBusyException if the request has been rejected because the server is too busy
+   */
+  synchronized Ticket acquire(Language language, int textLength) throws ServerBusyException, InterruptedException {
+    final long now = System.currentTimeMillis();
+    final String languageCode = language.getShortNameWithCountryAndVariant();
+    final long costMillis = getEstimatedCostMillis(languageCode, textLength);
+    final PoolState pool = getPool(language);
+    final Ticket ticket = new Ticket(languageCode, pool, textLength, costMillis, now + costMillis, ticketCount++);
+    queue.add(ticket);
+    pool.waiting++;
+    startChecks();
+    if (ticket.startTime != 0) {
+      return ticket;
+    }
+    final long waitMillis = getEstimatedWaitMillis(ticket);
+    if (queue.size() > maxQueueSize) {
+      throw reject(ticket, "too many requests waiting to be checked", waitMillis);
+    }
+    if (pool.waiting > pool.maxQueueSize) {
+      throw reject(ticket, "too many requests of pool '" + pool.name + "' waiting to be checked", waitMillis);
+    }
+    if (maxWaitMillis >= 0 && waitMillis > maxWaitMillis) {
+      throw reject(ticket, "the check would probably need to wait about " + waitMillis + "ms", waitMillis);
+    }
+    final long deadline = maxWaitMillis >= 0 ? now + maxWaitMillis : Long.MAX_VALUE;
+    try {
+      while (ticket.startTime == 0) {
+        final long remainingMillis = deadline - System.currentTimeMillis();
+        if (remainingMillis <= 0) {
+          throw reject(ticket, "the check has waited longer than " + maxWaitMillis + "ms", getEstimatedWaitMillis(ticket));
+        }
+        wait(remainingMillis);
+      }
+    } catch (InterruptedException e) {
+      if (ticket.startTime != 0) {
+        release(ticket);
+      } else {
+        removeFromQueue(ticket);
+      }
+      throw e;
+    }
+    return ticket;
+  }
+
+  /**
+   * Call this when the check is done, so the next request can be checked.
+   */
+  synchronized void release(Ticket ticket) {
+    if (!running.remove(ticket)) {
+      return;
+    }
+    ticket.pool.running--;
+    final long elapsedMillis = System.currentTimeMillis() - ticket.startTime;
+    if (ticket.textLength >= MIN_TEXT_LENGTH_FOR_ADAPTION) {
+      final double observedMillisPerChar = Math.max(0, elapsedMillis - BASE_COST_MILLIS) / (double) ticket.textLength;
+      final Double oldMillisPerChar = millisPerChar.get(ticket.language);
+      millisPerChar.put(ticket.language, oldMillisPerChar == null ? observedMillisPerChar
+              : (1 - COST_ADAPTION_RATE) * oldMillisPerChar + COST_ADAPTION_RATE * observedMillisPerChar);
+    }
+    startChecks();
+  }
+
+  /**
+   * Number of requests waiting for their check to start.
+   */
+  synchronized int getQueueSize() {
+    return queue.size();
+  }
+
+  /**
+   * Number of checks running now.
+   */
+  synchronized int getRunningCount() {
+    return running.size();
+  }
+
+  /**
+   * Number of requests that have been rejected since the server was started.
+   */
+  synchronized long getRejectedCount() {
+    return rejectedCount;
+  }
+
+  /**
+   * The state of the configured pools, followed by the pools of the other languages that have been checked.
+   */
+  synchronized List<PoolStatistics> getPoolStatistics() {
+    final List<PoolStatistics> result = new ArrayList<>();
+    for (PoolState pool : configuredPools.values()) {
+      result.add(new PoolStatistics(pool));
+    }
+    for (PoolState pool : languagePools.values()) {
+      result.add(new PoolStatistics(pool));
+    }
+    return result;
+  }
+
+  /**
+   * The estimated time in milliseconds it takes to check a text of the given language and length.
+   */
+  synchronized long getEstimatedCostMillis(Language language, int textLength) {
+    return getEstimatedCostMillis(language.getShortNameWithCountryAndVariant(), textLength);
+  }
+
+  private long getEstimatedCostMillis(String languageCode, int textLength) {
+    final Double rate = millisPerChar.get(languageCode);
+    return BASE_COST_MILLIS + Math.round(textLength * (rate != null ? rate : DEFAULT_MILLIS_PER_CHAR));
+  }
+
+  private void startChecks() {
+    // first the requests of pools that don't use all their reserved threads, then those of pools
+    // that may borrow idle threads:
+    final boolean started = startChecks(false) | startChecks(true);
+    if (started) {
+      notifyAll();
+    }
+  }
+
+  private boolean startChecks(boolean borrow) {
+    boolean started = false;
+    final Iterator<Ticket> iterator = queue.iterator();
+    while (running.size() < maxRunningChecks && iterator.hasNext()) {
+      final Ticket ticket = iterator.next();
+      final PoolState pool = ticket.pool;
+      if (pool.running < (borrow ? pool.maxThreads : pool.threads) && (borrow || running.size() < maxRunningChecks - getReservedIdleThreads(pool))) {
+        iterator.remove();
+        pool.waiting--;
+        pool.running++;
+        running.add(ticket);
+        ticket.startTime = System.currentTimeMillis();
+        started = true;
+      }
+    }
+    return started;
+  }
+
+  // the threads reserved by the configured pools other than the given one that are not used now:
+  private int getReservedIdleThreads(PoolState exceptPool) {
+    int idleThreads = 0;
+    for (PoolState pool : configuredPools.values()) {
+      if (pool != exceptPool) {
+        idleThreads += Math.max(0, pool.threads - pool.running);
+      }
+    }
+    return idleThreads;
+  }
+
+  private PoolState getPool(Language language) {
+    final String languageCode = language.getShortNameWithCountryAndVariant();
+    for (PoolState pool : configuredPools.values()) {
+      if (pool.languageCodes.contains(languageCode)) {
+        return pool;
+      }
+    }
+    for (PoolState pool : configuredPools.values()) {
+      if (pool.languageCodes.contains(language.getShortName())) {
+        return pool;
+      }
+    }
+    PoolState pool = languagePools.get(languageCode);
+    if (pool == null) {
+      pool = new PoolState(languageCode, Collections.singleton(languageCode), maxRunningChecksPerLanguage, maxRunningChecksPerLanguage, maxQueueSize);
+      languagePools.put(languageCode, pool);
+    }
+    return pool;
+  }
+
+  private void removeFromQueue(Ticket ticket) {
+    if (queue.remove(ticket)) {
+      ticket.pool.waiting--;
+    }
+  }
+
+  // the time until the running checks and the waiting checks that are ahead are done, spread over all threads:
+  private long getEstimatedWaitMillis(Ticket ticket) {
+    final long now = System.currentTimeMillis();
+    long totalMillis = 0;
+    for (Ticket runningTicket : running) {
+      totalMillis += Math.max(0, runningTicket.costMillis - (now - runningTicket.startTime));
+    }
+    for (Ticket waitingTicket : queue.headSet(ticket)) {
+      totalMillis += waitingTicket.costMillis;
+    }
+    return totalMillis / maxRunningChecks;
+  }
+
+  private ServerBusyException reject(Ticket ticket, String reason, long waitMillis) {
+    removeFromQueue(ticket);
+    ticket.pool.rejected++;
+    rejectedCount++;
+    final long retryAfterSeconds = Math.max(1, (waitMillis + 999) / 1000);
+    return new ServerBusyException("Server is busy, please try again in " + retryAfterSeconds + " seconds (" + reason
+            + ", queue size: " + queue.size() + ", running checks: " + running.size() + ")", retryAfterSeconds);
+  }
+
+  /**
+   * The permission to run a check, see {@link #acquire(Language, int)}.
+   */
+  static class Ticket implements Comparable<Ticket> {
+
+    private final String language;
+    private final PoolState pool;
+    private final int textLength;
+    private final long costMillis;
+    private final long priority;  // lower values are checked first
+    private final long sequence;
+
+    private long startTime;  // 0 while waiting
+
+    private Ticket(String language, PoolState pool, int textLength, long costMillis, long priority, long sequence) {
+      this.language = language;
+      this.pool = pool;
+      this.textLength = textLength;
+      this.costMillis = costMillis;
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(Ticket other) {
+      if (priority != other.priority) {
+        return priority < other.priority ? -1 : 1;
+      }
+      return sequence < other.sequence ? -1 : sequence == other.sequence ? 0 : 1;
+    }
+  }
+
+  /**
+   * A snapshot of the state of a pool, see {@link #getPoolStatistics()}.
+   */
+  static class PoolStatistics {
+
+    final String name;
+    final int threads;
+    final int running;
+    final int waiting;
+    final long rejected;
+
+    private PoolStatistics(PoolState pool) {
+      this.name = pool.name;
+      this.threads = pool.threads;
+      this.running = pool.running;
+      this.waiting = pool.waiting;
+      this.rejected = pool.rejected;
+    }
+
+    /**
+     * Number of running checks that use threads not reserved for this pool.
+     */
+    int getBorrowed() {
+      return Math.max(0, running - threads);
+    }
+  }
+
+  private static class PoolState {
+
+    private final String name;
+    private final Set<String> languageCodes;
+    private final int threads;
+    private final int maxThreads;
+    private final int maxQueueSize;
+
+    private int running;
+    private int waiting;
+    private long rejected;
+
+    private PoolState(String name, Set<String> languageCodes, int threads, int maxThreads, int maxQueueSize) {
+      this.name = name;
+      this.languageCodes = languageCodes;
+      this.threads = threads;
+      this.maxThreads = maxThreads;
+      this.maxQueueSize = maxQueueSize;
+    }
+  }
+
+}
@@ -20,6 +20,8 @@ package org.languagetool.server;
 
 import org.languagetool.rules.RuleMatch;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 import static org.languagetool.tools.StringTools.escapeXML;
@@ -41,6 +43,20 @@ public class AtDXmlSerializer {
     return sb.toString();
   }
 
+  /**
+   * Write the XML for the given matches match by match, so the complete XML doesn't need to be kept in memory.
+   */
+  public void ruleMatchesToXml(List<RuleMatch> matches, String text, Writer writer) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    writer.write("<results>\n");
+    for (RuleMatch match : matches) {
+      sb.setLength(0);
+      addRuleMatch(sb, match, text);
+      writer.append(sb);
+    }
+    writer.write("</results>\n");
+  }
+
   private void addRuleMatch(StringBuilder sb, RuleMatch match, String text) {
     String errorText = text.substring(match.getFromPos(), match.getToPos());
     if (errorText.contains("(") || errorText.contains(")")) {
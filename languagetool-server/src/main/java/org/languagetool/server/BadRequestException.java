@@ -0,0 +1,50 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import java.net.HttpURLConnection;
+
+/**
+ * Thrown when a request cannot be processed because it is invalid, e.g. malformed JSON,
+ * or too large. The client gets the message with a 4xx status code.
+ * @since 2.7
+ */
+class BadRequestException extends IllegalArgumentException {
+
+  private static final long serialVersionUID = -2049635474302613513L;
+
+  private final int statusCode;
+
+  BadRequestException(String message) {
+    this(message, HttpURLConnection.HTTP_BAD_REQUEST);
+  }
+
+  BadRequestException(String message, int statusCode) {
+    super(message);
+    this.statusCode = statusCode;
+  }
+
+  /**
+   * The HTTP status code for the response, e.g. 400 (Bad Request).
+   */
+  int getStatusCode() {
+    return statusCode;
+  }
+
+}
@@ -69,11 +69,19 @@ public class HTTPSServer extends Server {
       final HttpsConfigurator configurator = getConfigurator(sslContext);
       ((HttpsServer)server).setHttpsConfigurator(configurator);
       final RequestLimiter limiter = getRequestLimiterOrNull(config);
-      final LinkedBlockingQueue<Runnable> workQueue = new LinkedBlockingQueue<>();
+      final LinkedBlockingQueue<Runnable> workQueue = getWorkQueue(config);
       httpHandler = new LanguageToolHttpHandler(config.isVerbose(), allowedIps, runInternally, limiter, workQueue);
       httpHandler.setMaxTextLength(config.getMaxTextLength());
+      httpHandler.setMaxBatchDocuments(config.getMaxBatchDocuments());
+      httpHandler.setMaxBatchLength(config.getMaxBatchLength());
       httpHandler.setAllowOriginUrl(config.getAllowOriginUrl());
       httpHandler.setMaxCheckTimeMillis(config.getMaxCheckTimeMillis());
+      setUpInstancePool(config);
+      setUpWarmUp(config);
+      setUpSentenceMatchCache(config);
+      setUpParagraphMatchCache(config);
+      setUpCheckMetrics(config);
+      setUpAdmissionControl(config);
       if (config.getMode() == HTTPServerConfig.Mode.AfterTheDeadline) {
         httpHandler.setAfterTheDeadlineMode(config.getAfterTheDeadlineLanguage());
       }
@@ -93,9 +101,10 @@ public class HTTPSServer extends Server {
 
   private RequestLimiter getRequestLimiterOrNull(HTTPSServerConfig config) {
     final int requestLimit = config.getRequestLimit();
+    final int requestLimitInChars = config.getRequestLimitInChars();
     final int requestLimitPeriodInSeconds = config.getRequestLimitPeriodInSeconds();
     if (requestLimit > 0 || requestLimitPeriodInSeconds > 0) {
-      return new RequestLimiter(requestLimit, requestLimitPeriodInSeconds);
+      return new RequestLimiter(requestLimit, requestLimitInChars, requestLimitPeriodInSeconds);
     }
     return null;
   }
@@ -146,10 +155,28 @@ public class HTTPSServer extends Server {
       System.out.println("                 'mode' - 'LanguageTool' or 'AfterTheDeadline' for emulation of After the Deadline output (optional, experimental)");
       System.out.println("                 'afterTheDeadlineLanguage' - language code like 'en' or 'en-GB' (required if mode is 'AfterTheDeadline')");
       System.out.println("                 'maxTextLength' - maximum text length, longer texts will cause an error (optional)");
+      System.out.println("                 'maxBatchDocuments' - maximum number of documents in a /batch request (optional, default: 100)");
+      System.out.println("                 'maxBatchLength' - maximum length in characters of a /batch request (optional, default: 1000000)");
       System.out.println("                 'maxCheckTimeMillis' - maximum time in milliseconds allowed per check (optional)");
       System.out.println("                 'maxCheckThreads' - maximum number of threads working in parallel (optional)");
+      System.out.println("                 'maxCheckThreadsPerLanguage' - maximum number of threads working on the same language in parallel (optional)");
+      System.out.println("                 'maxQueueSize' - maximum number of requests waiting to be checked, more requests get rejected (optional)");
+      System.out.println("                 'maxWaitMillis' - maximum time in milliseconds a request waits for its check, requests that would probably wait longer get rejected (optional, default: 10000)");
+      System.out.println("                 'pool.NAME.languages' - comma-separated language codes of a pool with its own share of the check threads (optional)");
+      System.out.println("                 'pool.NAME.threads' - number of check threads reserved for the pool NAME (optional, default: 1)");
+      System.out.println("                 'pool.NAME.maxThreads' - maximum number of checks of the pool NAME, using idle threads of other pools (optional, default: maxCheckThreads)");
+      System.out.println("                 'pool.NAME.maxQueueSize' - maximum number of requests of the pool NAME waiting to be checked (optional, default: maxQueueSize)");
+      System.out.println("                 'instancePoolSize' - maximum number of unused LanguageTool instances kept per language and rule configuration, 0 to disable (optional)");
+      System.out.println("                 'instancePoolMaxIdleSeconds' - time after which unused LanguageTool instances get removed (optional)");
+      System.out.println("                 'warmUp' - comma-separated language codes that are warmed up at startup, /healthz/ready reports when that's done (optional)");
+      System.out.println("                 'warmUpMaxSeconds' - maximum time in seconds to check sample texts per language during the warm-up (optional, default: 60)");
+      System.out.println("                 'sentenceCacheSize' - maximum total length in characters of the sentences whose check results are cached, 0 to disable (optional)");
+      System.out.println("                 'paragraphCacheSize' - maximum total length in characters of the paragraphs whose check results are kept for /paragraphs requests, 0 to disable (optional, default: 5000000)");
+      System.out.println("                 'checkMetrics' - 'true' or 'false', whether to record the time used by each phase for /metrics (optional, default: true)");
+      System.out.println("                 'ruleMetrics' - 'true' or 'false', whether to also record the time used by each rule for /metrics (optional, default: false)");
       System.out.println("                 'requestLimit' - maximum number of requests (optional)");
-      System.out.println("                 'requestLimitPeriodInSeconds' - time period to which requestLimit applies (optional)");
+      System.out.println("                 'requestLimitInChars' - maximum total text length in characters (optional)");
+      System.out.println("                 'requestLimitPeriodInSeconds' - time period to which requestLimit and requestLimitInChars apply (optional)");
       printCommonOptions();
       System.exit(1);
     }
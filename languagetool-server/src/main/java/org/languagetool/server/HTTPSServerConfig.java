@@ -32,6 +32,7 @@ public class HTTPSServerConfig extends HTTPServerConfig {
   private final String keyStorePassword;
   
   private int requestLimit;
+  private int requestLimitInChars;
   private int requestLimitPeriodInSeconds;
 
   /**
@@ -92,6 +93,7 @@ public class HTTPSServerConfig extends HTTPServerConfig {
         keystore = new File(getProperty(props, "keystore", config));
         keyStorePassword = getProperty(props, "password", config);
         requestLimit = Integer.parseInt(getOptionalProperty(props, "requestLimit", "0"));
+        requestLimitInChars = Integer.parseInt(getOptionalProperty(props, "requestLimitInChars", "0"));
         requestLimitPeriodInSeconds = Integer.parseInt(getOptionalProperty(props, "requestLimitPeriodInSeconds", "0"));
       }
     } catch (IOException e) {
@@ -111,6 +113,11 @@ public class HTTPSServerConfig extends HTTPServerConfig {
     return requestLimit;
   }
 
+  /** @since 2.7 */
+  int getRequestLimitInChars() {
+    return requestLimitInChars;
+  }
+
   int getRequestLimitPeriodInSeconds() {
     return requestLimitPeriodInSeconds;
   }
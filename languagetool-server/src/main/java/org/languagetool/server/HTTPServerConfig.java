@@ -23,7 +23,10 @@ import org.languagetool.Language;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.TreeSet;
 
 /**
  * @since 2.0
@@ -37,15 +40,33 @@ public class HTTPServerConfig {
   /** The default port on which the server is running (8081). */
   public static final int DEFAULT_PORT = 8081;
 
+  static final int DEFAULT_MAX_BATCH_DOCUMENTS = 100;
+  static final int DEFAULT_MAX_BATCH_LENGTH = 1000000;
+  static final long DEFAULT_PARAGRAPH_CACHE_SIZE = 5000000;
+
   protected boolean verbose = false;
   protected boolean publicAccess = false;
   protected int port = DEFAULT_PORT;
   protected String allowOriginUrl = null;
   protected int maxTextLength = Integer.MAX_VALUE;
+  protected int maxBatchDocuments = DEFAULT_MAX_BATCH_DOCUMENTS;
+  protected int maxBatchLength = DEFAULT_MAX_BATCH_LENGTH;
   protected long maxCheckTimeMillis = -1;
+  protected long maxWaitMillis = 10000;
   protected int maxCheckThreads = 10;
+  protected int maxCheckThreadsPerLanguage = -1;
+  protected int maxQueueSize = 100;
+  protected List<LanguagePool> languagePools = new ArrayList<>();
   protected Mode mode;
   protected Language atdLanguage;
+  protected int instancePoolSize = 10;
+  protected int instancePoolMaxIdleSeconds = 300;
+  protected List<Language> warmUpLanguages = new ArrayList<>();
+  protected int warmUpMaxSeconds = 60;
+  protected long sentenceCacheSize = 0;
+  protected long paragraphCacheSize = DEFAULT_PARAGRAPH_CACHE_SIZE;
+  protected boolean checkMetrics = true;
+  protected boolean ruleMetrics = false;
 
   public HTTPServerConfig() {
     this.port = DEFAULT_PORT;
@@ -97,10 +118,51 @@ public class HTTPServerConfig {
         props.load(fis);
         maxTextLength = Integer.parseInt(getOptionalProperty(props, "maxTextLength", Integer.toString(Integer.MAX_VALUE)));
         maxCheckTimeMillis = Long.parseLong(getOptionalProperty(props, "maxCheckTimeMillis", "-1"));
+        maxBatchDocuments = Integer.parseInt(getOptionalProperty(props, "maxBatchDocuments", Integer.toString(DEFAULT_MAX_BATCH_DOCUMENTS)));
+        if (maxBatchDocuments < 1) {
+          throw new IllegalArgumentException("Invalid value for maxBatchDocuments: " + maxBatchDocuments);
+        }
+        maxBatchLength = Integer.parseInt(getOptionalProperty(props, "maxBatchLength", Integer.toString(DEFAULT_MAX_BATCH_LENGTH)));
+        if (maxBatchLength < 1) {
+          throw new IllegalArgumentException("Invalid value for maxBatchLength: " + maxBatchLength);
+        }
         maxCheckThreads = Integer.parseInt(getOptionalProperty(props, "maxCheckThreads", "10"));
         if (maxCheckThreads < 1) {
           throw new IllegalArgumentException("Invalid value for maxCheckThreads: " + maxCheckThreads);
         }
+        maxCheckThreadsPerLanguage = Integer.parseInt(getOptionalProperty(props, "maxCheckThreadsPerLanguage", "-1"));
+        if (maxCheckThreadsPerLanguage < 1 && maxCheckThreadsPerLanguage != -1) {
+          throw new IllegalArgumentException("Invalid value for maxCheckThreadsPerLanguage: " + maxCheckThreadsPerLanguage);
+        }
+        maxQueueSize = Integer.parseInt(getOptionalProperty(props, "maxQueueSize", "100"));
+        if (maxQueueSize < 0) {
+          throw new IllegalArgumentException("Invalid value for maxQueueSize: " + maxQueueSize);
+        }
+        maxWaitMillis = Long.parseLong(getOptionalProperty(props, "maxWaitMillis", "10000"));
+        if (maxWaitMillis < 0 && maxWaitMillis != -1) {
+          throw new IllegalArgumentException("Invalid value for maxWaitMillis: " + maxWaitMillis);
+        }
+        languagePools = parseLanguagePools(props);
+        instancePoolSize = Integer.parseInt(getOptionalProperty(props, "instancePoolSize", "10"));
+        if (instancePoolSize < 0) {
+          throw new IllegalArgumentException("Invalid value for instancePoolSize: " + instancePoolSize);
+        }
+        instancePoolMaxIdleSeconds = Integer.parseInt(getOptionalProperty(props, "instancePoolMaxIdleSeconds", "300"));
+        warmUpLanguages = parseLanguageList(getOptionalProperty(props, "warmUp", ""));
+        warmUpMaxSeconds = Integer.parseInt(getOptionalProperty(props, "warmUpMaxSeconds", "60"));
+        if (warmUpMaxSeconds < 0) {
+          throw new IllegalArgumentException("Invalid value for warmUpMaxSeconds: " + warmUpMaxSeconds);
+        }
+        sentenceCacheSize = Long.parseLong(getOptionalProperty(props, "sentenceCacheSize", "0"));
+        if (sentenceCacheSize < 0) {
+          throw new IllegalArgumentException("Invalid value for sentenceCacheSize: " + sentenceCacheSize);
+        }
+        paragraphCacheSize = Long.parseLong(getOptionalProperty(props, "paragraphCacheSize", Long.toString(DEFAULT_PARAGRAPH_CACHE_SIZE)));
+        if (paragraphCacheSize < 0) {
+          throw new IllegalArgumentException("Invalid value for paragraphCacheSize: " + paragraphCacheSize);
+        }
+        checkMetrics = Boolean.parseBoolean(getOptionalProperty(props, "checkMetrics", "true"));
+        ruleMetrics = Boolean.parseBoolean(getOptionalProperty(props, "ruleMetrics", "false"));
         mode = getOptionalProperty(props, "mode", "LanguageTool").equalsIgnoreCase("AfterTheDeadline") ? Mode.AfterTheDeadline : Mode.LanguageTool;
         if (mode == Mode.AfterTheDeadline) {
           atdLanguage = Language.getLanguageForShortName(getProperty(props, "afterTheDeadlineLanguage", file));
@@ -111,6 +173,41 @@ public class HTTPServerConfig {
     }
   }
 
+  // pools are configured like 'pool.german.languages=de', 'pool.german.threads=4':
+  private List<LanguagePool> parseLanguagePools(Properties props) {
+    final TreeSet<String> poolNames = new TreeSet<>();
+    for (String propertyName : props.stringPropertyNames()) {
+      if (propertyName.startsWith("pool.") && propertyName.lastIndexOf('.') > "pool.".length()) {
+        poolNames.add(propertyName.substring("pool.".length(), propertyName.lastIndexOf('.')));
+      }
+    }
+    final List<LanguagePool> pools = new ArrayList<>();
+    for (String name : poolNames) {
+      final String prefix = "pool." + name + ".";
+      final List<String> languageCodes = new ArrayList<>();
+      for (String code : getOptionalProperty(props, prefix + "languages", "").split(",")) {
+        if (!code.trim().isEmpty()) {
+          languageCodes.add(code.trim());
+        }
+      }
+      final int threads = Integer.parseInt(getOptionalProperty(props, prefix + "threads", "1"));
+      final int maxThreads = Integer.parseInt(getOptionalProperty(props, prefix + "maxThreads", Integer.toString(Math.max(threads, maxCheckThreads))));
+      final int poolQueueSize = Integer.parseInt(getOptionalProperty(props, prefix + "maxQueueSize", Integer.toString(maxQueueSize)));
+      pools.add(new LanguagePool(name, languageCodes, threads, maxThreads, poolQueueSize));
+    }
+    return pools;
+  }
+
+  private List<Language> parseLanguageList(String languageCodes) {
+    final List<Language> languages = new ArrayList<>();
+    for (String code : languageCodes.split(",")) {
+      if (!code.trim().isEmpty()) {
+        languages.add(Language.getLanguageForShortName(code.trim()));
+      }
+    }
+    return languages;
+  }
+
   /*
    * @param verbose if true, the text to be checked will be displayed in case of exceptions
    */
@@ -145,6 +242,33 @@ public class HTTPServerConfig {
     return maxTextLength;
   }
 
+  /**
+   * @param maxBatchDocuments the maximum number of documents in a request to {@code /batch}
+   * @since 2.7
+   */
+  void setMaxBatchDocuments(int maxBatchDocuments) {
+    this.maxBatchDocuments = maxBatchDocuments;
+  }
+
+  /** @since 2.7 */
+  int getMaxBatchDocuments() {
+    return maxBatchDocuments;
+  }
+
+  /**
+   * @param maxBatchLength the maximum length in characters of a request to {@code /batch}, including
+   *                       the JSON syntax - longer requests are rejected without reading them completely
+   * @since 2.7
+   */
+  void setMaxBatchLength(int maxBatchLength) {
+    this.maxBatchLength = maxBatchLength;
+  }
+
+  /** @since 2.7 */
+  int getMaxBatchLength() {
+    return maxBatchLength;
+  }
+
   /**
    * @param maxCheckTimeMillis The maximum duration allowed for a single check in milliseconds, checks that take longer
    *                      will stop with an exception. Use {@code -1} for no limit.
@@ -183,6 +307,180 @@ public class HTTPServerConfig {
     return maxCheckThreads;
   }
 
+  /**
+   * @param maxCheckThreadsPerLanguage The maximum number of checks of the same language running at the same
+   * time, so that a burst of requests for one language cannot block all others. Use {@code -1} for no
+   * limit besides {@link #setMaxCheckThreads(int)}.
+   * @since 2.7
+   */
+  void setMaxCheckThreadsPerLanguage(int maxCheckThreadsPerLanguage) {
+    this.maxCheckThreadsPerLanguage = maxCheckThreadsPerLanguage;
+  }
+
+  /** @since 2.7 */
+  int getMaxCheckThreadsPerLanguage() {
+    return maxCheckThreadsPerLanguage;
+  }
+
+  /**
+   * @param maxQueueSize The maximum number of requests waiting for their check to start. If there are
+   * more requests, they are rejected with HTTP status 503 (Service Unavailable).
+   * @since 2.7
+   */
+  void setMaxQueueSize(int maxQueueSize) {
+    this.maxQueueSize = maxQueueSize;
+  }
+
+  /** @since 2.7 */
+  int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * @param maxWaitMillis The maximum time in milliseconds a request waits for its check to start. Requests that
+   * would probably wait longer are rejected right away with HTTP status 503 (Service Unavailable).
+   * Use {@code -1} for no limit.
+   * @since 2.7
+   */
+  void setMaxWaitMillis(long maxWaitMillis) {
+    this.maxWaitMillis = maxWaitMillis;
+  }
+
+  /** @since 2.7 */
+  long getMaxWaitMillis() {
+    return maxWaitMillis;
+  }
+
+  /**
+   * @param languagePools Groups of languages that get their own share of the {@link #setMaxCheckThreads(int) check
+   * threads} and their own queue limit, so that many slow checks of one language cannot starve the others.
+   * @since 2.7
+   */
+  void setLanguagePools(List<LanguagePool> languagePools) {
+    this.languagePools = languagePools;
+  }
+
+  /** @since 2.7 */
+  List<LanguagePool> getLanguagePools() {
+    return languagePools;
+  }
+
+  /**
+   * @param instancePoolSize The maximum number of unused LanguageTool instances kept per language
+   * and rule configuration, so that requests don't need to load the rules again. Use {@code 0}
+   * to create a new instance for every request.
+   * @since 2.7
+   */
+  void setInstancePoolSize(int instancePoolSize) {
+    this.instancePoolSize = instancePoolSize;
+  }
+
+  /** @since 2.7 */
+  int getInstancePoolSize() {
+    return instancePoolSize;
+  }
+
+  /**
+   * @param instancePoolMaxIdleSeconds unused LanguageTool instances are removed from the pool after this time
+   * @since 2.7
+   */
+  void setInstancePoolMaxIdleSeconds(int instancePoolMaxIdleSeconds) {
+    this.instancePoolMaxIdleSeconds = instancePoolMaxIdleSeconds;
+  }
+
+  /** @since 2.7 */
+  int getInstancePoolMaxIdleSeconds() {
+    return instancePoolMaxIdleSeconds;
+  }
+
+  /**
+   * @param languages languages that are warmed up when the server starts: their rules are loaded
+   *                  and sample texts are checked until the time per check has become stable.
+   *                  The server only reports to be ready on {@code /healthz/ready} after that.
+   * @since 2.7
+   */
+  void setWarmUpLanguages(List<Language> languages) {
+    this.warmUpLanguages = languages;
+  }
+
+  /** @since 2.7 */
+  List<Language> getWarmUpLanguages() {
+    return warmUpLanguages;
+  }
+
+  /**
+   * @param warmUpMaxSeconds maximum time to check sample texts per language during the warm-up,
+   *                         even if the time per check hasn't become stable yet
+   * @since 2.7
+   */
+  void setWarmUpMaxSeconds(int warmUpMaxSeconds) {
+    this.warmUpMaxSeconds = warmUpMaxSeconds;
+  }
+
+  /** @since 2.7 */
+  int getWarmUpMaxSeconds() {
+    return warmUpMaxSeconds;
+  }
+
+  /**
+   * @param sentenceCacheSize The maximum total length in characters of the sentences whose analysis and
+   * matches are kept, so that sentences which occur again in later requests don't need to be checked
+   * again. Use {@code 0} to not cache sentences.
+   * @since 2.7
+   */
+  void setSentenceCacheSize(long sentenceCacheSize) {
+    this.sentenceCacheSize = sentenceCacheSize;
+  }
+
+  /** @since 2.7 */
+  long getSentenceCacheSize() {
+    return sentenceCacheSize;
+  }
+
+  /**
+   * @param paragraphCacheSize The maximum total length in characters of the paragraphs whose matches are kept
+   * for requests to {@code /paragraphs}, so that only changed paragraphs need to be checked. Defaults to
+   * 5,000,000 characters, which need about 10 MB plus the memory of the matches. Use {@code 0} to not
+   * cache paragraphs, so clients always need to send the complete document.
+   * @since 2.7
+   */
+  void setParagraphCacheSize(long paragraphCacheSize) {
+    this.paragraphCacheSize = paragraphCacheSize;
+  }
+
+  /** @since 2.7 */
+  long getParagraphCacheSize() {
+    return paragraphCacheSize;
+  }
+
+  /**
+   * @param checkMetrics Whether to record the duration of the phases of each check, as shown by {@code /metrics}.
+   * @since 2.7
+   */
+  void setCheckMetrics(boolean checkMetrics) {
+    this.checkMetrics = checkMetrics;
+  }
+
+  /** @since 2.7 */
+  boolean isCheckMetrics() {
+    return checkMetrics;
+  }
+
+  /**
+   * @param ruleMetrics Whether to also record the time used by each rule and its matches, if
+   * {@link #setCheckMetrics(boolean) checkMetrics} are enabled. This takes a little time for each rule
+   * and sentence and adds several series per rule to {@code /metrics}, so it's meant for finding slow rules.
+   * @since 2.7
+   */
+  void setRuleMetrics(boolean ruleMetrics) {
+    this.ruleMetrics = ruleMetrics;
+  }
+
+  /** @since 2.7 */
+  boolean isRuleMetrics() {
+    return ruleMetrics;
+  }
+
   /**
    * @throws IllegalConfigurationException if property is not set 
    */
@@ -0,0 +1,183 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps idle {@link JLanguageTool} instances so that a request doesn't need to
+ * load all the rules again. Instances are pooled per language, mother tongue and
+ * rule configuration, as these are fixed once an instance has been set up.
+ * An instance is only used by one thread at a time: take it with {@link #borrow(Key)}
+ * and hand it back with {@link #giveBack(Key, JLanguageTool)} when the check is done.
+ * @since 2.7
+ */
+class JLanguageToolPool {
+
+  private final ConcurrentMap<Key, ConcurrentLinkedDeque<IdleInstance>> idleInstances = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Key, AtomicInteger> idleCounts = new ConcurrentHashMap<>();
+  private final int maxIdleInstancesPerKey;
+  private final long maxIdleTimeMillis;
+
+  private volatile long lastEviction = System.currentTimeMillis();
+
+  /**
+   * @param maxIdleInstancesPerKey maximum number of unused instances kept for each combination
+   *                               of language, mother tongue and rule configuration
+   * @param maxIdleTimeMillis instances that have not been used for this time are dropped
+   */
+  JLanguageToolPool(int maxIdleInstancesPerKey, long maxIdleTimeMillis) {
+    if (maxIdleInstancesPerKey < 1) {
+      throw new IllegalArgumentException("maxIdleInstancesPerKey must be > 0: " + maxIdleInstancesPerKey);
+    }
+    this.maxIdleInstancesPerKey = maxIdleInstancesPerKey;
+    this.maxIdleTimeMillis = maxIdleTimeMillis;
+  }
+
+  /**
+   * Get an idle instance for the given configuration.
+   * @return an instance that is not used by any other thread, or {@code null} if there's no idle instance
+   */
+  JLanguageTool borrow(Key key) {
+    evictIfDue();
+    final ConcurrentLinkedDeque<IdleInstance> instances = idleInstances.get(key);
+    if (instances == null) {
+      return null;
+    }
+    // most recently used first, so rarely used instances can expire:
+    final IdleInstance instance = instances.pollFirst();
+    if (instance == null) {
+      return null;
+    }
+    idleCounts.get(key).decrementAndGet();
+    return instance.languageTool;
+  }
+
+  /**
+   * Give back an instance after use. Only give back instances whose check has finished
+   * without an error, the instance is then used for other requests with the same key.
+   */
+  void giveBack(Key key, JLanguageTool languageTool) {
+    ConcurrentLinkedDeque<IdleInstance> instances = idleInstances.get(key);
+    if (instances == null) {
+      idleCounts.putIfAbsent(key, new AtomicInteger());
+      idleInstances.putIfAbsent(key, new ConcurrentLinkedDeque<IdleInstance>());
+      instances = idleInstances.get(key);
+    }
+    final AtomicInteger count = idleCounts.get(key);
+    if (count.incrementAndGet() > maxIdleInstancesPerKey) {
+      count.decrementAndGet();
+      return;  // pool is full, the instance will be garbage collected
+    }
+    instances.addFirst(new IdleInstance(languageTool, System.currentTimeMillis()));
+    evictIfDue();
+  }
+
+  /**
+   * Number of idle instances for the given key.
+   */
+  int getIdleCount(Key key) {
+    final AtomicInteger count = idleCounts.get(key);
+    return count != null ? count.get() : 0;
+  }
+
+  /**
+   * Remove instances that have been idle for longer than the maximum idle time.
+   */
+  void evictIdleInstances() {
+    final long threshold = System.currentTimeMillis() - maxIdleTimeMillis;
+    for (Map.Entry<Key, ConcurrentLinkedDeque<IdleInstance>> entry : idleInstances.entrySet()) {
+      final Iterator<IdleInstance> iterator = entry.getValue().descendingIterator();
+      while (iterator.hasNext()) {
+        final IdleInstance instance = iterator.next();
+        if (instance.idleSince < threshold) {
+          if (entry.getValue().removeLastOccurrence(instance)) {
+            idleCounts.get(entry.getKey()).decrementAndGet();
+          }
+        } else {
+          break;  // newer instances are in front
+        }
+      }
+    }
+    lastEviction = System.currentTimeMillis();
+  }
+
+  private void evictIfDue() {
+    if (System.currentTimeMillis() - lastEviction > maxIdleTimeMillis / 2) {
+      evictIdleInstances();
+    }
+  }
+
+  /**
+   * The configuration of a {@link JLanguageTool} instance that is relevant for re-using it.
+   */
+  static class Key {
+
+    private final String language;
+    private final String motherTongue;
+    private final LanguageToolHttpHandler.QueryParams params;
+
+    Key(Language language, Language motherTongue, LanguageToolHttpHandler.QueryParams params) {
+      this.language = language.getShortNameWithCountryAndVariant();
+      this.motherTongue = motherTongue != null ? motherTongue.getShortNameWithCountryAndVariant() : null;
+      this.params = Objects.requireNonNull(params);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      final Key other = (Key) o;
+      return language.equals(other.language)
+          && Objects.equals(motherTongue, other.motherTongue)
+          && params.equals(other.params);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(language, motherTongue, params);
+    }
+
+    @Override
+    public String toString() {
+      return language + "/" + motherTongue;
+    }
+  }
+
+  private static class IdleInstance {
+
+    private final JLanguageTool languageTool;
+    private final long idleSince;
+
+    IdleInstance(JLanguageTool languageTool, long idleSince) {
+      this.languageTool = languageTool;
+      this.idleSince = idleSince;
+    }
+  }
+
+}
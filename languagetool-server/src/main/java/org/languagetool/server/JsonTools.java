@@ -0,0 +1,230 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.tools.RuleAsJsonSerializer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON support for the requests the server accepts, so we don't need a JSON library.
+ * Objects are parsed to {@link Map}s, arrays to {@link List}s, numbers to {@link Double}s.
+ * @since 2.7
+ */
+final class JsonTools {
+
+  // deeper nesting is not needed by any request, and parsing it would need a deep stack:
+  private static final int MAX_DEPTH = 64;
+
+  private JsonTools() {
+  }
+
+  /**
+   * @throws BadRequestException if {@code json} is not valid JSON or nested too deeply
+   */
+  static Object parse(String json) {
+    final Parser parser = new Parser(json);
+    final Object value = parser.parseValue();
+    parser.skipWhitespace();
+    if (parser.pos < json.length()) {
+      throw parser.error("Unexpected content after JSON value");
+    }
+    return value;
+  }
+
+  /**
+   * Get the string as a JSON string literal, including the quotes.
+   */
+  static String quote(String s) {
+    final StringBuilder sb = new StringBuilder(s.length() + 2);
+    RuleAsJsonSerializer.appendString(sb, s);
+    return sb.toString();
+  }
+
+  private static class Parser {
+
+    private final String json;
+    private int pos;
+    private int depth;
+
+    Parser(String json) {
+      this.json = json;
+    }
+
+    Object parseValue() {
+      skipWhitespace();
+      if (pos >= json.length()) {
+        throw error("Unexpected end of JSON");
+      }
+      final char c = json.charAt(pos);
+      switch (c) {
+        case '{': return parseObject();
+        case '[': return parseArray();
+        case '"': return parseString();
+        case 't': return parseLiteral("true", Boolean.TRUE);
+        case 'f': return parseLiteral("false", Boolean.FALSE);
+        case 'n': return parseLiteral("null", null);
+        default:
+          if (c == '-' || (c >= '0' && c <= '9')) {
+            return parseNumber();
+          }
+          throw error("Unexpected character '" + c + "'");
+      }
+    }
+
+    private Map<String, Object> parseObject() {
+      final Map<String, Object> map = new LinkedHashMap<>();
+      enter();
+      pos++;  // '{'
+      skipWhitespace();
+      if (consume('}')) {
+        depth--;
+        return map;
+      }
+      do {
+        skipWhitespace();
+        if (pos >= json.length() || json.charAt(pos) != '"') {
+          throw error("Expected a string as object key");
+        }
+        final String key = parseString();
+        skipWhitespace();
+        if (!consume(':')) {
+          throw error("Expected ':'");
+        }
+        map.put(key, parseValue());
+        skipWhitespace();
+      } while (consume(','));
+      if (!consume('}')) {
+        throw error("Expected ',' or '}'");
+      }
+      depth--;
+      return map;
+    }
+
+    private List<Object> parseArray() {
+      final List<Object> list = new ArrayList<>();
+      enter();
+      pos++;  // '['
+      skipWhitespace();
+      if (consume(']')) {
+        depth--;
+        return list;
+      }
+      do {
+        list.add(parseValue());
+        skipWhitespace();
+      } while (consume(','));
+      if (!consume(']')) {
+        throw error("Expected ',' or ']'");
+      }
+      depth--;
+      return list;
+    }
+
+    private String parseString() {
+      final StringBuilder sb = new StringBuilder();
+      pos++;  // '"'
+      while (pos < json.length()) {
+        final char c = json.charAt(pos++);
+        if (c == '"') {
+          return sb.toString();
+        } else if (c == '\\') {
+          if (pos >= json.length()) {
+            break;
+          }
+          final char escaped = json.charAt(pos++);
+          switch (escaped) {
+            case '"':  sb.append('"'); break;
+            case '\\': sb.append('\\'); break;
+            case '/':  sb.append('/'); break;
+            case 'b':  sb.append('\b'); break;
+            case 'f':  sb.append('\f'); break;
+            case 'n':  sb.append('\n'); break;
+            case 'r':  sb.append('\r'); break;
+            case 't':  sb.append('\t'); break;
+            case 'u':
+              if (pos + 4 > json.length()) {
+                throw error("Incomplete unicode escape");
+              }
+              try {
+                sb.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+              } catch (NumberFormatException e) {
+                throw error("Invalid unicode escape");
+              }
+              pos += 4;
+              break;
+            default:
+              throw error("Invalid escape character '" + escaped + "'");
+          }
+        } else {
+          sb.append(c);
+        }
+      }
+      throw error("Unterminated string");
+    }
+
+    private Double parseNumber() {
+      final int start = pos;
+      while (pos < json.length() && "+-0123456789.eE".indexOf(json.charAt(pos)) != -1) {
+        pos++;
+      }
+      try {
+        return Double.valueOf(json.substring(start, pos));
+      } catch (NumberFormatException e) {
+        throw error("Invalid number");
+      }
+    }
+
+    private Object parseLiteral(String literal, Object value) {
+      if (!json.startsWith(literal, pos)) {
+        throw error("Unexpected character '" + json.charAt(pos) + "'");
+      }
+      pos += literal.length();
+      return value;
+    }
+
+    private void enter() {
+      if (++depth > MAX_DEPTH) {
+        throw error("Objects and arrays nested deeper than " + MAX_DEPTH + " levels");
+      }
+    }
+
+    private boolean consume(char c) {
+      if (pos < json.length() && json.charAt(pos) == c) {
+        pos++;
+        return true;
+      }
+      return false;
+    }
+
+    void skipWhitespace() {
+      while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+        pos++;
+      }
+    }
+
+    BadRequestException error(String message) {
+      return new BadRequestException("Invalid JSON: " + message + " at position " + pos);
+    }
+  }
+
+}
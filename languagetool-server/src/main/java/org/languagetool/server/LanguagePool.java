@@ -0,0 +1,100 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.Language;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The configuration of a group of languages whose checks get their own share of the
+ * server's check threads and their own queue limit (a "bulkhead"), so that a flood of
+ * slow checks for these languages cannot starve the checks of other languages and
+ * vice versa. See {@link AdmissionController} for how the pools are used.
+ * @since 2.7
+ */
+class LanguagePool {
+
+  private final String name;
+  private final Set<String> languageCodes;
+  private final int threads;
+  private final int maxThreads;
+  private final int maxQueueSize;
+
+  /**
+   * @param name name of the pool, used in logs and metrics
+   * @param languageCodes codes like {@code de} (all variants of German) or {@code de-CH} (only that variant)
+   * @param threads number of check threads reserved for this pool
+   * @param maxThreads maximum number of checks of this pool running at the same time - when other pools
+   *                   don't use their threads, this pool may borrow them up to this number
+   * @param maxQueueSize maximum number of requests of this pool waiting for their check to start
+   */
+  LanguagePool(String name, List<String> languageCodes, int threads, int maxThreads, int maxQueueSize) {
+    if (languageCodes.isEmpty()) {
+      throw new IllegalArgumentException("No languages for pool '" + name + "'");
+    }
+    for (String languageCode : languageCodes) {
+      // fail early for unknown codes:
+      Language.getLanguageForShortName(languageCode);
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads of pool '" + name + "' must be > 0: " + threads);
+    }
+    if (maxThreads < threads) {
+      throw new IllegalArgumentException("maxThreads of pool '" + name + "' must be >= threads (" + threads + "): " + maxThreads);
+    }
+    if (maxQueueSize < 0) {
+      throw new IllegalArgumentException("maxQueueSize of pool '" + name + "' must be >= 0: " + maxQueueSize);
+    }
+    this.name = name;
+    this.languageCodes = Collections.unmodifiableSet(new LinkedHashSet<>(languageCodes));
+    this.threads = threads;
+    this.maxThreads = maxThreads;
+    this.maxQueueSize = maxQueueSize;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  Set<String> getLanguageCodes() {
+    return languageCodes;
+  }
+
+  int getThreads() {
+    return threads;
+  }
+
+  int getMaxThreads() {
+    return maxThreads;
+  }
+
+  int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  @Override
+  public String toString() {
+    return name + languageCodes + ", threads: " + threads + ", maxThreads: " + maxThreads + ", maxQueueSize: " + maxQueueSize;
+  }
+
+}
@@ -25,13 +25,24 @@ import java.net.URLDecoder;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.zip.GZIPOutputStream;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.tika.language.LanguageIdentifier;
+import org.languagetool.CancellationToken;
+import org.languagetool.CheckCancelledException;
+import org.languagetool.CheckMetrics;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
+import org.languagetool.LatencyHistogram;
+import org.languagetool.SentenceMatchCache;
 import org.languagetool.gui.Configuration;
 import org.languagetool.rules.RuleMatch;
 import org.languagetool.rules.bitext.BitextRule;
+import org.languagetool.tagging.CachingTagger;
+import org.languagetool.tagging.Tagger;
+import org.languagetool.tagging.WordTagCache;
+import org.languagetool.tools.RuleAsJsonSerializer;
 import org.languagetool.tools.RuleAsXmlSerializer;
 import org.languagetool.tools.StringTools;
 import org.languagetool.tools.Tools;
@@ -44,9 +55,13 @@ import static org.apache.commons.lang.StringEscapeUtils.escapeXml;
 class LanguageToolHttpHandler implements HttpHandler {
 
   private static final String CONTENT_TYPE_VALUE = "text/xml; charset=UTF-8";
+  private static final String JSON_CONTENT_TYPE_VALUE = "application/json; charset=UTF-8";
   private static final String ENCODING = "utf-8";
   private static final int CONTEXT_SIZE = 40; // characters
   private static final int MIN_LENGTH_FOR_AUTO_DETECTION = 60;  // characters
+  private static final int BUFFER_SIZE = 8192;
+  private static final long REJECTED_RETRY_AFTER_SECONDS = 5;
+  private static final QueryParams DEFAULT_PARAMS = new QueryParams(new ArrayList<String>(), new ArrayList<String>(), false, false);
 
   private final Set<String> allowedIps;  
   private final boolean verbose;
@@ -54,15 +69,28 @@ class LanguageToolHttpHandler implements HttpHandler {
   private final RequestLimiter requestLimiter;
   private final LinkedBlockingQueue<Runnable> workQueue;
   private final ExecutorService executorService;
+  // the languages that have been used, by language code, for the metrics of their taggers:
+  private final ConcurrentSkipListMap<String, Language> usedLanguages = new ConcurrentSkipListMap<>();
 
   private long maxCheckTimeMillis = -1;
   private int maxTextLength = Integer.MAX_VALUE;
+  private int maxBatchDocuments = HTTPServerConfig.DEFAULT_MAX_BATCH_DOCUMENTS;
+  private int maxBatchLength = HTTPServerConfig.DEFAULT_MAX_BATCH_LENGTH;
   private String allowOriginUrl;
   private boolean afterTheDeadlineMode;
   private Language afterTheDeadlineLanguage;
+  private JLanguageToolPool instancePool;
+  private SentenceMatchCache sentenceMatchCache;
+  private AdmissionController admissionController;
+  private ParagraphMatchCache paragraphMatchCache;
+  private CheckMetrics checkMetrics;
+  private WarmUp warmUp;
   
   private static int handleCount = 0;
 
+  // set while running a request that gets rejected because the work queue of the server is full:
+  private static final ThreadLocal<Boolean> rejecting = new ThreadLocal<>();
+
   /**
    * Create an instance. Call {@link #shutdown()} when done.
    * @param verbose print the input text in case of exceptions
@@ -78,6 +106,25 @@ class LanguageToolHttpHandler implements HttpHandler {
     this.executorService = Executors.newCachedThreadPool();
   }
 
+  /**
+   * Wrap a request that didn't fit into the work queue of the server, so that the handler answers
+   * it with HTTP status 503 (Service Unavailable) without reading it.
+   * @since 2.7
+   */
+  static Runnable rejecting(final Runnable exchange) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        rejecting.set(Boolean.TRUE);
+        try {
+          exchange.run();
+        } finally {
+          rejecting.remove();
+        }
+      }
+    };
+  }
+
   /** @since 2.6 */
   void shutdown() {
     executorService.shutdownNow();
@@ -87,6 +134,23 @@ class LanguageToolHttpHandler implements HttpHandler {
     this.maxTextLength = maxTextLength;
   }
 
+  /**
+   * Maximum number of documents in a request to {@code /batch}.
+   * @since 2.7
+   */
+  void setMaxBatchDocuments(int maxBatchDocuments) {
+    this.maxBatchDocuments = maxBatchDocuments;
+  }
+
+  /**
+   * Maximum length in characters of a request to {@code /batch}, including the JSON syntax.
+   * Longer requests are rejected without reading them completely.
+   * @since 2.7
+   */
+  void setMaxBatchLength(int maxBatchLength) {
+    this.maxBatchLength = maxBatchLength;
+  }
+
   /**
    * Maximum time allowed per check in milliseconds. If the checking takes longer, it will stop with
    * an exception. Use {@code -1} for no limit.
@@ -105,6 +169,108 @@ class LanguageToolHttpHandler implements HttpHandler {
     this.allowOriginUrl = allowOriginUrl;
   }
 
+  /**
+   * Re-use {@link JLanguageTool} instances from the given pool instead of creating
+   * a new one (which includes loading all rules) for every request. Use {@code null}
+   * to not re-use instances.
+   * @since 2.7
+   */
+  void setInstancePool(JLanguageToolPool instancePool) {
+    this.instancePool = instancePool;
+  }
+
+  /**
+   * Re-use the results of checking sentences that have been checked before, also by other requests.
+   * Use {@code null} to not cache sentences.
+   * @since 2.7
+   */
+  void setSentenceMatchCache(SentenceMatchCache sentenceMatchCache) {
+    this.sentenceMatchCache = sentenceMatchCache;
+  }
+
+  /** @since 2.7 */
+  SentenceMatchCache getSentenceMatchCache() {
+    return sentenceMatchCache;
+  }
+
+  /**
+   * Keep the results of checking paragraphs, so requests to {@code /paragraphs} only need to
+   * check the paragraphs that have changed. Use {@code null} to not cache paragraphs.
+   * @since 2.7
+   */
+  void setParagraphMatchCache(ParagraphMatchCache paragraphMatchCache) {
+    this.paragraphMatchCache = paragraphMatchCache;
+  }
+
+  /** @since 2.7 */
+  ParagraphMatchCache getParagraphMatchCache() {
+    return paragraphMatchCache;
+  }
+
+  /**
+   * Record the duration of checks and their phases, and the time used by each rule, for {@code /metrics}.
+   * Use {@code null} to not record these metrics.
+   * @since 2.7
+   */
+  void setCheckMetrics(CheckMetrics checkMetrics) {
+    this.checkMetrics = checkMetrics;
+  }
+
+  /** @since 2.7 */
+  CheckMetrics getCheckMetrics() {
+    return checkMetrics;
+  }
+
+  /**
+   * Queue and possibly reject checks depending on the server load. Use {@code null}
+   * to start all checks right away.
+   * @since 2.7
+   */
+  void setAdmissionController(AdmissionController admissionController) {
+    this.admissionController = admissionController;
+  }
+
+  /** @since 2.7 */
+  AdmissionController getAdmissionController() {
+    return admissionController;
+  }
+
+  /**
+   * Report the server as ready on {@code /healthz/ready} only after the given warm-up is done.
+   * Use {@code null} if there's no warm-up, the server is then ready right away.
+   * @since 2.7
+   */
+  void setWarmUp(WarmUp warmUp) {
+    this.warmUp = warmUp;
+  }
+
+  /**
+   * Create an instance with the default rule configuration, e.g. to warm up a language. The instance
+   * doesn't use the sentence cache and doesn't record metrics, so checking the same text several
+   * times really runs the checks and doesn't distort the metrics. Give the instance to
+   * {@link #releaseDefaultLanguageToolInstance(Language, JLanguageTool)} when done.
+   * @since 2.7
+   */
+  JLanguageTool createDefaultLanguageToolInstance(Language language) throws Exception {
+    final JLanguageTool lt = createLanguageToolInstance(language, null, DEFAULT_PARAMS);
+    lt.setSentenceMatchCache(null);
+    lt.setCheckMetrics(null);
+    return lt;
+  }
+
+  /**
+   * Put an instance created by {@link #createDefaultLanguageToolInstance(Language)} into the
+   * instance pool (if any), so the first requests for the language don't need to load the rules.
+   * @since 2.7
+   */
+  void releaseDefaultLanguageToolInstance(Language language, JLanguageTool lt) {
+    if (instancePool != null) {
+      lt.setSentenceMatchCache(sentenceMatchCache);
+      lt.setCheckMetrics(checkMetrics);
+      instancePool.giveBack(new JLanguageToolPool.Key(language, null, DEFAULT_PARAMS), lt);
+    }
+  }
+
   /** @since 2.7 */
   void setAfterTheDeadlineMode(Language defaultLanguage) {
     System.out.println("Running in After the Deadline mode, default language: " + defaultLanguage);
@@ -119,16 +285,33 @@ class LanguageToolHttpHandler implements HttpHandler {
     }
     String text = null;
     try {
+      if (rejecting.get() != null) {
+        throw new ServerBusyException("Server is busy, please try again in " + REJECTED_RETRY_AFTER_SECONDS
+                + " seconds (too many requests are waiting, queue size: " + workQueue.size() + ")", REJECTED_RETRY_AFTER_SECONDS);
+      }
       final URI requestedUri = httpExchange.getRequestURI();
       final String remoteAddress = httpExchange.getRemoteAddress().getAddress().getHostAddress();
       // According to the Javadoc, "Closing an exchange without consuming all of the request body is
       // not an error but may make the underlying TCP connection unusable for following exchanges.",
       // so we consume the request now, even before checking for request limits:
-      final Map<String, String> parameters = getRequestQuery(httpExchange, requestedUri);
-      if (requestLimiter != null && !requestLimiter.isAccessOkay(remoteAddress)) {
+      final String jsonRequest = isJsonRequest(requestedUri) ? getJsonRequest(httpExchange, requestedUri) : null;
+      final Map<String, String> parameters = jsonRequest != null ? parseQuery(requestedUri.getRawQuery()) : getRequestQuery(httpExchange, requestedUri);
+      final String textParam = jsonRequest != null ? jsonRequest : parameters.get(afterTheDeadlineMode ? "data" : "text");
+      final int textLength = textParam != null ? textParam.length() : 0;
+      // monitoring must work even when a client sends too many requests from the same address:
+      final boolean limited = requestLimiter != null && !isMonitoringRequest(requestedUri);
+      if (limited && requestLimiter.exceedsCharLimit(textLength)) {
+        final String errorMessage = "Error: Your text is " + textLength + " characters long, but this server accepts at most "
+                + requestLimiter.getRequestLimitInChars() + " characters per " + requestLimiter.getRequestLimitPeriodInSeconds() + " seconds";
+        sendError(httpExchange, HttpURLConnection.HTTP_ENTITY_TOO_LARGE, errorMessage);
+        print(errorMessage);
+        return;
+      }
+      if (limited && !requestLimiter.isAccessOkay(remoteAddress, textLength)) {
         final String errorMessage = "Error: Access from " + StringTools.escapeXML(remoteAddress) +
                 " denied - too many requests. Allowed maximum requests: " + requestLimiter.getRequestLimit() +
-                " requests per " + requestLimiter.getRequestLimitPeriodInSeconds() + " seconds";
+                (requestLimiter.getRequestLimitInChars() > 0 ? " requests or " + requestLimiter.getRequestLimitInChars() + " characters" : " requests") +
+                " per " + requestLimiter.getRequestLimitPeriodInSeconds() + " seconds";
         sendError(httpExchange, HttpURLConnection.HTTP_FORBIDDEN, errorMessage);
         print(errorMessage);
         return;
@@ -137,6 +320,20 @@ class LanguageToolHttpHandler implements HttpHandler {
         if (requestedUri.getRawPath().endsWith("/Languages")) {
           // request type: list known languages
           printListOfLanguages(httpExchange);
+        } else if (requestedUri.getRawPath().endsWith("/healthz/ready")) {
+          // request type: readiness check for load balancers
+          printReadiness(httpExchange);
+        } else if (requestedUri.getRawPath().endsWith("/metrics")) {
+          // request type: metrics for monitoring
+          printMetrics(httpExchange);
+        } else if (jsonRequest != null && requestedUri.getRawPath().endsWith("/batch")) {
+          // request type: checking several documents
+          text = jsonRequest;
+          checkBatch(jsonRequest, httpExchange, parameters);
+        } else if (jsonRequest != null) {
+          // request type: checking a document of which only the changed paragraphs get checked
+          text = jsonRequest;
+          checkParagraphs(jsonRequest, httpExchange, parameters);
         } else {
           // request type: text checking
           if (afterTheDeadlineMode) {
@@ -158,6 +355,13 @@ class LanguageToolHttpHandler implements HttpHandler {
         sendError(httpExchange, HttpURLConnection.HTTP_FORBIDDEN, errorMessage);
         throw new RuntimeException(errorMessage);
       }
+    } catch (BadRequestException e) {
+      print("Bad request: " + e.getMessage());
+      sendError(httpExchange, e.getStatusCode(), "Error: " + e.getMessage());
+    } catch (ServerBusyException e) {
+      print("Request rejected: " + e.getMessage());
+      httpExchange.getResponseHeaders().set("Retry-After", Long.toString(e.getRetryAfterSeconds()));
+      sendError(httpExchange, HttpURLConnection.HTTP_UNAVAILABLE, "Error: " + e.getMessage());
     } catch (Exception e) {
       print("An error has occurred. Stacktrace follows:", System.err);
       if (verbose) {
@@ -181,6 +385,10 @@ class LanguageToolHttpHandler implements HttpHandler {
     }
   }
 
+  private boolean isMonitoringRequest(URI requestedUri) {
+    return requestedUri.getRawPath().endsWith("/healthz/ready") || requestedUri.getRawPath().endsWith("/metrics");
+  }
+
   private void sendError(HttpExchange httpExchange, int returnCode, String response) throws IOException {
     if (afterTheDeadlineMode) {
       String xmlResponse = "<results><message>" + escapeXml(response) + "</message></results>";
@@ -202,15 +410,196 @@ class LanguageToolHttpHandler implements HttpHandler {
     return parseQuery(query);
   }
 
+  private boolean isJsonRequest(URI requestedUri) {
+    return !afterTheDeadlineMode && (requestedUri.getRawPath().endsWith("/batch") || requestedUri.getRawPath().endsWith("/paragraphs"));
+  }
+
+  private String getJsonRequest(HttpExchange httpExchange, URI requestedUri) throws IOException {
+    if (!"post".equalsIgnoreCase(httpExchange.getRequestMethod())) {
+      throw new IllegalArgumentException("Requests to " + requestedUri.getRawPath() + " need to be sent with POST");
+    }
+    if (requestedUri.getRawPath().endsWith("/batch")) {
+      return readRequestBody(httpExchange.getRequestBody(), maxBatchLength);
+    }
+    return StringTools.streamToString(httpExchange.getRequestBody(), ENCODING);
+  }
+
+  // reads at most maxLength characters, so a huge request doesn't use up the memory:
+  private String readRequestBody(InputStream requestBody, int maxLength) throws IOException {
+    final StringBuilder sb = new StringBuilder();
+    final char[] buffer = new char[BUFFER_SIZE];
+    try (Reader reader = new InputStreamReader(requestBody, ENCODING)) {
+      int length;
+      while ((length = reader.read(buffer)) != -1) {
+        if (sb.length() + length > maxLength) {
+          throw new BadRequestException("Request is longer than the maximum of " + maxLength + " characters",
+                  HttpURLConnection.HTTP_ENTITY_TOO_LARGE);
+        }
+        sb.append(buffer, 0, length);
+      }
+    }
+    return sb.toString();
+  }
+
   private void printListOfLanguages(HttpExchange httpExchange) throws IOException {
-    setCommonHeaders(httpExchange);
+    setCommonHeaders(httpExchange, CONTENT_TYPE_VALUE);
     final String response = getSupportedLanguagesAsXML();
     httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, response.getBytes(ENCODING).length);
     httpExchange.getResponseBody().write(response.getBytes(ENCODING));
   }
 
-  private void setCommonHeaders(HttpExchange httpExchange) {
-    httpExchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE_VALUE);
+  private void printReadiness(HttpExchange httpExchange) throws IOException {
+    setCommonHeaders(httpExchange, "text/plain");
+    final boolean ready = isReady();
+    final StringBuilder response = new StringBuilder(ready ? "ready\n" : "warming up\n");
+    if (warmUp != null) {
+      for (Map.Entry<String, Long> entry : warmUp.getDurationMillis().entrySet()) {
+        response.append(entry.getKey()).append(": ").append(entry.getValue()).append("ms\n");
+      }
+    }
+    final byte[] bytes = response.toString().getBytes(ENCODING);
+    httpExchange.sendResponseHeaders(ready ? HttpURLConnection.HTTP_OK : HttpURLConnection.HTTP_UNAVAILABLE, bytes.length);
+    httpExchange.getResponseBody().write(bytes);
+  }
+
+  private boolean isReady() {
+    return warmUp == null || warmUp.isDone();
+  }
+
+  private void printMetrics(HttpExchange httpExchange) throws IOException {
+    setCommonHeaders(httpExchange, MetricsWriter.CONTENT_TYPE);
+    httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+    try (Writer writer = getResponseWriter(httpExchange.getResponseBody(), false)) {
+      final MetricsWriter metrics = new MetricsWriter(writer);
+      metrics.writeMetric("languagetool_ready", "gauge", "1 if the warm-up is done and the server is ready, 0 otherwise", isReady() ? 1 : 0);
+      if (warmUp != null) {
+        final String warmUpMetric = "languagetool_warm_up_seconds";
+        metrics.writeHeader(warmUpMetric, "gauge", "Time used to warm up each language");
+        for (Map.Entry<String, Long> entry : warmUp.getDurationMillis().entrySet()) {
+          metrics.writeSample(warmUpMetric, MetricsWriter.labels("language", entry.getKey()), entry.getValue() / 1000.0);
+        }
+      }
+      metrics.writeMetric("languagetool_handlers", "gauge", "Requests being handled", handleCount);
+      metrics.writeMetric("languagetool_work_queue_size", "gauge", "Requests waiting for a thread of the HTTP server", workQueue.size());
+      if (admissionController != null) {
+        metrics.writeMetric("languagetool_checks_running", "gauge", "Checks running", admissionController.getRunningCount());
+        metrics.writeMetric("languagetool_checks_waiting", "gauge", "Checks waiting to be admitted", admissionController.getQueueSize());
+        metrics.writeMetric("languagetool_checks_rejected_total", "counter", "Checks rejected because the server was too busy", admissionController.getRejectedCount());
+        writePoolMetrics(metrics, admissionController.getPoolStatistics());
+      }
+      if (sentenceMatchCache != null) {
+        writeCacheMetrics(metrics, "sentence", sentenceMatchCache.getHitCount(), sentenceMatchCache.getMissCount());
+      }
+      if (paragraphMatchCache != null) {
+        writeCacheMetrics(metrics, "paragraph", paragraphMatchCache.getHitCount(), paragraphMatchCache.getMissCount());
+      }
+      final Runtime runtime = Runtime.getRuntime();
+      metrics.writeMetric("jvm_memory_used_bytes", "gauge", "Heap memory used", runtime.totalMemory() - runtime.freeMemory());
+      metrics.writeMetric("jvm_memory_committed_bytes", "gauge", "Heap memory reserved by the JVM", runtime.totalMemory());
+      metrics.writeMetric("jvm_memory_max_bytes", "gauge", "Maximum heap memory", runtime.maxMemory());
+      writeWordTagCacheMetrics(metrics);
+      if (checkMetrics != null) {
+        writeCheckMetrics(metrics);
+      }
+    }
+  }
+
+  private void writePoolMetrics(MetricsWriter metrics, List<AdmissionController.PoolStatistics> pools) throws IOException {
+    metrics.writeHeader("languagetool_pool_checks_running", "gauge", "Checks running per language pool");
+    for (AdmissionController.PoolStatistics pool : pools) {
+      metrics.writeSample("languagetool_pool_checks_running", MetricsWriter.labels("pool", pool.name), pool.running);
+    }
+    metrics.writeHeader("languagetool_pool_checks_borrowed", "gauge", "Checks running per language pool on threads not reserved for the pool");
+    for (AdmissionController.PoolStatistics pool : pools) {
+      metrics.writeSample("languagetool_pool_checks_borrowed", MetricsWriter.labels("pool", pool.name), pool.getBorrowed());
+    }
+    metrics.writeHeader("languagetool_pool_saturation", "gauge", "Checks running per language pool divided by the threads reserved for the pool");
+    for (AdmissionController.PoolStatistics pool : pools) {
+      metrics.writeSample("languagetool_pool_saturation", MetricsWriter.labels("pool", pool.name), (double) pool.running / pool.threads);
+    }
+    metrics.writeHeader("languagetool_pool_checks_waiting", "gauge", "Checks waiting to be admitted per language pool");
+    for (AdmissionController.PoolStatistics pool : pools) {
+      metrics.writeSample("languagetool_pool_checks_waiting", MetricsWriter.labels("pool", pool.name), pool.waiting);
+    }
+    metrics.writeHeader("languagetool_pool_checks_rejected_total", "counter", "Checks rejected per language pool because the server was too busy");
+    for (AdmissionController.PoolStatistics pool : pools) {
+      metrics.writeSample("languagetool_pool_checks_rejected_total", MetricsWriter.labels("pool", pool.name), pool.rejected);
+    }
+  }
+
+  private void writeCacheMetrics(MetricsWriter metrics, String cacheName, long hits, long misses) throws IOException {
+    final String prefix = "languagetool_" + cacheName + "_cache_";
+    metrics.writeMetric(prefix + "hits_total", "counter", "Lookups in the " + cacheName + " cache that found an entry", hits);
+    metrics.writeMetric(prefix + "misses_total", "counter", "Lookups in the " + cacheName + " cache that found no entry", misses);
+    metrics.writeMetric(prefix + "hit_ratio", "gauge", "Share of the lookups in the " + cacheName + " cache that found an entry",
+            hits + misses > 0 ? (double) hits / (hits + misses) : 0);
+  }
+
+  private void writeWordTagCacheMetrics(MetricsWriter metrics) throws IOException {
+    final Map<String, WordTagCache> caches = new LinkedHashMap<>();
+    for (Map.Entry<String, Language> entry : usedLanguages.entrySet()) {
+      final Tagger tagger = entry.getValue().getTagger();
+      if (tagger instanceof CachingTagger && ((CachingTagger) tagger).getWordTagCache() != null) {
+        caches.put(entry.getKey(), ((CachingTagger) tagger).getWordTagCache());
+      }
+    }
+    metrics.writeHeader("languagetool_word_cache_hits_total", "counter", "Words whose readings the tagger found in its cache");
+    for (Map.Entry<String, WordTagCache> entry : caches.entrySet()) {
+      metrics.writeSample("languagetool_word_cache_hits_total", MetricsWriter.labels("language", entry.getKey()), entry.getValue().getHitCount());
+    }
+    metrics.writeHeader("languagetool_word_cache_misses_total", "counter", "Words the tagger had to look up in its dictionary");
+    for (Map.Entry<String, WordTagCache> entry : caches.entrySet()) {
+      metrics.writeSample("languagetool_word_cache_misses_total", MetricsWriter.labels("language", entry.getKey()), entry.getValue().getMissCount());
+    }
+    metrics.writeHeader("languagetool_word_cache_hit_ratio", "gauge", "Share of the words whose readings the tagger found in its cache");
+    for (Map.Entry<String, WordTagCache> entry : caches.entrySet()) {
+      final long hits = entry.getValue().getHitCount();
+      final long misses = entry.getValue().getMissCount();
+      metrics.writeSample("languagetool_word_cache_hit_ratio", MetricsWriter.labels("language", entry.getKey()),
+              hits + misses > 0 ? (double) hits / (hits + misses) : 0);
+    }
+    metrics.writeHeader("languagetool_word_cache_size", "gauge", "Words in the cache of the tagger");
+    for (Map.Entry<String, WordTagCache> entry : caches.entrySet()) {
+      metrics.writeSample("languagetool_word_cache_size", MetricsWriter.labels("language", entry.getKey()), entry.getValue().getSize());
+    }
+  }
+
+  private void writeCheckMetrics(MetricsWriter metrics) throws IOException {
+    final String phaseMetric = "languagetool_phase_duration_seconds";
+    metrics.writeHeader(phaseMetric, "histogram", "Duration of the phases of checks, per sentence for the analysis");
+    for (Map.Entry<String, Map<CheckMetrics.Phase, LatencyHistogram>> entry : checkMetrics.getPhaseHistograms().entrySet()) {
+      for (Map.Entry<CheckMetrics.Phase, LatencyHistogram> phaseEntry : entry.getValue().entrySet()) {
+        final String labels = MetricsWriter.labels("language", entry.getKey(), "phase", phaseEntry.getKey().name().toLowerCase());
+        metrics.writeHistogram(phaseMetric, labels, phaseEntry.getValue());
+      }
+    }
+    if (!checkMetrics.isRuleMetrics()) {
+      return;
+    }
+    final List<CheckMetrics.RuleStatistics> ruleStatistics = checkMetrics.getRuleStatistics();
+    final String ruleTimeMetric = "languagetool_rule_duration_seconds_total";
+    metrics.writeHeader(ruleTimeMetric, "counter", "Time used by each rule");
+    for (CheckMetrics.RuleStatistics statistics : ruleStatistics) {
+      metrics.writeSample(ruleTimeMetric, getRuleLabels(statistics), statistics.getNanos() / 1_000_000_000.0);
+    }
+    final String ruleInvocationsMetric = "languagetool_rule_invocations_total";
+    metrics.writeHeader(ruleInvocationsMetric, "counter", "Sentences checked by each rule");
+    for (CheckMetrics.RuleStatistics statistics : ruleStatistics) {
+      metrics.writeSample(ruleInvocationsMetric, getRuleLabels(statistics), statistics.getInvocations());
+    }
+    final String ruleMatchesMetric = "languagetool_rule_matches_total";
+    metrics.writeHeader(ruleMatchesMetric, "counter", "Matches found by each rule");
+    for (CheckMetrics.RuleStatistics statistics : ruleStatistics) {
+      metrics.writeSample(ruleMatchesMetric, getRuleLabels(statistics), statistics.getMatches());
+    }
+  }
+
+  private String getRuleLabels(CheckMetrics.RuleStatistics statistics) {
+    return MetricsWriter.labels("language", statistics.getLanguageCode(), "rule", statistics.getRuleId());
+  }
+
+  private void setCommonHeaders(HttpExchange httpExchange, String contentType) {
+    httpExchange.getResponseHeaders().set("Content-Type", contentType);
     if (allowOriginUrl != null) {
       httpExchange.getResponseHeaders().set("Access-Control-Allow-Origin", allowOriginUrl);
     }
@@ -245,8 +634,365 @@ class LanguageToolHttpHandler implements HttpHandler {
     //print("Check start: " + text.length() + " chars, " + langParam);
     final boolean autoDetectLanguage = getLanguageAutoDetect(parameters);
     final Language lang = getLanguage(text, parameters.get("language"), autoDetectLanguage);
+    final Language motherTongue = getMotherTongue(parameters);
+    final QueryParams params = getQueryParams(parameters);
+    final boolean json = !afterTheDeadlineMode && isJsonRequested(httpExchange, parameters);
+    
+    final List<RuleMatch> matches = runCheck(lang, text.length(), new Check<List<RuleMatch>>() {
+      @Override
+      public List<RuleMatch> run(CancellationToken cancellationToken) throws Exception {
+        return getRuleMatches(text, parameters, lang, motherTongue, params, cancellationToken);
+      }
+    });
+    
+    setCommonHeaders(httpExchange, json ? JSON_CONTENT_TYPE_VALUE : CONTENT_TYPE_VALUE);
+    final boolean gzip = isGzipAccepted(httpExchange);
+    if (gzip) {
+      httpExchange.getResponseHeaders().set("Content-Encoding", "gzip");
+    }
+    String messageSent = "sent";
+    String languageMessage = lang.getShortNameWithCountryAndVariant();
+    final String referrer = httpExchange.getRequestHeaders().getFirst("Referer");
+    try {
+      // length 0 means chunked transfer encoding, so the response doesn't need to be built in memory first:
+      httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+      try (Writer writer = getResponseWriter(httpExchange.getResponseBody(), gzip)) {
+        final long startTime = System.nanoTime();
+        writeResponse(writer, text, lang, motherTongue, matches, json);
+        if (checkMetrics != null) {
+          checkMetrics.recordPhase(lang, CheckMetrics.Phase.SERIALIZATION, System.nanoTime() - startTime);
+        }
+      }
+      if (motherTongue != null) {
+        languageMessage += " (mother tongue: " + motherTongue.getShortNameWithCountryAndVariant() + ")";
+      }
+    } catch (IOException exception) {
+      // the client is disconnected
+      messageSent = "notSent: " + exception.getMessage();
+    }
+    printDone("Check", text.length() + " chars, " + languageMessage + ", " + referrer,
+            matches.size() + " matches", timeStart, messageSent);
+  }
+
+  /**
+   * Check the documents of a batch request, i.e. a JSON array of objects with the keys {@code id}, {@code text},
+   * {@code language}, and optionally {@code options} (an object with the same settings as the request
+   * parameters, e.g. {@code disabled}). Settings from the request parameters apply to all documents.
+   * The documents are checked in parallel and their results are streamed as soon as they are available,
+   * so their order can differ from the request. A document that cannot be checked, e.g. because
+   * it takes too long, gets an error instead of a result, the other documents are not affected.
+   */
+  private void checkBatch(String batch, HttpExchange httpExchange, Map<String, String> parameters) throws Exception {
+    final long timeStart = System.currentTimeMillis();
+    final Object items = JsonTools.parse(batch);
+    if (!(items instanceof List)) {
+      throw new IllegalArgumentException("Batch request must be a JSON array of documents");
+    }
+    final List<?> itemList = (List<?>) items;
+    if (itemList.size() > maxBatchDocuments) {
+      throw new BadRequestException("Batch request has " + itemList.size() + " documents, but the maximum is " + maxBatchDocuments,
+              HttpURLConnection.HTTP_ENTITY_TOO_LARGE);
+    }
+    final BlockingQueue<BatchResult> results = new LinkedBlockingQueue<>();
+    // documents with the same configuration are kept together, so a worker can use one instance for all of them:
+    final Map<JLanguageToolPool.Key, List<BatchDocument>> documentsByKey = new LinkedHashMap<>();
+    for (int i = 0; i < itemList.size(); i++) {
+      final String id = getBatchId(itemList.get(i), i);
+      try {
+        final BatchDocument document = getBatchDocument(id, itemList.get(i), parameters);
+        List<BatchDocument> documents = documentsByKey.get(document.key);
+        if (documents == null) {
+          documents = new ArrayList<>();
+          documentsByKey.put(document.key, documents);
+        }
+        documents.add(document);
+      } catch (IllegalArgumentException e) {
+        results.add(new BatchResult(id, null, null, e.getMessage()));
+      }
+    }
+    final Queue<BatchDocument> documents = new ConcurrentLinkedQueue<>();
+    for (List<BatchDocument> documentList : documentsByKey.values()) {
+      documents.addAll(documentList);
+    }
+    final BatchCancellation cancellation = new BatchCancellation();
+    final int workers = Math.min(documents.size(), Runtime.getRuntime().availableProcessors());
+    int errors = 0;
+    String messageSent = "sent";
+    try {
+      for (int i = 0; i < workers; i++) {
+        executorService.submit(new BatchWorker(documents, results, cancellation));
+      }
+      setCommonHeaders(httpExchange, JSON_CONTENT_TYPE_VALUE);
+      final boolean gzip = isGzipAccepted(httpExchange);
+      if (gzip) {
+        httpExchange.getResponseHeaders().set("Content-Encoding", "gzip");
+      }
+      httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+      try (Writer writer = getResponseWriter(httpExchange.getResponseBody(), gzip)) {
+        final RuleAsJsonSerializer serializer = new RuleAsJsonSerializer();
+        writer.write("[");
+        for (int i = 0; i < itemList.size(); i++) {
+          final BatchResult result = results.take();
+          writer.write(i == 0 ? "\n" : ",\n");
+          writer.write("{\"id\":" + JsonTools.quote(result.id) + ",");
+          if (result.error != null) {
+            errors++;
+            writer.write("\"error\":" + JsonTools.quote(result.error));
+          } else {
+            final BatchDocument document = result.document;
+            writer.write("\"result\":");
+            serializer.ruleMatchesToJson(result.matches, document.text, CONTEXT_SIZE, document.lang, document.motherTongue, writer);
+          }
+          writer.write("}");
+          // let the client use this result before the other documents are done:
+          writer.flush();
+        }
+        writer.write("\n]\n");
+      }
+    } catch (IOException exception) {
+      // the client is disconnected
+      messageSent = "notSent: " + exception.getMessage();
+    } finally {
+      // stop the checks that are still running, e.g. because the client is gone:
+      cancellation.cancel();
+    }
+    printDone("Batch", itemList.size() + " documents, " + errors + " errors, " + batch.length() + " chars",
+            null, timeStart, messageSent);
+  }
+
+  // the log line at the end of a request, with the load of the server at that time:
+  private void printDone(String requestType, String request, String result, long timeStart, String messageSent) {
+    print(requestType + " done: " + request + ", "
+            + "handlers:" + handleCount + ", queue:" + workQueue.size()
+            + (admissionController != null ? ", waiting:" + admissionController.getQueueSize() + ", rejected:" + admissionController.getRejectedCount() : "")
+            + (result != null ? ", " + result : "")
+            + ", " + (System.currentTimeMillis() - timeStart) + "ms"
+            + (sentenceMatchCache != null ? ", sentence cache hits:" + getCacheHitPercentage() + "%" : "")
+            + ", " + messageSent);
+  }
+
+  private String getBatchId(Object item, int index) {
+    final Object id = item instanceof Map ? ((Map<?, ?>) item).get("id") : null;
+    if (id == null) {
+      return Integer.toString(index);
+    }
+    return getOptionValue(id);
+  }
+
+  private BatchDocument getBatchDocument(String id, Object item, Map<String, String> requestParameters) {
+    if (!(item instanceof Map)) {
+      throw new IllegalArgumentException("Document must be a JSON object");
+    }
+    final Map<?, ?> document = (Map<?, ?>) item;
+    if (!(document.get("text") instanceof String)) {
+      throw new IllegalArgumentException("Missing 'text' of document");
+    }
+    final String text = (String) document.get("text");
+    if (text.length() > maxTextLength) {
+      throw new IllegalArgumentException("Text is " + text.length() + " characters long, exceeding maximum length of " + maxTextLength);
+    }
+    final Map<String, String> parameters = getDocumentParameters(document, requestParameters);
+    final Language lang = getLanguage(text, parameters.get("language"), getLanguageAutoDetect(parameters));
+    return new BatchDocument(id, text, lang, getMotherTongue(parameters), getQueryParams(parameters));
+  }
+
+  /**
+   * Get the parameters of a document from a JSON request: the request parameters, overridden by the document's
+   * {@code language} and {@code options}.
+   */
+  private Map<String, String> getDocumentParameters(Map<?, ?> document, Map<String, String> requestParameters) {
+    final Map<String, String> parameters = new HashMap<>(requestParameters);
+    if (document.get("language") != null) {
+      parameters.put("language", getOptionValue(document.get("language")));
+    }
+    final Object options = document.get("options");
+    if (options instanceof Map) {
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) options).entrySet()) {
+        final String name = entry.getKey().toString();
+        if (Boolean.FALSE.equals(entry.getValue()) || entry.getValue() == null) {
+          parameters.remove(name);
+        } else if (Boolean.TRUE.equals(entry.getValue())) {
+          parameters.put(name, name.equals("autodetect") ? "1" : "yes");
+        } else {
+          parameters.put(name, getOptionValue(entry.getValue()));
+        }
+      }
+    } else if (options != null) {
+      throw new IllegalArgumentException("Document 'options' must be a JSON object");
+    }
+    return parameters;
+  }
+
+  /**
+   * Get a value from the JSON request the way it would be given as a request parameter.
+   */
+  private String getOptionValue(Object value) {
+    if (value instanceof List) {
+      final StringBuilder sb = new StringBuilder();
+      for (Object element : (List<?>) value) {
+        if (sb.length() > 0) {
+          sb.append(',');
+        }
+        sb.append(getOptionValue(element));
+      }
+      return sb.toString();
+    } else if (value instanceof Double && (Double) value == Math.rint((Double) value)) {
+      return Long.toString(((Double) value).longValue());
+    }
+    return String.valueOf(value);
+  }
+
+  /**
+   * Check a document that is sent as a list of paragraphs, each with the hash of its content
+   * (see {@link ParagraphMatchCache#hash(String)}): a JSON object with the keys {@code language},
+   * optionally {@code options} (like for {@link #checkBatch(String, HttpExchange, Map)}), and {@code paragraphs},
+   * an array of objects with the keys {@code hash} and {@code text}. Paragraphs are expected to include
+   * their line breaks, i.e. the document is the concatenation of the paragraphs. Only paragraphs that
+   * have not been checked before with the same configuration get checked, so after an edit the client
+   * may leave out the {@code text} of the paragraphs it has sent before. If the server doesn't know
+   * such a paragraph (anymore), the response is a JSON object with the key {@code missing} that lists
+   * their hashes, and the client needs to send the request again with their text. Otherwise, the
+   * response is the same as for a check of the complete document with JSON output. Rules that work
+   * across paragraphs only get to see each paragraph on its own.
+   */
+  private void checkParagraphs(String request, HttpExchange httpExchange, Map<String, String> requestParameters) throws Exception {
+    final long timeStart = System.currentTimeMillis();
+    final Object document = JsonTools.parse(request);
+    if (!(document instanceof Map)) {
+      throw new IllegalArgumentException("Paragraph request must be a JSON object");
+    }
+    final Map<?, ?> documentMap = (Map<?, ?>) document;
+    final Map<String, String> parameters = getDocumentParameters(documentMap, requestParameters);
+    if ("1".equals(parameters.get("autodetect"))) {
+      throw new IllegalArgumentException("Paragraph requests don't support language auto-detection");
+    }
+    final Language lang = getLanguage("", parameters.get("language"), getLanguageAutoDetect(parameters));
+    final Language motherTongue = getMotherTongue(parameters);
+    final QueryParams params = getQueryParams(parameters);
+    final JLanguageToolPool.Key configuration = new JLanguageToolPool.Key(lang, motherTongue, params);
+    if (!(documentMap.get("paragraphs") instanceof List)) {
+      throw new IllegalArgumentException("Missing 'paragraphs' array");
+    }
+    final List<?> paragraphItems = (List<?>) documentMap.get("paragraphs");
+    final List<String> paragraphs = new ArrayList<>();
+    final List<List<RuleMatch>> paragraphMatches = new ArrayList<>();
+    final Set<String> missingHashes = new LinkedHashSet<>();
+    // paragraphs that need to be checked, by their hash:
+    final Map<String, String> uncheckedParagraphs = new LinkedHashMap<>();
+    int textLength = 0;
+    int uncheckedLength = 0;
+    for (Object item : paragraphItems) {
+      final Map<?, ?> paragraphItem = item instanceof Map ? (Map<?, ?>) item : Collections.emptyMap();
+      if (!(paragraphItem.get("hash") instanceof String)) {
+        throw new IllegalArgumentException("Missing 'hash' of paragraph " + paragraphs.size());
+      }
+      final String hash = ((String) paragraphItem.get("hash")).toLowerCase();
+      String paragraph = paragraphItem.get("text") instanceof String ? (String) paragraphItem.get("text") : null;
+      if (paragraph != null && !hash.equals(ParagraphMatchCache.hash(paragraph))) {
+        throw new IllegalArgumentException("Hash of paragraph " + paragraphs.size() + " doesn't match its text");
+      }
+      final ParagraphMatchCache.Entry entry = paragraphMatchCache != null ? paragraphMatchCache.get(configuration, hash) : null;
+      if (entry != null) {
+        paragraph = entry.paragraph;
+        paragraphMatches.add(entry.matches);
+      } else if (paragraph == null) {
+        missingHashes.add(hash);
+        paragraphMatches.add(null);
+      } else {
+        if (!uncheckedParagraphs.containsKey(hash)) {
+          uncheckedParagraphs.put(hash, paragraph);
+          uncheckedLength += paragraph.length();
+        }
+        paragraphMatches.add(null);
+      }
+      paragraphs.add(paragraph);
+      textLength += paragraph != null ? paragraph.length() : 0;
+    }
+    if (textLength > maxTextLength) {
+      throw new IllegalArgumentException("Text is " + textLength + " characters long, exceeding maximum length of " + maxTextLength);
+    }
+    setCommonHeaders(httpExchange, JSON_CONTENT_TYPE_VALUE);
+    if (!missingHashes.isEmpty()) {
+      final List<String> quotedHashes = new ArrayList<>();
+      for (String hash : missingHashes) {
+        quotedHashes.add(JsonTools.quote(hash));
+      }
+      final byte[] responseBytes = ("{\"missing\":[" + StringUtils.join(quotedHashes, ",") + "]}\n").getBytes(ENCODING);
+      httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, responseBytes.length);
+      httpExchange.getResponseBody().write(responseBytes);
+      print("Paragraph check incomplete: " + paragraphs.size() + " paragraphs, " + missingHashes.size() + " missing");
+      return;
+    }
+    final Map<String, List<RuleMatch>> newMatches = uncheckedParagraphs.isEmpty() ? new HashMap<String, List<RuleMatch>>() :
+        runCheck(lang, uncheckedLength, new Check<Map<String, List<RuleMatch>>>() {
+          @Override
+          public Map<String, List<RuleMatch>> run(CancellationToken cancellationToken) throws Exception {
+            return getParagraphMatches(uncheckedParagraphs, configuration, lang, motherTongue, params, cancellationToken);
+          }
+        });
+    final StringBuilder text = new StringBuilder(textLength);
+    final List<RuleMatch> matches = new ArrayList<>();
+    int lineCount = 0;
+    int columnCount = 1;
+    for (int i = 0; i < paragraphs.size(); i++) {
+      final String paragraph = paragraphs.get(i);
+      final List<RuleMatch> matchesInParagraph = paragraphMatches.get(i) != null ?
+              paragraphMatches.get(i) : newMatches.get(ParagraphMatchCache.hash(paragraph));
+      for (RuleMatch match : matchesInParagraph) {
+        matches.add(JLanguageTool.moveRuleMatch(match, text.length(), lineCount, columnCount));
+      }
+      text.append(paragraph);
+      final int lastLineBreak = paragraph.lastIndexOf('\n');
+      lineCount += StringUtils.countMatches(paragraph, "\n");
+      columnCount = lastLineBreak == -1 ? columnCount + paragraph.length() : paragraph.length() - lastLineBreak;
+    }
+    final boolean gzip = isGzipAccepted(httpExchange);
+    if (gzip) {
+      httpExchange.getResponseHeaders().set("Content-Encoding", "gzip");
+    }
+    String messageSent = "sent";
+    try {
+      httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+      try (Writer writer = getResponseWriter(httpExchange.getResponseBody(), gzip)) {
+        final long startTime = System.nanoTime();
+        writeResponse(writer, text.toString(), lang, motherTongue, matches, true);
+        if (checkMetrics != null) {
+          checkMetrics.recordPhase(lang, CheckMetrics.Phase.SERIALIZATION, System.nanoTime() - startTime);
+        }
+      }
+    } catch (IOException exception) {
+      // the client is disconnected
+      messageSent = "notSent: " + exception.getMessage();
+    }
+    printDone("Paragraph check", textLength + " chars, " + lang.getShortNameWithCountryAndVariant() + ", "
+            + paragraphs.size() + " paragraphs, " + uncheckedParagraphs.size() + " checked (" + uncheckedLength + " chars)",
+            matches.size() + " matches", timeStart, messageSent);
+  }
+
+  private Map<String, List<RuleMatch>> getParagraphMatches(Map<String, String> paragraphs, JLanguageToolPool.Key configuration,
+                                                           Language lang, Language motherTongue, QueryParams params,
+                                                           CancellationToken cancellationToken) throws Exception {
+    final Map<String, List<RuleMatch>> result = new HashMap<>();
+    final JLanguageTool lt = getLanguageToolInstance(lang, motherTongue, params);
+    lt.setCancellationToken(cancellationToken);
+    for (Map.Entry<String, String> entry : paragraphs.entrySet()) {
+      final List<RuleMatch> matches = lt.check(entry.getValue(), true, JLanguageTool.ParagraphHandling.NORMAL);
+      result.put(entry.getKey(), matches);
+      if (paragraphMatchCache != null) {
+        paragraphMatchCache.put(configuration, entry.getValue(), matches);
+      }
+    }
+    lt.setCancellationToken(null);
+    releaseLanguageToolInstance(lang, motherTongue, params, lt);
+    return result;
+  }
+
+  private Language getMotherTongue(Map<String, String> parameters) {
     final String motherTongueParam = parameters.get("motherTongue");
-    final Language motherTongue = motherTongueParam != null ? Language.getLanguageForShortName(motherTongueParam) : null;
+    return motherTongueParam != null ? Language.getLanguageForShortName(motherTongueParam) : null;
+  }
+
+  private QueryParams getQueryParams(Map<String, String> parameters) {
     final boolean useEnabledOnly = "yes".equals(parameters.get("enabledOnly"));
     final String enabledParam = parameters.get("enabled");
     final List<String> enabledRules = new ArrayList<>();
@@ -265,47 +1011,75 @@ class LanguageToolHttpHandler implements HttpHandler {
     }
     
     final boolean useQuerySettings = enabledRules.size() > 0 || disabledRules.size() > 0;
-    final QueryParams params = new QueryParams(enabledRules, disabledRules, useEnabledOnly, useQuerySettings);
-    
-    final Future<List<RuleMatch>> future = executorService.submit(new Callable<List<RuleMatch>>() {
-      @Override
-      public List<RuleMatch> call() throws Exception {
-        return getRuleMatches(text, parameters, lang, motherTongue, params);
-      }
-    });
-    final List<RuleMatch> matches;
-    if (maxCheckTimeMillis < 0) {
-      matches = future.get();
-    } else {
-      try {
-        matches = future.get(maxCheckTimeMillis, TimeUnit.MILLISECONDS);
-      } catch (TimeoutException e) {
-        throw new RuntimeException("Text checking took longer than allowed maximum of " + maxCheckTimeMillis +
-                " milliseconds (handleCount: " + handleCount + ", queue size: " + workQueue.size() +
-                ", language: " + lang.getShortNameWithCountryAndVariant() +
-                ", " + text.length() + " characters of text)", e);
+    return new QueryParams(enabledRules, disabledRules, useEnabledOnly, useQuerySettings);
+  }
+
+  /**
+   * Run a check on the executor, after waiting until the admission controller lets it start,
+   * and stop it when it takes longer than allowed.
+   * @param textLength the length of the text to be checked, to estimate the work needed
+   */
+  private <T> T runCheck(final Language lang, int textLength, final Check<T> check) throws Exception {
+    // waits while the server is busy, or throws a ServerBusyException if it's too busy:
+    final AdmissionController.Ticket ticket = admissionController != null ? admissionController.acquire(lang, textLength) : null;
+    // lets the check stop when it takes too long, so it doesn't keep a thread busy after we gave up on it:
+    final CancellationToken cancellationToken = maxCheckTimeMillis < 0 ? new CancellationToken() : CancellationToken.withTimeout(maxCheckTimeMillis);
+    final Future<T> future;
+    try {
+      future = executorService.submit(new Callable<T>() {
+        @Override
+        public T call() throws Exception {
+          final long startTime = System.nanoTime();
+          try {
+            return check.run(cancellationToken);
+          } finally {
+            if (ticket != null) {
+              admissionController.release(ticket);
+            }
+            if (checkMetrics != null) {
+              checkMetrics.recordPhase(lang, CheckMetrics.Phase.CHECK, System.nanoTime() - startTime);
+            }
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      if (ticket != null) {
+        admissionController.release(ticket);
       }
+      throw e;
     }
-    
-    setCommonHeaders(httpExchange);
-    String xmlResponse = getXmlResponse(text, lang, motherTongue, matches);
-    String messageSent = "sent";
-    String languageMessage = lang.getShortNameWithCountryAndVariant();
-    final String referrer = httpExchange.getRequestHeaders().getFirst("Referer");
     try {
-      httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, xmlResponse.getBytes(ENCODING).length);
-      httpExchange.getResponseBody().write(xmlResponse.getBytes(ENCODING));
-      if (motherTongue != null) {
-        languageMessage += " (mother tongue: " + motherTongue.getShortNameWithCountryAndVariant() + ")";
+      if (maxCheckTimeMillis < 0) {
+        return future.get();
+      } else {
+        return future.get(maxCheckTimeMillis, TimeUnit.MILLISECONDS);
       }
-    } catch (IOException exception) {
-      // the client is disconnected
-      messageSent = "notSent: " + exception.getMessage();
+    } catch (TimeoutException e) {
+      cancellationToken.cancel();
+      throw new RuntimeException(getTimeoutMessage(textLength, lang), e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof CheckCancelledException) {
+        // the deadline passed just before the timeout of future.get():
+        throw new RuntimeException(getTimeoutMessage(textLength, lang), new TimeoutException(e.getCause().getMessage()));
+      }
+      throw e;
+    } catch (InterruptedException e) {
+      cancellationToken.cancel();
+      throw e;
     }
-    print("Check done: " + text.length() + " chars, " + languageMessage + ", " + referrer + ", "
-            + "handlers:" + handleCount + ", queue:" + workQueue.size() + ", " + matches.size() + " matches, "
-            + (System.currentTimeMillis() - timeStart) + "ms"
-            + ", " + messageSent);
+  }
+
+  private long getCacheHitPercentage() {
+    final long hits = sentenceMatchCache.getHitCount();
+    final long total = hits + sentenceMatchCache.getMissCount();
+    return total > 0 ? hits * 100 / total : 0;
+  }
+
+  private String getTimeoutMessage(int textLength, Language lang) {
+    return "Text checking took longer than allowed maximum of " + maxCheckTimeMillis +
+            " milliseconds (handleCount: " + handleCount + ", queue size: " + workQueue.size() +
+            ", language: " + lang.getShortNameWithCountryAndVariant() +
+            ", " + textLength + " characters of text)";
   }
 
   private boolean getLanguageAutoDetect(Map<String, String> parameters) {
@@ -336,11 +1110,15 @@ class LanguageToolHttpHandler implements HttpHandler {
   }
 
   private List<RuleMatch> getRuleMatches(String text, Map<String, String> parameters, Language lang,
-                                         Language motherTongue, QueryParams params) throws Exception {
+                                         Language motherTongue, QueryParams params, CancellationToken cancellationToken) throws Exception {
     final String sourceText = parameters.get("srctext");
     if (sourceText == null) {
       final JLanguageTool lt = getLanguageToolInstance(lang, motherTongue, params);
-      return lt.check(text);
+      lt.setCancellationToken(cancellationToken);
+      final List<RuleMatch> matches = lt.check(text);
+      lt.setCancellationToken(null);
+      releaseLanguageToolInstance(lang, motherTongue, params, lt);
+      return matches;
     } else {
       if (parameters.get("motherTongue") == null) {
         throw new IllegalArgumentException("Missing 'motherTongue' parameter for bilingual checks");
@@ -350,19 +1128,57 @@ class LanguageToolHttpHandler implements HttpHandler {
           motherTongue + " and target language " + lang.getShortNameWithCountryAndVariant());
       final JLanguageTool sourceLt = getLanguageToolInstance(motherTongue, null, params);
       final JLanguageTool targetLt = getLanguageToolInstance(lang, null, params);
+      sourceLt.setCancellationToken(cancellationToken);
+      targetLt.setCancellationToken(cancellationToken);
       final List<BitextRule> bRules = Tools.getBitextRules(motherTongue, lang);
-      return Tools.checkBitext(sourceText, text, sourceLt, targetLt, bRules);
+      final List<RuleMatch> matches = Tools.checkBitext(sourceText, text, sourceLt, targetLt, bRules);
+      sourceLt.setCancellationToken(null);
+      targetLt.setCancellationToken(null);
+      releaseLanguageToolInstance(motherTongue, null, params, sourceLt);
+      releaseLanguageToolInstance(lang, null, params, targetLt);
+      return matches;
     }
   }
 
-  private String getXmlResponse(String text, Language lang, Language motherTongue, List<RuleMatch> matches) {
+  private void writeResponse(Writer writer, String text, Language lang, Language motherTongue,
+                             List<RuleMatch> matches, boolean json) throws IOException {
     if (afterTheDeadlineMode) {
       AtDXmlSerializer serializer = new AtDXmlSerializer();
-      return serializer.ruleMatchesToXml(matches, text);
+      serializer.ruleMatchesToXml(matches, text, writer);
+    } else if (json) {
+      RuleAsJsonSerializer serializer = new RuleAsJsonSerializer();
+      serializer.ruleMatchesToJson(matches, text, CONTEXT_SIZE, lang, motherTongue, writer);
     } else {
       RuleAsXmlSerializer serializer = new RuleAsXmlSerializer();
-      return serializer.ruleMatchesToXml(matches, text, CONTEXT_SIZE, lang, motherTongue);
+      serializer.ruleMatchesToXml(matches, text, CONTEXT_SIZE, lang, motherTongue, writer);
+    }
+  }
+
+  /**
+   * JSON is returned for the parameter {@code format=json}, or if the client prefers it according to the Accept header
+   * and doesn't ask for {@code format=xml}.
+   */
+  private boolean isJsonRequested(HttpExchange httpExchange, Map<String, String> parameters) {
+    final String format = parameters.get("format");
+    if (format != null) {
+      if (!format.equals("json") && !format.equals("xml")) {
+        throw new IllegalArgumentException("Unknown format '" + format + "', use 'xml' or 'json'");
+      }
+      return format.equals("json");
     }
+    final String accept = httpExchange.getRequestHeaders().getFirst("Accept");
+    return accept != null && accept.contains("application/json") && !accept.contains("text/xml");
+  }
+
+  private boolean isGzipAccepted(HttpExchange httpExchange) {
+    final String acceptEncoding = httpExchange.getRequestHeaders().getFirst("Accept-Encoding");
+    return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+  }
+
+  private Writer getResponseWriter(OutputStream out, boolean gzip) throws IOException {
+    // syncFlush, so flush() sends what has been written so far also with gzip:
+    final OutputStream stream = gzip ? new GZIPOutputStream(out, BUFFER_SIZE, true) : out;
+    return new BufferedWriter(new OutputStreamWriter(stream, ENCODING), BUFFER_SIZE);
   }
 
   private Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
@@ -400,13 +1216,45 @@ class LanguageToolHttpHandler implements HttpHandler {
   }
 
   /**
-   * Create a JLanguageTool instance for a specific language, mother tongue, and rule configuration.
+   * Get a JLanguageTool instance for a specific language, mother tongue, and rule configuration.
+   * The instance is taken from the instance pool if possible, otherwise a new one is created.
+   * Call {@link #releaseLanguageToolInstance(Language, Language, QueryParams, JLanguageTool)}
+   * when the check has finished without errors.
    *
    * @param lang the language to be used.
    * @param motherTongue the user's mother tongue or {@code null}
    */
   private JLanguageTool getLanguageToolInstance(Language lang, Language motherTongue, QueryParams params) throws Exception {
+    if (isPoolable(params)) {
+      final JLanguageTool pooledLanguageTool = instancePool.borrow(new JLanguageToolPool.Key(lang, motherTongue, params));
+      if (pooledLanguageTool != null) {
+        return pooledLanguageTool;
+      }
+    }
+    return createLanguageToolInstance(lang, motherTongue, params);
+  }
+
+  /**
+   * Give an instance back to the pool so that later requests with the same
+   * configuration can use it. Don't call this when the check has failed, as the
+   * instance might be in an inconsistent state then.
+   */
+  private void releaseLanguageToolInstance(Language lang, Language motherTongue, QueryParams params, JLanguageTool lt) {
+    if (isPoolable(params)) {
+      instancePool.giveBack(new JLanguageToolPool.Key(lang, motherTongue, params), lt);
+    }
+  }
+
+  private boolean isPoolable(QueryParams params) {
+    // the GUI configuration may change at any time, so don't re-use those instances:
+    return instancePool != null && !(internalServer && !params.useQuerySettings);
+  }
+
+  private JLanguageTool createLanguageToolInstance(Language lang, Language motherTongue, QueryParams params) throws Exception {
     final JLanguageTool newLanguageTool = new JLanguageTool(lang, motherTongue);
+    usedLanguages.putIfAbsent(lang.getShortNameWithCountryAndVariant(), lang);
+    newLanguageTool.setSentenceMatchCache(sentenceMatchCache);
+    newLanguageTool.setCheckMetrics(checkMetrics);
     newLanguageTool.activateDefaultPatternRules();
     newLanguageTool.activateDefaultFalseFriendRules();
     final Configuration config = new Configuration(lang);
@@ -471,7 +1319,163 @@ class LanguageToolHttpHandler implements HttpHandler {
     return xmlBuffer.toString();
   }
 
-  private class QueryParams {
+  /**
+   * A check that can be stopped with a {@link CancellationToken}.
+   */
+  private interface Check<T> {
+    T run(CancellationToken cancellationToken) throws Exception;
+  }
+
+  /**
+   * Checks documents of a batch request until there are none left. Consecutive documents with the
+   * same configuration use the same {@link JLanguageTool} instance.
+   */
+  private class BatchWorker implements Runnable {
+
+    private final Queue<BatchDocument> documents;
+    private final BlockingQueue<BatchResult> results;
+    private final BatchCancellation cancellation;
+
+    private BatchDocument instanceDocument;
+    private JLanguageTool instance;
+
+    BatchWorker(Queue<BatchDocument> documents, BlockingQueue<BatchResult> results, BatchCancellation cancellation) {
+      this.documents = documents;
+      this.results = results;
+      this.cancellation = cancellation;
+    }
+
+    @Override
+    public void run() {
+      try {
+        BatchDocument document;
+        while ((document = documents.poll()) != null) {
+          BatchResult result = null;
+          try {
+            result = check(document);
+          } finally {
+            // the request waits for a result of each document, so there must be one even in case of an Error:
+            results.add(result != null ? result : new BatchResult(document.id, document, null, "Internal error"));
+          }
+        }
+      } finally {
+        releaseInstance();
+      }
+    }
+
+    private BatchResult check(BatchDocument document) {
+      final CancellationToken cancellationToken = maxCheckTimeMillis < 0 ? new CancellationToken() : CancellationToken.withTimeout(maxCheckTimeMillis);
+      AdmissionController.Ticket ticket = null;
+      try {
+        cancellation.add(cancellationToken);
+        cancellationToken.throwIfCancelled();
+        ticket = admissionController != null ? admissionController.acquire(document.lang, document.text.length()) : null;
+        if (instanceDocument == null || !instanceDocument.key.equals(document.key)) {
+          releaseInstance();
+          instance = getLanguageToolInstance(document.lang, document.motherTongue, document.params);
+          instanceDocument = document;
+        }
+        instance.setCancellationToken(cancellationToken);
+        final long startTime = System.nanoTime();
+        final List<RuleMatch> matches = instance.check(document.text);
+        if (checkMetrics != null) {
+          checkMetrics.recordPhase(document.lang, CheckMetrics.Phase.CHECK, System.nanoTime() - startTime);
+        }
+        instance.setCancellationToken(null);
+        return new BatchResult(document.id, document, matches, null);
+      } catch (CheckCancelledException e) {
+        instance = null;
+        instanceDocument = null;
+        return new BatchResult(document.id, document, null, getTimeoutMessage(document.text.length(), document.lang));
+      } catch (ServerBusyException e) {
+        return new BatchResult(document.id, document, null, e.getMessage());
+      } catch (Exception e) {
+        print("An error has occurred in a batch check. Stacktrace follows:", System.err);
+        //noinspection CallToPrintStackTrace
+        e.printStackTrace();
+        // the instance might be in an inconsistent state now:
+        instance = null;
+        instanceDocument = null;
+        return new BatchResult(document.id, document, null, e.toString());
+      } finally {
+        cancellation.remove(cancellationToken);
+        if (ticket != null) {
+          admissionController.release(ticket);
+        }
+      }
+    }
+
+    private void releaseInstance() {
+      if (instance != null) {
+        releaseLanguageToolInstance(instanceDocument.lang, instanceDocument.motherTongue, instanceDocument.params, instance);
+        instance = null;
+        instanceDocument = null;
+      }
+    }
+  }
+
+  /**
+   * The tokens of the running checks of a batch request, so they can be stopped together.
+   */
+  private static class BatchCancellation {
+
+    private final Set<CancellationToken> tokens = Collections.newSetFromMap(new ConcurrentHashMap<CancellationToken, Boolean>());
+
+    private volatile boolean cancelled;
+
+    void add(CancellationToken token) {
+      tokens.add(token);
+      // checked after adding, so a token added while cancel() runs also gets cancelled:
+      if (cancelled) {
+        token.cancel();
+      }
+    }
+
+    void remove(CancellationToken token) {
+      tokens.remove(token);
+    }
+
+    void cancel() {
+      cancelled = true;
+      for (CancellationToken token : tokens) {
+        token.cancel();
+      }
+    }
+  }
+
+  private static class BatchDocument {
+    final String id;
+    final String text;
+    final Language lang;
+    final Language motherTongue;
+    final QueryParams params;
+    final JLanguageToolPool.Key key;
+
+    BatchDocument(String id, String text, Language lang, Language motherTongue, QueryParams params) {
+      this.id = id;
+      this.text = text;
+      this.lang = lang;
+      this.motherTongue = motherTongue;
+      this.params = params;
+      this.key = new JLanguageToolPool.Key(lang, motherTongue, params);
+    }
+  }
+
+  private static class BatchResult {
+    final String id;
+    final BatchDocument document;
+    final List<RuleMatch> matches;
+    final String error;
+
+    BatchResult(String id, BatchDocument document, List<RuleMatch> matches, String error) {
+      this.id = id;
+      this.document = document;
+      this.matches = matches;
+      this.error = error;
+    }
+  }
+
+  static class QueryParams {
     final List<String> enabledRules;
     final List<String> disabledRules;
     final boolean useEnabledOnly;
@@ -483,6 +1487,22 @@ class LanguageToolHttpHandler implements HttpHandler {
       this.useEnabledOnly = useEnabledOnly;
       this.useQuerySettings = useQuerySettings;
     }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      final QueryParams other = (QueryParams) o;
+      return useEnabledOnly == other.useEnabledOnly
+          && useQuerySettings == other.useQuerySettings
+          && enabledRules.equals(other.enabledRules)
+          && disabledRules.equals(other.disabledRules);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(enabledRules, disabledRules, useEnabledOnly, useQuerySettings);
+    }
   }
 
 }
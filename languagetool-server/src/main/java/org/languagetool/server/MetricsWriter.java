@@ -0,0 +1,109 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes metrics in the text format of Prometheus (http://prometheus.io), version 0.0.4.
+ * @since 2.7
+ */
+class MetricsWriter {
+
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=UTF-8";
+
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final Writer writer;
+
+  MetricsWriter(Writer writer) {
+    this.writer = writer;
+  }
+
+  /**
+   * Get labels formatted for {@link #writeSample(String, String, double)}.
+   * @param namesAndValues label names and their values, alternating
+   */
+  static String labels(String... namesAndValues) {
+    if (namesAndValues.length % 2 != 0) {
+      throw new IllegalArgumentException("Names and values expected: " + namesAndValues.length);
+    }
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < namesAndValues.length; i += 2) {
+      sb.append(i == 0 ? "{" : ",");
+      sb.append(namesAndValues[i]).append("=\"").append(escapeLabelValue(namesAndValues[i + 1])).append('"');
+    }
+    return sb.length() > 0 ? sb.append('}').toString() : "";
+  }
+
+  private static String escapeLabelValue(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  /**
+   * Write the help text and the type of a metric, before its samples.
+   * @param type {@code counter}, {@code gauge}, or {@code histogram}
+   */
+  void writeHeader(String name, String type, String help) throws IOException {
+    writer.write("# HELP " + name + " " + help.replace("\\", "\\\\").replace("\n", "\\n") + "\n");
+    writer.write("# TYPE " + name + " " + type + "\n");
+  }
+
+  void writeSample(String name, String labels, double value) throws IOException {
+    writer.write(name + labels + " " + format(value) + "\n");
+  }
+
+  /**
+   * Write a metric that only has one sample without labels.
+   */
+  void writeMetric(String name, String type, String help, double value) throws IOException {
+    writeHeader(name, type, help);
+    writeSample(name, "", value);
+  }
+
+  /**
+   * Write the samples of a histogram, in seconds.
+   * @param labels the labels, formatted with {@link #labels(String...)}
+   */
+  void writeHistogram(String name, String labels, LatencyHistogram histogram) throws IOException {
+    final long[] limits = LatencyHistogram.getBucketLimitsNanos();
+    final long[] counts = histogram.getBucketCounts();
+    final String labelPrefix = labels.isEmpty() ? "{" : labels.substring(0, labels.length() - 1) + ",";
+    long cumulativeCount = 0;
+    for (int i = 0; i < counts.length; i++) {
+      cumulativeCount += counts[i];
+      final String limit = i < limits.length ? format(limits[i] / NANOS_PER_SECOND) : "+Inf";
+      writeSample(name + "_bucket", labelPrefix + "le=\"" + limit + "\"}", cumulativeCount);
+    }
+    writeSample(name + "_sum", labels, histogram.getSumNanos() / NANOS_PER_SECOND);
+    writeSample(name + "_count", labels, cumulativeCount);
+  }
+
+  private static String format(double value) {
+    if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+      return Long.toString((long) value);
+    }
+    return Double.toString(value);
+  }
+
+}
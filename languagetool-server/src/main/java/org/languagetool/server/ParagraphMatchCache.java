@@ -0,0 +1,136 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.tools.LruCache;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps the text and the matches of paragraphs that have been checked, addressed by the hash
+ * of their content, so that clients which send a document again after an edit only need
+ * to have the changed paragraphs checked - and only need to send their text. The positions
+ * of the matches are relative to the paragraph. As the matches depend on the rule configuration,
+ * it is part of the key.
+ *
+ * <p>The cache size is limited by the total length of the cached paragraphs. When it's full,
+ * the paragraphs that were used least recently are removed, so the paragraphs of documents
+ * that are still being edited stay in the cache.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 2.7
+ */
+class ParagraphMatchCache {
+
+  private final LruCache<Key, Entry> cache;
+
+  /**
+   * @param maxWeight maximum total length of the cached paragraphs in characters
+   */
+  ParagraphMatchCache(long maxWeight) {
+    cache = new LruCache<>(maxWeight);
+  }
+
+  /**
+   * Get the hash that identifies a paragraph: the SHA-256 of its UTF-8 encoding, as a lowercase hex string.
+   */
+  static String hash(String paragraph) {
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-256").digest(paragraph.getBytes("UTF-8"));
+      final StringBuilder sb = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+        sb.append(Character.forDigit(b & 0xF, 16));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * @return the paragraph checked with the given configuration, or {@code null} if it's not in the cache
+   */
+  Entry get(JLanguageToolPool.Key configuration, String hash) {
+    return cache.get(new Key(configuration, hash));
+  }
+
+  /**
+   * Add a paragraph that has been checked with the given configuration.
+   * @param matches the matches, with positions relative to the paragraph
+   */
+  void put(JLanguageToolPool.Key configuration, String paragraph, List<RuleMatch> matches) {
+    cache.putIfAbsent(new Key(configuration, hash(paragraph)), new Entry(paragraph, matches), paragraph.length());
+  }
+
+  int size() {
+    return cache.getSize();
+  }
+
+  long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  static class Entry {
+
+    final String paragraph;
+    final List<RuleMatch> matches;
+
+    private Entry(String paragraph, List<RuleMatch> matches) {
+      this.paragraph = paragraph;
+      this.matches = Collections.unmodifiableList(matches);
+    }
+  }
+
+  private static class Key {
+
+    private final JLanguageToolPool.Key configuration;
+    private final String hash;
+
+    private Key(JLanguageToolPool.Key configuration, String hash) {
+      this.configuration = Objects.requireNonNull(configuration);
+      this.hash = Objects.requireNonNull(hash);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      final Key other = (Key) o;
+      return hash.equals(other.hash) && configuration.equals(other.configuration);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(configuration, hash);
+    }
+  }
+
+}
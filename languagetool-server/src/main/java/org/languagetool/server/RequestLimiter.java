@@ -18,29 +18,52 @@
  */
 package org.languagetool.server;
 
-import java.util.Date;
 import java.util.Iterator;
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Limit the maximum number of request per IP address for a given time range.
+ * Limit the maximum number of request per IP address for a given time range,
+ * and optionally the total length of the texts sent by an IP address.
+ *
+ * <p>Each IP address has a token bucket that holds up to {@code requestLimit} requests and that
+ * is refilled over {@code requestLimitPeriodInSeconds}, so a client may send a burst of
+ * {@code requestLimit} requests, and then one request whenever a token has been refilled.
+ * IP addresses don't share any state, so requests from different clients don't slow each
+ * other down, and the memory needed per client is constant. Clients that have been idle
+ * for the limit period are removed, as their bucket is full again anyway.</p>
  */
 class RequestLimiter {
 
-  private static final int API_REQUEST_QUEUE_SIZE = 1000;
-
-  private final List<RequestEvent> requestEvents = new CopyOnWriteArrayList<>();
+  private final ConcurrentMap<String, Client> clients = new ConcurrentHashMap<>();
+  private final AtomicLong nextExpiration = new AtomicLong(System.nanoTime());
   private final int requestLimit;
+  private final int requestLimitInChars;
   private final int requestLimitPeriodInSeconds;
+  private final long periodNanos;
 
   /**
    * @param requestLimit the maximum number of request per <tt>requestLimitPeriodInSeconds</tt>
    * @param requestLimitPeriodInSeconds the time period over which requests are considered, in seconds
    */
   RequestLimiter(int requestLimit, int requestLimitPeriodInSeconds) {
+    this(requestLimit, 0, requestLimitPeriodInSeconds);
+  }
+
+  /**
+   * @param requestLimit the maximum number of request per <tt>requestLimitPeriodInSeconds</tt>
+   * @param requestLimitInChars the maximum total text length in characters per <tt>requestLimitPeriodInSeconds</tt>,
+   *                            {@code 0} for no limit
+   * @param requestLimitPeriodInSeconds the time period over which requests are considered, in seconds
+   * @since 2.7
+   */
+  RequestLimiter(int requestLimit, int requestLimitInChars, int requestLimitPeriodInSeconds) {
     this.requestLimit = requestLimit;
+    this.requestLimitInChars = requestLimitInChars;
     this.requestLimitPeriodInSeconds = requestLimitPeriodInSeconds;
+    this.periodNanos = TimeUnit.SECONDS.toNanos(requestLimitPeriodInSeconds);
   }
 
   /**
@@ -50,6 +73,14 @@ class RequestLimiter {
     return requestLimit;
   }
 
+  /**
+   * The maximum total text length per {@link #getRequestLimitPeriodInSeconds()}, {@code 0} for no limit.
+   * @since 2.7
+   */
+  int getRequestLimitInChars() {
+    return requestLimitInChars;
+  }
+
   /**
    * The time period over which requests are considered, in seconds.
    */
@@ -62,38 +93,99 @@ class RequestLimiter {
    * @return true if access is allowed because the request limit is not reached yet
    */
   boolean isAccessOkay(String ipAddress) {
-    while (requestEvents.size() > API_REQUEST_QUEUE_SIZE) {
-      requestEvents.remove(0);
+    return isAccessOkay(ipAddress, 0);
+  }
+
+  /**
+   * @param ipAddress the client's IP address
+   * @param textLength the length of the text the client wants to have checked
+   * @return true if access is allowed because neither the request limit nor the text length limit is reached yet
+   * @since 2.7
+   */
+  boolean isAccessOkay(String ipAddress, int textLength) {
+    final long now = System.nanoTime();
+    expireIdleClientsIfDue(now);
+    while (true) {
+      Client client = clients.get(ipAddress);
+      if (client == null) {
+        final Client newClient = new Client(now);
+        client = clients.putIfAbsent(ipAddress, newClient);
+        if (client == null) {
+          client = newClient;
+        }
+      }
+      synchronized (client) {
+        if (!client.expired) {
+          return client.tryAcquire(now, textLength);
+        }
+      }
+      // the client has just been removed because it was idle, so use a new one
     }
-    requestEvents.add(new RequestEvent(ipAddress, new Date()));
-    return !limitReached(ipAddress);
   }
-  
-  private boolean limitReached(String ipAddress) {
-    int requestsByIp = 0;
-    // all requests before this date are considered old:
-    Date thresholdDate = new Date(System.currentTimeMillis() - requestLimitPeriodInSeconds * 1000);
-    Iterator<RequestEvent> iterator = requestEvents.iterator();
+
+  /**
+   * Whether a single text is longer than {@link #getRequestLimitInChars()}, so that it would never
+   * be accepted by {@link #isAccessOkay(String, int)}, no matter how long the client waits.
+   * @since 2.7
+   */
+  boolean exceedsCharLimit(int textLength) {
+    return requestLimitInChars > 0 && textLength > requestLimitInChars;
+  }
+
+  /**
+   * Number of IP addresses for which requests are being tracked.
+   * @since 2.7
+   */
+  int getClientCount() {
+    return clients.size();
+  }
+
+  private void expireIdleClientsIfDue(long now) {
+    final long expiration = nextExpiration.get();
+    if (now - expiration < 0 || !nextExpiration.compareAndSet(expiration, now + Math.max(periodNanos, TimeUnit.SECONDS.toNanos(1)))) {
+      return;  // not due yet or another thread is doing it
+    }
+    final Iterator<Client> iterator = clients.values().iterator();
     while (iterator.hasNext()) {
-      RequestEvent requestEvent = iterator.next();
-      if (requestEvent.ip.equals(ipAddress) && requestEvent.date.after(thresholdDate)) {
-        requestsByIp++;
-        if (requestsByIp > requestLimit) {
-          return true;
+      final Client client = iterator.next();
+      synchronized (client) {
+        if (now - client.lastRefill >= periodNanos) {
+          client.expired = true;
+          iterator.remove();
         }
       }
     }
-    return false;
   }
-  
-  class RequestEvent {
 
-    private final String ip;
-    private final Date date;
+  private class Client {
+
+    private double requests;
+    private double chars;
+    private long lastRefill;
+    private boolean expired;
 
-    RequestEvent(String ip, Date date) {
-      this.ip = ip;
-      this.date = date;
+    Client(long now) {
+      this.requests = requestLimit;
+      this.chars = requestLimitInChars;
+      this.lastRefill = now;
+    }
+
+    boolean tryAcquire(long now, int textLength) {
+      if (now - lastRefill >= periodNanos) {
+        requests = requestLimit;
+        chars = requestLimitInChars;
+      } else {
+        final double refillRatio = (double) (now - lastRefill) / periodNanos;
+        requests = Math.min(requestLimit, requests + refillRatio * requestLimit);
+        chars = Math.min(requestLimitInChars, chars + refillRatio * requestLimitInChars);
+      }
+      lastRefill = now;
+      if (requests < 1 || (requestLimitInChars > 0 && chars < textLength)) {
+        return false;
+      }
+      requests--;
+      chars -= textLength;
+      return true;
     }
   }
 
@@ -19,12 +19,15 @@
 package org.languagetool.server;
 
 import com.sun.net.httpserver.HttpServer;
+import org.languagetool.CheckMetrics;
 import org.languagetool.JLanguageTool;
+import org.languagetool.SentenceMatchCache;
 
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -45,12 +48,15 @@ abstract class Server {
             "127.0.0.1"
     ));
   static final int THREAD_POOL_SIZE = 10;
+  private static final int REJECTION_THREADS = 2;
 
   protected int port;
   protected String host;
   protected HttpServer server;
   protected LanguageToolHttpHandler httpHandler;
 
+  private WarmUp warmUp;
+  private ThreadPoolExecutor rejectionExecutor;
   private boolean isRunning;
 
   /**
@@ -63,15 +69,32 @@ abstract class Server {
     server.start();
     isRunning = true;
     System.out.println("Server started");
+    if (warmUp != null) {
+      // the server already answers requests during the warm-up, but only reports to be ready afterwards:
+      final Thread warmUpThread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          warmUp.run(httpHandler);
+        }
+      }, "languagetool-warm-up");
+      warmUpThread.setDaemon(true);
+      warmUpThread.start();
+    }
   }
 
   /**
    * Stop the server. Once stopped, a server cannot be used again.
    */
   public void stop() {
+    if (warmUp != null) {
+      warmUp.stop();
+    }
     if (httpHandler != null) {
       httpHandler.shutdown();
     }
+    if (rejectionExecutor != null) {
+      rejectionExecutor.shutdownNow();
+    }
     if (server != null) {
       System.out.println("Stopping server");
       server.stop(0);
@@ -101,12 +124,112 @@ abstract class Server {
     System.out.println("                         example: --allow-origin \"*\"");
   }
 
+  /**
+   * Let the handler re-use LanguageTool instances, if configured.
+   * @since 2.7
+   */
+  protected void setUpInstancePool(HTTPServerConfig config) {
+    if (config.getInstancePoolSize() > 0) {
+      httpHandler.setInstancePool(new JLanguageToolPool(config.getInstancePoolSize(), config.getInstancePoolMaxIdleSeconds() * 1000L));
+    }
+  }
+
+  /**
+   * Warm up the configured languages after the server has been started.
+   * @since 2.7
+   */
+  protected void setUpWarmUp(HTTPServerConfig config) {
+    if (!config.getWarmUpLanguages().isEmpty()) {
+      warmUp = new WarmUp(config.getWarmUpLanguages(), config.getWarmUpMaxSeconds() * 1000L);
+      httpHandler.setWarmUp(warmUp);
+    }
+  }
+
+  /**
+   * Let the handler cache the results of checking sentences, if configured.
+   * @since 2.7
+   */
+  protected void setUpSentenceMatchCache(HTTPServerConfig config) {
+    if (config.getSentenceCacheSize() > 0) {
+      httpHandler.setSentenceMatchCache(new SentenceMatchCache(config.getSentenceCacheSize()));
+    }
+  }
+
+  /**
+   * Let the handler cache the results of checking paragraphs, if configured.
+   * @since 2.7
+   */
+  protected void setUpParagraphMatchCache(HTTPServerConfig config) {
+    if (config.getParagraphCacheSize() > 0) {
+      httpHandler.setParagraphMatchCache(new ParagraphMatchCache(config.getParagraphCacheSize()));
+    }
+  }
+
+  /**
+   * Let the handler record metrics of the checks, if configured.
+   * @since 2.7
+   */
+  protected void setUpCheckMetrics(HTTPServerConfig config) {
+    if (config.isCheckMetrics()) {
+      httpHandler.setCheckMetrics(new CheckMetrics(config.isRuleMetrics()));
+    }
+  }
+
+  /**
+   * Let the handler limit the number of checks running at the same time, per language
+   * pool and in total, and reject requests when the server is too busy.
+   * @since 2.7
+   */
+  protected void setUpAdmissionControl(HTTPServerConfig config) {
+    for (LanguagePool pool : config.getLanguagePools()) {
+      System.out.println("Setting up language pool " + pool);
+    }
+    httpHandler.setAdmissionController(new AdmissionController(config.getMaxCheckThreads(),
+            config.getMaxCheckThreadsPerLanguage(), config.getMaxQueueSize(), config.getMaxWaitMillis(),
+            config.getLanguagePools()));
+  }
+
+  /**
+   * The queue of requests waiting for a thread of the HTTP server. It's bounded, as the
+   * {@link AdmissionController} only sees requests that have a thread.
+   * @since 2.7
+   */
+  protected LinkedBlockingQueue<Runnable> getWorkQueue(HTTPServerConfig config) {
+    return new LinkedBlockingQueue<>(Math.max(1, config.getMaxQueueSize()));
+  }
+
   protected ThreadPoolExecutor getExecutorService(LinkedBlockingQueue<Runnable> workQueue, HTTPServerConfig config) {
-    int threadPoolSize = config.getMaxCheckThreads();
-    System.out.println("Setting up thread pool with " + threadPoolSize + " threads");
-    return new ThreadPoolExecutor(threadPoolSize, threadPoolSize,
-            0L, TimeUnit.MILLISECONDS,
-            workQueue);
+    // the number of checks is limited by the AdmissionController, but requests that wait
+    // for their check and requests that get rejected need a thread, too:
+    final int threadPoolSize = config.getMaxCheckThreads() + config.getMaxQueueSize() + REJECTION_THREADS;
+    System.out.println("Setting up thread pool with " + config.getMaxCheckThreads() + " threads for checks and "
+            + config.getMaxQueueSize() + " waiting requests at most");
+    // requests that don't fit into the work queue get rejected with status 503 by threads of their own,
+    // as the dispatcher thread of the HTTP server must not block:
+    rejectionExecutor = new ThreadPoolExecutor(REJECTION_THREADS, REJECTION_THREADS,
+            60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(Math.max(1, config.getMaxQueueSize())),
+            new RejectedExecutionHandler() {
+              @Override
+              public void rejectedExecution(Runnable exchange, ThreadPoolExecutor executor) {
+                // the exchange can only be answered and closed by running it, so do that right here - the
+                // handler doesn't read the request body of rejected requests, so this doesn't take long:
+                System.err.println("Rejecting request on the dispatcher thread, too many requests are waiting to be rejected");
+                exchange.run();
+              }
+            });
+    rejectionExecutor.allowCoreThreadTimeOut(true);
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(threadPoolSize, threadPoolSize,
+            60L, TimeUnit.SECONDS,
+            workQueue,
+            new RejectedExecutionHandler() {
+              @Override
+              public void rejectedExecution(Runnable exchange, ThreadPoolExecutor executor) {
+                rejectionExecutor.execute(LanguageToolHttpHandler.rejecting(exchange));
+              }
+            });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
 }
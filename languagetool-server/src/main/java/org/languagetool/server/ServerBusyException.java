@@ -0,0 +1,44 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+/**
+ * Thrown when the server doesn't accept a check because it is too busy, so the
+ * client gets an answer right away instead of waiting for a result that is late anyway.
+ * @since 2.7
+ */
+class ServerBusyException extends Exception {
+
+  private static final long serialVersionUID = 3284570915834170826L;
+
+  private final long retryAfterSeconds;
+
+  ServerBusyException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /**
+   * The estimated number of seconds after which the server might accept the request.
+   */
+  long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+
+}
@@ -0,0 +1,169 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.rules.IncorrectExample;
+import org.languagetool.rules.Rule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the rules of the configured languages and checks sample texts with them until
+ * the time per check has become stable, i.e. until the JIT compiler has optimized the
+ * code paths used for checking. The server is only reported as ready after this.
+ * The sample text of a language is built from the incorrect examples of its rules.
+ * @since 2.7
+ */
+class WarmUp {
+
+  static final int MIN_ROUNDS = 3;
+  static final int MAX_ROUNDS = 20;
+  /** The time of a round may differ by this fraction from the previous round to be considered stable. */
+  static final double MAX_DEVIATION = 0.1;
+
+  private static final int MAX_EXAMPLES = 100;
+
+  private final List<Language> languages;
+  private final long maxMillisPerLanguage;
+  private final Map<String, Long> durationMillis = new LinkedHashMap<>();
+
+  private volatile boolean done;
+  private volatile boolean stopped;
+
+  /**
+   * @param maxMillisPerLanguage maximum time to keep checking the sample text of a language,
+   *                             even if the time per check hasn't become stable yet
+   */
+  WarmUp(List<Language> languages, long maxMillisPerLanguage) {
+    this.languages = new ArrayList<>(languages);
+    this.maxMillisPerLanguage = maxMillisPerLanguage;
+  }
+
+  /**
+   * Warm up all languages one after the other and give the resulting instances to the
+   * handler's pool. Errors are logged but don't stop the warm-up, the affected language
+   * will then just be slow for the first requests.
+   */
+  void run(LanguageToolHttpHandler handler) {
+    try {
+      for (Language language : languages) {
+        if (stopped) {
+          return;
+        }
+        final long startTime = System.currentTimeMillis();
+        try {
+          final int rounds = warmUp(handler, language);
+          final long millis = System.currentTimeMillis() - startTime;
+          synchronized (durationMillis) {
+            durationMillis.put(language.getShortNameWithCountryAndVariant(), millis);
+          }
+          System.out.println("Warm-up of " + language.getShortNameWithCountryAndVariant() + " took " + millis + "ms, " + rounds + " rounds");
+        } catch (Exception e) {
+          System.err.println("Warm-up of " + language.getShortNameWithCountryAndVariant() + " failed:");
+          e.printStackTrace();
+        }
+      }
+    } finally {
+      done = true;
+    }
+  }
+
+  /**
+   * Ask {@link #run(LanguageToolHttpHandler)} to stop after the current language.
+   */
+  void stop() {
+    stopped = true;
+  }
+
+  /**
+   * @return whether all languages have been warmed up (or failed to warm up)
+   */
+  boolean isDone() {
+    return done;
+  }
+
+  /**
+   * @return the time used to warm up each language (variant) in milliseconds, in the order of the warm-up
+   */
+  Map<String, Long> getDurationMillis() {
+    synchronized (durationMillis) {
+      return Collections.unmodifiableMap(new LinkedHashMap<>(durationMillis));
+    }
+  }
+
+  private int warmUp(LanguageToolHttpHandler handler, Language language) throws Exception {
+    final JLanguageTool lt = handler.createDefaultLanguageToolInstance(language);
+    final String sampleText = getSampleText(lt.getAllActiveRules());
+    final long endTime = System.currentTimeMillis() + maxMillisPerLanguage;
+    final List<Long> roundNanos = new ArrayList<>();
+    do {
+      final long startTime = System.nanoTime();
+      lt.check(sampleText);
+      roundNanos.add(System.nanoTime() - startTime);
+    } while (!stopped && !isStable(roundNanos) && System.currentTimeMillis() < endTime);
+    handler.releaseDefaultLanguageToolInstance(language, lt);
+    return roundNanos.size();
+  }
+
+  /**
+   * Whether the time of the last round is close enough to the time of the round before
+   * to stop warming up.
+   */
+  static boolean isStable(List<Long> roundNanos) {
+    final int rounds = roundNanos.size();
+    if (rounds >= MAX_ROUNDS) {
+      return true;
+    }
+    if (rounds < MIN_ROUNDS) {
+      return false;
+    }
+    final long previous = roundNanos.get(rounds - 2);
+    final long last = roundNanos.get(rounds - 1);
+    return Math.abs(last - previous) <= previous * MAX_DEVIATION;
+  }
+
+  /**
+   * Build a text from the incorrect examples of the rules, taken from all over the list of rules
+   * so that different kinds of rules are covered. Each example is used as its own paragraph.
+   */
+  static String getSampleText(List<Rule> rules) {
+    final List<String> examples = new ArrayList<>();
+    for (Rule rule : rules) {
+      for (IncorrectExample example : rule.getIncorrectExamples()) {
+        examples.add(example.getExample().replace("<marker>", "").replace("</marker>", ""));
+      }
+    }
+    final StringBuilder sb = new StringBuilder();
+    final int count = Math.min(examples.size(), MAX_EXAMPLES);
+    for (int i = 0; i < count; i++) {
+      if (sb.length() > 0) {
+        sb.append("\n\n");
+      }
+      sb.append(examples.get((int) ((long) i * examples.size() / count)));
+    }
+    return sb.toString();
+  }
+
+}
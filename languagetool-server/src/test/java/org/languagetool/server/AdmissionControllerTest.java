@@ -0,0 +1,222 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+import org.languagetool.Language;
+import org.languagetool.language.English;
+import org.languagetool.language.German;
+import org.languagetool.language.GermanyGerman;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class AdmissionControllerTest {
+
+  @Test
+  public void testShortTextsFirst() throws Exception {
+    final AdmissionController controller = new AdmissionController(1, -1, 10, -1);
+    final AdmissionController.Ticket ticket = controller.acquire(new English(), 10);
+    final List<String> checked = Collections.synchronizedList(new ArrayList<String>());
+    final Thread longCheck = startCheck(controller, 10000, checked);
+    waitForQueueSize(controller, 1);
+    final Thread shortCheck = startCheck(controller, 10, checked);
+    waitForQueueSize(controller, 2);
+    controller.release(ticket);
+    longCheck.join();
+    shortCheck.join();
+    assertThat(checked, is(Arrays.asList("10", "10000")));
+    assertThat(controller.getRunningCount(), is(0));
+    assertThat(controller.getRejectedCount(), is(0L));
+  }
+
+  @Test
+  public void testQueueFull() throws Exception {
+    final AdmissionController controller = new AdmissionController(1, -1, 0, -1);
+    final AdmissionController.Ticket ticket = controller.acquire(new English(), 10);
+    try {
+      controller.acquire(new English(), 10);
+      fail("Request should have been rejected, as the queue is full");
+    } catch (ServerBusyException expected) {
+      assertTrue(expected.getRetryAfterSeconds() >= 1);
+    }
+    assertThat(controller.getRejectedCount(), is(1L));
+    assertThat(controller.getQueueSize(), is(0));
+    controller.release(ticket);
+    controller.release(controller.acquire(new English(), 10));
+  }
+
+  @Test
+  public void testMaxWait() throws Exception {
+    final AdmissionController controller = new AdmissionController(1, -1, 10, 100);
+    final AdmissionController.Ticket ticket = controller.acquire(new English(), 100000);
+    try {
+      controller.acquire(new English(), 10);
+      fail("Request should have been rejected, as the running check will take longer than the allowed waiting time");
+    } catch (ServerBusyException expected) {
+      // the check of 100000 characters is estimated to take some seconds:
+      assertTrue(expected.getRetryAfterSeconds() > 1);
+    }
+    assertThat(controller.getRejectedCount(), is(1L));
+    controller.release(ticket);
+  }
+
+  @Test
+  public void testMaxRunningChecksPerLanguage() throws Exception {
+    final AdmissionController controller = new AdmissionController(2, 1, 10, -1);
+    final AdmissionController.Ticket englishTicket = controller.acquire(new English(), 10);
+    final AdmissionController.Ticket germanTicket = controller.acquire(new German(), 10);
+    assertThat(controller.getRunningCount(), is(2));
+    controller.release(germanTicket);
+    final List<String> checked = Collections.synchronizedList(new ArrayList<String>());
+    final Thread secondEnglishCheck = startCheck(controller, 20, checked);
+    waitForQueueSize(controller, 1);
+    assertThat(controller.getRunningCount(), is(1));
+    controller.release(englishTicket);
+    secondEnglishCheck.join();
+    assertThat(checked, is(Arrays.asList("20")));
+  }
+
+  @Test
+  public void testReservedThreadsOfPool() throws Exception {
+    final LanguagePool germanPool = new LanguagePool("german", Arrays.asList("de"), 1, 3, 10);
+    final AdmissionController controller = new AdmissionController(3, -1, 10, -1, Arrays.asList(germanPool));
+    final AdmissionController.Ticket englishTicket1 = controller.acquire(new English(), 10);
+    final AdmissionController.Ticket englishTicket2 = controller.acquire(new English(), 10);
+    // the thread reserved for German is idle, so English may borrow it:
+    final AdmissionController.Ticket englishTicket3 = controller.acquire(new English(), 10);
+    assertThat(controller.getPoolStatistics().get(0).running, is(0));
+    final List<String> checked = Collections.synchronizedList(new ArrayList<String>());
+    final CountDownLatch germanCheckDone = new CountDownLatch(1);
+    final Thread germanCheck = startCheck(controller, new GermanyGerman(), 20, checked, germanCheckDone);
+    waitForQueueSize(controller, 1);
+    final Thread englishCheck = startCheck(controller, new English(), 10, checked);
+    waitForQueueSize(controller, 2);
+    // the English request is shorter, but German gets its reserved thread first:
+    controller.release(englishTicket1);
+    waitForCheckCount(checked, 1);
+    assertThat(checked, is(Arrays.asList("20")));
+    // German keeps its thread, so English needs to wait for another one:
+    assertThat(controller.getQueueSize(), is(1));
+    controller.release(englishTicket2);
+    englishCheck.join();
+    assertThat(checked, is(Arrays.asList("20", "10")));
+    germanCheckDone.countDown();
+    germanCheck.join();
+    controller.release(englishTicket3);
+    assertThat(controller.getRunningCount(), is(0));
+  }
+
+  @Test
+  public void testBorrowingPool() throws Exception {
+    final LanguagePool germanPool = new LanguagePool("german", Arrays.asList("de"), 1, 2, 10);
+    final AdmissionController controller = new AdmissionController(3, -1, 10, -1, Arrays.asList(germanPool));
+    final AdmissionController.Ticket germanTicket1 = controller.acquire(new German(), 10);
+    final AdmissionController.Ticket germanTicket2 = controller.acquire(new GermanyGerman(), 10);
+    final AdmissionController.PoolStatistics statistics = controller.getPoolStatistics().get(0);
+    assertThat(statistics.name, is("german"));
+    assertThat(statistics.running, is(2));
+    assertThat(statistics.getBorrowed(), is(1));
+    // maxThreads of the pool has been reached:
+    final List<String> checked = Collections.synchronizedList(new ArrayList<String>());
+    final Thread germanCheck = startCheck(controller, new German(), 20, checked);
+    waitForQueueSize(controller, 1);
+    // other languages are not affected:
+    controller.release(controller.acquire(new English(), 10));
+    controller.release(germanTicket1);
+    germanCheck.join();
+    controller.release(germanTicket2);
+    assertThat(checked, is(Arrays.asList("20")));
+  }
+
+  @Test
+  public void testPoolQueueFull() throws Exception {
+    final LanguagePool germanPool = new LanguagePool("german", Arrays.asList("de"), 1, 1, 0);
+    final AdmissionController controller = new AdmissionController(2, -1, 10, -1, Arrays.asList(germanPool));
+    final AdmissionController.Ticket germanTicket = controller.acquire(new German(), 10);
+    try {
+      controller.acquire(new German(), 10);
+      fail("Request should have been rejected, as the queue of the pool is full");
+    } catch (ServerBusyException expected) {
+      assertTrue(expected.getMessage(), expected.getMessage().contains("pool 'german'"));
+    }
+    controller.release(controller.acquire(new English(), 10));
+    controller.release(germanTicket);
+    final List<AdmissionController.PoolStatistics> statistics = controller.getPoolStatistics();
+    assertThat(statistics.size(), is(2));
+    assertThat(statistics.get(0).rejected, is(1L));
+    assertThat(statistics.get(0).waiting, is(0));
+    assertThat(statistics.get(1).name, is("en"));
+    assertThat(statistics.get(1).rejected, is(0L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyReservedThreads() {
+    new AdmissionController(2, -1, 10, -1, Arrays.asList(new LanguagePool("german", Arrays.asList("de"), 3, 3, 10)));
+  }
+
+  private Thread startCheck(final AdmissionController controller, final int textLength, final List<String> checked) {
+    return startCheck(controller, new English(), textLength, checked);
+  }
+
+  private Thread startCheck(final AdmissionController controller, final Language language, final int textLength, final List<String> checked) {
+    return startCheck(controller, language, textLength, checked, null);
+  }
+
+  // with a latch, the check only releases its thread once the latch has been counted down:
+  private Thread startCheck(final AdmissionController controller, final Language language, final int textLength,
+                            final List<String> checked, final CountDownLatch checkDone) {
+    final Thread thread = new Thread() {
+      @Override
+      public void run() {
+        try {
+          final AdmissionController.Ticket ticket = controller.acquire(language, textLength);
+          checked.add(String.valueOf(textLength));
+          if (checkDone != null) {
+            checkDone.await();
+          }
+          controller.release(ticket);
+        } catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      }
+    };
+    thread.start();
+    return thread;
+  }
+
+  private void waitForQueueSize(AdmissionController controller, int queueSize) throws InterruptedException {
+    while (controller.getQueueSize() < queueSize) {
+      Thread.sleep(5);
+    }
+  }
+
+  private void waitForCheckCount(List<String> checked, int count) throws InterruptedException {
+    while (checked.size() < count) {
+      Thread.sleep(5);
+    }
+  }
+
+}
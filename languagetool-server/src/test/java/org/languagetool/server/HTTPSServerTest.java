@@ -52,6 +52,9 @@ public class HTTPSServerTest {
         String result = check(new German(), "foo");
         fail("Expected exception not thrown, got this result instead: '" + result + "'");
       } catch (IOException expected) {}
+      // monitoring is not limited:
+      HTTPTools.checkAtUrl(new URL("https://localhost:" + DEFAULT_PORT + "/healthz/ready"));
+      HTTPTools.checkAtUrl(new URL("https://localhost:" + DEFAULT_PORT + "/metrics"));
     } finally {
       server.stop();
     }
@@ -20,6 +20,12 @@ package org.languagetool.server;
 
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
@@ -48,4 +54,63 @@ public class HTTPServerConfigTest {
     assertThat(config4.isVerbose(), is(false));
   }
 
+  @Test
+  public void testLanguagePools() throws Exception {
+    final Properties props = new Properties();
+    props.setProperty("maxCheckThreads", "8");
+    props.setProperty("maxQueueSize", "50");
+    props.setProperty("pool.german.languages", "de, de-AT");
+    props.setProperty("pool.german.threads", "3");
+    props.setProperty("pool.german.maxQueueSize", "20");
+    props.setProperty("pool.english.languages", "en");
+    props.setProperty("pool.english.threads", "2");
+    props.setProperty("pool.english.maxThreads", "4");
+    final File file = File.createTempFile("languagetool-server", ".properties");
+    try {
+      try (FileOutputStream out = new FileOutputStream(file)) {
+        props.store(out, null);
+      }
+      final List<LanguagePool> pools = new HTTPServerConfig(new String[]{"--config", file.getAbsolutePath()}).getLanguagePools();
+      assertThat(pools.size(), is(2));
+      assertThat(pools.get(0).getName(), is("english"));
+      assertThat(pools.get(0).getThreads(), is(2));
+      assertThat(pools.get(0).getMaxThreads(), is(4));
+      assertThat(pools.get(0).getMaxQueueSize(), is(50));
+      assertThat(pools.get(1).getName(), is("german"));
+      assertThat(pools.get(1).getLanguageCodes().toString(), is(Arrays.asList("de", "de-AT").toString()));
+      assertThat(pools.get(1).getThreads(), is(3));
+      assertThat(pools.get(1).getMaxThreads(), is(8));
+      assertThat(pools.get(1).getMaxQueueSize(), is(20));
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testMaxWaitMillis() throws Exception {
+    assertThat(new HTTPServerConfig().getMaxWaitMillis(), is(10000L));
+    final Properties props = new Properties();
+    props.setProperty("maxWaitMillis", "2500");
+    assertThat(getConfig(props).getMaxWaitMillis(), is(2500L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxCheckThreadsPerLanguage() throws Exception {
+    final Properties props = new Properties();
+    props.setProperty("maxCheckThreadsPerLanguage", "0");
+    getConfig(props);
+  }
+
+  private HTTPServerConfig getConfig(Properties props) throws Exception {
+    final File file = File.createTempFile("languagetool-server", ".properties");
+    try {
+      try (FileOutputStream out = new FileOutputStream(file)) {
+        props.store(out, null);
+      }
+      return new HTTPServerConfig(new String[]{"--config", file.getAbsolutePath()});
+    } finally {
+      file.delete();
+    }
+  }
+
 }
@@ -44,8 +44,19 @@ public class HTTPServerLoadTest extends HTTPServerTest {
   @Test
   @Override
   public void testHTTPServer() throws Exception {
+    runLoadTest(new HTTPServerConfig(HTTPServerConfig.DEFAULT_PORT, true));
+  }
+
+  @Test
+  public void testHTTPServerWithSentenceCache() throws Exception {
+    final HTTPServerConfig config = new HTTPServerConfig(HTTPServerConfig.DEFAULT_PORT, true);
+    config.setSentenceCacheSize(100000);
+    // the threads check the same texts, so most sentences come from the cache:
+    runLoadTest(config);
+  }
+
+  private void runLoadTest(HTTPServerConfig config) throws Exception {
     final long startTime = System.currentTimeMillis();
-    HTTPServerConfig config = new HTTPServerConfig(HTTPServerConfig.DEFAULT_PORT, true);
     final HTTPServer server = new HTTPServer(config);
     assertFalse(server.isRunning());
     try {
@@ -31,10 +31,19 @@ import org.xml.sax.SAXException;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
 import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.*;
 import static org.languagetool.server.HTTPServerConfig.DEFAULT_PORT;
 
@@ -170,6 +179,204 @@ public class HTTPServerTest {
     }
   }
 
+  @Test
+  public void testJsonAndGzip() throws Exception {
+    final HTTPServer server = new HTTPServer(new HTTPServerConfig(), false);
+    try {
+      server.run();
+      final String urlOptions = "/?language=en&text=" + URLEncoder.encode("This is an test. \"Foo\"", "UTF-8");
+      final URLConnection jsonConnection = new URL("http://localhost:" + DEFAULT_PORT + urlOptions + "&format=json").openConnection();
+      final String json = StringTools.streamToString(jsonConnection.getInputStream(), "UTF-8");
+      assertThat(jsonConnection.getContentType(), is("application/json; charset=UTF-8"));
+      assertTrue(json, json.startsWith("{\"software\":{\"name\":\"LanguageTool\""));
+      assertTrue(json, json.contains("\"rule\":{\"id\":\"EN_A_VS_AN\""));
+      assertTrue(json, json.contains("\"context\":{\"text\":\"This is an test. \\\"Foo\\\"\""));
+      final URLConnection gzipConnection = new URL("http://localhost:" + DEFAULT_PORT + urlOptions).openConnection();
+      gzipConnection.setRequestProperty("Accept", "application/json");
+      gzipConnection.setRequestProperty("Accept-Encoding", "gzip");
+      assertThat(gzipConnection.getHeaderField("Content-Encoding"), is("gzip"));
+      assertThat(StringTools.streamToString(new GZIPInputStream(gzipConnection.getInputStream()), "UTF-8"), is(json));
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testBatch() throws Exception {
+    final HTTPServer server = new HTTPServer(new HTTPServerConfig(), false);
+    try {
+      server.run();
+      final String batch = "[" +
+              "{\"id\":\"a\",\"text\":\"This is an test.\",\"language\":\"en\"}," +
+              "{\"id\":2,\"text\":\"This is an test.\",\"language\":\"en\",\"options\":{\"disabled\":[\"EN_A_VS_AN\"]}}," +
+              "{\"id\":\"c\",\"text\":\"Das ist ein Test.\",\"language\":\"de-DE\"}," +
+              "{\"id\":\"d\",\"text\":\"foo\",\"language\":\"qq\"}," +
+              "{\"text\":\"foo\"}]";
+      final URL url = new URL("http://localhost:" + DEFAULT_PORT + "/batch?motherTongue=de");
+      final List<?> results = (List<?>) JsonTools.parse(HTTPTools.checkAtUrlByPost(url, batch));
+      assertThat(results.size(), is(5));
+      final Map<Object, Map<?, ?>> resultsById = new HashMap<>();
+      for (Object result : results) {
+        resultsById.put(((Map<?, ?>) result).get("id"), (Map<?, ?>) result);
+      }
+      assertThat(getBatchMatchCount(resultsById.get("a")), is(1));
+      assertThat(getBatchMatchCount(resultsById.get("2")), is(0));
+      assertThat(getBatchMatchCount(resultsById.get("c")), is(0));
+      final Map<?, ?> motherTongue = (Map<?, ?>) ((Map<?, ?>) resultsById.get("a").get("result")).get("motherTongue");
+      assertThat((String) motherTongue.get("code"), is("de"));
+      assertTrue(resultsById.get("d").get("error").toString().contains("qq"));
+      assertTrue(resultsById.get("4").get("error").toString().contains("Missing 'language' parameter"));
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testBatchLimits() throws Exception {
+    final HTTPServerConfig config = new HTTPServerConfig();
+    config.setMaxBatchDocuments(2);
+    config.setMaxBatchLength(200);
+    final HTTPServer server = new HTTPServer(config, false);
+    try {
+      server.run();
+      final URL url = new URL("http://localhost:" + DEFAULT_PORT + "/batch");
+      final String document = "{\"text\":\"A test.\",\"language\":\"en\"}";
+      assertThat(getStatusCodeOfPost(url, "[" + document + "," + document + "]"), is(HttpURLConnection.HTTP_OK));
+      assertThat(getStatusCodeOfPost(url, "[" + document + "," + document + "," + document + "]"), is(HttpURLConnection.HTTP_ENTITY_TOO_LARGE));
+      assertThat(getStatusCodeOfPost(url, "[" + document + ",\"" + StringUtils.repeat("x", 200) + "\"]"), is(HttpURLConnection.HTTP_ENTITY_TOO_LARGE));
+      assertThat(getStatusCodeOfPost(url, StringUtils.repeat("[", 100) + StringUtils.repeat("]", 100)), is(HttpURLConnection.HTTP_BAD_REQUEST));
+    } finally {
+      server.stop();
+    }
+  }
+
+  private int getStatusCodeOfPost(URL url, String postData) throws IOException {
+    final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setDoOutput(true);
+    try (OutputStreamWriter writer = new OutputStreamWriter(connection.getOutputStream(), "UTF-8")) {
+      writer.write(postData);
+    }
+    return connection.getResponseCode();
+  }
+
+  private int getBatchMatchCount(Map<?, ?> batchResult) {
+    assertNull(batchResult.get("error"));
+    return ((List<?>) ((Map<?, ?>) batchResult.get("result")).get("matches")).size();
+  }
+
+  @Test
+  public void testParagraphs() throws Exception {
+    final HTTPServerConfig config = new HTTPServerConfig();
+    config.setParagraphCacheSize(10000);
+    final HTTPServer server = new HTTPServer(config, false);
+    try {
+      server.run();
+      final URL url = new URL("http://localhost:" + DEFAULT_PORT + "/paragraphs?language=en");
+      final String paragraph1 = "This is an test.\n\n";
+      final String paragraph2 = "Here is a sentence.\n";
+      final String paragraph3 = "And here is an idea and an mistake.\n";
+      final String json1 = HTTPTools.checkAtUrlByPost(url, paragraphRequest(paragraph1, true, paragraph2, true));
+      assertThat(json1, is(checkAsJson("en", paragraph1 + paragraph2)));
+      // the client only sends the paragraph that has changed:
+      final String json2 = HTTPTools.checkAtUrlByPost(url, paragraphRequest(paragraph1, false, paragraph3, true));
+      assertThat(json2, is(checkAsJson("en", paragraph1 + paragraph3)));
+      assertThat(StringUtils.countMatches(json2, "\"id\":\"EN_A_VS_AN\""), is(2));
+      // the server doesn't know a paragraph, so the client needs to send its text:
+      final String unknown = "Unknown paragraph.\n";
+      assertThat(HTTPTools.checkAtUrlByPost(url, paragraphRequest(paragraph1, false, unknown, false)),
+              is("{\"missing\":[\"" + ParagraphMatchCache.hash(unknown) + "\"]}\n"));
+      try {
+        System.out.println("=== Testing paragraph with wrong hash now, please ignore the following exception ===");
+        HTTPTools.checkAtUrlByPost(url, "{\"paragraphs\":[{\"hash\":\"abc\",\"text\":\"foo\"}]}");
+        fail();
+      } catch (IOException expected) {}
+    } finally {
+      server.stop();
+    }
+  }
+
+  private String paragraphRequest(String paragraph1, boolean withText1, String paragraph2, boolean withText2) {
+    return "{\"paragraphs\":[" + paragraphJson(paragraph1, withText1) + "," + paragraphJson(paragraph2, withText2) + "]}";
+  }
+
+  private String paragraphJson(String paragraph, boolean withText) {
+    return "{\"hash\":\"" + ParagraphMatchCache.hash(paragraph) + "\"" + (withText ? ",\"text\":" + JsonTools.quote(paragraph) : "") + "}";
+  }
+
+  private String checkAsJson(String langCode, String text) throws IOException {
+    final URL url = new URL("http://localhost:" + DEFAULT_PORT + "/?format=json&language=" + langCode + "&text=" + URLEncoder.encode(text, "UTF-8"));
+    return HTTPTools.checkAtUrl(url);
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    final HTTPServerConfig config = new HTTPServerConfig();
+    config.setSentenceCacheSize(10000);
+    config.setRuleMetrics(true);
+    final HTTPServer server = new HTTPServer(config, false);
+    try {
+      server.run();
+      check(new English(), "This is an test.");
+      final URLConnection connection = new URL("http://localhost:" + DEFAULT_PORT + "/metrics").openConnection();
+      final String metrics = StringTools.streamToString(connection.getInputStream(), "UTF-8");
+      assertThat(connection.getContentType(), is("text/plain; version=0.0.4; charset=UTF-8"));
+      assertTrue(metrics, metrics.contains("# TYPE languagetool_checks_running gauge\nlanguagetool_checks_running 0\n"));
+      assertTrue(metrics, metrics.contains("languagetool_sentence_cache_misses_total 1\n"));
+      assertTrue(metrics, metrics.contains("languagetool_phase_duration_seconds_count{language=\"en\",phase=\"tagging\"} 1\n"));
+      assertTrue(metrics, metrics.contains("languagetool_phase_duration_seconds_count{language=\"en\",phase=\"check\"} 1\n"));
+      assertTrue(metrics, metrics.contains("languagetool_phase_duration_seconds_count{language=\"en\",phase=\"serialization\"} 1\n"));
+      assertTrue(metrics, metrics.contains("languagetool_phase_duration_seconds_count{language=\"en\",phase=\"rule_matching\"} 1\n"));
+      assertTrue(metrics, metrics.contains("languagetool_rule_matches_total{language=\"en\",rule=\"EN_A_VS_AN\"} 1\n"));
+      assertTrue(metrics, metrics.contains("languagetool_pool_checks_running{pool=\"en\"} 0\n"));
+      assertTrue(metrics, metrics.contains("languagetool_word_cache_misses_total{language=\"en\"} "));
+      assertTrue(metrics, metrics.contains("jvm_memory_max_bytes "));
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testReadiness() throws Exception {
+    final HTTPServerConfig config = new HTTPServerConfig();
+    config.setWarmUpLanguages(Arrays.<Language>asList(new English()));
+    final HTTPServer server = new HTTPServer(config, false);
+    try {
+      server.run();
+      final URL url = new URL("http://localhost:" + DEFAULT_PORT + "/healthz/ready");
+      // the server answers requests during the warm-up, but it's not ready yet:
+      check(new English(), "This is an test.");
+      final long endTime = System.currentTimeMillis() + 60_000;
+      HttpURLConnection connection;
+      while ((connection = (HttpURLConnection) url.openConnection()).getResponseCode() == HttpURLConnection.HTTP_UNAVAILABLE) {
+        assertTrue("Warm-up did not finish in time", System.currentTimeMillis() < endTime);
+        assertTrue(StringTools.streamToString(connection.getErrorStream(), "UTF-8").startsWith("warming up\n"));
+        Thread.sleep(100);
+      }
+      assertThat(connection.getResponseCode(), is(HttpURLConnection.HTTP_OK));
+      final String response = StringTools.streamToString(connection.getInputStream(), "UTF-8");
+      assertTrue(response, response.matches("ready\nen: \\d+ms\n"));
+      final String metrics = StringTools.streamToString(new URL("http://localhost:" + DEFAULT_PORT + "/metrics").openStream(), "UTF-8");
+      assertTrue(metrics, metrics.contains("languagetool_ready 1\n"));
+      assertTrue(metrics, metrics.contains("languagetool_warm_up_seconds{language=\"en\"} "));
+      // the warm-up doesn't show up in the metrics of the checks:
+      assertTrue(metrics, metrics.contains("languagetool_phase_duration_seconds_count{language=\"en\",phase=\"check\"} 1\n"));
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testReadyWithoutWarmUp() throws Exception {
+    final HTTPServer server = new HTTPServer(new HTTPServerConfig(), false);
+    try {
+      server.run();
+      final URLConnection connection = new URL("http://localhost:" + DEFAULT_PORT + "/healthz/ready").openConnection();
+      assertThat(StringTools.streamToString(connection.getInputStream(), "UTF-8"), is("ready\n"));
+    } finally {
+      server.stop();
+    }
+  }
+
   @Test
   public void testAccessDenied() throws Exception {
     final HTTPServer server = new HTTPServer(new HTTPServerConfig(), false, new HashSet<String>());
@@ -0,0 +1,81 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+import org.languagetool.JLanguageTool;
+import org.languagetool.language.English;
+import org.languagetool.language.German;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class JLanguageToolPoolTest {
+
+  private final LanguageToolHttpHandler.QueryParams defaultParams = params(new ArrayList<String>());
+
+  @Test
+  public void testBorrowAndGiveBack() throws Exception {
+    final JLanguageToolPool pool = new JLanguageToolPool(2, 60000);
+    final JLanguageToolPool.Key key = new JLanguageToolPool.Key(new English(), null, defaultParams);
+    assertNull(pool.borrow(key));
+    final JLanguageTool lt1 = new JLanguageTool(new English());
+    final JLanguageTool lt2 = new JLanguageTool(new English());
+    final JLanguageTool lt3 = new JLanguageTool(new English());
+    pool.giveBack(key, lt1);
+    pool.giveBack(key, lt2);
+    pool.giveBack(key, lt3);  // exceeds the limit, gets dropped
+    assertThat(pool.getIdleCount(key), is(2));
+    assertSame(lt2, pool.borrow(key));
+    assertSame(lt1, pool.borrow(key));
+    assertNull(pool.borrow(key));
+    assertThat(pool.getIdleCount(key), is(0));
+  }
+
+  @Test
+  public void testKeys() throws Exception {
+    final JLanguageToolPool pool = new JLanguageToolPool(5, 60000);
+    final JLanguageToolPool.Key englishKey = new JLanguageToolPool.Key(new English(), null, defaultParams);
+    pool.giveBack(englishKey, new JLanguageTool(new English()));
+    assertNull(pool.borrow(new JLanguageToolPool.Key(new German(), null, defaultParams)));
+    assertNull(pool.borrow(new JLanguageToolPool.Key(new English(), new German(), defaultParams)));
+    assertNull(pool.borrow(new JLanguageToolPool.Key(new English(), null, params(Arrays.asList("EN_A_VS_AN")))));
+    assertNotNull(pool.borrow(new JLanguageToolPool.Key(new English(), null, params(new ArrayList<String>()))));
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    final JLanguageToolPool pool = new JLanguageToolPool(5, 50);
+    final JLanguageToolPool.Key key = new JLanguageToolPool.Key(new English(), null, defaultParams);
+    pool.giveBack(key, new JLanguageTool(new English()));
+    Thread.sleep(100);
+    pool.evictIdleInstances();
+    assertThat(pool.getIdleCount(key), is(0));
+    assertNull(pool.borrow(key));
+  }
+
+  private LanguageToolHttpHandler.QueryParams params(List<String> disabledRules) {
+    return new LanguageToolHttpHandler.QueryParams(new ArrayList<String>(), disabledRules, false, disabledRules.size() > 0);
+  }
+
+}
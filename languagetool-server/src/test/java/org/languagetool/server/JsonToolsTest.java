@@ -0,0 +1,70 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class JsonToolsTest {
+
+  @Test
+  public void testParse() {
+    final Map<?, ?> map = (Map<?, ?>) JsonTools.parse(" {\"a\": [1, -2.5e1, true, false, null], \"b\" : {}, \"c\":\"x\\\"\\u00e4\\n\"} ");
+    assertThat(map.size(), is(3));
+    final Object list = map.get("a");
+    assertThat(list, is((Object) Arrays.<Object>asList(1.0, -25.0, true, false, null)));
+    assertTrue(((Map<?, ?>) map.get("b")).isEmpty());
+    assertThat((String) map.get("c"), is("x\"ä\n"));
+    assertTrue(((List<?>) JsonTools.parse("[]")).isEmpty());
+  }
+
+  @Test
+  public void testInvalidJson() {
+    for (String json : Arrays.asList("", "[1,]", "{\"a\" 1}", "{a:1}", "\"abc", "[1] x", "tru")) {
+      try {
+        JsonTools.parse(json);
+        fail("Expected exception for: " + json);
+      } catch (IllegalArgumentException expected) {}
+    }
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void testDeepNesting() {
+    final StringBuilder json = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      json.append("[{\"a\":");
+    }
+    JsonTools.parse(json.toString());
+  }
+
+  @Test
+  public void testQuote() {
+    assertThat(JsonTools.quote("a\"b\\c\n\u0001"), is("\"a\\\"b\\\\c\\n\\u0001\""));
+    assertThat(JsonTools.quote("a\u2028b\u2029"), is("\"a\\u2028b\\u2029\""));
+    final String s = "x \"y\"\tä";
+    assertThat((String) JsonTools.parse(JsonTools.quote(s)), is(s));
+  }
+
+}
@@ -0,0 +1,61 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+import org.languagetool.CheckMetrics;
+import org.languagetool.LatencyHistogram;
+import org.languagetool.language.English;
+
+import java.io.StringWriter;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class MetricsWriterTest {
+
+  @Test
+  public void testLabels() {
+    assertThat(MetricsWriter.labels(), is(""));
+    assertThat(MetricsWriter.labels("a", "x"), is("{a=\"x\"}"));
+    assertThat(MetricsWriter.labels("a", "x\"y\\z\n", "b", ""), is("{a=\"x\\\"y\\\\z\\n\",b=\"\"}"));
+  }
+
+  @Test
+  public void testMetricsAndHistogram() throws Exception {
+    final StringWriter out = new StringWriter();
+    final MetricsWriter writer = new MetricsWriter(out);
+    writer.writeMetric("foo_total", "counter", "Number of foos", 42);
+    final CheckMetrics checkMetrics = new CheckMetrics();
+    checkMetrics.recordPhase(new English(), CheckMetrics.Phase.TAGGING, 200_000);
+    checkMetrics.recordPhase(new English(), CheckMetrics.Phase.TAGGING, 300_000_000);
+    final LatencyHistogram histogram = checkMetrics.getPhaseHistograms().get("en").get(CheckMetrics.Phase.TAGGING);
+    writer.writeHistogram("bar_seconds", MetricsWriter.labels("language", "en"), histogram);
+    final String result = out.toString();
+    assertTrue(result, result.startsWith("# HELP foo_total Number of foos\n# TYPE foo_total counter\nfoo_total 42\n"));
+    assertTrue(result, result.contains("bar_seconds_bucket{language=\"en\",le=\"1.0E-4\"} 0\n"));
+    assertTrue(result, result.contains("bar_seconds_bucket{language=\"en\",le=\"2.5E-4\"} 1\n"));
+    assertTrue(result, result.contains("bar_seconds_bucket{language=\"en\",le=\"0.25\"} 1\n"));
+    assertTrue(result, result.contains("bar_seconds_bucket{language=\"en\",le=\"0.5\"} 2\n"));
+    assertTrue(result, result.contains("bar_seconds_bucket{language=\"en\",le=\"+Inf\"} 2\n"));
+    assertTrue(result, result.contains("bar_seconds_sum{language=\"en\"} 0.3002\n"));
+    assertTrue(result, result.contains("bar_seconds_count{language=\"en\"} 2\n"));
+  }
+
+}
@@ -0,0 +1,82 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+import org.languagetool.language.English;
+import org.languagetool.language.German;
+import org.languagetool.rules.RuleMatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class ParagraphMatchCacheTest {
+
+  private final LanguageToolHttpHandler.QueryParams params =
+          new LanguageToolHttpHandler.QueryParams(new ArrayList<String>(), new ArrayList<String>(), false, false);
+  private final JLanguageToolPool.Key englishKey = new JLanguageToolPool.Key(new English(), null, params);
+
+  @Test
+  public void testHash() {
+    assertThat(ParagraphMatchCache.hash(""), is("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855"));
+    assertThat(ParagraphMatchCache.hash("abc"), is("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad"));
+  }
+
+  @Test
+  public void testGetAndPut() {
+    final ParagraphMatchCache cache = new ParagraphMatchCache(1000);
+    final String hash = ParagraphMatchCache.hash("A paragraph.\n");
+    assertNull(cache.get(englishKey, hash));
+    cache.put(englishKey, "A paragraph.\n", Collections.<RuleMatch>emptyList());
+    assertThat(cache.get(englishKey, hash).paragraph, is("A paragraph.\n"));
+    assertNull(cache.get(new JLanguageToolPool.Key(new German(), null, params), hash));
+    assertThat(cache.getHitCount(), is(1L));
+    assertThat(cache.getMissCount(), is(2L));
+  }
+
+  @Test
+  public void testEviction() {
+    final ParagraphMatchCache cache = new ParagraphMatchCache(10);
+    cache.put(englishKey, "12345", Collections.<RuleMatch>emptyList());
+    cache.put(englishKey, "abcde", Collections.<RuleMatch>emptyList());
+    assertThat(cache.size(), is(2));
+    cache.put(englishKey, "xyz", Collections.<RuleMatch>emptyList());
+    assertThat(cache.size(), is(2));
+    assertNull(cache.get(englishKey, ParagraphMatchCache.hash("12345")));
+    assertNotNull(cache.get(englishKey, ParagraphMatchCache.hash("abcde")));
+    assertNotNull(cache.get(englishKey, ParagraphMatchCache.hash("xyz")));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() {
+    final ParagraphMatchCache cache = new ParagraphMatchCache(10);
+    cache.put(englishKey, "12345", Collections.<RuleMatch>emptyList());
+    cache.put(englishKey, "abcde", Collections.<RuleMatch>emptyList());
+    assertNotNull(cache.get(englishKey, ParagraphMatchCache.hash("12345")));
+    cache.put(englishKey, "xyz", Collections.<RuleMatch>emptyList());
+    assertThat(cache.size(), is(2));
+    assertNotNull(cache.get(englishKey, ParagraphMatchCache.hash("12345")));
+    assertNull(cache.get(englishKey, ParagraphMatchCache.hash("abcde")));
+    assertNotNull(cache.get(englishKey, ParagraphMatchCache.hash("xyz")));
+  }
+
+}
@@ -0,0 +1,92 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measure how many requests per second {@link RequestLimiter} can handle when it's used
+ * by many threads at the same time, with requests from many different IP addresses.
+ * Not a unit test, for interactive use only.
+ */
+final class RequestLimiterPerformanceTest {
+
+  private static final int REQUESTS_PER_THREAD = 1_000_000;
+  private static final int IP_ADDRESSES = 10_000;
+  private static final int RUNS = 3;
+
+  private RequestLimiterPerformanceTest() {
+  }
+
+  private void run() throws Exception {
+    System.out.println(Runtime.getRuntime().availableProcessors() + " processors, "
+            + REQUESTS_PER_THREAD + " requests per thread from " + IP_ADDRESSES + " IP addresses");
+    final String[] ipAddresses = new String[IP_ADDRESSES];
+    for (int i = 0; i < ipAddresses.length; i++) {
+      ipAddresses[i] = "10.0." + (i / 256) + "." + (i % 256);
+    }
+    for (int run = 0; run < RUNS; run++) {
+      System.out.println("Run " + (run + 1) + ":");
+      for (int threads = 1; threads <= 32; threads *= 2) {
+        runWithThreads(threads, ipAddresses);
+      }
+    }
+  }
+
+  private void runWithThreads(int threadCount, final String[] ipAddresses) throws Exception {
+    final RequestLimiter limiter = new RequestLimiter(100, 100_000, 60);
+    final AtomicInteger allowed = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    final List<Future<?>> futures = new ArrayList<>();
+    final long startTime = System.nanoTime();
+    for (int i = 0; i < threadCount; i++) {
+      final int offset = i * 7919;
+      futures.add(executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          int allowedByThread = 0;
+          for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+            if (limiter.isAccessOkay(ipAddresses[(offset + j) % ipAddresses.length], j % 500)) {
+              allowedByThread++;
+            }
+          }
+          allowed.addAndGet(allowedByThread);
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    final long runTimeMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+    executor.shutdown();
+    final long requests = (long) threadCount * REQUESTS_PER_THREAD;
+    System.out.printf("  %2d threads: %6dms = %,12d requests per second, %d allowed\n",
+            threadCount, runTimeMillis, requests * 1000 / runTimeMillis, allowed.get());
+  }
+
+  public static void main(String[] args) throws Exception {
+    new RequestLimiterPerformanceTest().run();
+  }
+
+}
@@ -20,7 +20,9 @@ package org.languagetool.server;
 
 import org.junit.Test;
 
+import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 public class RequestLimiterTest {
@@ -42,5 +44,38 @@ public class RequestLimiterTest {
     assertTrue(limiter.isAccessOkay(secondIp));
     assertFalse(limiter.isAccessOkay(secondIp));
   }
-  
+
+  @Test
+  public void testCharacterLimit() throws Exception {
+    final RequestLimiter limiter = new RequestLimiter(10, 1000, 2);
+    final String ip = "192.168.10.1";
+    assertTrue(limiter.isAccessOkay(ip, 600));
+    assertFalse(limiter.isAccessOkay(ip, 600));
+    assertTrue(limiter.isAccessOkay(ip, 300));
+    assertTrue(limiter.isAccessOkay("192.168.10.2", 600));
+    Thread.sleep(1200);  // more than half of the period, so 600 characters are allowed again
+    assertTrue(limiter.isAccessOkay(ip, 600));
+  }
+
+  @Test
+  public void testExceedsCharLimit() throws Exception {
+    final RequestLimiter limiter = new RequestLimiter(10, 1000, 2);
+    assertFalse(limiter.exceedsCharLimit(1000));
+    assertTrue(limiter.exceedsCharLimit(1001));
+    assertFalse(new RequestLimiter(10, 2).exceedsCharLimit(1001));
+  }
+
+  @Test
+  public void testIdleClientsExpire() throws Exception {
+    final RequestLimiter limiter = new RequestLimiter(1, 1);
+    assertTrue(limiter.isAccessOkay("192.168.10.1"));
+    assertTrue(limiter.isAccessOkay("192.168.10.2"));
+    assertFalse(limiter.isAccessOkay("192.168.10.2"));
+    assertThat(limiter.getClientCount(), is(2));
+    Thread.sleep(1100);
+    assertTrue(limiter.isAccessOkay("192.168.10.3"));
+    assertThat(limiter.getClientCount(), is(1));
+    assertTrue(limiter.isAccessOkay("192.168.10.2"));
+  }
+
 }
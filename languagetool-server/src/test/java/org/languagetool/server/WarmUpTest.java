@@ -0,0 +1,53 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+import org.languagetool.JLanguageTool;
+import org.languagetool.language.English;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class WarmUpTest {
+
+  @Test
+  public void testIsStable() {
+    assertFalse(WarmUp.isStable(Arrays.asList(1000L, 100L)));
+    assertFalse(WarmUp.isStable(Arrays.asList(1000L, 200L, 100L)));
+    assertTrue(WarmUp.isStable(Arrays.asList(1000L, 100L, 95L)));
+    assertTrue(WarmUp.isStable(Arrays.asList(1000L, 100L, 105L)));
+    assertFalse(WarmUp.isStable(Arrays.asList(1000L, 100L, 95L, 50L)));
+    assertTrue(WarmUp.isStable(Arrays.asList(20L, 19L, 18L, 17L, 16L, 15L, 14L, 13L, 12L, 11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L)));
+  }
+
+  @Test
+  public void testGetSampleText() throws Exception {
+    final JLanguageTool lt = new JLanguageTool(new English());
+    lt.activateDefaultPatternRules();
+    final String sampleText = WarmUp.getSampleText(lt.getAllActiveRules());
+    assertFalse(sampleText.contains("<marker>"));
+    assertFalse(sampleText.contains("</marker>"));
+    assertEquals(100, sampleText.split("\n\n").length);
+    assertFalse(lt.check(sampleText).isEmpty());
+    assertEquals("", WarmUp.getSampleText(new JLanguageTool(new English()).getAllActiveRules().subList(0, 0)));
+  }
+
+}
@@ -74,6 +74,7 @@ import javax.swing.text.View;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.tika.language.LanguageIdentifier;
+import org.languagetool.IncrementalCheckSession;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
 import org.languagetool.MultiThreadedJLanguageTool;
@@ -109,6 +110,8 @@ class LanguageToolSupport {
   private final List<Span> documentSpans;
 
   private JLanguageTool languageTool;
+  private IncrementalCheckSession checkSession;  // only used in checkText()
+  private volatile boolean fullCheckNeeded = true;
   private HighlightPainter redPainter;  // a red color highlight painter for marking spelling errors  
   private HighlightPainter bluePainter;  // a blue color highlight painter for marking grammar errors
   private ScheduledExecutorService checkExecutor;
@@ -283,7 +286,10 @@ class LanguageToolSupport {
       config = new Configuration(new File(System.getProperty("user.home")), CONFIG_FILE, language);
       //config still contains old language, update it
       this.config.setLanguage(language);
-      languageTool = new MultiThreadedJLanguageTool(language, config.getMotherTongue());
+      final MultiThreadedJLanguageTool multiThreadedTool = new MultiThreadedJLanguageTool(language, config.getMotherTongue());
+      // the text gets re-checked after each change, so don't create new threads each time:
+      multiThreadedTool.setForkJoinPool(MultiThreadedJLanguageTool.getSharedForkJoinPool());
+      languageTool = multiThreadedTool;
       languageTool.activateDefaultPatternRules();
       languageTool.activateDefaultFalseFriendRules();
       loadConfig();
@@ -479,6 +485,7 @@ class LanguageToolSupport {
       config.getDisabledRuleIds().add(ruleId);
     }
     languageTool.disableRule(ruleId);
+    fullCheckNeeded = true;
     updateHighlights(ruleId);
     fireEvent(LanguageToolEvent.Type.RULE_DISABLED, null);
   }
@@ -734,6 +741,8 @@ class LanguageToolSupport {
   }
 
   public void checkImmediately(Object caller) {
+    // called after configuration changes, so don't re-use matches from previous checks:
+    fullCheckNeeded = true;
     check.getAndIncrement();
     checkExecutor.schedule(new RunnableImpl(caller), 0, TimeUnit.MILLISECONDS);
   }
@@ -795,7 +804,15 @@ class LanguageToolSupport {
         throw new RuntimeException(ex);
       }
     }
-    final List<RuleMatch> matches = this.languageTool.check(this.textComponent.getText());
+    final List<RuleMatch> matches;
+    if (fullCheckNeeded || checkSession == null || checkSession.getLanguageTool() != languageTool) {
+      fullCheckNeeded = false;
+      checkSession = new IncrementalCheckSession(languageTool, textComponent.getText());
+      matches = checkSession.getMatches();
+    } else {
+      // usually only a few sentences have been edited since the last check:
+      matches = checkSession.update(textComponent.getText());
+    }
     int v = check.get();
     if (v == 0) {
       if (!SwingUtilities.isEventDispatchThread()) {
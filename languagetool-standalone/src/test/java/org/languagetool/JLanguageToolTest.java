@@ -50,13 +50,13 @@ public class JLanguageToolTest {
     List<String> ruleIds = getActiveRuleIds(langTool);
     assertTrue(ruleIds.contains("DEMO_RULE"));
     assertFalse(ruleIds.contains("DEMO_RULE_OFF"));
-    for (Rule rule : langTool.getAllRules()) {
-      if (rule.getId().equals("DEMO_RULE_OFF")) {
-        rule.setDefaultOn();
-      }
-    }
+    langTool.enableDefaultOffRule("DEMO_RULE_OFF");
     List<String> ruleIds2 = getActiveRuleIds(langTool);
     assertTrue(ruleIds2.contains("DEMO_RULE_OFF"));
+    // the rule is shared with other instances, which must not be affected:
+    JLanguageTool langTool2 = new JLanguageTool(new Demo());
+    langTool2.activateDefaultPatternRules();
+    assertFalse(getActiveRuleIds(langTool2).contains("DEMO_RULE_OFF"));
   }
 
   private List<String> getActiveRuleIds(JLanguageTool langTool) {
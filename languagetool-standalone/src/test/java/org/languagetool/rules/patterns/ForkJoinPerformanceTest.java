@@ -0,0 +1,90 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.MultiThreadedJLanguageTool;
+import org.languagetool.tools.StringTools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Compare the speed of {@link MultiThreadedJLanguageTool} with a new thread pool per check
+ * and with a shared {@link java.util.concurrent.ForkJoinPool}, both for checking a complete
+ * text and for checking it sentence by sentence. Not a unit test, for interactive use only.
+ */
+final class ForkJoinPerformanceTest {
+
+  private static final int RUNS = 5;
+
+  private ForkJoinPerformanceTest() {
+  }
+
+  private void run(Language language, File textFile) throws IOException {
+    final String text = StringTools.readStream(new FileInputStream(textFile), "utf-8");
+    final MultiThreadedJLanguageTool executorTool = new MultiThreadedJLanguageTool(language);
+    executorTool.activateDefaultPatternRules();
+    final MultiThreadedJLanguageTool forkJoinTool = new MultiThreadedJLanguageTool(language);
+    forkJoinTool.activateDefaultPatternRules();
+    forkJoinTool.setForkJoinPool(MultiThreadedJLanguageTool.getSharedForkJoinPool());
+    final List<String> sentences = executorTool.sentenceTokenize(text);
+    System.out.println("Text length: " + text.length() + " chars, " + sentences.size() + " sentences, "
+            + Runtime.getRuntime().availableProcessors() + " processors");
+    for (int i = 0; i < RUNS; i++) {
+      System.out.println("Run " + (i + 1) + ":");
+      checkText("new threads per check, complete text", executorTool, text, sentences.size());
+      checkText("fork/join pool, complete text", forkJoinTool, text, sentences.size());
+      checkSentences("new threads per check, sentence by sentence", executorTool, sentences);
+      checkSentences("fork/join pool, sentence by sentence", forkJoinTool, sentences);
+    }
+  }
+
+  private void checkText(String name, JLanguageTool langTool, String text, int sentenceCount) throws IOException {
+    final long startTime = System.currentTimeMillis();
+    final int matches = langTool.check(text).size();
+    printTime(name, System.currentTimeMillis() - startTime, sentenceCount, matches);
+  }
+
+  private void checkSentences(String name, JLanguageTool langTool, List<String> sentences) throws IOException {
+    final long startTime = System.currentTimeMillis();
+    int matches = 0;
+    for (String sentence : sentences) {
+      matches += langTool.check(sentence).size();
+    }
+    printTime(name, System.currentTimeMillis() - startTime, sentences.size(), matches);
+  }
+
+  private void printTime(String name, long runTime, int sentenceCount, int matches) {
+    System.out.printf("  %-45s %6dms = %.2fms per sentence, %d matches\n", name + ":", runTime, (float)runTime / sentenceCount, matches);
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.out.println("Usage: " + ForkJoinPerformanceTest.class.getSimpleName() + " <languageCode> <text_file>");
+      System.exit(1);
+    }
+    final ForkJoinPerformanceTest test = new ForkJoinPerformanceTest();
+    test.run(Language.getLanguageForShortName(args[0]), new File(args[1]));
+  }
+
+}
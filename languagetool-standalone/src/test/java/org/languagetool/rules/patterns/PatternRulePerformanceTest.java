@@ -0,0 +1,81 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.rules.Rule;
+import org.languagetool.tagging.PosTagIds;
+import org.languagetool.tools.StringTools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measure the time the pattern rules of a language need to match the sentences of a text,
+ * without tokenizing, tagging and disambiguation, as that's where the POS tags of the
+ * tokens are matched against the rules. Not a unit test, for interactive use only.
+ */
+final class PatternRulePerformanceTest {
+
+  private static final int RUNS = 5;
+
+  private PatternRulePerformanceTest() {
+  }
+
+  private void run(Language language, File textFile) throws IOException {
+    final String text = StringTools.readStream(new FileInputStream(textFile), "utf-8");
+    final JLanguageTool langTool = new JLanguageTool(language);
+    langTool.activateDefaultPatternRules();
+    final List<PatternRule> rules = new ArrayList<>();
+    for (Rule rule : langTool.getAllActiveRules()) {
+      if (rule instanceof PatternRule) {
+        rules.add((PatternRule) rule);
+      }
+    }
+    final List<AnalyzedSentence> sentences = langTool.analyzeText(text);
+    System.out.println(sentences.size() + " sentences, " + rules.size() + " pattern rules");
+    for (int i = 0; i < RUNS; i++) {
+      final long startTime = System.currentTimeMillis();
+      int matches = 0;
+      for (AnalyzedSentence sentence : sentences) {
+        for (PatternRule rule : rules) {
+          matches += rule.match(sentence).length;
+        }
+      }
+      final long runTime = System.currentTimeMillis() - startTime;
+      System.out.printf("Run %d: %6dms = %.3fms per sentence, %d matches, %d POS tags\n", i + 1, runTime,
+              (float)runTime / sentences.size(), matches, PosTagIds.size());
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.out.println("Usage: " + PatternRulePerformanceTest.class.getSimpleName() + " <languageCode> <text_file>");
+      System.exit(1);
+    }
+    final PatternRulePerformanceTest test = new PatternRulePerformanceTest();
+    test.run(Language.getLanguageForShortName(args[0]), new File(args[1]));
+  }
+
+}
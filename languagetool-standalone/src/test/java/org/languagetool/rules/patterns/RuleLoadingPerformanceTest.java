@@ -0,0 +1,95 @@
+/* LanguageTool, a natural language style checker 
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.tagging.disambiguation.rules.DisambiguationPatternRule;
+import org.languagetool.tagging.disambiguation.rules.DisambiguationRuleLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Compare the time needed to load the rules from XML and from their precompiled
+ * version (see {@link PrecompiledRules}). Not a unit test, for interactive use only.
+ */
+final class RuleLoadingPerformanceTest {
+
+  private static final int RUNS = 10;
+
+  private RuleLoadingPerformanceTest() {
+  }
+
+  private void run(Language language) throws Exception {
+    final String grammarFile = language.getRuleFileNames().get(0);
+    final byte[] grammarXml = read(grammarFile);
+    final String disambiguationFile = JLanguageTool.getDataBroker().getResourceDir() + "/" + language.getShortName() + "/disambiguation.xml";
+    final byte[] disambiguationXml = read(disambiguationFile);
+
+    final List<PatternRule> rules = new PatternRuleLoader().getRules(new ByteArrayInputStream(grammarXml), grammarFile);
+    final ByteArrayOutputStream grammarBinary = new ByteArrayOutputStream();
+    PrecompiledRules.write(rules, grammarXml, grammarBinary);
+    System.out.println(grammarFile + ": " + rules.size() + " rules, XML: " + grammarXml.length/1024 + "KB, binary: " + grammarBinary.size()/1024 + "KB");
+    byte[] disambiguationBinary = null;
+    if (disambiguationXml != null) {
+      final List<DisambiguationPatternRule> disambiguationRules = new DisambiguationRuleLoader().getRules(new ByteArrayInputStream(disambiguationXml));
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      PrecompiledRules.write(disambiguationRules, disambiguationXml, out);
+      disambiguationBinary = out.toByteArray();
+      System.out.println(disambiguationFile + ": " + disambiguationRules.size() + " rules, XML: "
+              + disambiguationXml.length/1024 + "KB, binary: " + disambiguationBinary.length/1024 + "KB");
+    }
+
+    for (int i = 0; i < RUNS; i++) {
+      long startTime = System.currentTimeMillis();
+      new PatternRuleLoader().getRules(new ByteArrayInputStream(grammarXml), grammarFile);
+      if (disambiguationXml != null) {
+        new DisambiguationRuleLoader().getRules(new ByteArrayInputStream(disambiguationXml));
+      }
+      final long xmlTime = System.currentTimeMillis() - startTime;
+
+      startTime = System.currentTimeMillis();
+      PrecompiledRules.read(new ByteArrayInputStream(grammarBinary.toByteArray()), grammarXml, PatternRule.class);
+      if (disambiguationBinary != null) {
+        PrecompiledRules.read(new ByteArrayInputStream(disambiguationBinary), disambiguationXml, DisambiguationPatternRule.class);
+      }
+      final long binaryTime = System.currentTimeMillis() - startTime;
+      System.out.println("Run " + (i+1) + ": XML: " + xmlTime + "ms, precompiled: " + binaryTime + "ms");
+    }
+  }
+
+  private byte[] read(String filename) throws Exception {
+    try (InputStream is = RuleLoadingPerformanceTest.class.getResourceAsStream(filename)) {
+      return is != null ? PrecompiledRules.readFully(is) : null;
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length != 1) {
+      System.out.println("Usage: " + RuleLoadingPerformanceTest.class.getSimpleName() + " <languageCode>");
+      System.exit(1);
+    }
+    final RuleLoadingPerformanceTest test = new RuleLoadingPerformanceTest();
+    test.run(Language.getLanguageForShortName(args[0]));
+  }
+
+}
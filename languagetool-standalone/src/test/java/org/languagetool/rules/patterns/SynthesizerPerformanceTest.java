@@ -0,0 +1,158 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.rules.Rule;
+import org.languagetool.synthesis.Synthesizer;
+import org.languagetool.tools.StringTools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measure how many suggestions per second the synthesizer of a language can create
+ * with an increasing number of threads, using the {@link Match} elements of the
+ * language's pattern rules on the tokens of a text. Not a unit test, for interactive use only.
+ */
+final class SynthesizerPerformanceTest {
+
+  private static final int RUNS = 3;
+
+  private SynthesizerPerformanceTest() {
+  }
+
+  private void run(Language language, File textFile, int maxThreads) throws Exception {
+    final String text = StringTools.readStream(new FileInputStream(textFile), "utf-8");
+    final JLanguageTool langTool = new JLanguageTool(language);
+    langTool.activateDefaultPatternRules();
+    final Synthesizer synthesizer = language.getSynthesizer();
+    if (synthesizer == null) {
+      System.out.println(language + " has no synthesizer");
+      return;
+    }
+    final List<Match> allMatches = getSynthesizingMatches(langTool);
+    final List<Match> matches = new ArrayList<>();
+    final List<AnalyzedTokenReadings> tokens = new ArrayList<>();
+    for (AnalyzedSentence sentence : langTool.analyzeText(text)) {
+      for (AnalyzedTokenReadings token : sentence.getTokensWithoutWhitespace()) {
+        final Match match = allMatches.get(tokens.size() % allMatches.size());
+        if (!token.isSentenceStart() && hasLemmas(token) && canSynthesize(language, synthesizer, match, token)) {
+          matches.add(match);
+          tokens.add(token);
+        }
+      }
+    }
+    System.out.println(tokens.size() + " tokens, " + allMatches.size() + " matches that use the synthesizer, "
+            + Runtime.getRuntime().availableProcessors() + " processors");
+    for (int i = 0; i < RUNS; i++) {
+      System.out.println("Run " + (i + 1) + ":");
+      for (int threads = 1; threads <= maxThreads; threads *= 2) {
+        runThreads(language, synthesizer, matches, tokens, threads);
+      }
+    }
+  }
+
+  private List<Match> getSynthesizingMatches(JLanguageTool langTool) {
+    final List<Match> matches = new ArrayList<>();
+    for (Rule rule : langTool.getAllRules()) {
+      if (rule instanceof PatternRule && ((PatternRule) rule).getSuggestionMatches() != null) {
+        for (Match match : ((PatternRule) rule).getSuggestionMatches()) {
+          if (match.getPosTag() != null) {
+            matches.add(match);
+          }
+        }
+      }
+    }
+    return matches;
+  }
+
+  // only words with a lemma are synthesized in real rules:
+  private boolean hasLemmas(AnalyzedTokenReadings token) {
+    for (AnalyzedToken reading : token) {
+      if (reading.getLemma() == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // not every match works with every token, real rules make sure they fit together:
+  private boolean canSynthesize(Language language, Synthesizer synthesizer, Match match, AnalyzedTokenReadings token) {
+    try {
+      match.createState(synthesizer, token).toFinalString(language);
+      return true;
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  private void runThreads(final Language language, final Synthesizer synthesizer, final List<Match> matches,
+                          final List<AnalyzedTokenReadings> tokens, int threads) throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final long startTime = System.currentTimeMillis();
+      final List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(new Callable<Integer>() {
+          @Override
+          public Integer call() throws IOException {
+            int suggestions = 0;
+            for (int j = 0; j < tokens.size(); j++) {
+              suggestions += matches.get(j).createState(synthesizer, tokens.get(j)).toFinalString(language).length;
+            }
+            return suggestions;
+          }
+        }));
+      }
+      int suggestions = 0;
+      for (Future<Integer> future : futures) {
+        suggestions += future.get();
+      }
+      final long runTime = System.currentTimeMillis() - startTime;
+      final int calls = threads * tokens.size();
+      System.out.printf("  %2d threads: %6dms, %8.0f calls/s, %d suggestions\n", threads, runTime,
+              calls * 1000.0 / Math.max(1, runTime), suggestions);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2 || args.length > 3) {
+      System.out.println("Usage: " + SynthesizerPerformanceTest.class.getSimpleName() + " <languageCode> <text_file> [maxThreads]");
+      System.exit(1);
+    }
+    final int maxThreads = args.length == 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+    final SynthesizerPerformanceTest test = new SynthesizerPerformanceTest();
+    test.run(Language.getLanguageForShortName(args[0]), new File(args[1]), maxThreads);
+  }
+
+}
@@ -136,7 +136,9 @@ public class SentenceSourceChecker {
   private void run(File propFile, Set<String> disabledRules, String langCode, List<String> fileNames, String[] ruleIds, 
                    String[] additionalCategoryIds, int maxSentences, int maxErrors) throws IOException {
     final Language lang = Language.getLanguageForShortName(langCode);
-    final JLanguageTool languageTool = new MultiThreadedJLanguageTool(lang);
+    final MultiThreadedJLanguageTool languageTool = new MultiThreadedJLanguageTool(lang);
+    // sentences are checked one by one, so re-use the threads:
+    languageTool.setForkJoinPool(MultiThreadedJLanguageTool.getSharedForkJoinPool());
     languageTool.activateDefaultPatternRules();
     if (ruleIds != null) {
       enableOnlySpecifiedRules(ruleIds, languageTool);